@@ -0,0 +1,80 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Abstract implementation of a benchmark that reads a whole document that is created in memory by {@link #createInput()}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public abstract class AbstractReadingBenchmark {
+	private byte[] input;
+	
+	
+	/**
+	 * Returns the ID of the format to be read. Inherited classes will usually return a field annotated with 
+	 * {@code @Param}.
+	 * 
+	 * @return the format ID
+	 */
+	protected abstract String getFormatID();
+	
+	
+	/**
+	 * Creates the document to be read.
+	 * 
+	 * @return the document
+	 * @throws Exception if the input cannot be created
+	 */
+	protected abstract byte[] createInput() throws Exception;
+	
+	
+	@Setup
+	public void setup() throws Exception {
+		input = createInput();
+	}
+	
+	
+	@Benchmark
+	public void readDocument(EventCounters counters) throws Exception {
+		BenchmarkInputs.readDocument(getFormatID(), input, counters);
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.dataadapters.DocumentDataAdapter;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Abstract implementation of a benchmark that writes a document provided by a data adapter created by 
+ * {@link #createDocument()}. The output is discarded, so that only the costs of the writer itself are measured.
+ * 
+ * @author Ben St&ouml;ver
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 10, time = 2)
+@Fork(1)
+public abstract class AbstractWritingBenchmark {
+	private DocumentDataAdapter document;
+	
+	
+	/**
+	 * Returns the ID of the format to be written. Inherited classes will usually return a field annotated with 
+	 * {@code @Param}.
+	 * 
+	 * @return the format ID
+	 */
+	protected abstract String getFormatID();
+	
+	
+	/**
+	 * Creates the document to be written.
+	 * 
+	 * @return the data adapter providing the document
+	 * @throws Exception if the document cannot be created
+	 */
+	protected abstract DocumentDataAdapter createDocument() throws Exception;
+	
+	
+	@Setup
+	public void setup() throws Exception {
+		document = createDocument();
+	}
+	
+	
+	@Benchmark
+	public long writeDocument() throws Exception {
+		BenchmarkInputs.CountingNullOutputStream stream = new BenchmarkInputs.CountingNullOutputStream();
+		BenchmarkInputs.getFactory().getWriter(getFormatID()).writeDocument(document, stream, new ReadWriteParameterMap());
+		return stream.getCount();
+	}
+}
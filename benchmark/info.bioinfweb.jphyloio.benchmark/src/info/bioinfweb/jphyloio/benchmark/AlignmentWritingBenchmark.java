@@ -0,0 +1,56 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.jphyloio.dataadapters.DocumentDataAdapter;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import org.openjdk.jmh.annotations.Param;
+
+
+
+/**
+ * Measures the throughput of writing a nucleotide alignment in all formats with a writer that supports alignments.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class AlignmentWritingBenchmark extends AbstractWritingBenchmark {
+	@Param({JPhyloIOFormatIDs.NEXML_FORMAT_ID, JPhyloIOFormatIDs.NEXUS_FORMAT_ID, JPhyloIOFormatIDs.FASTA_FORMAT_ID, 
+			JPhyloIOFormatIDs.PHYLIP_FORMAT_ID, JPhyloIOFormatIDs.SEQUENTIAL_PHYLIP_FORMAT_ID})
+	public String formatID;
+	
+	@Param({"100"})
+	public int sequenceCount;
+	
+	@Param({"10000"})
+	public int columnCount;
+	
+	
+	@Override
+	protected String getFormatID() {
+		return formatID;
+	}
+	
+	
+	@Override
+	protected DocumentDataAdapter createDocument() throws Exception {
+		return SyntheticDocuments.createAlignmentDocument(sequenceCount, columnCount, BenchmarkInputs.SEED);
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+
+
+/**
+ * Prints the number of bytes allocated per event and per sequence token when reading the documents used by the 
+ * reading benchmarks.
+ * <p>
+ * This provides a quick overview without running the complete <i>JMH</i> suite. More precise values can be obtained
+ * by running the reading benchmarks using the {@code -prof gc} profiler of <i>JMH</i> and dividing the normalized
+ * allocation rate by the auxiliary counters provided by {@link EventCounters}.
+ * <p>
+ * This class relies on {@link com.sun.management.ThreadMXBean}, which is available in <i>HotSpot</i> based VMs.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class AllocationReport implements JPhyloIOFormatIDs {
+	private static final int WARMUP_RUNS = 3;
+	private static final int MEASURED_RUNS = 5;
+	
+	private static final String[] ALIGNMENT_FORMATS = {NEXML_FORMAT_ID, NEXUS_FORMAT_ID, FASTA_FORMAT_ID, PHYLIP_FORMAT_ID, 
+			SEQUENTIAL_PHYLIP_FORMAT_ID, MEGA_FORMAT_ID, PDE_FORMAT_ID};
+	private static final String[] TREE_FORMATS = {NEXML_FORMAT_ID, NEXUS_FORMAT_ID, PHYLOXML_FORMAT_ID, XTG_FORMAT_ID, 
+			NEWICK_FORMAT_ID};
+	private static final String[] METADATA_FORMATS = {NEXML_FORMAT_ID, PHYLOXML_FORMAT_ID};
+	
+	
+	private static com.sun.management.ThreadMXBean getThreadBean() {
+		ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+		if (bean instanceof com.sun.management.ThreadMXBean) {
+			return (com.sun.management.ThreadMXBean)bean;
+		}
+		else {
+			throw new UnsupportedOperationException("This VM does not support measuring the allocated memory per thread.");
+		}
+	}
+	
+	
+	private static void report(String dataset, String formatID, byte[] input) throws Exception {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			BenchmarkInputs.readDocument(formatID, input, new BenchmarkInputs.ReadCounts());
+		}
+		
+		com.sun.management.ThreadMXBean bean = getThreadBean();
+		long threadID = Thread.currentThread().getId();
+		BenchmarkInputs.ReadCounts counts = new BenchmarkInputs.ReadCounts();
+		long start = bean.getThreadAllocatedBytes(threadID);
+		for (int i = 0; i < MEASURED_RUNS; i++) {
+			BenchmarkInputs.readDocument(formatID, input, counts);
+		}
+		long allocated = bean.getThreadAllocatedBytes(threadID) - start;
+		
+		StringBuilder line = new StringBuilder();
+		line.append(String.format("%-10s %-45s %10d bytes/document %10.1f bytes/event", dataset, formatID, 
+				allocated / MEASURED_RUNS, (double)allocated / Math.max(1, counts.events)));
+		if (counts.tokens > 0) {
+			line.append(String.format(" %8.2f bytes/token", (double)allocated / counts.tokens));
+		}
+		System.out.println(line);
+	}
+	
+	
+	public static void main(String[] args) {
+		try {
+			getThreadBean().setThreadAllocatedMemoryEnabled(true);
+			for (String formatID : ALIGNMENT_FORMATS) {
+				report("alignment", formatID, BenchmarkInputs.createAlignmentInput(formatID, 100, 10000));
+			}
+			for (TreeShape shape : TreeShape.values()) {
+				for (String formatID : TREE_FORMATS) {
+					report(shape.name().toLowerCase(), formatID, BenchmarkInputs.createTreeInput(formatID, 1000, shape, 0));
+				}
+			}
+			for (String formatID : METADATA_FORMATS) {
+				report("metadata", formatID, BenchmarkInputs.createTreeInput(formatID, 500, TreeShape.BALANCED, 5));
+			}
+		}
+		catch (Exception e) {
+			e.printStackTrace();
+		}
+	}
+}
@@ -0,0 +1,185 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.dataadapters.DocumentDataAdapter;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.factory.JPhyloIOReaderWriterFactory;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+
+
+/**
+ * Provides the inputs of all benchmarks and tool methods shared between them.
+ * <p>
+ * Documents in formats supported by a <i>JPhyloIO</i> writer are created by writing the documents provided by
+ * {@link SyntheticDocuments} with the according writer. Documents in other formats are created by 
+ * {@link SyntheticTextDocuments}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BenchmarkInputs implements JPhyloIOFormatIDs {
+	/** The seed used for all synthetic documents. */
+	public static final long SEED = 20150601;
+	
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+	
+	
+	/**
+	 * Stores the number of events and sequence tokens that have been read.
+	 */
+	public static class ReadCounts {
+		public long events = 0;
+		public long tokens = 0;
+	}
+	
+	
+	/**
+	 * An output stream that discards all data written to it and only counts the number of bytes.
+	 */
+	public static class CountingNullOutputStream extends OutputStream {
+		private long count = 0;
+		
+		
+		@Override
+		public void write(int b) throws IOException {
+			count++;
+		}
+		
+		
+		@Override
+		public void write(byte[] b, int off, int len) throws IOException {
+			count += len;
+		}
+		
+		
+		public long getCount() {
+			return count;
+		}
+	}
+	
+	
+	private static JPhyloIOReaderWriterFactory factory = new JPhyloIOReaderWriterFactory();
+	
+	
+	/**
+	 * Returns the factory instance shared by all benchmarks.
+	 * 
+	 * @return the factory
+	 */
+	public static JPhyloIOReaderWriterFactory getFactory() {
+		return factory;
+	}
+	
+	
+	/**
+	 * Writes the specified document to a byte array using the writer of the specified format.
+	 * 
+	 * @param formatID the ID of the format to be written
+	 * @param document the document to be written
+	 * @return the written document
+	 * @throws IOException if the writer throws an exception
+	 */
+	public static byte[] writeDocument(String formatID, DocumentDataAdapter document) throws IOException {
+		ByteArrayOutputStream result = new ByteArrayOutputStream();
+		getFactory().getWriter(formatID).writeDocument(document, result, new ReadWriteParameterMap());
+		return result.toByteArray();
+	}
+	
+	
+	/**
+	 * Creates a document containing a nucleotide alignment.
+	 * 
+	 * @param formatID the ID of the format of the document (Must be a format that supports alignments.)
+	 * @param sequenceCount the number of sequences in the alignment
+	 * @param columnCount the number of columns in the alignment
+	 * @return the document
+	 * @throws IOException if the writer used to create the document throws an exception
+	 */
+	public static byte[] createAlignmentInput(String formatID, int sequenceCount, int columnCount) throws IOException {
+		if (MEGA_FORMAT_ID.equals(formatID)) {
+			return SyntheticTextDocuments.createMEGAAlignment(sequenceCount, columnCount, SEED).getBytes(CHARSET);
+		}
+		else if (PDE_FORMAT_ID.equals(formatID)) {
+			return SyntheticTextDocuments.createPDEAlignment(sequenceCount, columnCount, SEED).getBytes(CHARSET);
+		}
+		else {
+			return writeDocument(formatID, SyntheticDocuments.createAlignmentDocument(sequenceCount, columnCount, SEED));
+		}
+	}
+	
+	
+	/**
+	 * Creates a document containing a tree.
+	 * 
+	 * @param formatID the ID of the format of the document (Must be a format that supports trees.)
+	 * @param leafCount the number of leaves of the tree
+	 * @param shape the topology of the tree
+	 * @param annotationsPerElement the number of literal metadata annotations attached to the document and each node 
+	 *        and edge (Not supported for <i>XTG</i>.)
+	 * @return the document
+	 * @throws IOException if the writer used to create the document throws an exception
+	 */
+	public static byte[] createTreeInput(String formatID, int leafCount, TreeShape shape, int annotationsPerElement) throws IOException {
+		if (XTG_FORMAT_ID.equals(formatID)) {
+			return SyntheticTextDocuments.createXTGTree(leafCount, shape, SEED).getBytes(CHARSET);
+		}
+		else {
+			return writeDocument(formatID, SyntheticDocuments.createTreeDocument(leafCount, shape, annotationsPerElement, SEED));
+		}
+	}
+	
+	
+	/**
+	 * Reads all events from the specified document.
+	 * 
+	 * @param formatID the ID of the format of the document
+	 * @param input the document
+	 * @param counts the object to add the number of read events and tokens to
+	 * @throws Exception if the reader throws an exception
+	 */
+	public static void readDocument(String formatID, byte[] input, ReadCounts counts) throws Exception {
+		JPhyloIOEventReader reader = getFactory().getReader(formatID, new ByteArrayInputStream(input), new ReadWriteParameterMap());
+		try {
+			while (reader.hasNextEvent()) {
+				JPhyloIOEvent event = reader.next();
+				counts.events++;
+				if (event.getType().getContentType().equals(EventContentType.SEQUENCE_TOKENS)) {
+					counts.tokens += event.asSequenceTokensEvent().getTokenCount();
+				}
+				else if (event.getType().getContentType().equals(EventContentType.SINGLE_SEQUENCE_TOKEN)) {
+					counts.tokens++;
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,76 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+
+/**
+ * Measures the time needed by {@link info.bioinfweb.jphyloio.factory.JPhyloIOReaderWriterFactory#guessFormat(java.io.InputStream)}
+ * to detect the format of documents of all supported formats.
+ * 
+ * @author Ben St&ouml;ver
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+public class FormatGuessingBenchmark implements JPhyloIOFormatIDs {
+	@Param({NEXML_FORMAT_ID, NEXUS_FORMAT_ID, NEWICK_FORMAT_ID, PHYLOXML_FORMAT_ID, FASTA_FORMAT_ID, PHYLIP_FORMAT_ID, 
+			SEQUENTIAL_PHYLIP_FORMAT_ID, MEGA_FORMAT_ID, XTG_FORMAT_ID, PDE_FORMAT_ID})
+	public String formatID;
+	
+	private byte[] input;
+	
+	
+	@Setup
+	public void setup() throws Exception {
+		if (NEWICK_FORMAT_ID.equals(formatID) || PHYLOXML_FORMAT_ID.equals(formatID) || XTG_FORMAT_ID.equals(formatID)) {
+			input = BenchmarkInputs.createTreeInput(formatID, 100, TreeShape.BALANCED, 0);
+		}
+		else {
+			input = BenchmarkInputs.createAlignmentInput(formatID, 10, 1000);
+		}
+	}
+	
+	
+	@Benchmark
+	public String guessFormat() throws Exception {
+		return BenchmarkInputs.getFactory().guessFormat(new ByteArrayInputStream(input));
+	}
+}
@@ -0,0 +1,279 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import info.bioinfweb.commons.io.W3CXSConstants;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreDocumentDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreMatrixDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreOTUListDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkGroupDataAdapter;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.EdgeEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LabeledIDEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.NodeEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+
+import java.util.List;
+import java.util.Random;
+
+import javax.xml.namespace.QName;
+
+
+
+/**
+ * Creates deterministic synthetic documents that can be written by <i>JPhyloIO</i> writers. All methods create the
+ * same document when called with the same arguments, so that benchmark results of different runs are comparable.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SyntheticDocuments {
+	public static final String OTU_LIST_ID = "otus";
+	public static final String MATRIX_ID = "matrix";
+	public static final String TREE_GROUP_ID = "trees";
+	public static final String TREE_ID = "tree";
+	
+	public static final String METADATA_NAMESPACE = "http://bioinfweb.info/xmlns/JPhyloIO/benchmark/";
+	public static final String METADATA_PREFIX = "bm";
+	
+	/** The maximum number of tokens contained in a single sequence tokens event of a generated alignment. */
+	public static final int TOKENS_PER_EVENT = 1024;
+	
+	private static final String NUCLEOTIDES = "ACGT";
+	private static final double SUBSTITUTION_RATE = 0.1;
+	private static final double GAP_RATE = 0.02;
+	private static final int PREDICATE_COUNT = 8;
+	
+	
+	/**
+	 * Returns the ID of the OTU with the specified index, which is referenced by the sequence or leaf with the same index.
+	 * 
+	 * @param index the index of the OTU
+	 * @return the ID
+	 */
+	public static String getOTUID(int index) {
+		return "otu" + index;
+	}
+	
+	
+	/**
+	 * Returns the label of the OTU with the specified index. Labels are unique within the first 10 characters, so they 
+	 * do not need to be edited by writers of formats with restricted name lengths.
+	 * 
+	 * @param index the index of the OTU
+	 * @return the label
+	 */
+	public static String getOTULabel(int index) {
+		return "t" + index;
+	}
+	
+	
+	/**
+	 * Creates a set of aligned nucleotide sequences. All sequences are derived from a random ancestral sequence by
+	 * random substitutions and gaps.
+	 * 
+	 * @param sequenceCount the number of sequences to be created
+	 * @param columnCount the length of each sequence
+	 * @param seed the seed of the random number generator
+	 * @return an array containing the sequences
+	 */
+	public static String[] createSequences(int sequenceCount, int columnCount, long seed) {
+		Random random = new Random(seed);
+		char[] ancestor = new char[columnCount];
+		for (int column = 0; column < columnCount; column++) {
+			ancestor[column] = NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length()));
+		}
+		
+		String[] result = new String[sequenceCount];
+		char[] sequence = new char[columnCount];
+		for (int i = 0; i < sequenceCount; i++) {
+			for (int column = 0; column < columnCount; column++) {
+				double value = random.nextDouble();
+				if (value < GAP_RATE) {
+					sequence[column] = '-';
+				}
+				else if (value < GAP_RATE + SUBSTITUTION_RATE) {
+					sequence[column] = NUCLEOTIDES.charAt(random.nextInt(NUCLEOTIDES.length()));
+				}
+				else {
+					sequence[column] = ancestor[column];
+				}
+			}
+			result[i] = new String(sequence);
+		}
+		return result;
+	}
+	
+	
+	private static StoreOTUListDataAdapter createOTUList(int count) {
+		StoreOTUListDataAdapter result = new StoreOTUListDataAdapter(new LabeledIDEvent(EventContentType.OTU_LIST, OTU_LIST_ID, null), null);
+		for (int i = 0; i < count; i++) {
+			result.getOtus().setObjectStartEvent(new LabeledIDEvent(EventContentType.OTU, getOTUID(i), getOTULabel(i)));
+		}
+		return result;
+	}
+	
+	
+	private static void addLiteralMetadata(List<JPhyloIOEvent> events, String idPrefix, int count, Random random) {
+		for (int i = 0; i < count; i++) {
+			String value = "value" + random.nextInt(1000);
+			events.add(new LiteralMetadataEvent(idPrefix + "m" + i, null, 
+					new URIOrStringIdentifier(null, new QName(METADATA_NAMESPACE, "property" + (i % PREDICATE_COUNT), METADATA_PREFIX)), 
+					new URIOrStringIdentifier(null, W3CXSConstants.DATA_TYPE_STRING), LiteralContentSequenceType.SIMPLE));
+			events.add(new LiteralMetadataContentEvent(value, value));
+			events.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.LITERAL_META));
+		}
+	}
+	
+	
+	/**
+	 * Creates a document containing an OTU list and a nucleotide alignment.
+	 * 
+	 * @param sequenceCount the number of sequences in the alignment
+	 * @param columnCount the number of columns in the alignment
+	 * @param seed the seed of the random number generator
+	 * @return the new document
+	 * @see #createSequences(int, int, long)
+	 */
+	public static StoreDocumentDataAdapter createAlignmentDocument(int sequenceCount, int columnCount, long seed) {
+		StoreDocumentDataAdapter result = new StoreDocumentDataAdapter();
+		result.getOTUListsMap().put(OTU_LIST_ID, createOTUList(sequenceCount));
+		
+		StoreMatrixDataAdapter matrix = new StoreMatrixDataAdapter(
+				new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, MATRIX_ID, null, OTU_LIST_ID), false, null);
+		String[] sequences = createSequences(sequenceCount, columnCount, seed);
+		for (int i = 0; i < sequences.length; i++) {
+			String id = "seq" + i;
+			matrix.getMatrix().setObjectStartEvent(new LinkedLabeledIDEvent(EventContentType.SEQUENCE, id, null, getOTUID(i)));
+			List<JPhyloIOEvent> content = matrix.getMatrix().getObjectContent(id);
+			for (int start = 0; start < columnCount; start += TOKENS_PER_EVENT) {
+				content.add(new SequenceTokensEvent(sequences[i].substring(start, Math.min(columnCount, start + TOKENS_PER_EVENT))));
+			}
+		}
+		result.getMatrices().add(matrix);
+		
+		return result;
+	}
+	
+	
+	private static String addLeaf(StoreTreeNetworkDataAdapter tree, int index, String parentID, Random random, 
+			int annotationsPerElement) {
+		
+		String id = "leaf" + index;
+		tree.getNodes(null).setObjectStartEvent(new NodeEvent(id, getOTULabel(index), getOTUID(index), false));
+		addLiteralMetadata(tree.getNodes(null).getObjectContent(id), id, annotationsPerElement, random);
+		addEdge(tree, parentID, id, random, annotationsPerElement);
+		return id;
+	}
+	
+	
+	private static String addInternalNode(StoreTreeNetworkDataAdapter tree, int index, String parentID, Random random, 
+			int annotationsPerElement) {
+		
+		String id = "node" + index;
+		tree.getNodes(null).setObjectStartEvent(new NodeEvent(id, null, null, parentID == null));
+		addLiteralMetadata(tree.getNodes(null).getObjectContent(id), id, annotationsPerElement, random);
+		addEdge(tree, parentID, id, random, annotationsPerElement);  // A root edge is created for the root node.
+		return id;
+	}
+	
+	
+	private static void addEdge(StoreTreeNetworkDataAdapter tree, String sourceID, String targetID, Random random, 
+			int annotationsPerElement) {
+		
+		String id = "edge_" + targetID;
+		tree.getEdges(null).setObjectStartEvent(new EdgeEvent(id, null, sourceID, targetID, 0.001 + random.nextInt(1000) / 1000.0));
+		addLiteralMetadata(tree.getEdges(null).getObjectContent(id), id, annotationsPerElement, random);
+	}
+	
+	
+	private static int addBalancedSubtree(StoreTreeNetworkDataAdapter tree, int firstLeaf, int leafCount, int nextNodeIndex, 
+			String parentID, Random random, int annotationsPerElement) {
+		
+		if (leafCount == 1) {
+			addLeaf(tree, firstLeaf, parentID, random, annotationsPerElement);
+		}
+		else {  // Recursion depth only grows logarithmically with the number of leaves.
+			String id = addInternalNode(tree, nextNodeIndex, parentID, random, annotationsPerElement);
+			nextNodeIndex++;
+			int leftLeafCount = leafCount / 2;
+			nextNodeIndex = addBalancedSubtree(tree, firstLeaf, leftLeafCount, nextNodeIndex, id, random, annotationsPerElement);
+			nextNodeIndex = addBalancedSubtree(tree, firstLeaf + leftLeafCount, leafCount - leftLeafCount, nextNodeIndex, id, 
+					random, annotationsPerElement);
+		}
+		return nextNodeIndex;
+	}
+	
+	
+	private static void addCaterpillarTree(StoreTreeNetworkDataAdapter tree, int leafCount, Random random, int annotationsPerElement) {
+		String parentID = null;
+		for (int i = 0; i < leafCount - 1; i++) {
+			parentID = addInternalNode(tree, i, parentID, random, annotationsPerElement);
+			addLeaf(tree, i, parentID, random, annotationsPerElement);
+		}
+		addLeaf(tree, leafCount - 1, parentID, random, annotationsPerElement);
+	}
+	
+	
+	/**
+	 * Creates a document containing an OTU list and a single rooted tree, where each leaf is linked to one OTU.
+	 * <p>
+	 * If {@code annotationsPerElement} is greater than 0, the document, each node and each edge carry the specified 
+	 * number of literal metadata events with predicates from {@link #METADATA_NAMESPACE}.
+	 * 
+	 * @param leafCount the number of leaves of the tree (must be at least 2)
+	 * @param shape the topology of the tree
+	 * @param annotationsPerElement the number of literal metadata annotations attached to each element
+	 * @param seed the seed of the random number generator used for branch lengths and metadata values
+	 * @return the new document
+	 */
+	public static StoreDocumentDataAdapter createTreeDocument(int leafCount, TreeShape shape, int annotationsPerElement, long seed) {
+		if (leafCount < 2) {
+			throw new IllegalArgumentException("A tree must have at least two leaves.");
+		}
+		
+		Random random = new Random(seed);
+		StoreDocumentDataAdapter result = new StoreDocumentDataAdapter();
+		addLiteralMetadata(result.getAnnotations(), "document", annotationsPerElement, random);
+		result.getOTUListsMap().put(OTU_LIST_ID, createOTUList(leafCount));
+		
+		StoreTreeNetworkDataAdapter tree = new StoreTreeNetworkDataAdapter(new LabeledIDEvent(EventContentType.TREE, TREE_ID, null), true);
+		if (shape.equals(TreeShape.CATERPILLAR)) {
+			addCaterpillarTree(tree, leafCount, random, annotationsPerElement);
+		}
+		else {
+			addBalancedSubtree(tree, 0, leafCount, 0, null, random, annotationsPerElement);
+		}
+		
+		StoreTreeNetworkGroupDataAdapter group = new StoreTreeNetworkGroupDataAdapter(
+				new LinkedLabeledIDEvent(EventContentType.TREE_NETWORK_GROUP, TREE_GROUP_ID, null, OTU_LIST_ID), null);
+		group.getTreesAndNetworks().add(tree);
+		result.getTreesNetworks().add(group);
+		
+		return result;
+	}
+}
@@ -0,0 +1,158 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+import java.util.Random;
+
+
+
+/**
+ * Creates deterministic synthetic documents in formats for which <i>JPhyloIO</i> provides no writer. The contents 
+ * correspond to the documents created by {@link SyntheticDocuments}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SyntheticTextDocuments {
+	private static final int LINE_LENGTH = 60;
+	
+	
+	/**
+	 * Creates a <i>MEGA</i> document containing a nucleotide alignment in sequential (non-interleaved) format.
+	 * 
+	 * @param sequenceCount the number of sequences in the alignment
+	 * @param columnCount the number of columns in the alignment
+	 * @param seed the seed of the random number generator
+	 * @return the document as a string
+	 * @see SyntheticDocuments#createSequences(int, int, long)
+	 */
+	public static String createMEGAAlignment(int sequenceCount, int columnCount, long seed) {
+		String[] sequences = SyntheticDocuments.createSequences(sequenceCount, columnCount, seed);
+		StringBuilder result = new StringBuilder(sequenceCount * (columnCount + columnCount / LINE_LENGTH + 16));
+		result.append("#mega\n");
+		result.append("!Title Synthetic alignment;\n");
+		result.append("!Format DataType=DNA indel=- NTaxa=" + sequenceCount + " NSites=" + columnCount + ";\n\n");
+		for (int i = 0; i < sequences.length; i++) {
+			result.append('#');
+			result.append(SyntheticDocuments.getOTULabel(i));
+			result.append('\n');
+			for (int start = 0; start < columnCount; start += LINE_LENGTH) {
+				result.append(sequences[i], start, Math.min(columnCount, start + LINE_LENGTH));
+				result.append('\n');
+			}
+		}
+		return result.toString();
+	}
+	
+	
+	/**
+	 * Creates an uncompressed <i>PDE</i> document containing a nucleotide alignment with sequence names.
+	 * 
+	 * @param sequenceCount the number of sequences in the alignment
+	 * @param columnCount the number of columns in the alignment
+	 * @param seed the seed of the random number generator
+	 * @return the document as a string
+	 * @see SyntheticDocuments#createSequences(int, int, long)
+	 */
+	public static String createPDEAlignment(int sequenceCount, int columnCount, long seed) {
+		String[] sequences = SyntheticDocuments.createSequences(sequenceCount, columnCount, seed);
+		StringBuilder result = new StringBuilder(sequenceCount * (columnCount + 64));
+		result.append("<?xml version=\"1.0\" standalone=\"no\"?>\n");
+		result.append("<phyde id=\"benchmark\" version=\"0.994\"><description></description>\n");
+		result.append("<alignment datatype=\"dna\" width=\"" + columnCount + "\" height=\"" + sequenceCount + 
+				"\" gencode=\"0\" offset=\"-1\">\n");
+		result.append("<header><entries>\n</entries>\n");
+		for (int i = 0; i < sequences.length; i++) {
+			result.append("<seq idx=\"" + i + "\"><e id=\"1\">" + SyntheticDocuments.getOTULabel(i) + "</e>\n</seq>\n");
+		}
+		result.append("</header>\n");
+		result.append("<matrix><block x=\"0\" y=\"0\" width=\"" + columnCount + "\" height=\"" + sequenceCount + "\">\n");
+		for (int i = 0; i < sequences.length; i++) {
+			result.append(sequences[i]);
+			result.append("\n\\FF\n");
+		}
+		result.append("</block>\n</matrix></alignment>\n</phyde>\n");
+		return result.toString();
+	}
+	
+	
+	private static void appendXTGNode(StringBuilder builder, String label, Random random) {
+		builder.append("<Node");
+		if (label != null) {
+			builder.append(" Text=\"");
+			builder.append(label);
+			builder.append('"');
+		}
+		builder.append("><Branch Length=\"");
+		builder.append(0.001 + random.nextInt(1000) / 1000.0);
+		builder.append("\"></Branch>");
+	}
+	
+	
+	private static void appendXTGBalancedSubtree(StringBuilder builder, int firstLeaf, int leafCount, Random random) {
+		if (leafCount == 1) {
+			appendXTGNode(builder, SyntheticDocuments.getOTULabel(firstLeaf), random);
+		}
+		else {  // Recursion depth only grows logarithmically with the number of leaves.
+			appendXTGNode(builder, null, random);
+			int leftLeafCount = leafCount / 2;
+			appendXTGBalancedSubtree(builder, firstLeaf, leftLeafCount, random);
+			appendXTGBalancedSubtree(builder, firstLeaf + leftLeafCount, leafCount - leftLeafCount, random);
+		}
+		builder.append("</Node>\n");
+	}
+	
+	
+	/**
+	 * Creates a <i>TreeGraph 2</i> document containing a single tree with branch lengths and leaf labels.
+	 * 
+	 * @param leafCount the number of leaves of the tree (must be at least 2)
+	 * @param shape the topology of the tree
+	 * @param seed the seed of the random number generator used for branch lengths
+	 * @return the document as a string
+	 */
+	public static String createXTGTree(int leafCount, TreeShape shape, long seed) {
+		if (leafCount < 2) {
+			throw new IllegalArgumentException("A tree must have at least two leaves.");
+		}
+		
+		Random random = new Random(seed);
+		StringBuilder result = new StringBuilder(leafCount * 128);
+		result.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		result.append("<TreegraphDocument xmlns=\"http://bioinfweb.info/xmlns/xtg\">\n");
+		result.append("<Tree>\n");
+		if (shape.equals(TreeShape.CATERPILLAR)) {
+			for (int i = 0; i < leafCount - 1; i++) {
+				appendXTGNode(result, null, random);
+				appendXTGNode(result, SyntheticDocuments.getOTULabel(i), random);
+				result.append("</Node>\n");
+			}
+			appendXTGNode(result, SyntheticDocuments.getOTULabel(leafCount - 1), random);
+			for (int i = 0; i < leafCount; i++) {
+				result.append("</Node>\n");
+			}
+		}
+		else {
+			appendXTGBalancedSubtree(result, 0, leafCount, random);
+		}
+		result.append("</Tree>\n");
+		result.append("</TreegraphDocument>\n");
+		return result.toString();
+	}
+}
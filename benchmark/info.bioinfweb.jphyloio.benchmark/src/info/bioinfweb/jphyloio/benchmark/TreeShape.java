@@ -0,0 +1,40 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.benchmark;
+
+
+
+/**
+ * Enumerates the topologies of synthetic trees used in benchmarks.
+ * 
+ * @author Ben St&ouml;ver
+ * @see SyntheticDocuments
+ */
+public enum TreeShape {
+	/** 
+	 * A fully balanced tree. The depth of such a tree grows logarithmically with its number of leaves. 
+	 */
+	BALANCED,
+	
+	/** 
+	 * A tree where each internal node has one leaf and one internal child (except the deepest internal node, which has 
+	 * two leaves). The depth of such a tree equals its number of leaves minus one.
+	 */
+	CATERPILLAR;
+}
@@ -20,10 +20,8 @@ package info.bioinfweb.jphyloio;
 
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
-import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Queue;
 import java.util.Set;
@@ -33,6 +31,7 @@ import info.bioinfweb.commons.LongIDManager;
 import info.bioinfweb.jphyloio.events.CommentEvent;
 import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.events.type.EventTopologyType;
 import info.bioinfweb.jphyloio.events.type.EventType;
 import info.bioinfweb.jphyloio.push.JPhyloIOEventListener;
@@ -42,6 +41,10 @@ import info.bioinfweb.jphyloio.utils.SequenceTokensEventManager;
 
 /**
  * Basic implementation for event readers in PhyloIO.
+ * <p>
+ * This class already filters the returned events according to {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}.
+ * Inherited classes may additionally use {@link #isContentTypeIncluded(EventContentType)} to avoid creating excluded
+ * events at all.
  * 
  * @author Ben St&ouml;ver
  */
@@ -51,6 +54,7 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	private JPhyloIOEvent next = null;
 	private JPhyloIOEvent previous = null;
 	private JPhyloIOEvent lastNonComment = null;
+	private JPhyloIOEvent lastProcessed = null;  // Last event (including excluded ones) that was considered in parentEventInformation
 	private ParentEventInformation parentEventInformation = new ParentEventInformation();
 	private P streamDataProvider;  // Must not be set to anything here.
 	private Queue<JPhyloIOEvent> upcomingEvents = new LinkedList<JPhyloIOEvent>();
@@ -60,12 +64,18 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	private ReadWriteParameterMap parameters;
 	private LongIDManager idManager = new LongIDManager();
 	private SequenceTokensEventManager sequenceTokensEventManager;
-	private List<JPhyloIOEventListener> eventListeners = new ArrayList<JPhyloIOEventListener>();
+	private JPhyloIOEventListener[] eventListeners = new JPhyloIOEventListener[0];  // Copy on write array to allow listeners to remove themselves while events are fired
+	private Set<EventContentType> includedContentTypes;
+	private Exception pendingException = null;  // Exception that occurred while reading the last batch
+	private int excludedDepth = 0;  // Number of open start events of the excluded subsequence that is currently skipped
 
 	
 	public AbstractEventReader(ReadWriteParameterMap parameters, String matchToken) {
 		super();
 		this.parameters = parameters;
+		if (parameters != null) {
+			includedContentTypes = parameters.getIncludedContentTypes();
+		}
 		
 		sequenceTokensEventManager = new SequenceTokensEventManager(this, matchToken);
 		streamDataProvider = createStreamDataProvider();
@@ -76,6 +86,9 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	/**
 	 * The returned object provides information on the start events fired by this reader until now. It allows
 	 * applications to determine information on the nesting of the current event.
+	 * <p>
+	 * Note that start events that were not returned due to {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}
+	 * are also contained, since they still determine the nesting of the returned events.
 	 * 
 	 * @return the parent information object
 	 */
@@ -188,8 +201,53 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	}
 	
 	
+	/**
+	 * Determines whether events with the specified content type shall be returned by this reader according to 
+	 * {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}. Inherited classes may use this method to skip
+	 * parts of the underlying document that would only result in excluded events.
+	 * <p>
+	 * Note that events nested in the subsequence of an excluded start event will also not be returned, even if
+	 * their content type is included.
+	 * 
+	 * @param contentType the content type to be tested
+	 * @return {@code true} if events of the specified type may be returned, {@code false} otherwise 
+	 */
+	protected boolean isContentTypeIncluded(EventContentType contentType) {
+		return (includedContentTypes == null) || EventContentType.DOCUMENT.equals(contentType) || 
+				includedContentTypes.contains(contentType);
+	}
+	
+	
+	private boolean isEventIncluded(JPhyloIOEvent event) {
+		if (includedContentTypes == null) {
+			return true;
+		}
+		else {
+			EventTopologyType topologyType = event.getType().getTopologyType();
+			if (excludedDepth > 0) {  // Inside an excluded subsequence
+				if (EventTopologyType.START.equals(topologyType)) {
+					excludedDepth++;
+				}
+				else if (EventTopologyType.END.equals(topologyType)) {
+					excludedDepth--;
+				}
+				return false;
+			}
+			else if (isContentTypeIncluded(event.getType().getContentType())) {
+				return true;
+			}
+			else {
+				if (EventTopologyType.START.equals(topologyType)) {
+					excludedDepth = 1;
+				}
+				return false;
+			}
+		}
+	}
+	
+	
 	protected void fireEvent(JPhyloIOEvent event) throws IOException {
-		for (JPhyloIOEventListener eventListener : eventListeners.toArray(new JPhyloIOEventListener[eventListeners.size()])) {  // List must be copied to avoid ConcurrentModificationException in case listeners that are part of the list remove themselves from it
+		for (JPhyloIOEventListener eventListener : eventListeners) {
 			eventListener.processEvent(this, event);
 		}
 	}
@@ -229,21 +287,109 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	}
 
 	
+	/**
+	 * Updates the parent information for an event that becomes the current event of the underlying event sequence.
+	 * 
+	 * @param event the new current event (may be {@code null})
+	 */
+	private void processEvent(JPhyloIOEvent event) {
+		if ((lastProcessed != null) && lastProcessed.getType().getTopologyType().equals(EventTopologyType.START)) {
+			parentEventInformation.add(lastProcessed);
+		}
+		if ((event != null) && event.getType().getTopologyType().equals(EventTopologyType.END)) {
+			parentEventInformation.pop();
+		}
+		lastProcessed = event;
+	}
+	
+	
+	/**
+	 * Returns the next event from the queue that shall be returned according to 
+	 * {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}.
+	 * <p>
+	 * Events that are excluded are processed as if they were returned before {@link #readNextEvent()} is called again,
+	 * since inherited classes rely on {@link #getPreviousEvent()}, {@link #getLastNonCommentEvent()} and 
+	 * {@link #getParentInformation()} to determine the state of the underlying document. The previous events are 
+	 * restored afterwards, so that they refer to the events actually returned by this reader.
+	 * 
+	 * @return the next event to be returned or {@code null} if the end of the document was reached
+	 * @throws IOException if reading from the underlying document fails
+	 */
 	private JPhyloIOEvent getNextEventFromQueue() throws IOException {
-		if (getUpcomingEvents().isEmpty()) {
-			readNextEvent();
+		JPhyloIOEvent returnedPrevious = previous;
+		JPhyloIOEvent returnedLastNonComment = lastNonComment;
+		try {
+			JPhyloIOEvent result;
+			do {
+				if (getUpcomingEvents().isEmpty()) {
+					readNextEvent();
+				}
+				result = getUpcomingEvents().poll();  // May still return null, if no further event could be added by readNextEvent().
+				if ((result != null) && !isEventIncluded(result)) {
+					processEvent(result);
+					previous = result;
+					if (!(result instanceof CommentEvent)) {
+						lastNonComment = result;
+					}
+				}
+				else {
+					return result;
+				}
+			} while (true);
+		}
+		finally {
+			previous = returnedPrevious;
+			lastNonComment = returnedLastNonComment;
+		}
+	}
+	
+	
+	/**
+	 * Throws the exception that occurred while reading the previous batch in {@link #nextBatch(JPhyloIOEvent[], int, int)},
+	 * if there is one.
+	 */
+	private void throwPendingException() throws IOException {
+		if (pendingException != null) {
+			Exception exception = pendingException;
+			pendingException = null;
+			if (exception instanceof IOException) {
+				throw (IOException)exception;
+			}
+			else {
+				throw (RuntimeException)exception;
+			}
 		}
-		return getUpcomingEvents().poll();  // May still return null, if no further event could be added by readNextEvent().
 	}
 	
 	
 	@Override
 	public boolean hasNextEvent() throws IOException {
+		throwPendingException();
 		ensureFirstEvent();
 		return !dataSourceClosed && (next != null);
 	}
 
 	
+	/**
+	 * Moves the cursor to the next event. {@link #hasNextEvent()} must have been checked before calling this method.
+	 * 
+	 * @return the event that was moved to
+	 * @throws IOException if reading the following event fails
+	 */
+	private JPhyloIOEvent moveToNextEvent() throws IOException {
+		processEvent(next);
+		previous = next;  // previous needs to be set before readNextEvent() is called, because it could be accessed in there.
+		if (!(previous instanceof CommentEvent)) {  // Also works for possible future subelements of CommentEvent
+			lastNonComment = previous;
+		}
+		next = getNextEventFromQueue();
+		if (eventListeners.length > 0) {
+			fireEvent(previous);
+		}
+		return previous;
+	}
+	
+	
 	@Override
 	public JPhyloIOEvent next() throws IOException {
 		// ensureFirstEvent() is called in hasNextEvent()
@@ -251,22 +397,67 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 			throw new NoSuchElementException("The end of the document was already reached.");
 		}
 		else {
-			if ((previous != null) && previous.getType().getTopologyType().equals(EventTopologyType.START)) {
-				parentEventInformation.add(previous);
+			return moveToNextEvent();
+		}
+	}
+	
+	
+	@Override
+	public int nextBatch(JPhyloIOEvent[] target, int offset, int length) throws IOException {
+		if ((offset < 0) || (length < 0) || (offset + length > target.length)) {
+			throw new IndexOutOfBoundsException("The range from " + offset + " with the length " + length + 
+					" is not valid for an array with the length " + target.length + ".");
+		}
+		else {
+			throwPendingException();
+			ensureFirstEvent();
+			int count = 0;
+			try {
+				while ((count < length) && !dataSourceClosed && (next != null)) {
+					target[offset + count] = moveToNextEvent();
+					count++;
+				}
 			}
-			if ((next != null) && next.getType().getTopologyType().equals(EventTopologyType.END)) {
-				parentEventInformation.pop();
+			catch (IOException e) {
+				handleBatchException(e, count);
 			}
-			
-			previous = next;  // previous needs to be set before readNextEvent() is called, because it could be accessed in there.
-			if (!(previous instanceof CommentEvent)) {  // Also works for possible future subelements of CommentEvent
-				lastNonComment = previous;
+			catch (RuntimeException e) {
+				handleBatchException(e, count);
 			}
-			next = getNextEventFromQueue();
-			fireEvent(previous);
-			return previous;
+			return count;
 		}
 	}
+	
+	
+	/**
+	 * Rethrows the specified exception, if no event was read in the current batch. Otherwise the exception is stored
+	 * and thrown by the next call of {@link #nextBatch(JPhyloIOEvent[], int, int)} or {@link #hasNextEvent()}, so that
+	 * the events read before are returned as they would be by subsequent calls of {@link #next()}. 
+	 */
+	private void handleBatchException(IOException exception, int count) throws IOException {
+		if (count == 0) {
+			throw exception;
+		}
+		else {
+			pendingException = exception;
+		}
+	}
+	
+	
+	private void handleBatchException(RuntimeException exception, int count) {
+		if (count == 0) {
+			throw exception;
+		}
+		else {
+			pendingException = exception;
+		}
+	}
+	
+	
+	@Override
+	public int nextBatch(JPhyloIOEvent[] target) throws IOException {
+		return nextBatch(target, 0, target.length);
+	}
 
 
 	@Override
@@ -306,13 +497,24 @@ public abstract class AbstractEventReader<P extends ReaderStreamDataProvider<? e
 	
 	@Override
 	public void addEventListener(JPhyloIOEventListener listener) {
-		eventListeners.add(listener);		
+		JPhyloIOEventListener[] newListeners = new JPhyloIOEventListener[eventListeners.length + 1];
+		System.arraycopy(eventListeners, 0, newListeners, 0, eventListeners.length);
+		newListeners[eventListeners.length] = listener;
+		eventListeners = newListeners;
 	}
 
 
 	@Override
 	public void removeEventListener(JPhyloIOEventListener listener) {
-		eventListeners.remove(listener);		
+		for (int i = 0; i < eventListeners.length; i++) {
+			if ((listener == null) ? (eventListeners[i] == null) : listener.equals(eventListeners[i])) {
+				JPhyloIOEventListener[] newListeners = new JPhyloIOEventListener[eventListeners.length - 1];
+				System.arraycopy(eventListeners, 0, newListeners, 0, i);
+				System.arraycopy(eventListeners, i + 1, newListeners, i, newListeners.length - i);
+				eventListeners = newListeners;
+				break;
+			}
+		}
 	}
 
 
@@ -143,6 +143,34 @@ public interface JPhyloIOEventReader extends JPhyloIOFormatSpecificObject {
 	 */
 	public JPhyloIOEvent next() throws IOException;
 	
+	/**
+	 * Reads up to {@code length} events and stores them in the specified array. The result is equivalent to calling 
+	 * {@link #next()} for each event (including the notification of registered listeners), but implementations may 
+	 * be more efficient for consumers reading large numbers of events.
+	 * <p>
+	 * If an exception occurs after some events of the batch were already read, these events are returned and the 
+	 * exception is thrown by the following call of this method or {@link #hasNextEvent()}.
+	 * 
+	 * @param target the array to store the events in
+	 * @param offset the index in {@code target} where the first event shall be stored
+	 * @param length the maximum number of events to be read
+	 * @return the number of events that were stored in {@code target} (Values lower than {@code length} are only returned,
+	 *         if the end of the document has been reached or an exception occurred.)
+	 * @throws IndexOutOfBoundsException if {@code offset} or {@code length} are invalid for {@code target}
+	 * @throws IOException Implementing classes might throw additional exceptions
+	 */
+	public int nextBatch(JPhyloIOEvent[] target, int offset, int length) throws IOException;
+	
+	/**
+	 * Reads up to {@code target.length} events and stores them in the specified array. 
+	 * 
+	 * @param target the array to store the events in
+	 * @return the number of events that were stored in {@code target}
+	 * @throws IOException Implementing classes might throw additional exceptions
+	 * @see #nextBatch(JPhyloIOEvent[], int, int)
+	 */
+	public int nextBatch(JPhyloIOEvent[] target) throws IOException;
+	
 	/**
 	 * Reads elements from the underlying stream until one of the specified is found or the end of the document is reached.
 	 * All elements of other types are consumed and ignored.
@@ -0,0 +1,295 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+
+
+/**
+ * Decorator for any {@link JPhyloIOEventReader} that reads the events of the decorated reader in a background thread.
+ * <p>
+ * Parsing the underlying document and processing the returned events by the application can run in parallel this 
+ * way. The events are passed from the producer thread to the thread using this reader in batches through a bounded 
+ * lock-free ring buffer. If the buffer is full, the producer thread waits until the application consumed further 
+ * events. Exceptions thrown by the decorated reader are rethrown by {@link #next()} or {@link #hasNextEvent()} after 
+ * all events read before the exception occurred have been returned.
+ * <p>
+ * Parent information, peeking and event listeners are provided by this instance. Listeners added to this reader are
+ * informed in the thread using this reader. The decorated reader must not be accessed directly while it is used by 
+ * an instance of this class. It is closed when this reader is closed.
+ * <p>
+ * The producer thread is created using the {@link ThreadFactory} specified in the constructor. Applications running 
+ * on <i>Java</i> 21 or later may e.g. specify {@code Thread.ofVirtual().factory()} to use a virtual thread.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class ReadAheadEventReader extends AbstractEventReader<ReaderStreamDataProvider<ReadAheadEventReader>> {
+	/** The default maximum number of events that are passed to the consumer at once. */
+	public static final int DEFAULT_BATCH_SIZE = 256;
+	
+	/** The default number of batches that can be stored in the ring buffer. */
+	public static final int DEFAULT_BUFFER_CAPACITY = 16;
+	
+	private static final List<JPhyloIOEvent> END_OF_EVENTS = new ArrayList<JPhyloIOEvent>(0);
+	private static final int SPIN_COUNT = 128;
+	private static final long PARK_NANOS = 50000;
+	
+	
+	/**
+	 * Single producer single consumer ring buffer.
+	 */
+	private static class RingBuffer {
+		private Object[] slots;
+		private int mask;
+		private AtomicLong head = new AtomicLong(0);  // Next position to be read.
+		private AtomicLong tail = new AtomicLong(0);  // Next position to be written.
+		
+		
+		public RingBuffer(int capacity) {
+			super();
+			slots = new Object[Integer.highestOneBit(capacity - 1) << 1];
+			mask = slots.length - 1;
+		}
+		
+		
+		public boolean offer(List<JPhyloIOEvent> batch) {
+			long position = tail.get();
+			if (position - head.get() >= slots.length) {
+				return false;
+			}
+			else {
+				slots[(int)position & mask] = batch;
+				tail.lazySet(position + 1);
+				return true;
+			}
+		}
+		
+		
+		@SuppressWarnings("unchecked")
+		public List<JPhyloIOEvent> poll() {
+			long position = head.get();
+			if (position == tail.get()) {
+				return null;
+			}
+			else {
+				int index = (int)position & mask;
+				List<JPhyloIOEvent> result = (List<JPhyloIOEvent>)slots[index];
+				slots[index] = null;
+				head.lazySet(position + 1);
+				return result;
+			}
+		}
+	}
+	
+	
+	private JPhyloIOEventReader reader;
+	private int batchSize;
+	private RingBuffer buffer;
+	private Thread producerThread;
+	private volatile boolean closed = false;
+	private volatile Throwable producerException = null;
+	private boolean endReached = false;
+	
+	
+	/**
+	 * Creates a new instance of this class and starts reading events from the specified reader.
+	 * 
+	 * @param reader the reader to be decorated
+	 * @param batchSize the maximum number of events that are passed to the consumer at once
+	 * @param bufferCapacity the number of batches that can be read ahead (Will be rounded up to the next power of two.)
+	 * @param threadFactory the factory to create the producer thread
+	 * @throws IllegalArgumentException if {@code batchSize} or {@code bufferCapacity} is below 1
+	 */
+	public ReadAheadEventReader(JPhyloIOEventReader reader, int batchSize, int bufferCapacity, ThreadFactory threadFactory) {
+		super(new ReadWriteParameterMap(), null);
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("The batch size must be at least 1.");
+		}
+		else if (bufferCapacity < 1) {
+			throw new IllegalArgumentException("The buffer capacity must be at least 1.");
+		}
+		else {
+			this.reader = reader;
+			this.batchSize = batchSize;
+			buffer = new RingBuffer(Math.max(2, bufferCapacity));
+			producerThread = threadFactory.newThread(new Runnable() {
+						@Override
+						public void run() {
+							produce();
+						}
+					});
+			producerThread.start();
+		}
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class using the default batch size and buffer capacity and a daemon thread as the
+	 * producer.
+	 * 
+	 * @param reader the reader to be decorated
+	 */
+	public ReadAheadEventReader(JPhyloIOEventReader reader) {
+		this(reader, DEFAULT_BATCH_SIZE, DEFAULT_BUFFER_CAPACITY, new ThreadFactory() {
+					@Override
+					public Thread newThread(Runnable runnable) {
+						Thread result = new Thread(runnable, "JPhyloIO read-ahead");
+						result.setDaemon(true);
+						return result;
+					}
+				});
+	}
+	
+	
+	/**
+	 * Returns the reader decorated by this instance.
+	 * 
+	 * @return the decorated reader
+	 */
+	public JPhyloIOEventReader getDecoratedReader() {
+		return reader;
+	}
+	
+	
+	@Override
+	public String getFormatID() {
+		return reader.getFormatID();
+	}
+	
+	
+	private static int idle(int attempts) {
+		if (attempts < SPIN_COUNT) {
+			Thread.yield();
+		}
+		else {
+			LockSupport.parkNanos(PARK_NANOS);
+		}
+		return attempts + 1;
+	}
+	
+	
+	private boolean publish(List<JPhyloIOEvent> batch) {
+		int attempts = 0;
+		while (!buffer.offer(batch)) {
+			if (closed) {
+				return false;
+			}
+			attempts = idle(attempts);
+		}
+		return true;
+	}
+	
+	
+	private void produce() {
+		try {
+			JPhyloIOEvent[] events = new JPhyloIOEvent[batchSize];
+			int count = reader.nextBatch(events);
+			while (!closed && (count > 0)) {
+				if (!publish(Arrays.asList(Arrays.copyOf(events, count)))) {
+					return;
+				}
+				count = reader.nextBatch(events);
+			}
+		}
+		catch (Throwable e) {
+			producerException = e;
+		}
+		publish(END_OF_EVENTS);
+	}
+	
+	
+	private void throwProducerException() throws IOException {
+		Throwable exception = producerException;
+		if (exception instanceof IOException) {
+			throw (IOException)exception;
+		}
+		else if (exception instanceof RuntimeException) {
+			throw (RuntimeException)exception;
+		}
+		else if (exception instanceof Error) {
+			throw (Error)exception;
+		}
+		else if (exception != null) {
+			throw new JPhyloIOReaderException("Reading from the decorated reader failed.", exception);
+		}
+	}
+	
+	
+	@Override
+	protected void readNextEvent() throws IOException {
+		if (!endReached) {
+			List<JPhyloIOEvent> batch = buffer.poll();
+			int attempts = 0;
+			while (batch == null) {
+				if (Thread.interrupted()) {
+					Thread.currentThread().interrupt();
+					throw new InterruptedIOException("Waiting for events from the decorated reader was interrupted.");
+				}
+				attempts = idle(attempts);
+				batch = buffer.poll();
+			}
+			
+			if (batch == END_OF_EVENTS) {
+				endReached = true;
+				throwProducerException();
+			}
+			else {
+				getCurrentEventCollection().addAll(batch);
+			}
+		}
+	}
+
+
+	/**
+	 * Stops the producer thread and closes the decorated reader. This method waits until the producer thread finished
+	 * reading its current event.
+	 * 
+	 * @throws IOException if closing the decorated reader fails
+	 */
+	@Override
+	public void close() throws IOException {
+		super.close();
+		if (!closed) {
+			closed = true;
+			LockSupport.unpark(producerThread);
+			try {
+				producerThread.join();
+			}
+			catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Waiting for the producer thread to stop was interrupted.");
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
+}
@@ -22,14 +22,19 @@ package info.bioinfweb.jphyloio;
 import info.bioinfweb.commons.bio.SequenceUtils;
 import info.bioinfweb.commons.collections.ParameterMap;
 import info.bioinfweb.commons.log.ApplicationLogger;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.formatinfo.JPhyloIOFormatInfo;
 import info.bioinfweb.jphyloio.formats.nexml.TokenDefinitionLabelHandling;
 import info.bioinfweb.jphyloio.formats.nexml.TokenTranslationStrategy;
 import info.bioinfweb.jphyloio.formats.phyloxml.PhyloXMLMetadataTreatment;
+import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
 import info.bioinfweb.jphyloio.objecttranslation.ObjectTranslatorFactory;
 import info.bioinfweb.jphyloio.utils.LabelEditingReporter;
 
 import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
 
 
 
@@ -67,6 +72,18 @@ public class ReadWriteParameterMap extends ParameterMap implements ReadWritePara
 	}
 	
 	
+	/**
+	 * Returns the set of content types stored under {@link #KEY_INCLUDED_CONTENT_TYPES}.
+	 * 
+	 * @return the set of event content types to be returned by readers or {@code null} if events of all content types
+	 *         shall be returned
+	 */
+	@SuppressWarnings("unchecked")
+	public Set<EventContentType> getIncludedContentTypes() {
+		return getObject(KEY_INCLUDED_CONTENT_TYPES, null, Set.class);
+	}
+	
+	
 	public String getMatchToken() {
 		if (getBoolean(KEY_REPLACE_MATCH_TOKENS, true)) {
 			return getString(KEY_MATCH_TOKEN, Character.toString(SequenceUtils.MATCH_CHAR));
@@ -115,6 +132,22 @@ public class ReadWriteParameterMap extends ParameterMap implements ReadWritePara
 	public Map<String, String> getPhyloXMLEventIDTranslationMap() {
 		return getObject(ReadWriteParameterMap.KEY_PHYLOXML_EVENT_ID_TRANSLATION_MAP, null, Map.class);
 	}
+	
+	
+	/**
+	 * Returns the <i>StAX</i> input factory stored under {@link #KEY_XML_INPUT_FACTORY}. If no such factory is present in
+	 * this instance, the shared default factory is returned.
+	 * 
+	 * @return the factory to be used by <i>XML</i> readers
+	 * @see XMLReadWriteUtils#getDefaultXMLInputFactory()
+	 */
+	public XMLInputFactory getXMLInputFactory() {
+		XMLInputFactory result = getObject(KEY_XML_INPUT_FACTORY, null, XMLInputFactory.class);
+		if (result == null) {
+			result = XMLReadWriteUtils.getDefaultXMLInputFactory();
+		}
+		return result;
+	}
 
 
 	/**
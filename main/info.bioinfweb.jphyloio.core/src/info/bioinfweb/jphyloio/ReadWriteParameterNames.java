@@ -19,11 +19,13 @@
 package info.bioinfweb.jphyloio;
 
 
+import info.bioinfweb.commons.bio.CharacterStateSetType;
 import info.bioinfweb.commons.log.ApplicationLogger;
 import info.bioinfweb.jphyloio.dataadapters.MatrixDataAdapter;
 import info.bioinfweb.jphyloio.events.CommentEvent;
 import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
 import info.bioinfweb.jphyloio.events.SingleTokenDefinitionEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.formatinfo.JPhyloIOFormatInfo;
 import info.bioinfweb.jphyloio.formats.newick.NewickEventReader;
 import info.bioinfweb.jphyloio.formats.nexml.NeXMLEventReader;
@@ -32,13 +34,19 @@ import info.bioinfweb.jphyloio.formats.nexml.TokenDefinitionLabelHandling;
 import info.bioinfweb.jphyloio.formats.nexml.TokenTranslationStrategy;
 import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
 import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandler;
+import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandlerMap;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.NexusCommandReaderFactory;
 import info.bioinfweb.jphyloio.formats.phyloxml.PhyloXMLEventReader;
 import info.bioinfweb.jphyloio.formats.phyloxml.PhyloXMLEventWriter;
 import info.bioinfweb.jphyloio.formats.phyloxml.PhyloXMLMetadataTreatment;
+import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
 import info.bioinfweb.jphyloio.objecttranslation.ObjectTranslatorFactory;
 import info.bioinfweb.jphyloio.utils.LabelEditingReporter;
 
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+
 
 
 /**
@@ -102,6 +110,25 @@ public interface ReadWriteParameterNames {
 	 */
 	public static final String KEY_MAXIMUM_COMMENT_LENGTH = KEY_PREFIX + "maxCommentLength";
 	
+	/**
+	 * Parameter used with instances of {@link JPhyloIOEventReader} that specifies the content types of the events an 
+	 * application is interested in. Events with other content types are not returned by a reader. If such an event 
+	 * is a start event, all events nested in it (until its end event) are omitted as well, even if their content types 
+	 * are included. Applications must therefore always include the types of all parents of the events they want to 
+	 * receive (e.g. {@link EventContentType#ALIGNMENT} and {@link EventContentType#SEQUENCE} to receive 
+	 * {@link EventContentType#SEQUENCE_TOKENS}). {@link EventContentType#DOCUMENT} is always included.
+	 * <p>
+	 * Readers may use the specified set to avoid creating excluded events at all and to skip the according parts of 
+	 * the underlying document (e.g. whole metadata elements in <i>XML</i> formats or hot comments in <i>Newick</i>
+	 * strings), which can considerably speed up reading, if only a part of the contents of a document is needed.  
+	 * <p>
+	 * The value should have the type {@link Set} with elements of type {@link EventContentType}. If no value is 
+	 * specified, events of all content types are returned.
+	 * 
+	 * @see ReadWriteParameterMap#getIncludedContentTypes()
+	 */
+	public static final String KEY_INCLUDED_CONTENT_TYPES = KEY_PREFIX + "includedContentTypes";
+	
 	/** 
 	 * Parameter used with instances of {@link JPhyloIOEventReader} that specifies whether possibly encountered match
 	 * tokens shall be replaced by the according tokens from the first sequence. Some readers may ignore this parameter
@@ -173,6 +200,9 @@ public interface ReadWriteParameterNames {
 	 * <p>
 	 * It must have the type {@link NexusBlockHandler}. If it is omitted a block handler for all blocks supported in
 	 * <i>JPhyloIO</i> will be used.
+	 * <p>
+	 * The specified map may also restrict the blocks to be processed by the reader. All other blocks will than be skipped
+	 * without parsing their contents. (See {@link NexusBlockHandlerMap#setProcessedBlocks(java.util.Collection)} for details.)
 	 */
 	public static final String KEY_NEXUS_BLOCK_HANDLER_MAP = KEY_PREFIX + "nexusBlockHandlerMap";
 	
@@ -233,6 +263,24 @@ public interface ReadWriteParameterNames {
 	 */
 	public static final String KEY_NEXML_TOKEN_DEFINITION_LABEL_METADATA = KEY_PREFIX + "neXMLstandardDataLabelMetadata";
 	
+	/**
+	 * This parameter will only be used by {@link NeXMLEventWriter} and allows to declare that the token set definitions
+	 * provided by the matrix data adapters completely describe the tokens contained in the sequences.
+	 * <p>
+	 * By default, the contents of all sequences are requested once before writing to check whether the tokens fit the
+	 * {@link CharacterStateSetType} of the token sets, which token definitions need to be added and whether {@code cell}
+	 * elements need to be written. If {@code true} is specified, this check is omitted for all matrices that assign a token 
+	 * set to each of their columns, so that the contents of each sequence are only requested once from the adapter. This is
+	 * useful for adapters that read their data from disk or a database. Applications using this parameter must ensure that 
+	 * all tokens are defined in the according token sets and that the sequence contents contain no token labels, metadata 
+	 * or comments. A {@link info.bioinfweb.jphyloio.exception.JPhyloIOWriterException} is thrown, if such events are 
+	 * encountered while writing a sequence that has not been checked.
+	 * <p>
+	 * The value should have the type {@link Boolean}. If {@code false} or no value is specified, all sequences will be 
+	 * checked.
+	 */
+	public static final String KEY_NEXML_DECLARED_TOKEN_SETS = KEY_PREFIX + "neXMLDeclaredTokenSets";
+	
 	/**
 	 * This parameter will be used by some {@link JPhyloIOEventReader}s to determine whether the label of an associated OTU
 	 * should be used as a label, if none was present in an element.
@@ -320,6 +368,18 @@ public interface ReadWriteParameterNames {
 	 */
 	public static final String KEY_ALLOW_DEFAULT_NAMESPACE = KEY_PREFIX + "allowDefaultNamespace";
 	
+	/**
+	 * This parameter can be used to specify the factory that shall be used by readers of <i>XML</i> formats to create
+	 * their underlying <i>StAX</i> readers. This allows applications to configure the factory (e.g. to enable coalescing 
+	 * or use a specific <i>StAX</i> implementation).
+	 * <p>
+	 * The value should have the type {@link XMLInputFactory}. If no value is specified, a shared default instance 
+	 * (see {@link XMLReadWriteUtils#getDefaultXMLInputFactory()}) is used instead of creating a new factory for each 
+	 * reader. Since the specified factory may be used by several readers, it should not be reconfigured after readers
+	 * were created.
+	 */
+	public static final String KEY_XML_INPUT_FACTORY = KEY_PREFIX + "xmlInputFactory";
+	
 	/**
 	 * This parameter can be used to specify a custom maximum lengths for element names. An example would be the length
 	 * of sequence names in <i>Phylip</i>, which may be customized using this parameter.
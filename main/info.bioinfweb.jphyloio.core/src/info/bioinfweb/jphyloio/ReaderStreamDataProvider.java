@@ -21,6 +21,7 @@ package info.bioinfweb.jphyloio;
 
 import info.bioinfweb.commons.LongIDManager;
 import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.formats.newick.NewickStringReader;
 import info.bioinfweb.jphyloio.utils.SequenceTokensEventManager;
 
@@ -112,6 +113,18 @@ public class ReaderStreamDataProvider<R extends AbstractEventReader<? extends Re
 	}
 	
 	
+	/**
+	 * Determines whether events with the specified content type shall be returned by the associated reader.
+	 * 
+	 * @param contentType the content type to be tested
+	 * @return {@code true} if events of the specified type may be returned, {@code false} otherwise
+	 * @see AbstractEventReader#isContentTypeIncluded(EventContentType)
+	 */
+	public boolean isContentTypeIncluded(EventContentType contentType) {
+		return getEventReader().isContentTypeIncluded(contentType);
+	}
+	
+	
 	/**
 	 * Returns the sequence tokens event manager of the associated reader.
 	 * 
@@ -0,0 +1,81 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.receivers;
+
+
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Event receiver that stores all events passed to it in a list. 
+ * <p>
+ * Writers can use instances of this class to request the contents of an object from a data adapter only once, if 
+ * these contents need to be processed by more than one receiver. The stored events can be passed to other receivers
+ * in their original order using {@link #writeEvents(JPhyloIOEventReceiver)}. The same instance can be used for 
+ * different objects, if {@link #clear()} is called in between.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class EventCollectionReceiver implements JPhyloIOEventReceiver {
+	private List<JPhyloIOEvent> events = new ArrayList<JPhyloIOEvent>();
+	
+	
+	/**
+	 * Returns the list of events that have been passed to this receiver since the last call of {@link #clear()}.
+	 * 
+	 * @return the list of stored events
+	 */
+	public List<JPhyloIOEvent> getEvents() {
+		return events;
+	}
+	
+	
+	/**
+	 * Removes all stored events from this receiver.
+	 */
+	public void clear() {
+		events.clear();
+	}
+	
+	
+	@Override
+	public boolean add(JPhyloIOEvent event) throws IOException {
+		events.add(event);
+		return true;
+	}
+	
+	
+	/**
+	 * Passes all events stored in this receiver to the specified receiver in the order they were added to this instance.
+	 * 
+	 * @param receiver the receiver to pass the events to
+	 * @throws IOException if the specified receiver throws such an exception
+	 */
+	public void writeEvents(JPhyloIOEventReceiver receiver) throws IOException {
+		for (int i = 0; i < events.size(); i++) {
+			receiver.add(events.get(i));
+		}
+	}
+}
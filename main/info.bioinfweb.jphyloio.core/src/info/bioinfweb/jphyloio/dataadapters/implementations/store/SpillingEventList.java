@@ -0,0 +1,352 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.store;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+
+
+
+/**
+ * Event list that stores its contents in the temporary file of a {@link SpillingEventStore}, as soon as the heap budget of
+ * the store is exceeded.
+ * <p>
+ * The events of each written part (chunk) are stored consecutively in the file. Only the offsets and the end indices of the
+ * chunks are kept in memory. Iterators decode the events of a chunk sequentially, while random access by {@link #get(int)}
+ * decodes and caches a whole chunk.
+ * 
+ * @author Ben St&ouml;ver
+ */
+class SpillingEventList extends AbstractList<JPhyloIOEvent> {
+	private static final int INITIAL_CHUNK_CAPACITY = 4;
+	private static final int READ_BUFFER_SIZE = 16 * 1024;
+
+
+	private class SpillingListIterator implements ListIterator<JPhyloIOEvent> {
+		private int index;
+		private int expectedModCount = modCount;
+		private DataInputStream input = null;
+		private int inputChunkEnd = -1;
+		private BinaryEventCodec iteratorCodec = new BinaryEventCodec(true);
+
+
+		public SpillingListIterator(int index) {
+			super();
+			this.index = index;
+		}
+
+
+		private void checkModification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+
+
+		private void openChunk() throws IOException {
+			int chunk = findChunk(index);
+			int chunkStart = (chunk == 0) ? 0 : chunkEnds[chunk - 1];
+			input = new DataInputStream(new BufferedInputStream(store.createInputStream(chunkOffsets[chunk]), READ_BUFFER_SIZE));
+			inputChunkEnd = chunkEnds[chunk];
+			for (int i = chunkStart; i < index; i++) {  // Skip events before the requested index.
+				iteratorCodec.readEvent(input);
+			}
+		}
+
+
+		@Override
+		public boolean hasNext() {
+			return index < size();
+		}
+
+
+		@Override
+		public JPhyloIOEvent next() {
+			checkModification();
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			else {
+				JPhyloIOEvent result;
+				if (index >= spilledCount) {
+					input = null;
+					result = buffer.get(index - spilledCount);
+				}
+				else {
+					try {
+						if ((input == null) || (index >= inputChunkEnd)) {
+							openChunk();
+						}
+						result = iteratorCodec.readEvent(input);
+					}
+					catch (IOException e) {
+						throw new SpillingStoreException("Events could not be read from the temporary file.", e);
+					}
+				}
+				index++;
+				return result;
+			}
+		}
+
+
+		@Override
+		public boolean hasPrevious() {
+			return index > 0;
+		}
+
+
+		@Override
+		public JPhyloIOEvent previous() {
+			checkModification();
+			if (!hasPrevious()) {
+				throw new NoSuchElementException();
+			}
+			else {
+				input = null;  // Decoding can only be done in forward direction.
+				index--;
+				return get(index);
+			}
+		}
+
+
+		@Override
+		public int nextIndex() {
+			return index;
+		}
+
+
+		@Override
+		public int previousIndex() {
+			return index - 1;
+		}
+
+
+		@Override
+		public void remove() {
+			throw new UnsupportedOperationException("Events cannot be removed from this list.");
+		}
+
+
+		@Override
+		public void set(JPhyloIOEvent event) {
+			throw new UnsupportedOperationException("Events cannot be replaced using an iterator of this list.");
+		}
+
+
+		@Override
+		public void add(JPhyloIOEvent event) {
+			throw new UnsupportedOperationException("Events can only be added to the end of this list.");
+		}
+	}
+
+
+	private SpillingEventStore store;
+	private List<JPhyloIOEvent> buffer = new ArrayList<JPhyloIOEvent>();
+	private long bufferedSize = 0;
+	private long[] chunkOffsets = new long[INITIAL_CHUNK_CAPACITY];
+	private int[] chunkEnds = new int[INITIAL_CHUNK_CAPACITY];
+	private int chunkCount = 0;
+	private int spilledCount = 0;
+	private int cachedChunk = -1;
+	private List<JPhyloIOEvent> cachedChunkEvents = null;
+
+
+	public SpillingEventList(SpillingEventStore store) {
+		super();
+		this.store = store;
+	}
+
+
+	List<JPhyloIOEvent> getBuffer() {
+		return buffer;
+	}
+
+
+	/**
+	 * Called by the store after the current buffer was written to its file.
+	 * 
+	 * @param offset the offset in the temporary file where the events of the buffer start
+	 */
+	void bufferWritten(long offset) {
+		if (chunkCount == chunkOffsets.length) {
+			chunkOffsets = Arrays.copyOf(chunkOffsets, 2 * chunkCount);
+			chunkEnds = Arrays.copyOf(chunkEnds, 2 * chunkCount);
+		}
+		spilledCount += buffer.size();
+		chunkOffsets[chunkCount] = offset;
+		chunkEnds[chunkCount] = spilledCount;
+		chunkCount++;
+
+		buffer = new ArrayList<JPhyloIOEvent>();
+		bufferedSize = 0;
+	}
+
+
+	private int findChunk(int index) {
+		int result = Arrays.binarySearch(chunkEnds, 0, chunkCount, index);
+		if (result >= 0) {
+			return result + 1;  // chunkEnds contains the first index after each chunk.
+		}
+		else {
+			return -result - 1;
+		}
+	}
+
+
+	private List<JPhyloIOEvent> readChunk(int chunk) throws IOException {
+		int chunkStart = (chunk == 0) ? 0 : chunkEnds[chunk - 1];
+		List<JPhyloIOEvent> result = new ArrayList<JPhyloIOEvent>(chunkEnds[chunk] - chunkStart);
+		DataInputStream input = new DataInputStream(new BufferedInputStream(store.createInputStream(chunkOffsets[chunk]), READ_BUFFER_SIZE));
+		BinaryEventCodec codec = new BinaryEventCodec(true);
+		for (int i = chunkStart; i < chunkEnds[chunk]; i++) {
+			result.add(codec.readEvent(input));
+		}
+		return result;
+	}
+
+
+	@Override
+	public int size() {
+		return spilledCount + buffer.size();
+	}
+
+
+	@Override
+	public JPhyloIOEvent get(int index) {
+		if ((index < 0) || (index >= size())) {
+			throw new IndexOutOfBoundsException("The index " + index + " is outside the list with the size " + size() + ".");
+		}
+		else if (index >= spilledCount) {
+			return buffer.get(index - spilledCount);
+		}
+		else {
+			int chunk = findChunk(index);
+			if (chunk != cachedChunk) {
+				try {
+					cachedChunkEvents = readChunk(chunk);
+				}
+				catch (IOException e) {
+					throw new SpillingStoreException("Events could not be read from the temporary file.", e);
+				}
+				cachedChunk = chunk;
+			}
+			return cachedChunkEvents.get(index - ((chunk == 0) ? 0 : chunkEnds[chunk - 1]));
+		}
+	}
+
+
+	@Override
+	public boolean add(JPhyloIOEvent event) {
+		if (event == null) {
+			throw new NullPointerException("This list cannot contain null.");
+		}
+		else {
+			long size = SpillingEventStore.estimateSize(event);
+			buffer.add(event);
+			bufferedSize += size;
+			modCount++;
+			store.eventsBuffered(this, size);  // May write the buffer to the file.
+			return true;
+		}
+	}
+
+
+	@Override
+	public void add(int index, JPhyloIOEvent event) {
+		if (index == size()) {
+			add(event);
+		}
+		else {
+			throw new UnsupportedOperationException("Events can only be added to the end of this list.");
+		}
+	}
+
+
+	/**
+	 * Replaces an event that was not yet written to the temporary file.
+	 * 
+	 * @throws UnsupportedOperationException if the event at the specified index was already written to the file
+	 */
+	@Override
+	public JPhyloIOEvent set(int index, JPhyloIOEvent event) {
+		if ((index >= spilledCount) && (index < size())) {
+			return buffer.set(index - spilledCount, event);  // The estimated buffer size is not adjusted, since it is only an estimate anyway.
+		}
+		else if (index < 0 || index >= size()) {
+			throw new IndexOutOfBoundsException("The index " + index + " is outside the list with the size " + size() + ".");
+		}
+		else {
+			throw new UnsupportedOperationException("Events that were already written to the temporary file cannot be replaced.");
+		}
+	}
+
+
+	/**
+	 * Removes all events from this list. The space occupied in the temporary file is not released before the store is closed.
+	 */
+	@Override
+	public void clear() {
+		store.bufferCleared(this, bufferedSize);
+		buffer = new ArrayList<JPhyloIOEvent>();
+		bufferedSize = 0;
+		chunkOffsets = new long[INITIAL_CHUNK_CAPACITY];
+		chunkEnds = new int[INITIAL_CHUNK_CAPACITY];
+		chunkCount = 0;
+		spilledCount = 0;
+		cachedChunk = -1;
+		cachedChunkEvents = null;
+		modCount++;
+	}
+
+
+	@Override
+	public Iterator<JPhyloIOEvent> iterator() {
+		return new SpillingListIterator(0);
+	}
+
+
+	@Override
+	public ListIterator<JPhyloIOEvent> listIterator() {
+		return new SpillingListIterator(0);
+	}
+
+
+	@Override
+	public ListIterator<JPhyloIOEvent> listIterator(int index) {
+		if ((index < 0) || (index > size())) {
+			throw new IndexOutOfBoundsException("The index " + index + " is outside the list with the size " + size() + ".");
+		}
+		else {
+			return new SpillingListIterator(index);
+		}
+	}
+}
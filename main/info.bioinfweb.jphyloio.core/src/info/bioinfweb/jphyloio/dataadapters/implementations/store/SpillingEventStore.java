@@ -0,0 +1,351 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.store;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+
+
+/**
+ * Manages a temporary file that the contents of store adapters are written to, if they exceed a heap budget.
+ * <p>
+ * Event lists created by {@link #createEventList()} can be used as object contents of the store adapters (e.g. using
+ * {@link StoreObjectListDataAdapter#StoreObjectListDataAdapter(SpillingEventStore)} or
+ * {@link StoreMatrixDataAdapter#StoreMatrixDataAdapter(info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent, boolean, List, SpillingEventStore)}).
+ * New events are added to a buffer on the heap first. As soon as the estimated size of the buffered events of all lists
+ * of a store exceeds its heap budget, all buffers are encoded using {@link BinaryEventCodec} and appended to the
+ * temporary file. The lists then only keep the file offsets of their written parts in memory and decode the events
+ * again while they are iterated. This way documents that are larger than the available heap can be converted from one
+ * format to another, since writers request the contents using
+ * {@link StoreObjectListDataAdapter#writeContentData(info.bioinfweb.jphyloio.ReadWriteParameterMap, info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver, String)}
+ * or {@link StoreMatrixDataAdapter#writeSequencePartContentData(info.bioinfweb.jphyloio.ReadWriteParameterMap, info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver, String, long, long)},
+ * which iterate the lists sequentially.
+ * <p>
+ * The lists only support appending events. Events that were already written to the file cannot be replaced or removed.
+ * Errors that occur while accessing the file are thrown as {@link SpillingStoreException}s by the lists. Object values
+ * of {@link LiteralMetadataContentEvent}s must be supported by {@link BinaryEventCodec}. (Since the temporary file is only
+ * read by the same store, values implementing {@link java.io.Serializable} are supported as well.)
+ * <p>
+ * The temporary file is deleted when {@link #close()} is called. The event lists of this store cannot be used anymore
+ * afterwards.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SpillingEventStore implements Closeable {
+	/** The heap budget used by {@link #SpillingEventStore()}. (64 MB) */
+	public static final long DEFAULT_HEAP_BUDGET = 64L * 1024L * 1024L;
+
+	private static final String TEMP_FILE_PREFIX = "JPhyloIOStore";
+	private static final String TEMP_FILE_SUFFIX = ".events";
+	private static final int EVENT_SIZE = 64;  // Estimated size of an event instance without variable length contents.
+	private static final int TOKEN_SIZE = 48;  // Estimated size of a token string and its reference in a list.
+	private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+
+	private class ChannelOutputStream extends OutputStream {
+		@Override
+		public void write(int b) throws IOException {
+			write(new byte[]{(byte)b}, 0, 1);
+		}
+
+
+		@Override
+		public void write(byte[] bytes, int offset, int length) throws IOException {
+			ByteBuffer buffer = ByteBuffer.wrap(bytes, offset, length);
+			while (buffer.hasRemaining()) {
+				fileLength += channel.write(buffer, fileLength);
+			}
+		}
+	}
+
+
+	private class ChannelInputStream extends InputStream {
+		private long position;
+
+
+		public ChannelInputStream(long position) {
+			super();
+			this.position = position;
+		}
+
+
+		@Override
+		public int read() throws IOException {
+			byte[] bytes = new byte[1];
+			if (read(bytes, 0, 1) == -1) {
+				return -1;
+			}
+			else {
+				return bytes[0] & 0xFF;
+			}
+		}
+
+
+		@Override
+		public int read(byte[] bytes, int offset, int length) throws IOException {
+			FileChannel channel = SpillingEventStore.this.channel;
+			if (channel == null) {
+				throw new IOException("The store was already closed.");
+			}
+			int result = channel.read(ByteBuffer.wrap(bytes, offset, length), position);
+			if (result > 0) {
+				position += result;
+			}
+			return result;
+		}
+	}
+
+
+	private long heapBudget;
+	private File file;
+	private RandomAccessFile randomAccessFile;
+	private FileChannel channel;
+	private long fileLength = 0;
+	private BinaryEventCodec codec = new BinaryEventCodec(true);  // The temporary file is only read by this application.
+	private Set<SpillingEventList> bufferedLists = Collections.newSetFromMap(new IdentityHashMap<SpillingEventList, Boolean>());  // List implementations are compared by their contents.
+	private long bufferedSize = 0;
+
+
+	/**
+	 * Creates a new instance of this class with the specified heap budget and a temporary file in the specified directory.
+	 * 
+	 * @param heapBudget the estimated number of bytes buffered event lists of this store may occupy on the heap before they
+	 *        are written to the temporary file
+	 * @param directory the directory to create the temporary file in or {@code null} if the default temporary directory
+	 *        shall be used
+	 * @throws IllegalArgumentException if {@code heapBudget} is negative
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public SpillingEventStore(long heapBudget, File directory) throws IOException {
+		super();
+		if (heapBudget < 0) {
+			throw new IllegalArgumentException("The heap budget must not be negative.");
+		}
+		else {
+			this.heapBudget = heapBudget;
+			file = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, directory);
+			file.deleteOnExit();
+			randomAccessFile = new RandomAccessFile(file, "rw");
+			channel = randomAccessFile.getChannel();
+		}
+	}
+
+
+	/**
+	 * Creates a new instance of this class with the specified heap budget and a temporary file in the default temporary
+	 * directory.
+	 * 
+	 * @param heapBudget the estimated number of bytes buffered event lists of this store may occupy on the heap before they
+	 *        are written to the temporary file
+	 * @throws IllegalArgumentException if {@code heapBudget} is negative
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public SpillingEventStore(long heapBudget) throws IOException {
+		this(heapBudget, null);
+	}
+
+
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_HEAP_BUDGET} and a temporary file in the default
+	 * temporary directory.
+	 * 
+	 * @throws IOException if the temporary file cannot be created
+	 */
+	public SpillingEventStore() throws IOException {
+		this(DEFAULT_HEAP_BUDGET);
+	}
+
+
+	/**
+	 * Creates a new empty event list that writes its contents to the temporary file of this store if the heap budget is
+	 * exceeded.
+	 * 
+	 * @return the new list
+	 */
+	public List<JPhyloIOEvent> createEventList() {
+		return new SpillingEventList(this);
+	}
+
+
+	/**
+	 * Returns the estimated number of bytes that events of the lists of this store may occupy on the heap.
+	 * 
+	 * @return the heap budget of this store
+	 */
+	public long getHeapBudget() {
+		return heapBudget;
+	}
+
+
+	/**
+	 * Returns the estimated number of bytes that events currently buffered by the lists of this store occupy on the heap.
+	 * 
+	 * @return the estimated size of all buffered events
+	 */
+	public synchronized long getBufferedSize() {
+		return bufferedSize;
+	}
+
+
+	/**
+	 * Returns the number of bytes written to the temporary file of this store.
+	 * 
+	 * @return the length of the temporary file
+	 */
+	public synchronized long getFileLength() {
+		return fileLength;
+	}
+
+
+	static long estimateSize(JPhyloIOEvent event) {
+		long result = EVENT_SIZE;
+		switch (event.getType().getContentType()) {
+			case SEQUENCE_TOKENS:
+				SequenceTokensEvent tokensEvent = event.asSequenceTokensEvent();
+				if (tokensEvent.hasSingleCharacterTokens()) {
+					result += 2L * tokensEvent.getTokenCount();
+				}
+				else {
+					result += (long)TOKEN_SIZE * tokensEvent.getTokenCount();
+				}
+				break;
+			case COMMENT:
+				result += 2L * event.asCommentEvent().getContent().length();
+				break;
+			case LITERAL_META_CONTENT:
+				LiteralMetadataContentEvent contentEvent = event.asLiteralMetadataContentEvent();
+				if (contentEvent.hasStringValue()) {
+					result += 2L * contentEvent.getStringValue().length();
+				}
+				if (contentEvent.hasObjectValue()) {
+					result += EVENT_SIZE;
+				}
+				break;
+			case UNKNOWN_COMMAND:
+				if (event.asUnknownCommandEvent().getValue() != null) {
+					result += 2L * event.asUnknownCommandEvent().getValue().length();
+				}
+				break;
+			default:
+				break;
+		}
+		return result;
+	}
+
+
+	synchronized void eventsBuffered(SpillingEventList list, long size) {
+		bufferedLists.add(list);
+		bufferedSize += size;
+		if (bufferedSize > heapBudget) {
+			try {
+				spill();
+			}
+			catch (IOException e) {
+				throw new SpillingStoreException("Buffered events could not be written to the temporary file.", e);
+			}
+		}
+	}
+
+
+	synchronized void bufferCleared(SpillingEventList list, long size) {
+		bufferedLists.remove(list);
+		bufferedSize -= size;
+	}
+
+
+	/**
+	 * Writes the buffered events of all lists of this store to the temporary file.
+	 * <p>
+	 * This method is called automatically if the heap budget is exceeded, but may also be called directly by
+	 * applications, e.g. to free memory for other purposes.
+	 * 
+	 * @throws IOException if an I/O error occurs while writing to the temporary file
+	 */
+	public synchronized void spill() throws IOException {
+		if (channel == null) {
+			throw new IOException("This store was already closed.");
+		}
+		else {
+			DataOutputStream output = new DataOutputStream(new BufferedOutputStream(new ChannelOutputStream(), WRITE_BUFFER_SIZE));
+			for (SpillingEventList list : new ArrayList<SpillingEventList>(bufferedLists)) {
+				if (!list.getBuffer().isEmpty()) {
+					long offset = fileLength;
+					for (JPhyloIOEvent event : list.getBuffer()) {
+						codec.writeEvent(output, event);
+					}
+					output.flush();
+					list.bufferWritten(offset);
+				}
+			}
+			bufferedLists.clear();
+			bufferedSize = 0;
+		}
+	}
+
+
+	InputStream createInputStream(long offset) throws IOException {
+		if (channel == null) {
+			throw new IOException("This store was already closed.");
+		}
+		else {
+			return new ChannelInputStream(offset);
+		}
+	}
+
+
+	/**
+	 * Closes and deletes the temporary file of this store. The event lists of this store cannot be used anymore afterwards.
+	 * 
+	 * @throws IOException if an I/O error occurs while closing the file
+	 */
+	@Override
+	public synchronized void close() throws IOException {
+		if (channel != null) {
+			try {
+				randomAccessFile.close();
+			}
+			finally {
+				channel = null;
+				bufferedLists.clear();
+				bufferedSize = 0;
+				file.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,47 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.store;
+
+
+import java.io.IOException;
+import java.util.List;
+
+
+
+/**
+ * Unchecked exception thrown by event lists created by {@link SpillingEventStore}, if writing events to or reading events
+ * from the temporary file fails. Such lists implement {@link List} and can therefore not throw an {@link IOException}
+ * directly. The original exception is available as the cause.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SpillingStoreException extends RuntimeException {
+	private static final long serialVersionUID = 1L;
+	
+	
+	public SpillingStoreException(String message, IOException cause) {
+		super(message, cause);
+	}
+
+
+	@Override
+	public synchronized IOException getCause() {
+		return (IOException)super.getCause();
+	}
+}
@@ -81,6 +81,21 @@ public class StoreDocumentDataAdapter extends StoreAnnotatedDataAdapter<Concrete
 	}
 	
 	
+	/**
+	 * Creates a new instance of this class that writes its annotations to the temporary file of the specified store, if its 
+	 * heap budget is exceeded. Empty array lists are used for all other properties.
+	 * <p>
+	 * Note that the contents of matrices and trees added to this document are only written to the store, if these adapters 
+	 * were created with a store as well (e.g. using 
+	 * {@link StoreMatrixDataAdapter#StoreMatrixDataAdapter(info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent, boolean, List, SpillingEventStore)}).
+	 * 
+	 * @param spillingStore the store to create the annotation list with
+	 */
+	public StoreDocumentDataAdapter(SpillingEventStore spillingStore) {
+		this(spillingStore.createEventList(), null, null, null);
+	}
+	
+	
 	public OrderedMap<String, OTUListDataAdapter> getOTUListsMap() {
 		return otuListsMap;
 	}
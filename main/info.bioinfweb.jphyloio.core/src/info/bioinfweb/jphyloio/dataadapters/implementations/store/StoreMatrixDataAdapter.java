@@ -25,31 +25,80 @@ import info.bioinfweb.jphyloio.dataadapters.MatrixDataAdapter;
 import info.bioinfweb.jphyloio.events.CharacterDefinitionEvent;
 import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
 import info.bioinfweb.jphyloio.events.TokenSetDefinitionEvent;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.events.type.EventTopologyType;
-import info.bioinfweb.jphyloio.events.type.EventType;
 
 import java.io.IOException;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
 
 
 
+/**
+ * Matrix data adapter that stores all its data in lists of events.
+ * <p>
+ * The lengths of the stored sequences are cached. If events are appended to the content list of a sequence (see 
+ * {@link StoreObjectListDataAdapter#getObjectContent(String)}), the cached length is updated incrementally by only 
+ * processing the new events. If the events of a sequence are modified in any other way (e.g. if an event is replaced 
+ * or a sequence token event is inserted in the middle of a sequence), {@link #clearSequenceLengthCache()} needs to be 
+ * called afterwards.
+ * 
+ * @author Ben St&ouml;ver
+ */
 public class StoreMatrixDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabeledIDEvent> implements MatrixDataAdapter {
+	private static class SequenceLengthInfo {
+		public List<JPhyloIOEvent> content;
+		public int processedEventCount = 0;
+		public long length = 0;
+		
+		public SequenceLengthInfo(List<JPhyloIOEvent> content) {
+			super();
+			this.content = content;
+		}
+	}
+	
+	
 	private LinkedLabeledIDEvent startEvent;
-	private StoreObjectListDataAdapter<LinkedLabeledIDEvent> matrix = new StoreObjectListDataAdapter<LinkedLabeledIDEvent>();
+	private StoreObjectListDataAdapter<LinkedLabeledIDEvent> matrix;
 	private StoreObjectListDataAdapter<CharacterDefinitionEvent> characterDefinitions = new StoreObjectListDataAdapter<CharacterDefinitionEvent>();
 	private StoreObjectListDataAdapter<LinkedLabeledIDEvent> sequenceSets = new StoreObjectListDataAdapter<LinkedLabeledIDEvent>();
 	private StoreObjectListDataAdapter<TokenSetDefinitionEvent> tokenSets = new StoreObjectListDataAdapter<TokenSetDefinitionEvent>();
 	private StoreObjectListDataAdapter<LinkedLabeledIDEvent> characterSets = new StoreObjectListDataAdapter<LinkedLabeledIDEvent>();
 	private boolean longTokens;
+	private Map<String, SequenceLengthInfo> sequenceLengths = new HashMap<String, SequenceLengthInfo>();
 	
 	
 	public StoreMatrixDataAdapter(LinkedLabeledIDEvent alignmentStartEvent, boolean longTokens, List<JPhyloIOEvent> annotations) {
+		this(alignmentStartEvent, longTokens, annotations, null);
+	}
+
+
+	/**
+	 * Creates a new instance of this class that writes the contents of its sequences to the temporary file of the specified
+	 * store, if its heap budget is exceeded. 
+	 * <p>
+	 * Character definitions, token and character sets are always kept on the heap, since their size usually does not 
+	 * depend on the number of sequences or columns. To store the annotations in the file as well, a list created by 
+	 * {@link SpillingEventStore#createEventList()} can be specified as {@code annotations}.
+	 * 
+	 * @param alignmentStartEvent the start event of the alignment
+	 * @param longTokens {@code true} if the alignment may contain tokens longer than one character or {@code false} otherwise
+	 * @param annotations the list of annotation events (Maybe {@code null}.)
+	 * @param spillingStore the store to create the sequence content lists with or {@code null} if all contents shall be
+	 *        kept on the heap
+	 */
+	public StoreMatrixDataAdapter(LinkedLabeledIDEvent alignmentStartEvent, boolean longTokens, List<JPhyloIOEvent> annotations,
+			SpillingEventStore spillingStore) {
+		
 		super(annotations);
 		this.startEvent = alignmentStartEvent;
 		this.longTokens = longTokens;
+		matrix = new StoreObjectListDataAdapter<LinkedLabeledIDEvent>(spillingStore);
 	}
 
 
@@ -67,14 +116,14 @@ public class StoreMatrixDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabe
 	
 
 	@Override
-	public long getColumnCount(ReadWriteParameterMap parameters) { //TODO do not go through all sequences in case they are very long
+	public long getColumnCount(ReadWriteParameterMap parameters) {
 		long previousLength = 0;
 		long currentLength = 0;
 		
 		Iterator<String> sequences = getSequenceIDIterator(parameters);
 		while (sequences.hasNext()) {
 			previousLength = currentLength;
-			currentLength = getSequenceLength(parameters, sequences.next());
+			currentLength = calculateSequenceLength(sequences.next());  // Only processes events added since the last call.
 			if ((previousLength != 0) && (previousLength != currentLength)) {
 				return -1;
 			}
@@ -113,9 +162,49 @@ public class StoreMatrixDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabe
 	}
 	
 
+	/**
+	 * Removes all cached sequence lengths. This method needs to be called if events of a sequence were modified in another
+	 * way than appending new events to the end of its content list.
+	 */
+	public void clearSequenceLengthCache() {
+		sequenceLengths.clear();
+	}
+	
+	
+	private static boolean isTokenStart(JPhyloIOEvent event) {
+		return event.getType().getContentType().equals(EventContentType.SINGLE_SEQUENCE_TOKEN) && 
+				event.getType().getTopologyType().equals(EventTopologyType.START);
+	}
+	
+	
+	private long calculateSequenceLength(String sequenceID) {
+		List<JPhyloIOEvent> content = matrix.getObjectContent(sequenceID);
+		SequenceLengthInfo info = sequenceLengths.get(sequenceID);
+		if ((info == null) || (info.content != content) || (info.processedEventCount > content.size())) {
+			info = new SequenceLengthInfo(content);
+			sequenceLengths.put(sequenceID, info);
+		}
+		
+		if (info.processedEventCount < content.size()) {
+			ListIterator<JPhyloIOEvent> iterator = content.listIterator(info.processedEventCount);  // Allows lists of SpillingEventStore to decode the new events sequentially.
+			while (iterator.hasNext()) {
+				JPhyloIOEvent event = iterator.next();
+				if (isTokenStart(event)) {
+					info.length++;
+				}
+				else if (event.getType().getContentType().equals(EventContentType.SEQUENCE_TOKENS)) {
+					info.length += event.asSequenceTokensEvent().getTokenCount();
+				}
+			}
+			info.processedEventCount = content.size();
+		}
+		return info.length;
+	}
+	
+
 	@Override
 	public LinkedLabeledIDEvent getSequenceStartEvent(ReadWriteParameterMap parameters, String sequenceID) throws IllegalArgumentException {
-		if (matrix.getObjectMap().keyList().contains(sequenceID)) {
+		if (matrix.getObjectMap().containsKey(sequenceID)) {
 			return matrix.getObjectStartEvent(parameters, sequenceID);
 		}
 		else {
@@ -126,17 +215,8 @@ public class StoreMatrixDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabe
 
 	@Override
 	public long getSequenceLength(ReadWriteParameterMap parameters, String sequenceID) throws IllegalArgumentException {
-		if (matrix.getObjectMap().keyList().contains(sequenceID)) {
-			int sequenceLength = 0;
-			for (JPhyloIOEvent event : matrix.getObjectContent(sequenceID)) {
-				if (event.getType().equals(new EventType(EventContentType.SINGLE_SEQUENCE_TOKEN, EventTopologyType.START))) {
-					sequenceLength++;
-				}
-				else if (event.getType().getContentType().equals(EventContentType.SEQUENCE_TOKENS)) {
-					sequenceLength += event.asSequenceTokensEvent().getTokens().size();
-				}
-			}
-			return sequenceLength;
+		if (matrix.getObjectMap().containsKey(sequenceID)) {
+			return calculateSequenceLength(sequenceID);
 		}
 		else {
 			throw new IllegalArgumentException("The alignment does not contain a sequence with the ID \"" + sequenceID +"\".");
@@ -144,12 +224,79 @@ public class StoreMatrixDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabe
 	}
 	
 
+	private static SequenceTokensEvent createTokensEventPart(SequenceTokensEvent event, int start, int end) {
+		if (event.hasSingleCharacterTokens()) {
+			return new SequenceTokensEvent(event.getCharacterTokens().substring(start, end));
+		}
+		else {
+			return new SequenceTokensEvent(event.getTokens().subList(start, end));
+		}
+	}
+	
+	
+	/**
+	 * Writes the events of the specified sequence that belong to the specified column range. Sequence tokens events 
+	 * overlapping the range are split accordingly. Metadata and comments are written, if they are located at a position 
+	 * within the range. (Events located after the last token of the sequence are written, if {@code endColumn} is not 
+	 * lower than the sequence length.) 
+	 * 
+	 * @see info.bioinfweb.jphyloio.dataadapters.MatrixDataAdapter#writeSequencePartContentData(info.bioinfweb.jphyloio.ReadWriteParameterMap, info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver, java.lang.String, long, long)
+	 */
 	@Override
 	public void writeSequencePartContentData(ReadWriteParameterMap parameters, JPhyloIOEventReceiver receiver, String sequenceID, 
 			long startColumn, long endColumn) throws IOException, IllegalArgumentException {
-		if (matrix.getObjectMap().keyList().contains(sequenceID)) {
-			for (JPhyloIOEvent event : matrix.getObjectContent(sequenceID)) {
-				receiver.add(event);
+		
+		if (matrix.getObjectMap().containsKey(sequenceID)) {
+			List<JPhyloIOEvent> content = matrix.getObjectContent(sequenceID);
+			long sequenceLength = calculateSequenceLength(sequenceID);
+			if ((startColumn <= 0) && (endColumn >= sequenceLength)) {
+				for (JPhyloIOEvent event : content) {
+					receiver.add(event);
+				}
+			}
+			else {
+				long position = 0;
+				int depth = 0;
+				boolean writeGroup = false;
+				for (JPhyloIOEvent event : content) {
+					if (depth > 0) {  // Nested event of a token or a metadata group.
+						if (writeGroup) {
+							receiver.add(event);
+						}
+						if (event.getType().getTopologyType().equals(EventTopologyType.START)) {
+							depth++;
+						}
+						else if (event.getType().getTopologyType().equals(EventTopologyType.END)) {
+							depth--;
+							if ((depth == 0) && event.getType().getContentType().equals(EventContentType.SINGLE_SEQUENCE_TOKEN)) {
+								position++;
+							}
+						}
+					}
+					else if (event.getType().getContentType().equals(EventContentType.SEQUENCE_TOKENS)) {
+						SequenceTokensEvent tokensEvent = event.asSequenceTokensEvent();
+						long eventEnd = position + tokensEvent.getTokenCount();
+						if ((position >= startColumn) && (eventEnd <= endColumn)) {
+							receiver.add(tokensEvent);
+						}
+						else if ((eventEnd > startColumn) && (position < endColumn)) {
+							receiver.add(createTokensEventPart(tokensEvent, (int)(Math.max(startColumn, position) - position), 
+									(int)(Math.min(endColumn, eventEnd) - position)));
+						}
+						position = eventEnd;
+					}
+					else {
+						boolean inRange = (position >= startColumn) && 
+								((position < endColumn) || ((position == sequenceLength) && (endColumn >= sequenceLength)));
+						if (inRange) {
+							receiver.add(event);
+						}
+						if (event.getType().getTopologyType().equals(EventTopologyType.START)) {
+							writeGroup = inRange;
+							depth = 1;
+						}
+					}
+				}
 			}
 		}
 		else {
@@ -41,6 +41,38 @@ import org.apache.commons.collections4.map.ListOrderedMap;
  */
 public class StoreObjectListDataAdapter<E extends LabeledIDEvent> implements ObjectListDataAdapter<E> {	
 	private ListOrderedMap<String, StoreObjectData<E>> objectMap = new ListOrderedMap<String, StoreObjectData<E>>();
+	private SpillingEventStore spillingStore;
+	
+	
+	/**
+	 * Creates a new instance of this class that stores the contents of all its objects on the heap.
+	 */
+	public StoreObjectListDataAdapter() {
+		this(null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class. The contents of objects created by {@link #setObjectStartEvent(LabeledIDEvent)}
+	 * will be written to the temporary file of the specified store, if its heap budget is exceeded.
+	 * 
+	 * @param spillingStore the store to create the object content lists with or {@code null} if all contents shall be
+	 *        kept on the heap
+	 */
+	public StoreObjectListDataAdapter(SpillingEventStore spillingStore) {
+		super();
+		this.spillingStore = spillingStore;
+	}
+	
+	
+	/**
+	 * Returns the store used to create the content lists of new objects.
+	 * 
+	 * @return the store or {@code null} if all contents are kept on the heap
+	 */
+	public SpillingEventStore getSpillingStore() {
+		return spillingStore;
+	}
 	
 
 	public ListOrderedMap<String, StoreObjectData<E>> getObjectMap() {
@@ -66,7 +98,7 @@ public class StoreObjectListDataAdapter<E extends LabeledIDEvent> implements Obj
 			data.setObjectStartEvent(event);
 		}
 		else {
-			data = new StoreObjectData<E>(event);
+			data = new StoreObjectData<E>(event, (spillingStore == null) ? null : spillingStore.createEventList());
 			objectMap.put(event.getID(), data);
 		}
 	}
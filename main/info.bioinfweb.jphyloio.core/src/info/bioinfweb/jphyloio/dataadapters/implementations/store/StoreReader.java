@@ -101,15 +101,30 @@ public class StoreReader {
 	 *         event as described above. 
 	 */
 	public static StoreTreeNetworkDataAdapter readTreeNetwork(JPhyloIOEventReader reader) throws IOException {
+		return readTreeNetwork(reader, null);
+	}
+	
+	
+	/**
+	 * Reads the contents of a tree or network definition from the specified reader into a new instance of {@link StoreTreeNetworkDataAdapter}.
+	 * Node and edge contents as well as annotations are written to the temporary file of the specified store, if its heap budget is exceeded.
+	 * 
+	 * @param reader the reader providing the event stream. (Note that the next element to be returned must be a start event with the type
+	 *        {@link EventContentType#TREE} or {@link EventContentType#NETWORK}.)
+	 * @param spillingStore the store to be used by the returned adapter or {@code null} if all contents shall be kept on the heap
+	 * @return a store adapter instance that can be used to write the tree or network that was read by this method
+	 * 
+	 * @throws IOException if an error occurs when requesting new events from the reader or if the first event is not an appropriate start 
+	 *         event as described above. 
+	 */
+	public static StoreTreeNetworkDataAdapter readTreeNetwork(JPhyloIOEventReader reader, SpillingEventStore spillingStore) throws IOException {
 		if (reader.hasNextEvent()) {
 			JPhyloIOEvent startEvent = reader.next();
 			if (EventTopologyType.START.equals(startEvent.getType().getTopologyType())) {
 				boolean isTree = EventContentType.TREE.equals(startEvent.getType().getContentType());
 				if (isTree || EventContentType.NETWORK.equals(startEvent.getType().getContentType())) {
-					StoreTreeNetworkDataAdapter result = new StoreTreeNetworkDataAdapter();
-					
-					result.setStartEvent(startEvent.asLabeledIDEvent());
-					result.setTree(isTree);
+					StoreTreeNetworkDataAdapter result = new StoreTreeNetworkDataAdapter(startEvent.asLabeledIDEvent(), isTree, 
+							(spillingStore == null) ? null : spillingStore.createEventList(), spillingStore);
 					readTreeNetworkContents(reader, result, startEvent.getType().getContentType());
 					
 					return result;
@@ -34,27 +34,44 @@ import info.bioinfweb.jphyloio.events.NodeEvent;
 public class StoreTreeNetworkDataAdapter extends StoreAnnotatedDataAdapter<LinkedLabeledIDEvent> implements TreeNetworkDataAdapter {
 	private LabeledIDEvent startEvent;
 	private boolean isTree;
-	private StoreObjectListDataAdapter<NodeEvent> nodes = new StoreObjectListDataAdapter<NodeEvent>();
-	private StoreObjectListDataAdapter<EdgeEvent> edges = new StoreObjectListDataAdapter<EdgeEvent>();
+	private StoreObjectListDataAdapter<NodeEvent> nodes;
+	private StoreObjectListDataAdapter<EdgeEvent> edges;
 	private StoreObjectListDataAdapter<LinkedLabeledIDEvent> nodeEdgeSets = new StoreObjectListDataAdapter<LinkedLabeledIDEvent>();
 	
 	
 	public StoreTreeNetworkDataAdapter() {
-		super();
+		this(null, false, null, null);
 	}
 
 
 	public StoreTreeNetworkDataAdapter(LabeledIDEvent startEvent, boolean isTree) {
-		super();
-		this.startEvent = startEvent;
-		this.isTree = isTree;
+		this(startEvent, isTree, null, null);
 	}
 
 
 	public StoreTreeNetworkDataAdapter(LabeledIDEvent startEvent, boolean isTree, List<JPhyloIOEvent> annotations) {
+		this(startEvent, isTree, annotations, null);
+	}
+
+
+	/**
+	 * Creates a new instance of this class that writes the contents of its nodes and edges to the temporary file of the 
+	 * specified store, if its heap budget is exceeded.
+	 * 
+	 * @param startEvent the start event of the tree or network
+	 * @param isTree {@code true} if this adapter represents a tree or {@code false} if it represents a network
+	 * @param annotations the list of annotation events (Maybe {@code null}.)
+	 * @param spillingStore the store to create the node and edge content lists with or {@code null} if all contents shall 
+	 *        be kept on the heap
+	 */
+	public StoreTreeNetworkDataAdapter(LabeledIDEvent startEvent, boolean isTree, List<JPhyloIOEvent> annotations, 
+			SpillingEventStore spillingStore) {
+		
 		super(annotations);
 		this.startEvent = startEvent;
 		this.isTree = isTree;
+		nodes = new StoreObjectListDataAdapter<NodeEvent>(spillingStore);
+		edges = new StoreObjectListDataAdapter<EdgeEvent>(spillingStore);
 	}
 	
 	
@@ -35,12 +35,19 @@ import info.bioinfweb.jphyloio.events.type.EventTopologyType;
  * Note that in contrast to e.g. many alignment editors or the character set definitions in Nexus, column indices in
  * <i>JPhyloIO</i> start with 0 and not with 1. The indices used by instances of this class must follow this convention
  * and readers and writers will convert indices according to the conventions of their format.
+ * <p>
+ * An interval may optionally define a stride (e.g. to model codon positions as defined by {@code 3-30\3} in Nexus).
+ * In this case only every {@link #getStride()}-th index, starting at {@link #getStart()}, belongs to the interval. 
+ * Readers of formats supporting such definitions will create a single instance with the according stride instead of 
+ * one event per contained index. Consumers should therefore always check the stride of an interval, if it can 
+ * be greater than 1.
  *
  * @author Ben St&ouml;ver
  */
 public class CharacterSetIntervalEvent extends ConcreteJPhyloIOEvent {
 	private long start;
 	private long end;
+	private long stride;
 
 
 	/**
@@ -55,6 +62,22 @@ public class CharacterSetIntervalEvent extends ConcreteJPhyloIOEvent {
 	 *         no length, just omit nested interval event.)
 	 */
 	public CharacterSetIntervalEvent(long start, long end) {
+		this(start, end, 1);
+	}
+
+
+	/**
+	 * Creates a new instance of this class that only contains every {@code stride}-th index between {@code start}
+	 * and {@code end - 1}.
+	 * 
+	 * @param start the index of the first position of the sequence segment to be add to the specified character set
+	 * @param end the first index after the end of the sequence segment to be add to the specified character set
+	 * @param stride the distance between two indices contained in the interval (A value of 1 describes a contiguous
+	 *        interval.)
+	 * @throws IndexOutOfBoundsException if {@code start} or {@code end} are below 0
+	 * @throws IllegalArgumentException if {@code end} is not greater than {@code start} or {@code stride} is below 1
+	 */
+	public CharacterSetIntervalEvent(long start, long end, long stride) {
 		super(EventContentType.CHARACTER_SET_INTERVAL, EventTopologyType.SOLE);
 		if (start < 0) {
 			throw new IndexOutOfBoundsException("\"start\" (" + start + ") of an interval must not be below 0.");
@@ -66,9 +89,13 @@ public class CharacterSetIntervalEvent extends ConcreteJPhyloIOEvent {
 			throw new IllegalArgumentException("\"end\" (" + end + ") must be greater than \"start\" (" + start +
 			        "). (If a character set shall have no length, just omit nested interval events.)");
 		}
+		else if (stride < 1) {
+			throw new IllegalArgumentException("\"stride\" (" + stride + ") must be at least 1.");
+		}
 		else {
 			this.start = start;
 			this.end = end;
+			this.stride = stride;
 		}
 	}
 
@@ -95,4 +122,38 @@ public class CharacterSetIntervalEvent extends ConcreteJPhyloIOEvent {
 	public long getEnd() {
 		return end;
 	}
+
+
+	/**
+	 * Returns the distance between two indices contained in this interval. 
+	 * <p>
+	 * The indices {@code getStart() + k * getStride()} with {@code k >= 0} that are lower than {@link #getEnd()}
+	 * belong to the interval.
+	 * 
+	 * @return the stride of this interval which is 1 for contiguous intervals
+	 */
+	public long getStride() {
+		return stride;
+	}
+
+
+	/**
+	 * Determines whether this interval has a stride greater than 1.
+	 * 
+	 * @return {@code true} if not all indices between {@link #getStart()} and {@code getEnd() - 1} are contained
+	 *         or {@code false} otherwise
+	 */
+	public boolean isStrided() {
+		return stride > 1;
+	}
+
+
+	/**
+	 * Returns the last index that is contained in this interval, taking its stride into account.
+	 * 
+	 * @return the last contained index
+	 */
+	public long getLastIndex() {
+		return start + ((end - 1 - start) / stride) * stride;
+	}
 }
@@ -21,6 +21,7 @@ package info.bioinfweb.jphyloio.events;
 
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.utils.SingleCharacterTokenList;
 
 import java.util.Collections;
 import java.util.List;
@@ -34,11 +35,18 @@ import java.util.List;
  * It depends on the implementation of the format specific reader how many tokens are contained in a single event. For 
  * performance reasons most applications will group several tokens together in one event, but not necessarily a whole
  * sequence.  
+ * <p>
+ * If all tokens consist of a single character (e.g. in DNA or protein alignments) readers will usually create instances
+ * using {@link #SequenceTokensEvent(CharSequence)}. Such events store their tokens as a single string and do not create
+ * a string object per token. {@link #getTokens()} will in this case return a list view of these characters. Applications
+ * processing large amounts of such data may check {@link #hasSingleCharacterTokens()} and use
+ * {@link #getCharacterTokens()} directly instead.
  * 
  * @author Ben St&ouml;ver
  */
 public class SequenceTokensEvent extends ConcreteJPhyloIOEvent {
 	private List<String> tokens;
+	private String characterTokens = null;
 	
 	
 	public SequenceTokensEvent(List<String> tokens) {
@@ -48,7 +56,72 @@ public class SequenceTokensEvent extends ConcreteJPhyloIOEvent {
 	}
 
 	
+	/**
+	 * Creates a new instance of this class where each character of the specified sequence is considered as one token.
+	 * 
+	 * @param characterTokens the tokens (The contents of the specified sequence are copied.)
+	 * @throws NullPointerException if {@code characterTokens} is {@code null}
+	 */
+	public SequenceTokensEvent(CharSequence characterTokens) {
+		super(EventContentType.SEQUENCE_TOKENS, EventTopologyType.SOLE);
+	
+		if (characterTokens == null) {
+			throw new NullPointerException("The character tokens must not be null.");
+		}
+		else {
+			this.characterTokens = characterTokens.toString();
+			tokens = null;  // Created lazily in getTokens().
+		}
+	}
+	
+	
+	/**
+	 * Returns the tokens contained in this event. If this event was created from single character tokens, an unmodifiable
+	 * list view of these is returned, which does not store a string object per token.
+	 * 
+	 * @return an unmodifiable list of tokens
+	 */
 	public List<String> getTokens() {
+		if (tokens == null) {
+			tokens = new SingleCharacterTokenList(characterTokens);
+		}
 		return tokens;
 	}
+
+
+	/**
+	 * Determines whether this event was created from a character sequence, where each character represents one token.
+	 * 
+	 * @return {@code true} if {@link #getCharacterTokens()} will return the tokens of this event or {@code false}
+	 *         if {@link #getTokens()} needs to be used
+	 */
+	public boolean hasSingleCharacterTokens() {
+		return characterTokens != null;
+	}
+
+
+	/**
+	 * Returns the tokens of this event as a string, where each character represents one token.
+	 * 
+	 * @return the tokens or {@code null} if this event was created from a list of tokens
+	 * @see #hasSingleCharacterTokens()
+	 */
+	public String getCharacterTokens() {
+		return characterTokens;
+	}
+
+
+	/**
+	 * Returns the number of tokens contained in this event.
+	 * 
+	 * @return the number of tokens
+	 */
+	public int getTokenCount() {
+		if (characterTokens != null) {
+			return characterTokens.length();
+		}
+		else {
+			return tokens.size();
+		}
+	}
 }
@@ -0,0 +1,736 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.factory;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.formats.binary.BinaryConstants;
+import info.bioinfweb.jphyloio.formats.binary.BinaryEventReader;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.NotSerializableException;
+import java.io.RandomAccessFile;
+import java.io.StreamCorruptedException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+
+
+/**
+ * Persistent cache for the event streams of files read using
+ * {@link JPhyloIOReaderWriterFactory#getReader(String, File, ReadWriteParameterMap)}.
+ * <p>
+ * If an instance of this class is specified using {@link JPhyloIOReaderWriterFactory#setEventStreamCache(EventStreamCache)},
+ * all events returned by readers created for files are stored in the binary event format (see
+ * {@link info.bioinfweb.jphyloio.formats.binary}) in the cache directory. Opening the same file again with the same format
+ * and reader parameters returns a reader replaying the stored events, without parsing the file again.
+ * <p>
+ * Cache entries are identified by the canonical path of the file, the format ID and all reader parameters except the
+ * ones contained in {@link #getIgnoredParameterKeys()}. Parameters with values other than strings, numbers, booleans,
+ * characters, enum constants or collections of these (e.g. an {@code XMLInputFactory}) cannot be compared between
+ * different calls. Files read with such parameters are not cached. An entry is only used, if the size and the
+ * modification time of the file are still the same as when the entry was created. Otherwise it is considered as stale
+ * and deleted. Since some file systems only store modification times with a resolution of seconds, a content hash can
+ * additionally be compared using {@link #setUseContentHash(boolean)}. This requires reading the whole file on each call,
+ * but is still considerably faster than parsing it.
+ * <p>
+ * An event stream is only stored, after its reader returned all events. Streams of readers that are closed earlier
+ * or that contain object values that are not supported by the binary event format are discarded. Parameters added to the parameter map by a
+ * reader while reading (e.g. {@link ReadWriteParameterNames#KEY_PHYLOXML_EVENT_ID_TRANSLATION_MAP}) are stored together
+ * with the events and are put into the parameter map again, when a stored event stream is replayed. (Their values must
+ * either be supported by {@link BinaryEventCodec#writeObjectValue(DataOutput, Object)} or be maps with string keys and such 
+ * values. Values not implementing {@link java.io.Serializable} are not stored.) Messages that
+ * a reader logs to {@link ReadWriteParameterNames#KEY_LOGGER} are not reproduced. Since XML readers add a default
+ * {@link ReadWriteParameterNames#KEY_OBJECT_TRANSLATOR_FACTORY} to the parameter map, which cannot be compared, a new
+ * parameter map should be used for each call.
+ * <p>
+ * The total size of all entries is limited to {@link #getMaximumSize()}. If this size is exceeded, the least recently
+ * used entries are deleted. The time an entry was last used is stored as the modification time of its file, so that
+ * the order is preserved when a new instance is created for the same directory later on.
+ * <p>
+ * Instances of this class are thread safe. Each cache directory should only be used by a single instance at a time.
+ * 
+ * @author Ben St&ouml;ver
+ * @see JPhyloIOReaderWriterFactory#setEventStreamCache(EventStreamCache)
+ */
+public class EventStreamCache {
+	/** The maximum total size of all entries in bytes that is used if no other value is specified. */
+	public static final long DEFAULT_MAXIMUM_SIZE = 256L * 1024 * 1024;
+
+	/** The extension of the files storing the cache entries. */
+	public static final String ENTRY_EXTENSION = ".jpc";
+
+	private static final String TEMP_FILE_PREFIX = "entry";
+	private static final String TEMP_FILE_EXTENSION = ".tmp";
+	private static final String ENTRY_FORMAT = "JPhyloIO event stream cache 2";
+	private static final int MAX_IDENTITY_LENGTH = 16 * 1024;  // Must be encodable with DataOutput.writeUTF().
+	private static final int HASH_BUFFER_SIZE = 64 * 1024;
+	private static final String HASH_ALGORITHM = "SHA-1";
+	private static final int PARAMETER_VALUE = 0;
+	private static final int PARAMETER_MAP = 1;
+
+
+	/**
+	 * Identifies a cache entry and stores the properties of the source file that are necessary to determine whether
+	 * an entry is stale.
+	 */
+	static class Key {
+		private String formatID;
+		private File file;
+		private String identity;
+		private String entryName;
+		private long fileSize;
+		private long lastModified;
+		private String contentHash;
+		private Map<String, Object> parameterSnapshot;
+
+
+		public String getFormatID() {
+			return formatID;
+		}
+
+
+		/**
+		 * Returns a copy of the reader parameters as they were before the reader for this key was created.
+		 * 
+		 * @return the parameter snapshot
+		 */
+		public Map<String, Object> getParameterSnapshot() {
+			return parameterSnapshot;
+		}
+	}
+
+
+	/**
+	 * Codec used to encode the output parameters in the trailer of an entry file. Since the trailer is decoded from memory, 
+	 * all lengths can be checked against the bytes that are actually left.
+	 */
+	private static class TrailerCodec extends BinaryEventCodec {
+		@Override
+		protected long getRemainingBytes(DataInput input) throws IOException {
+			return ((InputStream)input).available();
+		}
+	}
+
+
+	private File directory;
+	private long maximumSize;
+	private volatile boolean useContentHash = false;
+	private Set<String> ignoredParameterKeys = Collections.synchronizedSet(new HashSet<String>(Arrays.asList(
+			ReadWriteParameterNames.KEY_LOGGER, ReadWriteParameterNames.KEY_WRITER_INSTANCE,
+			ReadWriteParameterNames.KEY_LABEL_EDITING_REPORTER, ReadWriteParameterNames.KEY_PHYLOXML_EVENT_ID_TRANSLATION_MAP)));
+	private LinkedHashMap<String, Long> entries = new LinkedHashMap<String, Long>(16, 0.75f, true);  // Entry names in access order
+	private long size = 0;
+	private long hitCount = 0;
+	private long missCount = 0;
+
+
+	/**
+	 * Creates a new instance of this class. Entries that were stored in the specified directory before are reused.
+	 * 
+	 * @param directory the directory to store the cache entries in (Will be created if it does not exist.)
+	 * @param maximumSize the maximum total size of all entries in bytes
+	 * @throws IllegalArgumentException if {@code maximumSize} is lower than 1
+	 * @throws IOException if {@code directory} cannot be created
+	 */
+	public EventStreamCache(File directory, long maximumSize) throws IOException {
+		super();
+		if (maximumSize < 1) {
+			throw new IllegalArgumentException("The maximum size must be greater than 0.");
+		}
+		else {
+			directory.mkdirs();
+			if (!directory.isDirectory()) {
+				throw new IOException("The cache directory \"" + directory.getAbsolutePath() + "\" could not be created.");
+			}
+			else {
+				this.directory = directory;
+				this.maximumSize = maximumSize;
+				loadEntries();
+			}
+		}
+	}
+
+
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_MAXIMUM_SIZE}. Entries that were stored in the specified
+	 * directory before are reused.
+	 * 
+	 * @param directory the directory to store the cache entries in (Will be created if it does not exist.)
+	 * @throws IOException if {@code directory} cannot be created
+	 */
+	public EventStreamCache(File directory) throws IOException {
+		this(directory, DEFAULT_MAXIMUM_SIZE);
+	}
+
+
+	private synchronized void loadEntries() {
+		List<File> files = new ArrayList<File>();
+		for (File file : directory.listFiles()) {
+			if (file.getName().endsWith(TEMP_FILE_EXTENSION)) {
+				file.delete();  // Remaining from readers that were not closed in a previous session.
+			}
+			else if (file.getName().endsWith(ENTRY_EXTENSION) && file.isFile()) {
+				files.add(file);
+			}
+		}
+
+		Collections.sort(files, new Comparator<File>() {
+					@Override
+					public int compare(File file1, File file2) {
+						long time1 = file1.lastModified();
+						long time2 = file2.lastModified();
+						return (time1 < time2) ? -1 : ((time1 == time2) ? 0 : 1);
+					}
+				});
+		for (File file : files) {
+			entries.put(file.getName(), file.length());
+			size += file.length();
+		}
+		evict();
+	}
+
+
+	/**
+	 * Returns the directory the entries of this cache are stored in.
+	 * 
+	 * @return the cache directory
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+
+	/**
+	 * Returns the maximum total size of all entries of this cache.
+	 * 
+	 * @return the maximum size in bytes
+	 */
+	public long getMaximumSize() {
+		return maximumSize;
+	}
+
+
+	/**
+	 * Returns the current total size of all entries of this cache.
+	 * 
+	 * @return the size in bytes
+	 */
+	public synchronized long getSize() {
+		return size;
+	}
+
+
+	/**
+	 * Returns the number of entries currently stored in this cache.
+	 * 
+	 * @return the number of entries
+	 */
+	public synchronized int getEntryCount() {
+		return entries.size();
+	}
+
+
+	/**
+	 * Returns the number of readers created by this instance that replayed a stored event stream.
+	 * 
+	 * @return the number of cache hits
+	 */
+	public synchronized long getHitCount() {
+		return hitCount;
+	}
+
+
+	/**
+	 * Returns the number of requests for which no valid entry was found in this cache.
+	 * 
+	 * @return the number of cache misses
+	 */
+	public synchronized long getMissCount() {
+		return missCount;
+	}
+
+
+	/**
+	 * Determines whether a hash of the file contents is compared in addition to the file size and modification time to
+	 * determine whether an entry is stale.
+	 * 
+	 * @return {@code true} if content hashes are used, {@code false} otherwise
+	 */
+	public boolean isUseContentHash() {
+		return useContentHash;
+	}
+
+
+	/**
+	 * Specifies whether a hash of the file contents shall be compared in addition to the file size and modification time to
+	 * determine whether an entry is stale. Entries created with a different setting are not reused.
+	 * 
+	 * @param useContentHash {@code true} if content hashes shall be used, {@code false} otherwise
+	 */
+	public void setUseContentHash(boolean useContentHash) {
+		this.useContentHash = useContentHash;
+	}
+
+
+	/**
+	 * Returns the set of keys of reader parameters that are not considered when an entry is looked up. Applications
+	 * may add further keys, e.g. of custom parameters that do not affect the returned events.
+	 * <p>
+	 * By default the set contains {@link ReadWriteParameterNames#KEY_LOGGER},
+	 * {@link ReadWriteParameterNames#KEY_WRITER_INSTANCE}, {@link ReadWriteParameterNames#KEY_LABEL_EDITING_REPORTER} and
+	 * {@link ReadWriteParameterNames#KEY_PHYLOXML_EVENT_ID_TRANSLATION_MAP}.
+	 * 
+	 * @return the modifiable set of ignored parameter keys
+	 */
+	public Set<String> getIgnoredParameterKeys() {
+		return ignoredParameterKeys;
+	}
+
+
+	/**
+	 * Deletes all entries of this cache.
+	 */
+	public synchronized void clear() {
+		for (String name : entries.keySet()) {
+			new File(directory, name).delete();
+		}
+		entries.clear();
+		size = 0;
+	}
+
+
+	private static void appendString(StringBuilder builder, String value) {
+		builder.append(value.length());
+		builder.append(':');
+		builder.append(value);
+	}
+
+
+	/**
+	 * Appends a string representation of the specified parameter value to the specified builder.
+	 * 
+	 * @param builder the builder to append the representation to
+	 * @param value the parameter value
+	 * @return {@code true} if the value could be represented or {@code false} if it has an unsupported type
+	 */
+	private static boolean appendValue(StringBuilder builder, Object value) {
+		if (value == null) {
+			builder.append('N');
+		}
+		else if ((value instanceof String) || (value instanceof Number) || (value instanceof Boolean) ||
+				(value instanceof Character) || (value instanceof Enum)) {
+
+			appendString(builder, value.getClass().getName());
+			appendString(builder, value.toString());
+		}
+		else if (value instanceof Collection) {
+			List<String> elements = new ArrayList<String>();
+			for (Object element : (Collection<?>)value) {
+				StringBuilder elementBuilder = new StringBuilder();
+				if (!appendValue(elementBuilder, element)) {
+					return false;
+				}
+				elements.add(elementBuilder.toString());
+			}
+			if (value instanceof Set) {
+				Collections.sort(elements);  // Make the representation independent of the iteration order.
+				builder.append('S');
+			}
+			else {
+				builder.append('L');
+			}
+			builder.append(elements.size());
+			for (String element : elements) {
+				appendString(builder, element);
+			}
+		}
+		else {
+			return false;
+		}
+		return true;
+	}
+
+
+	private static String toHexString(byte[] bytes) {
+		StringBuilder result = new StringBuilder(bytes.length * 2);
+		for (byte b : bytes) {
+			result.append(Character.forDigit((b >> 4) & 0x0F, 16));
+			result.append(Character.forDigit(b & 0x0F, 16));
+		}
+		return result.toString();
+	}
+
+
+	private static MessageDigest createDigest() {
+		try {
+			return MessageDigest.getInstance(HASH_ALGORITHM);
+		}
+		catch (NoSuchAlgorithmException e) {
+			throw new InternalError("The hash algorithm " + HASH_ALGORITHM + " is not available.");  // Must be supported by every JRE.
+		}
+	}
+
+
+	private static String calculateContentHash(File file) throws IOException {
+		MessageDigest digest = createDigest();
+		InputStream stream = new FileInputStream(file);
+		try {
+			byte[] buffer = new byte[HASH_BUFFER_SIZE];
+			int length = stream.read(buffer);
+			while (length != -1) {
+				digest.update(buffer, 0, length);
+				length = stream.read(buffer);
+			}
+		}
+		finally {
+			stream.close();
+		}
+		return toHexString(digest.digest());
+	}
+
+
+	/**
+	 * Creates the key identifying the event stream of the specified file.
+	 * 
+	 * @param formatID the ID of the format the file shall be read in
+	 * @param file the file to be read
+	 * @param parameters the reader parameters
+	 * @return the key or {@code null} if the file cannot be cached (e.g. because a parameter value cannot be compared)
+	 * @throws IOException if the canonical path or the content hash of the file cannot be determined
+	 */
+	Key createKey(String formatID, File file, ReadWriteParameterMap parameters) throws IOException {
+		if (!file.isFile()) {
+			return null;  // Let the reader report the problem.
+		}
+		else {
+			StringBuilder identity = new StringBuilder();
+			appendString(identity, formatID);
+			appendString(identity, file.getCanonicalPath());
+			for (Map.Entry<String, Object> entry : parameters.entrySet()) {  // ReadWriteParameterMap is sorted by key.
+				if (!ignoredParameterKeys.contains(entry.getKey())) {
+					appendString(identity, entry.getKey());
+					if (!appendValue(identity, entry.getValue())) {
+						return null;
+					}
+				}
+			}
+
+			if (identity.length() > MAX_IDENTITY_LENGTH) {
+				return null;
+			}
+			else {
+				Key result = new Key();
+				result.formatID = formatID;
+				result.file = file;
+				result.identity = identity.toString();
+				result.entryName = toHexString(createDigest().digest(result.identity.getBytes("UTF-8"))) + ENTRY_EXTENSION;
+				result.fileSize = file.length();
+				result.lastModified = file.lastModified();
+				if (useContentHash) {
+					result.contentHash = calculateContentHash(file);
+				}
+				else {
+					result.contentHash = "";
+				}
+				result.parameterSnapshot = new HashMap<String, Object>(parameters);
+				return result;
+			}
+		}
+	}
+
+
+	/**
+	 * Writes the header of a new entry, which is used to determine whether the entry is still valid when it is requested.
+	 * 
+	 * @param output the output to write the header to
+	 * @param key the key of the new entry
+	 * @throws IOException if writing to {@code output} fails
+	 */
+	void writeEntryHeader(DataOutput output, Key key) throws IOException {
+		output.writeUTF(ENTRY_FORMAT);
+		output.writeUTF(key.identity);
+		output.writeLong(key.fileSize);
+		output.writeLong(key.lastModified);
+		output.writeUTF(key.contentHash);
+	}
+
+
+	/**
+	 * Writes the output parameters of a new entry. Each value is either written as an object value of 
+	 * {@link BinaryEventCodec} or as a map with string keys and such values.
+	 * 
+	 * @param output the output to write the parameters to
+	 * @param parameters the output parameters to be written
+	 * @throws NotSerializableException if a parameter has a value that is not supported
+	 * @throws IOException if writing to {@code output} fails
+	 */
+	void writeOutputParameters(DataOutput output, Map<String, Object> parameters) throws IOException {
+		BinaryEventCodec codec = new TrailerCodec();
+		BinaryEventCodec.writeVarLong(output, parameters.size());
+		for (Map.Entry<String, Object> entry : parameters.entrySet()) {
+			codec.writeObjectValue(output, entry.getKey());
+			if (entry.getValue() instanceof Map) {
+				Map<?, ?> map = (Map<?, ?>)entry.getValue();
+				output.writeByte(PARAMETER_MAP);
+				BinaryEventCodec.writeVarLong(output, map.size());
+				for (Map.Entry<?, ?> mapEntry : map.entrySet()) {
+					if (!(mapEntry.getKey() instanceof String)) {
+						throw new NotSerializableException("The map of the parameter " + entry.getKey() + " contains keys that are not strings.");
+					}
+					codec.writeObjectValue(output, mapEntry.getKey());
+					codec.writeObjectValue(output, mapEntry.getValue());
+				}
+			}
+			else {
+				output.writeByte(PARAMETER_VALUE);
+				codec.writeObjectValue(output, entry.getValue());
+			}
+		}
+	}
+	
+	
+	private static String readParameterKey(BinaryEventCodec codec, DataInputStream input) throws IOException {
+		Object result = codec.readObjectValue(input);
+		if (result instanceof String) {
+			return (String)result;
+		}
+		else {
+			throw new StreamCorruptedException("Invalid parameter key found.");
+		}
+	}
+	
+	
+	private static void readOutputParameters(DataInputStream input, Map<String, Object> parameters) throws IOException {
+		BinaryEventCodec codec = new TrailerCodec();
+		long count = BinaryEventCodec.readVarLong(input);
+		if (count > input.available()) {
+			throw new StreamCorruptedException("Invalid parameter count found.");
+		}
+		for (long i = 0; i < count; i++) {
+			String key = readParameterKey(codec, input);
+			switch (input.readUnsignedByte()) {
+				case PARAMETER_VALUE:
+					parameters.put(key, codec.readObjectValue(input));
+					break;
+				case PARAMETER_MAP:
+					long size = BinaryEventCodec.readVarLong(input);
+					if (size > input.available()) {
+						throw new StreamCorruptedException("Invalid map size found.");
+					}
+					Map<String, Object> map = new LinkedHashMap<String, Object>();
+					for (long j = 0; j < size; j++) {
+						map.put(readParameterKey(codec, input), codec.readObjectValue(input));
+					}
+					parameters.put(key, Collections.unmodifiableMap(map));
+					break;
+				default:
+					throw new StreamCorruptedException("Invalid parameter type found.");
+			}
+		}
+	}
+
+
+	private synchronized void removeEntry(String name) {
+		Long length = entries.remove(name);
+		if (length != null) {
+			size -= length;
+		}
+		new File(directory, name).delete();
+	}
+
+
+	private void evict() {
+		Iterator<Map.Entry<String, Long>> iterator = entries.entrySet().iterator();
+		while ((size > maximumSize) && iterator.hasNext()) {
+			Map.Entry<String, Long> entry = iterator.next();  // Least recently used entries come first.
+			new File(directory, entry.getKey()).delete();
+			size -= entry.getValue();
+			iterator.remove();
+		}
+	}
+
+
+	private synchronized void markAsUsed(File entryFile) {
+		Long length = entries.get(entryFile.getName());  // Moves the entry to the end of the access order.
+		if (length == null) {
+			length = entryFile.length();
+			entries.put(entryFile.getName(), length);
+			size += length;
+		}
+		entryFile.setLastModified(System.currentTimeMillis());
+		hitCount++;
+	}
+
+
+	private synchronized void countMiss() {
+		missCount++;
+	}
+
+
+	/**
+	 * Reads the header and the trailer of an entry file.
+	 * 
+	 * @param key the key of the requested entry
+	 * @param entryFile the entry file
+	 * @param outputParameters the map to add the stored output parameters to
+	 * @return the position of the event document in the entry file or -1 if the entry cannot be used
+	 */
+	private long readEntryInformation(Key key, File entryFile, Map<String, Object> outputParameters) {
+		try {
+			RandomAccessFile file = new RandomAccessFile(entryFile, "r");
+			try {
+				if (!ENTRY_FORMAT.equals(file.readUTF()) || !key.identity.equals(file.readUTF()) ||
+						(file.readLong() != key.fileSize) || (file.readLong() != key.lastModified) ||
+						!key.contentHash.equals(file.readUTF())) {
+
+					return -1;  // Stale entry or different file with the same hash
+				}
+				else {
+					long result = file.getFilePointer();
+					file.seek(file.length() - 8);
+					long trailerStart = file.readLong();
+					if ((trailerStart < result) || (trailerStart > file.length() - 8) || 
+							(file.length() - 8 - trailerStart > BinaryConstants.MAX_BLOCK_SIZE)) {
+						
+						return -1;
+					}
+					else {
+						byte[] trailer = new byte[(int)(file.length() - 8 - trailerStart)];
+						file.seek(trailerStart);
+						file.readFully(trailer);
+						readOutputParameters(new DataInputStream(new ByteArrayInputStream(trailer)), outputParameters);
+						return result;
+					}
+				}
+			}
+			finally {
+				file.close();
+			}
+		}
+		catch (IOException e) {  // Truncated or otherwise invalid entry
+			return -1;
+		}
+	}
+
+
+	/**
+	 * Returns a reader replaying the stored event stream for the specified key. Output parameters that were stored
+	 * together with the events are put into {@code parameters}.
+	 * 
+	 * @param key the key of the requested entry
+	 * @param parameters the reader parameters
+	 * @return the reader or {@code null} if no valid entry for {@code key} is present
+	 * @throws IOException if opening the entry file fails
+	 */
+	JPhyloIOEventReader getReader(final Key key, ReadWriteParameterMap parameters) throws IOException {
+		File entryFile = new File(directory, key.entryName);
+		if (entryFile.isFile()) {
+			Map<String, Object> outputParameters = new HashMap<String, Object>();
+			long documentStart = readEntryInformation(key, entryFile, outputParameters);
+			if (documentStart != -1) {
+				FileInputStream stream = new FileInputStream(entryFile);
+				try {
+					stream.getChannel().position(documentStart);
+					JPhyloIOEventReader result = new BinaryEventReader(stream, new ReadWriteParameterMap()) {
+								@Override
+								public String getFormatID() {
+									return key.getFormatID();
+								}
+							};
+					parameters.putAll(outputParameters);
+					markAsUsed(entryFile);
+					return result;
+				}
+				catch (IOException e) {
+					stream.close();
+				}
+			}
+			removeEntry(key.entryName);
+		}
+		countMiss();
+		return null;
+	}
+
+
+	/**
+	 * Returns a decorator for the specified reader that stores all events it returns in this cache.
+	 * 
+	 * @param key the key to store the events under
+	 * @param reader the reader to be decorated
+	 * @param parameters the parameter map used by {@code reader}
+	 * @return the decorator
+	 */
+	JPhyloIOEventReader createRecordingReader(Key key, JPhyloIOEventReader reader, ReadWriteParameterMap parameters) {
+		return new RecordingEventReader(this, key, reader, parameters);
+	}
+
+
+	File createTempFile() throws IOException {
+		return File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_EXTENSION, directory);
+	}
+
+
+	/**
+	 * Adds a completely written temporary file as a new entry. The file is discarded, if the source file was modified
+	 * while it was read or if the entry would be larger than the maximum size of this cache.
+	 * 
+	 * @param key the key of the new entry
+	 * @param tempFile the temporary file containing the entry
+	 */
+	synchronized void commit(Key key, File tempFile) {
+		long length = tempFile.length();
+		if ((length > maximumSize) || (key.file.length() != key.fileSize) || (key.file.lastModified() != key.lastModified)) {
+			tempFile.delete();
+		}
+		else {
+			removeEntry(key.entryName);
+			if (tempFile.renameTo(new File(directory, key.entryName))) {
+				entries.put(key.entryName, length);
+				size += length;
+				evict();
+			}
+			else {
+				tempFile.delete();
+			}
+		}
+	}
+}
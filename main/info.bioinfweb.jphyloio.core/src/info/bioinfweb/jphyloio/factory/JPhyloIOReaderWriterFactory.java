@@ -26,6 +26,7 @@ import info.bioinfweb.jphyloio.JPhyloIOEventReader;
 import info.bioinfweb.jphyloio.JPhyloIOEventWriter;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
 import info.bioinfweb.jphyloio.formatinfo.JPhyloIOFormatInfo;
+import info.bioinfweb.jphyloio.formats.binary.BinaryFactory;
 import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
 import info.bioinfweb.jphyloio.formats.fasta.FASTAFactory;
 import info.bioinfweb.jphyloio.formats.mega.MEGAFactory;
@@ -42,7 +43,6 @@ import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
@@ -113,6 +113,7 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 	private ListOrderedMap<String, SingleReaderWriterFactory> formatMap = new ListOrderedMap<String, SingleReaderWriterFactory>();
 	private Set<String> formatIDsSet;
 	private int readAheadLimit = DEFAULT_READ_AHEAD_LIMIT;
+	private volatile EventStreamCache eventStreamCache = null;
 	
 	
 	/**
@@ -161,6 +162,7 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 		addFactory(new MEGAFactory());
 		addFactory(new XTGFactory());
 		addFactory(new PDEFactory());
+		addFactory(new BinaryFactory());
 		addFactory(new NewickFactory());  // Should be tested in guess*() methods in the end, since the test is insecure.
 		addFactory(new SequentialPhylipFactory());  // Does not have to be tested by guess*() methods at all, since PhylipFactory would have returned true before.
 		//TODO Can Newick and sequencential Phylip factories be tested at the end otherwise? (The order here is also used in the format IDs map, e.g. to create file filters.)
@@ -206,6 +208,29 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 	//TODO Isn't setting an integer an atomic operation and synchronizing is unnecessary?
 	
 	
+	/**
+	 * Returns the cache used by {@link #getReader(String, File, ReadWriteParameterMap)}.
+	 * 
+	 * @return the event stream cache or {@code null} if no cache is used
+	 */
+	public EventStreamCache getEventStreamCache() {
+		return eventStreamCache;
+	}
+
+
+	/**
+	 * Allows to specify a cache that stores the event streams of files read with 
+	 * {@link #getReader(String, File, ReadWriteParameterMap)}. If the same file is requested again with the same format
+	 * and parameters and was not modified in between, a reader replaying the stored events is returned. By default no
+	 * cache is used.
+	 * 
+	 * @param eventStreamCache the cache to be used or {@code null} if no cache shall be used
+	 */
+	public void setEventStreamCache(EventStreamCache eventStreamCache) {
+		this.eventStreamCache = eventStreamCache;
+	}
+	
+	
 	/**
 	 * Returns the set of IDs of formats that are currently supported by this factory.
 	 * 
@@ -220,7 +245,7 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 	/**
 	 * Tries to determine the format of the contents of the specified file by examining at its beginning (e.g. the root 
 	 * tag in XML formats). The format is determined by subsequent calls of 
-	 * {@link SingleReaderWriterFactory#checkFormat(Reader, ReadWriteParameterMap)} until a matching factory is found.
+	 * {@link SingleReaderWriterFactory#checkFormat(InputStream, ReadWriteParameterMap)} until a matching factory is found.
 	 * <p>
 	 * The parameter map is only necessary for formats that are so variable that parameter values are needed to determine 
 	 * how a valid input would look like. That is currently not the case for any format supported in <i>JPhyloIO</i>, but
@@ -244,7 +269,7 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 		String result;
 		FileInputStream stream = new FileInputStream(file);
 		try {
-			result = guessFormat(new FileReader(file), parameters);
+			result = guessFormat(stream, parameters);
 		}
 		finally {
 			stream.close();
@@ -256,10 +281,10 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 	/**
 	 * Tries to determine the format of the contents of the specified file by examining at its beginning (e.g. the root 
 	 * tag in XML formats). The format is determined by subsequent calls of 
-	 * {@link SingleReaderWriterFactory#checkFormat(Reader, ReadWriteParameterMap)} until a matching factory is found.
+	 * {@link SingleReaderWriterFactory#checkFormat(InputStream, ReadWriteParameterMap)} until a matching factory is found.
 	 * <p>
 	 * It uses an empty parameter map that is passed to the internal calls of 
-	 * {@link SingleReaderWriterFactory#checkFormat(Reader, ReadWriteParameterMap)}. Use 
+	 * {@link SingleReaderWriterFactory#checkFormat(InputStream, ReadWriteParameterMap)}. Use 
 	 * {@link #guessFormat(File, ReadWriteParameterMap)} if parameters are necessary to determine the format correctly.
 	 * <p>
 	 * Note that in contrast to {@link #guessReader(File, ReadWriteParameterMap)}, this method does not support
@@ -534,17 +559,48 @@ public class JPhyloIOReaderWriterFactory implements JPhyloIOFormatIDs {
 	}
 	
 	
-	public JPhyloIOEventReader getReader(String formatID, File file, ReadWriteParameterMap parameters) throws Exception {
+	private JPhyloIOEventReader openReader(String formatID, File file, ReadWriteParameterMap parameters) throws Exception {
 		JPhyloIOEventReader result = null;
-		FileReader reader = new FileReader(file);
+		InputStream stream = new BufferedInputStream(new FileInputStream(file));  // Binary formats cannot be read from a Reader.
 		try {
-			result = getReader(formatID, reader, parameters);
+			result = getReader(formatID, stream, parameters);
 		}
 		finally {
 			if (result == null) {  // Otherwise stream must be closed, by calling close() of the returned reader.
-				reader.close();
+				stream.close();
+			}
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Returns a reader for the specified file. If an {@link EventStreamCache} was specified using
+	 * {@link #setEventStreamCache(EventStreamCache)}, the returned reader may replay events stored in the cache.
+	 * 
+	 * @param formatID the ID of the format of the file
+	 * @param file the file to be read
+	 * @param parameters the parameter map optionally containing parameters for the returned reader
+	 * @return the new reader instance or {@code null} if no reader for the specified format ID is available
+	 * @throws Exception if an exception occurs while opening the file or creating the returned reader instance
+	 */
+	public JPhyloIOEventReader getReader(String formatID, File file, ReadWriteParameterMap parameters) throws Exception {
+		EventStreamCache cache = eventStreamCache;
+		EventStreamCache.Key key = null;
+		if ((cache != null) && formatMap.containsKey(formatID) && !BINARY_FORMAT_ID.equals(formatID)) {  // Caching binary event documents would not speed up reading.
+			key = cache.createKey(formatID, file, parameters);
+			if (key != null) {
+				JPhyloIOEventReader result = cache.getReader(key, parameters);
+				if (result != null) {
+					return result;
+				}
 			}
 		}
+		
+		JPhyloIOEventReader result = openReader(formatID, file, parameters);
+		if ((result != null) && (key != null)) {
+			result = cache.createRecordingReader(key, result, parameters);
+		}
 		return result;
 	}
 	
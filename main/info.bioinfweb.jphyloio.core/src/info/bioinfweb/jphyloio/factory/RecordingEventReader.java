@@ -0,0 +1,239 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.factory;
+
+
+import info.bioinfweb.jphyloio.AbstractEventReader;
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.formats.binary.BinaryEventReceiver;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+
+
+
+/**
+ * Decorator for an event reader that stores all events returned by the decorated reader in an {@link EventStreamCache}.
+ * <p>
+ * The events are written to a temporary file of the cache while they are read. The file is added to the cache, when
+ * the decorated reader returned its last event. If this reader is closed before or an event cannot be stored, the file
+ * is deleted. Reading itself is never affected by errors that occur while writing the temporary file.
+ * <p>
+ * Exceptions of the decorated reader are thrown after all events read before have been returned, so that this reader 
+ * returns the same events as the decorated reader before an exception occurs.
+ * <p>
+ * An entry file consists of the header written by {@link EventStreamCache#writeEntryHeader(java.io.DataOutput, EventStreamCache.Key)},
+ * the binary event document, the parameters added by the decorated reader as written by
+ * {@link EventStreamCache#writeOutputParameters(java.io.DataOutput, Map)} and finally the position of these parameters 
+ * as a {@code long} value.
+ * 
+ * @author Ben St&ouml;ver
+ */
+class RecordingEventReader extends AbstractEventReader<ReaderStreamDataProvider<RecordingEventReader>> {
+	private static final int BATCH_SIZE = 256;
+
+
+	private EventStreamCache cache;
+	private EventStreamCache.Key key;
+	private JPhyloIOEventReader reader;
+	private ReadWriteParameterMap readerParameters;
+	private JPhyloIOEvent[] batch = new JPhyloIOEvent[BATCH_SIZE];
+	private boolean endReached = false;
+	private IOException readerException = null;
+
+	private File tempFile = null;
+	private FileOutputStream fileStream;
+	private BufferedOutputStream stream;
+	private BinaryEventReceiver receiver;
+
+
+	public RecordingEventReader(EventStreamCache cache, EventStreamCache.Key key, JPhyloIOEventReader reader,
+			ReadWriteParameterMap readerParameters) {
+
+		super(new ReadWriteParameterMap(), null);
+		this.cache = cache;
+		this.key = key;
+		this.reader = reader;
+		this.readerParameters = readerParameters;
+
+		try {
+			tempFile = cache.createTempFile();
+			fileStream = new FileOutputStream(tempFile);
+			stream = new BufferedOutputStream(fileStream);
+			DataOutputStream headerOutput = new DataOutputStream(stream);
+			cache.writeEntryHeader(headerOutput, key);
+			headerOutput.flush();
+			receiver = new BinaryEventReceiver(stream);
+		}
+		catch (IOException e) {
+			abandonRecording();
+		}
+	}
+
+
+	@Override
+	public String getFormatID() {
+		return reader.getFormatID();
+	}
+
+
+	private void abandonRecording() {
+		if (tempFile != null) {
+			try {
+				if (stream != null) {
+					stream.close();
+				}
+				else if (fileStream != null) {
+					fileStream.close();
+				}
+			}
+			catch (IOException e) {}  // Nothing more can be done here.
+			tempFile.delete();
+			tempFile = null;
+		}
+	}
+
+
+	/**
+	 * Returns the serializable parameters that were added or replaced by the decorated reader. Other parameters added
+	 * by readers are default objects created on demand (e.g. object translator factories), which will be created again
+	 * when needed.
+	 * 
+	 * @return the map of output parameters
+	 */
+	private HashMap<String, Object> getOutputParameters() {
+		Map<String, Object> snapshot = key.getParameterSnapshot();
+		HashMap<String, Object> result = new HashMap<String, Object>();
+		for (Map.Entry<String, Object> entry : readerParameters.entrySet()) {
+			if ((!snapshot.containsKey(entry.getKey()) || (snapshot.get(entry.getKey()) != entry.getValue())) &&
+					((entry.getValue() == null) || (entry.getValue() instanceof Serializable))) {
+				
+				result.put(entry.getKey(), entry.getValue());
+			}
+		}
+		return result;
+	}
+
+
+	private void finishRecording() {
+		if (tempFile != null) {
+			try {
+				receiver.finish();
+				long trailerStart = fileStream.getChannel().position();
+				DataOutputStream trailerOutput = new DataOutputStream(stream);
+				cache.writeOutputParameters(trailerOutput, getOutputParameters());
+				trailerOutput.writeLong(trailerStart);
+				trailerOutput.flush();
+				stream.close();
+				cache.commit(key, tempFile);
+				tempFile = null;
+			}
+			catch (IOException e) {  // Also thrown if an output parameter contains objects that cannot be encoded.
+				abandonRecording();
+			}
+		}
+	}
+
+
+	@Override
+	protected void readNextEvent() throws IOException {
+		if (!endReached) {
+			int count;
+			try {
+				count = reader.nextBatch(batch);
+			}
+			catch (IOException e) {  // Thrown later, since the look ahead of this reader would otherwise hide the previous event.
+				readerException = e;
+				endReached = true;
+				abandonRecording();
+				return;
+			}
+			
+			if (count == 0) {
+				endReached = true;
+				finishRecording();
+			}
+			else {
+				for (int i = 0; i < count; i++) {
+					getCurrentEventCollection().add(batch[i]);
+					if (tempFile != null) {
+						try {
+							receiver.add(batch[i]);
+						}
+						catch (IOException e) {  // Also thrown if an object value cannot be serialized.
+							abandonRecording();
+						}
+					}
+					batch[i] = null;
+				}
+			}
+		}
+	}
+
+
+	private void throwReaderException() throws IOException {
+		if (readerException != null) {
+			IOException exception = readerException;
+			readerException = null;
+			throw exception;
+		}
+	}
+	
+	
+	@Override
+	public boolean hasNextEvent() throws IOException {
+		boolean result = super.hasNextEvent();
+		if (!result) {
+			throwReaderException();
+		}
+		return result;
+	}
+
+
+	@Override
+	public int nextBatch(JPhyloIOEvent[] target, int offset, int length) throws IOException {
+		int result = super.nextBatch(target, offset, length);
+		if (result == 0) {
+			throwReaderException();
+		}
+		return result;
+	}
+
+
+	/**
+	 * Closes the decorated reader. The recorded events are discarded, if the end of the document was not reached yet.
+	 * 
+	 * @throws IOException if closing the decorated reader fails
+	 */
+	@Override
+	public void close() throws IOException {
+		super.close();
+		abandonRecording();
+		reader.close();
+	}
+}
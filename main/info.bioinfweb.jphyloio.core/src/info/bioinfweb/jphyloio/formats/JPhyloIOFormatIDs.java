@@ -44,4 +44,5 @@ public interface JPhyloIOFormatIDs {
 	public static final String MEGA_FORMAT_ID = FORMAT_ID_PREFIX + "mega";
 	public static final String XTG_FORMAT_ID = FORMAT_ID_PREFIX + "xtg";
 	public static final String PDE_FORMAT_ID = FORMAT_ID_PREFIX + "pde";
+	public static final String BINARY_FORMAT_ID = FORMAT_ID_PREFIX + "binary";
 }
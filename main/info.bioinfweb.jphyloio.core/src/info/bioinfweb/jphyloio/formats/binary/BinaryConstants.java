@@ -0,0 +1,65 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+
+/**
+ * Contains format specific constants used by {@link BinaryEventReader}, {@link BinaryEventWriter} and
+ * {@link BinaryEventReceiver}.
+ * <p>
+ * A binary event document starts with {@link #MAGIC_STRING} (encoded as ASCII), followed by a single byte containing
+ * the format version. The events of the document follow in blocks. Each block starts with the number of contained
+ * events and the number of bytes of the block (both as variable length integers as defined in
+ * {@link info.bioinfweb.jphyloio.utils.BinaryEventCodec#writeVarLong(java.io.DataOutput, long)}), followed by the
+ * encoded events. A block with an event count of 0 and no length marks the end of the document. Documents not
+ * terminated this way are considered as truncated.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public interface BinaryConstants {
+	public static final String BINARY_FORMAT_NAME = "JPhyloIO binary events";
+
+	/** The string every binary event document starts with. */
+	public static final String MAGIC_STRING = "JPIOBIN\u0000";
+
+	/** The version of the binary format written by this version of <i>JPhyloIO</i>. */
+	public static final int FORMAT_VERSION = 1;
+
+	/** The number of encoded bytes after which the current block is written by {@link BinaryEventReceiver}. */
+	public static final int DEFAULT_BLOCK_SIZE = 64 * 1024;
+
+	/** 
+	 * The maximum number of bytes of a single block. Larger block lengths are considered as invalid by 
+	 * {@link BinaryEventReader}. This is also the maximum number of tokens a list of token runs may represent.
+	 */
+	public static final int MAX_BLOCK_SIZE = 64 * 1024 * 1024;
+
+	/** The maximum length of strings that are added to the string dictionary. Longer strings are always written completely. */
+	public static final int MAX_DICTIONARY_STRING_LENGTH = 128;
+
+	/** The maximum number of entries of the string dictionary of a document. */
+	public static final int MAX_DICTIONARY_SIZE = 64 * 1024;
+
+	/**
+	 * The average number of identical subsequent tokens that is necessary to write a sequence tokens event as a list of
+	 * token runs instead of single tokens.
+	 */
+	public static final int MIN_AVERAGE_TOKEN_RUN_LENGTH = 3;
+}
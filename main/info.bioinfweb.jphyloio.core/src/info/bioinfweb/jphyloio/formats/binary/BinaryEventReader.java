@@ -0,0 +1,203 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.AbstractEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+
+
+
+/**
+ * Event reader for documents in the binary event format written by {@link BinaryEventWriter} or
+ * {@link BinaryEventReceiver}.
+ * <p>
+ * This reader reproduces exactly the event sequence that was written. Since no parsing of a textual format is necessary,
+ * it allows to read documents considerably faster than the original format. Each block of the document is read with a
+ * single operation and all of its events are decoded at once.
+ * <p>
+ * Parameters that modify the contents of the event stream in other readers (e.g. the replacement of match tokens) have
+ * no effect here, since they were already applied by the reader that produced the stored event stream.
+ * 
+ * <h3><a id="parameters"></a>Recognized parameters</h3>
+ * <ul>
+ *   <li>{@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}</li>
+ * </ul>
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BinaryEventReader extends AbstractEventReader<ReaderStreamDataProvider<BinaryEventReader>>
+		implements BinaryConstants {
+
+	private DataInputStream input;
+	private BinaryFormatEventCodec codec = new BinaryFormatEventCodec();
+	private long offset = 0;
+	private boolean endReached = false;
+
+
+	/**
+	 * Creates a new instance of this class and reads the file header.
+	 * 
+	 * @param stream the stream providing the binary event document
+	 * @param parameters the parameter map for this reader instance
+	 * @throws JPhyloIOReaderException if the stream does not start with a valid header
+	 * @throws IOException if an I/O error occurs while reading the header
+	 */
+	public BinaryEventReader(InputStream stream, ReadWriteParameterMap parameters) throws IOException {
+		super(parameters, null);
+		input = new DataInputStream(new BufferedInputStream(stream));
+		readHeader();
+	}
+
+
+	/**
+	 * Creates a new instance of this class and reads the file header.
+	 * 
+	 * @param file the file containing the binary event document
+	 * @param parameters the parameter map for this reader instance
+	 * @throws JPhyloIOReaderException if the file does not start with a valid header
+	 * @throws IOException if an I/O error occurs while opening the file or reading the header
+	 */
+	public BinaryEventReader(File file, ReadWriteParameterMap parameters) throws IOException {
+		this(new FileInputStream(file), parameters);
+	}
+
+
+	@Override
+	public String getFormatID() {
+		return JPhyloIOFormatIDs.BINARY_FORMAT_ID;
+	}
+
+
+	private void readHeader() throws IOException {
+		try {
+			byte[] magic = new byte[MAGIC_STRING.length()];
+			input.readFully(magic);
+			for (int i = 0; i < magic.length; i++) {
+				if (magic[i] != MAGIC_STRING.charAt(i)) {
+					throw new JPhyloIOReaderException("The stream does not contain a binary event document.", i, -1, -1);
+				}
+			}
+
+			int version = input.readUnsignedByte();
+			if (version > FORMAT_VERSION) {
+				throw new JPhyloIOReaderException("The binary event document has the format version " + version +
+						", which is not supported by this version of JPhyloIO.", magic.length, -1, -1);
+			}
+			offset = magic.length + 1;
+		}
+		catch (EOFException e) {
+			throw new JPhyloIOReaderException("The stream does not contain a binary event document.", 0, -1, -1, e);
+		}
+	}
+
+
+	private static int getVarLongLength(long value) {
+		int result = 1;
+		while (value > 0x7F) {
+			value >>>= 7;
+			result++;
+		}
+		return result;
+	}
+
+
+	private long readLength() throws IOException {
+		try {
+			return BinaryEventCodec.readVarLong(input);
+		}
+		catch (EOFException e) {
+			throw new JPhyloIOReaderException("Unexpected end of the binary event document. (The document may have been truncated.)",
+					offset, -1, -1, e);
+		}
+		catch (StreamCorruptedException e) {
+			throw new JPhyloIOReaderException("Invalid data found in the header of the binary event block starting at byte " + 
+					offset + ": " + e.getMessage(), offset, -1, -1, e);
+		}
+	}
+	
+	
+	private byte[] readBlock() throws IOException {
+		long length = readLength();
+		if ((length < 0) || (length > MAX_BLOCK_SIZE)) {
+			throw new JPhyloIOReaderException("Invalid block length " + length + " found. (Blocks may contain at most " + 
+					MAX_BLOCK_SIZE + " bytes.)", offset, -1, -1);
+		}
+		try {
+			byte[] result = new byte[(int)length];
+			input.readFully(result);
+			return result;
+		}
+		catch (EOFException e) {
+			throw new JPhyloIOReaderException("Unexpected end of the binary event document. (The document may have been truncated.)",
+					offset, -1, -1, e);
+		}
+	}
+
+
+	@Override
+	protected void readNextEvent() throws IOException {
+		if (!endReached) {
+			long eventCount = readLength();
+			if (eventCount == 0) {
+				endReached = true;
+			}
+			else {
+				byte[] block = readBlock();
+				if (eventCount > block.length) {  // Each event needs at least one byte.
+					throw new JPhyloIOReaderException("The binary event block starting at byte " + offset + " cannot contain " + 
+							eventCount + " events in " + block.length + " bytes.", offset, -1, -1);
+				}
+				DataInputStream blockInput = new DataInputStream(new ByteArrayInputStream(block));
+				try {
+					for (long i = 0; i < eventCount; i++) {
+						getCurrentEventCollection().add(codec.readEvent(blockInput));
+					}
+				}
+				catch (IOException e) {  // Can only be caused by invalid data, since the block is read from memory.
+					throw new JPhyloIOReaderException("Invalid data found in the binary event block starting at byte " + offset + ": " +
+							e.getMessage(), offset, -1, -1, e);
+				}
+				offset += getVarLongLength(eventCount) + getVarLongLength(block.length) + block.length;
+			}
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		super.close();
+		input.close();
+	}
+}
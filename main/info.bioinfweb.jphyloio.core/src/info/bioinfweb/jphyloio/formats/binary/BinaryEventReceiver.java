@@ -0,0 +1,174 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+
+
+/**
+ * Event receiver that writes all events it receives to an output stream in the binary event format. It is used by
+ * {@link BinaryEventWriter} and can also be used directly by applications that want to store an event stream, e.g.
+ * while it is read from another format.
+ * <p>
+ * The file header is written when an instance is created. The received events are collected in blocks of about
+ * {@link #DEFAULT_BLOCK_SIZE} bytes, which are written to the underlying stream together with their length. Applications
+ * must call {@link #finish()} after the last event was added to write the remaining events and the end marker of the
+ * document. Documents that were closed without calling this method before are considered as truncated by
+ * {@link BinaryEventReader}.
+ * <p>
+ * Instances of this class are not thread safe.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BinaryEventReceiver implements JPhyloIOEventReceiver, Closeable, BinaryConstants {
+	private DataOutputStream output;
+	private int blockSize;
+	private ByteArrayOutputStream block;
+	private DataOutputStream blockOutput;
+	private int blockEventCount = 0;
+	private BinaryFormatEventCodec codec = new BinaryFormatEventCodec();
+	private boolean finished = false;
+
+
+	/**
+	 * Creates a new instance of this class and writes the file header to the specified stream.
+	 * 
+	 * @param stream the stream to write the events to
+	 * @param blockSize the number of encoded bytes after which a block is written to {@code stream}
+	 * @throws IllegalArgumentException if {@code blockSize} is lower than 1 or greater than {@link #MAX_BLOCK_SIZE}
+	 * @throws IOException if an I/O error occurs while writing the header to {@code stream}
+	 */
+	public BinaryEventReceiver(OutputStream stream, int blockSize) throws IOException {
+		super();
+		if ((blockSize < 1) || (blockSize > MAX_BLOCK_SIZE)) {
+			throw new IllegalArgumentException("The block size must be between 1 and " + MAX_BLOCK_SIZE + ".");
+		}
+		else {
+			this.output = new DataOutputStream(stream);
+			this.blockSize = blockSize;
+			block = new ByteArrayOutputStream(blockSize + blockSize / 4);
+			blockOutput = new DataOutputStream(block);
+
+			output.writeBytes(MAGIC_STRING);
+			output.writeByte(FORMAT_VERSION);
+		}
+	}
+
+
+	/**
+	 * Creates a new instance of this class using {@link #DEFAULT_BLOCK_SIZE} and writes the file header to the specified
+	 * stream.
+	 * 
+	 * @param stream the stream to write the events to
+	 * @throws IOException if an I/O error occurs while writing the header to {@code stream}
+	 */
+	public BinaryEventReceiver(OutputStream stream) throws IOException {
+		this(stream, DEFAULT_BLOCK_SIZE);
+	}
+
+
+	private void writeBlock() throws IOException {
+		if (blockEventCount > 0) {
+			BinaryEventCodec.writeVarLong(output, blockEventCount);
+			BinaryEventCodec.writeVarLong(output, block.size());
+			block.writeTo(output);
+			block.reset();
+			blockEventCount = 0;
+		}
+	}
+
+
+	/**
+	 * Encodes the specified event and adds it to the current block.
+	 * 
+	 * @param event the event to be written
+	 * @return always {@code true}
+	 * @throws IllegalStateException if {@link #finish()} was already called
+	 * @throws java.io.NotSerializableException if the event or one of its object values cannot be encoded (Arbitrary
+	 *         {@link java.io.Serializable} object values are not supported by this format.)
+	 * @throws IOException if an I/O error occurs while writing a block to the underlying stream or if the encoded
+	 *         event makes the current block exceed {@link #MAX_BLOCK_SIZE}
+	 */
+	@Override
+	public boolean add(JPhyloIOEvent event) throws IOException {
+		if (finished) {
+			throw new IllegalStateException("No more events can be added after the document was finished.");
+		}
+		else {
+			codec.writeEvent(blockOutput, event);
+			blockEventCount++;
+			if (block.size() > MAX_BLOCK_SIZE) {
+				throw new IOException("The encoded event of the type " + event.getType() + " is too large to be stored in a block of " + 
+						MAX_BLOCK_SIZE + " bytes.");
+			}
+			else if (block.size() >= blockSize) {
+				writeBlock();
+			}
+			return true;
+		}
+	}
+
+
+	/**
+	 * Writes the remaining events and the end marker of the document to the underlying stream and flushes it. No more
+	 * events can be added afterwards. Calling this method more than once has no effect.
+	 * 
+	 * @throws IOException if an I/O error occurs while writing to the underlying stream
+	 */
+	public void finish() throws IOException {
+		if (!finished) {
+			writeBlock();
+			output.writeByte(0);  // Empty block as end marker.
+			output.flush();
+			finished = true;
+		}
+	}
+
+
+	/**
+	 * Determines whether {@link #finish()} was already called on this instance.
+	 * 
+	 * @return {@code true} if the document was already finished, {@code false} otherwise
+	 */
+	public boolean isFinished() {
+		return finished;
+	}
+
+
+	/**
+	 * Closes the underlying stream. Note that {@link #finish()} is not called by this method, so that the document will be
+	 * considered as truncated, if it was not called before.
+	 * 
+	 * @throws IOException if an I/O error occurs while closing the underlying stream
+	 */
+	@Override
+	public void close() throws IOException {
+		output.close();
+	}
+}
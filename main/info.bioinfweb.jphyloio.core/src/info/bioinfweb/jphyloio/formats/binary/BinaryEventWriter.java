@@ -0,0 +1,245 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.JPhyloIOEventWriter;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.dataadapters.DocumentDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
+import info.bioinfweb.jphyloio.dataadapters.MatrixDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.OTUListDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.ObjectListDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.TreeNetworkDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.TreeNetworkGroupDataAdapter;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LabeledIDEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.Iterator;
+
+
+
+/**
+ * Event writer that stores the event stream of a document in the binary event format, which can be read again by
+ * {@link BinaryEventReader}.
+ * <p>
+ * In contrast to the other writers of <i>JPhyloIO</i>, this writer does not need to adjust any data to the
+ * possibilities of a target format. It writes all events provided by the data adapters in the order of the
+ * <a href="../../JPhyloIOEventReader.html#grammar">event grammar</a>, including all metadata, comments and XML literals.
+ * An event stream provided by an event reader can directly be written using
+ * {@link #writeEvents(JPhyloIOEventReader, OutputStream)}, which creates a document that reproduces exactly the same
+ * event sequence when read again.
+ * <p>
+ * Since the format is binary, documents can only be written to {@link OutputStream}s or files.
+ * {@link #writeDocument(DocumentDataAdapter, Writer, ReadWriteParameterMap)} is not supported.
+ * 
+ * <h3><a id="parameters"></a>Recognized parameters</h3>
+ * <ul>
+ *   <li>{@link ReadWriteParameterNames#KEY_WRITER_INSTANCE}</li>
+ * </ul>
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BinaryEventWriter implements JPhyloIOEventWriter, BinaryConstants {
+	@Override
+	public String getFormatID() {
+		return JPhyloIOFormatIDs.BINARY_FORMAT_ID;
+	}
+
+
+	private <E extends JPhyloIOEvent> void writeObjectList(ObjectListDataAdapter<E> objectList, JPhyloIOEventReceiver receiver,
+			ReadWriteParameterMap parameters) throws IOException {
+
+		Iterator<String> iterator = objectList.getIDIterator(parameters);
+		while (iterator.hasNext()) {
+			String id = iterator.next();
+			E startEvent = objectList.getObjectStartEvent(parameters, id);
+			receiver.add(startEvent);
+			objectList.writeContentData(parameters, receiver, id);
+			receiver.add(ConcreteJPhyloIOEvent.createEndEvent(startEvent.getType().getContentType()));
+		}
+	}
+
+
+	private void writeOTUList(OTUListDataAdapter otuList, JPhyloIOEventReceiver receiver, ReadWriteParameterMap parameters)
+			throws IOException {
+
+		receiver.add(otuList.getStartEvent(parameters));
+		otuList.writeMetadata(parameters, receiver);
+		writeObjectList(otuList, receiver, parameters);
+		writeObjectList(otuList.getOTUSets(parameters), receiver, parameters);
+		receiver.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.OTU_LIST));
+	}
+
+
+	private void writeMatrix(MatrixDataAdapter matrix, JPhyloIOEventReceiver receiver, ReadWriteParameterMap parameters)
+			throws IOException {
+
+		receiver.add(matrix.getStartEvent(parameters));
+		matrix.writeMetadata(parameters, receiver);
+		writeObjectList(matrix.getCharacterDefinitions(parameters), receiver, parameters);
+		writeObjectList(matrix.getTokenSets(parameters), receiver, parameters);
+		writeObjectList(matrix.getCharacterSets(parameters), receiver, parameters);
+
+		Iterator<String> iterator = matrix.getSequenceIDIterator(parameters);
+		while (iterator.hasNext()) {
+			String id = iterator.next();
+			receiver.add(matrix.getSequenceStartEvent(parameters, id));
+			matrix.writeSequencePartContentData(parameters, receiver, id, 0, matrix.getSequenceLength(parameters, id));
+			receiver.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.SEQUENCE));
+		}
+
+		writeObjectList(matrix.getSequenceSets(parameters), receiver, parameters);
+		receiver.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.ALIGNMENT));
+	}
+
+
+	private void writeTreeNetwork(TreeNetworkDataAdapter treeNetwork, JPhyloIOEventReceiver receiver, ReadWriteParameterMap parameters)
+			throws IOException {
+
+		LabeledIDEvent startEvent = treeNetwork.getStartEvent(parameters);
+		receiver.add(startEvent);
+		treeNetwork.writeMetadata(parameters, receiver);
+		writeObjectList(treeNetwork.getNodes(parameters), receiver, parameters);
+		writeObjectList(treeNetwork.getEdges(parameters), receiver, parameters);
+		writeObjectList(treeNetwork.getNodeEdgeSets(parameters), receiver, parameters);
+		receiver.add(ConcreteJPhyloIOEvent.createEndEvent(startEvent.getType().getContentType()));
+	}
+
+
+	private void writeTreeNetworkGroup(TreeNetworkGroupDataAdapter group, JPhyloIOEventReceiver receiver,
+			ReadWriteParameterMap parameters) throws IOException {
+
+		LinkedLabeledIDEvent startEvent = group.getStartEvent(parameters);
+		receiver.add(startEvent);
+		group.writeMetadata(parameters, receiver);
+		Iterator<TreeNetworkDataAdapter> iterator = group.getTreeNetworkIterator(parameters);
+		while (iterator.hasNext()) {
+			writeTreeNetwork(iterator.next(), receiver, parameters);
+		}
+		writeObjectList(group.getTreeSets(parameters), receiver, parameters);
+		receiver.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.TREE_NETWORK_GROUP));
+	}
+
+
+	/**
+	 * Writes the events provided by the specified document adapter to the specified receiver. The document start and end
+	 * events are included.
+	 * 
+	 * @param document the adapter providing the data to be written
+	 * @param receiver the receiver to write the events to
+	 * @param parameters the parameter map passed to the adapters
+	 * @throws IOException if the receiver throws an exception
+	 */
+	public void writeDocumentEvents(DocumentDataAdapter document, JPhyloIOEventReceiver receiver, ReadWriteParameterMap parameters)
+			throws IOException {
+
+		receiver.add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.START));
+		document.writeMetadata(parameters, receiver);
+
+		Iterator<OTUListDataAdapter> otuListIterator = document.getOTUListIterator(parameters);
+		while (otuListIterator.hasNext()) {
+			writeOTUList(otuListIterator.next(), receiver, parameters);
+		}
+
+		Iterator<MatrixDataAdapter> matrixIterator = document.getMatrixIterator(parameters);
+		while (matrixIterator.hasNext()) {
+			writeMatrix(matrixIterator.next(), receiver, parameters);
+		}
+
+		Iterator<TreeNetworkGroupDataAdapter> groupIterator = document.getTreeNetworkGroupIterator(parameters);
+		while (groupIterator.hasNext()) {
+			writeTreeNetworkGroup(groupIterator.next(), receiver, parameters);
+		}
+
+		receiver.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.DOCUMENT));
+	}
+
+
+	@Override
+	public void writeDocument(DocumentDataAdapter document, OutputStream stream, ReadWriteParameterMap parameters) throws IOException {
+		parameters.put(ReadWriteParameterNames.KEY_WRITER_INSTANCE, this);
+		BinaryEventReceiver receiver = new BinaryEventReceiver(stream);
+		try {
+			writeDocumentEvents(document, receiver, parameters);
+			receiver.finish();
+		}
+		finally {
+			receiver.close();
+		}
+	}
+
+
+	@Override
+	public void writeDocument(DocumentDataAdapter document, File file, ReadWriteParameterMap parameters) throws IOException {
+		writeDocument(document, new BufferedOutputStream(new FileOutputStream(file)), parameters);
+	}
+
+
+	/**
+	 * This method is not supported, since binary documents cannot be written to character streams.
+	 * 
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public void writeDocument(DocumentDataAdapter document, Writer writer, ReadWriteParameterMap parameters) throws IOException {
+		throw new UnsupportedOperationException("Binary event documents can only be written to output streams or files.");
+	}
+
+
+	/**
+	 * Writes all remaining events of the specified reader to the specified stream. Reading the resulting document with
+	 * {@link BinaryEventReader} will reproduce the same event sequence.
+	 * <p>
+	 * The stream is closed by this method. The reader is not closed.
+	 * 
+	 * @param reader the reader providing the events to be written
+	 * @param stream the stream to write the document to
+	 * @return the number of events that were written
+	 * @throws IOException if reading from {@code reader} or writing to {@code stream} fails
+	 */
+	public long writeEvents(JPhyloIOEventReader reader, OutputStream stream) throws IOException {
+		long result = 0;
+		BinaryEventReceiver receiver = new BinaryEventReceiver(stream);
+		try {
+			while (reader.hasNextEvent()) {
+				receiver.add(reader.next());
+				result++;
+			}
+			receiver.finish();
+		}
+		finally {
+			receiver.close();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.JPhyloIOEventWriter;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.factory.AbstractStartStringSingleFactory;
+import info.bioinfweb.jphyloio.factory.SingleReaderWriterFactory;
+import info.bioinfweb.jphyloio.formatinfo.DefaultFormatInfo;
+import info.bioinfweb.jphyloio.formatinfo.JPhyloIOFormatInfo;
+import info.bioinfweb.jphyloio.formatinfo.MetadataModeling;
+import info.bioinfweb.jphyloio.formatinfo.MetadataTopologyType;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+
+
+/**
+ * Reader and writer factory for the binary event format of <i>JPhyloIO</i>.
+ * <p>
+ * The {@code checkFormat()} methods test, if the content starts with {@link BinaryConstants#MAGIC_STRING}. Since the
+ * format is binary, readers can only be created for input streams. 
+ * {@link #getReader(Reader, ReadWriteParameterMap)} is not supported.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BinaryFactory extends AbstractStartStringSingleFactory implements SingleReaderWriterFactory, JPhyloIOFormatIDs, 
+		BinaryConstants {
+	
+	public BinaryFactory() {
+		super(MAGIC_STRING);
+	}
+
+
+	/**
+	 * Checks whether the specified stream starts with the bytes of {@link BinaryConstants#MAGIC_STRING}.
+	 */
+	@Override
+	public boolean checkFormat(InputStream stream, ReadWriteParameterMap parameters) throws IOException {
+		for (int i = 0; i < MAGIC_STRING.length(); i++) {
+			if (stream.read() != MAGIC_STRING.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+
+	@Override
+	public JPhyloIOEventReader getReader(InputStream stream, ReadWriteParameterMap parameters) throws IOException {
+		return new BinaryEventReader(stream, parameters);
+	}
+
+
+	/**
+	 * This method is not supported, since binary documents cannot be read from character streams.
+	 * 
+	 * @throws UnsupportedOperationException always
+	 */
+	@Override
+	public JPhyloIOEventReader getReader(Reader reader, ReadWriteParameterMap parameters) {
+		throw new UnsupportedOperationException("Binary event documents can only be read from input streams.");
+	}
+
+
+	@Override
+	public JPhyloIOEventWriter getWriter() {
+		return new BinaryEventWriter();
+	}
+
+	
+	@Override
+	public boolean hasReader() {
+		return true;
+	}
+
+	
+	@Override
+	public boolean hasWriter() {
+		return true;
+	}
+
+
+	@Override
+	protected JPhyloIOFormatInfo createFormatInfo() {
+		Set<EventContentType> supportedContentTypes = EnumSet.allOf(EventContentType.class);
+		
+		Map<EventContentType, MetadataModeling> supportedMetadataModeling = new EnumMap<EventContentType, MetadataModeling>(EventContentType.class);
+		for (EventContentType contentType : supportedContentTypes) {
+			supportedMetadataModeling.put(contentType, new MetadataModeling(MetadataTopologyType.FULL_TREE, 
+					EnumSet.allOf(LiteralContentSequenceType.class)));
+		}
+		
+		Set<String> supportedReaderParameters = new HashSet<String>();
+		supportedReaderParameters.add(ReadWriteParameterNames.KEY_INCLUDED_CONTENT_TYPES);
+
+		Set<String> supportedWriterParameters = new HashSet<String>();
+		supportedWriterParameters.add(ReadWriteParameterNames.KEY_WRITER_INSTANCE);
+		
+		return new DefaultFormatInfo(this, BINARY_FORMAT_ID, BINARY_FORMAT_NAME, 
+				supportedContentTypes, supportedContentTypes,	supportedMetadataModeling, supportedMetadataModeling,
+				supportedReaderParameters, supportedWriterParameters, new ReadWriteParameterMap(), "JPhyloIO binary events", "jpb");
+	}
+}
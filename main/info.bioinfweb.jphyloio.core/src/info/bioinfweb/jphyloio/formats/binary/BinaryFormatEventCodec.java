@@ -0,0 +1,285 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.utils.BinaryEventCodec;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Event codec used for binary event documents.
+ * <p>
+ * In addition to the representation of {@link BinaryEventCodec}, repeated strings are replaced by references into a
+ * string dictionary that is built up while the document is written or read. Sequence tokens events containing long runs
+ * of identical tokens (e.g. gaps) are written as lists of token runs.
+ * <p>
+ * An instance must be used either for encoding or for decoding a single document, since the dictionary depends on all
+ * strings that were written or read before.
+ * <p>
+ * Object values that are only supported by Java serialization are neither written nor read, since decoding them could 
+ * execute code of arbitrary classes from untrusted documents. Events are always decoded from the contents of a single 
+ * block that was read into memory, so that {@link #getRemainingBytes(DataInput)} can determine the exact number of bytes 
+ * left.
+ * 
+ * @author Ben St&ouml;ver
+ */
+class BinaryFormatEventCodec extends BinaryEventCodec implements BinaryConstants {
+	private static final int EVENT_TOKEN_RUNS = FIRST_CUSTOM_EVENT_TYPE;
+
+	private static final int STRING_NULL = 0;
+	private static final int STRING_LITERAL = 1;
+	private static final int STRING_NEW_ENTRY = 2;
+	private static final int STRING_FIRST_REFERENCE = 3;
+
+
+	private Map<String, Integer> dictionaryIndices = new HashMap<String, Integer>();
+	private List<String> dictionary = new ArrayList<String>();
+	
+	
+	public BinaryFormatEventCodec() {
+		super(false);
+	}
+	
+	
+	/**
+	 * Returns the number of bytes left in the block that is currently decoded.
+	 * 
+	 * @param input the input providing the current block (Must be an {@link InputStream} that reads from memory.)
+	 * @return the number of bytes left in the block
+	 * @throws IOException if {@link InputStream#available()} fails
+	 */
+	@Override
+	protected long getRemainingBytes(DataInput input) throws IOException {
+		if (input instanceof InputStream) {
+			return ((InputStream)input).available();
+		}
+		else {
+			return super.getRemainingBytes(input);
+		}
+	}
+
+
+	@Override
+	protected void writeString(DataOutput output, String value) throws IOException {
+		if (value == null) {
+			writeVarLong(output, STRING_NULL);
+		}
+		else {
+			Integer index = dictionaryIndices.get(value);
+			if (index != null) {
+				writeVarLong(output, STRING_FIRST_REFERENCE + index);
+			}
+			else if ((value.length() <= MAX_DICTIONARY_STRING_LENGTH) && (dictionaryIndices.size() < MAX_DICTIONARY_SIZE)) {
+				writeVarLong(output, STRING_NEW_ENTRY);
+				super.writeString(output, value);
+				dictionaryIndices.put(value, dictionaryIndices.size());
+			}
+			else {
+				writeVarLong(output, STRING_LITERAL);
+				super.writeString(output, value);
+			}
+		}
+	}
+
+
+	@Override
+	protected String readString(DataInput input) throws IOException {
+		long type = readVarLong(input);
+		if (type == STRING_NULL) {
+			return null;
+		}
+		else if (type == STRING_LITERAL) {
+			return readNonNullLiteral(input);
+		}
+		else if (type == STRING_NEW_ENTRY) {
+			String result = readNonNullLiteral(input);
+			dictionary.add(result);
+			return result;
+		}
+		else {
+			long index = type - STRING_FIRST_REFERENCE;
+			if (index >= dictionary.size()) {
+				throw new StreamCorruptedException("Reference to the undefined dictionary entry " + index + " found.");
+			}
+			return dictionary.get((int)index);
+		}
+	}
+
+
+	private String readNonNullLiteral(DataInput input) throws IOException {
+		String result = super.readString(input);
+		if (result == null) {
+			throw new StreamCorruptedException("Missing string literal found.");
+		}
+		return result;
+	}
+
+
+	private static int countRuns(SequenceTokensEvent event) {
+		int result = 0;
+		if (event.hasSingleCharacterTokens()) {
+			String tokens = event.getCharacterTokens();
+			for (int i = 0; i < tokens.length(); i++) {
+				if ((i == 0) || (tokens.charAt(i) != tokens.charAt(i - 1))) {
+					result++;
+				}
+			}
+		}
+		else {
+			String previous = null;
+			for (String token : event.getTokens()) {
+				if ((previous == null) || !previous.equals(token)) {
+					result++;
+				}
+				previous = token;
+			}
+		}
+		return result;
+	}
+
+
+	private void writeTokenRuns(DataOutput output, SequenceTokensEvent event, int runCount) throws IOException {
+		output.writeByte(EVENT_TOKEN_RUNS);
+		output.writeBoolean(event.hasSingleCharacterTokens());
+		writeVarLong(output, runCount);
+		if (event.hasSingleCharacterTokens()) {
+			String tokens = event.getCharacterTokens();
+			int runStart = 0;
+			for (int i = 1; i <= tokens.length(); i++) {
+				if ((i == tokens.length()) || (tokens.charAt(i) != tokens.charAt(runStart))) {
+					writeString(output, Character.toString(tokens.charAt(runStart)));
+					writeVarLong(output, i - runStart);
+					runStart = i;
+				}
+			}
+		}
+		else {
+			List<String> tokens = event.getTokens();
+			int runStart = 0;
+			for (int i = 1; i <= tokens.size(); i++) {
+				if ((i == tokens.size()) || !tokens.get(i).equals(tokens.get(runStart))) {
+					writeString(output, tokens.get(runStart));
+					writeVarLong(output, i - runStart);
+					runStart = i;
+				}
+			}
+		}
+	}
+
+
+	private static long addRunLength(long tokenCount, long runLength) throws StreamCorruptedException {
+		if (runLength > MAX_BLOCK_SIZE - tokenCount) {
+			throw new StreamCorruptedException("A list of token runs representing more than " + MAX_BLOCK_SIZE + " tokens was found.");
+		}
+		return tokenCount + runLength;
+	}
+	
+	
+	private SequenceTokensEvent readTokenRuns(DataInput input) throws IOException {
+		boolean singleCharacterTokens = input.readBoolean();
+		long runCount = readVarLong(input);
+		long tokenCount = 0;
+		if (singleCharacterTokens) {
+			StringBuilder tokens = new StringBuilder();
+			for (long i = 0; i < runCount; i++) {
+				String token = readString(input);
+				if ((token == null) || (token.length() != 1)) {
+					throw new StreamCorruptedException("Invalid single character token run found.");
+				}
+				char c = token.charAt(0);
+				long length = readVarLong(input);
+				tokenCount = addRunLength(tokenCount, length);
+				for (long j = 0; j < length; j++) {
+					tokens.append(c);
+				}
+			}
+			return new SequenceTokensEvent(tokens);
+		}
+		else {
+			List<String> tokens = new ArrayList<String>();
+			for (long i = 0; i < runCount; i++) {
+				String token = readString(input);
+				if (token == null) {
+					throw new StreamCorruptedException("Invalid token run found.");
+				}
+				long length = readVarLong(input);
+				tokenCount = addRunLength(tokenCount, length);
+				for (long j = 0; j < length; j++) {
+					tokens.add(token);
+				}
+			}
+			return new SequenceTokensEvent(tokens);
+		}
+	}
+
+
+	/**
+	 * Determines whether the specified event should be written as a list of token runs.
+	 * 
+	 * @param event the event to be written
+	 * @return the number of token runs or -1 if the event should be written by the inherited implementation
+	 */
+	private static int getPackedRunCount(JPhyloIOEvent event) {
+		if (event.getClass().equals(SequenceTokensEvent.class)) {
+			SequenceTokensEvent tokensEvent = event.asSequenceTokensEvent();
+			int runCount = countRuns(tokensEvent);
+			if ((runCount > 0) && (runCount <= tokensEvent.getTokenCount() / MIN_AVERAGE_TOKEN_RUN_LENGTH) && 
+					(tokensEvent.getTokenCount() <= MAX_BLOCK_SIZE)) {
+				return runCount;
+			}
+		}
+		return -1;
+	}
+
+
+	@Override
+	public void writeEvent(DataOutput output, JPhyloIOEvent event) throws IOException {
+		int runCount = getPackedRunCount(event);
+		if (runCount > 0) {
+			writeTokenRuns(output, event.asSequenceTokensEvent(), runCount);
+		}
+		else {
+			super.writeEvent(output, event);
+		}
+	}
+
+
+	@Override
+	protected JPhyloIOEvent readEvent(DataInput input, int eventType) throws IOException {
+		if (eventType == EVENT_TOKEN_RUNS) {
+			return readTokenRuns(input);
+		}
+		else {
+			return super.readEvent(input, eventType);
+		}
+	}
+}
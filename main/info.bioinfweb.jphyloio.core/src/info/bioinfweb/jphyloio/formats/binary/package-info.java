@@ -0,0 +1,10 @@
+/**
+ * Contains classes for reading and writing the binary event format of <i>JPhyloIO</i>.
+ * <p>
+ * This format stores a complete <i>JPhyloIO</i> event stream in a compact binary representation. It is not meant for 
+ * data exchange with other applications, but allows to re-read documents considerably faster than parsing their 
+ * original format again.
+ * 
+ * @author Ben St&ouml;ver
+ */
+package info.bioinfweb.jphyloio.formats.binary;
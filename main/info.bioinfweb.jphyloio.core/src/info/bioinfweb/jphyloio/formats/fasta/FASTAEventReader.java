@@ -42,8 +42,6 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.List;
 
 
 
@@ -246,12 +244,9 @@ public class FASTAEventReader extends AbstractTextEventReader<TextReaderStreamDa
 						}
 					}
 					PeekReader.ReadResult lineResult = getReader().readLine(getParameters().getMaxTokensToRead());
-					List<String> tokenList = new ArrayList<String>(lineResult.getSequence().length());
-					for (int i = 0; i < lineResult.getSequence().length(); i++) {  //TODO Support tokens longer then one character. => According implementations should already be available in other readers.
-						tokenList.add(Character.toString(lineResult.getSequence().charAt(i)));
-					}
 					lineConsumed = lineResult.isCompletelyRead();
-					getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(currentSequenceName, tokenList));
+					getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(currentSequenceName, 
+							lineResult.getSequence()));  //TODO Support tokens longer then one character. => According implementations should already be available in other readers.
 					break;
 					
 				default:  // includes META_INFORMATION
@@ -0,0 +1,207 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+
+
+/**
+ * Stores the positions of all sequences in a <i>FASTA</i> file. Instances can be stored and loaded in the {@code .fai}
+ * format used by <i>samtools</i>, so that existing index files can be used and files created by this class can be used
+ * by other tools.
+ * <p>
+ * Instances are created by {@link FASTAIndexBuilder} and used by {@link IndexedFASTAEventReader} to read selected 
+ * sequences and columns without parsing the rest of the file.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class FASTAIndex {
+	/** The extension that is appended to the name of an indexed file to obtain the name of its index file. */
+	public static final String INDEX_FILE_EXTENSION = ".fai";
+	
+	private static final char FIELD_SEPARATOR = '\t';
+	
+	
+	private List<FASTAIndexEntry> entries = new ArrayList<FASTAIndexEntry>();
+	private Map<String, FASTAIndexEntry> entriesByName = new HashMap<String, FASTAIndexEntry>();
+	
+	
+	/**
+	 * Returns the index file that is used to store the index of the specified <i>FASTA</i> file.
+	 * 
+	 * @param fastaFile the file to be indexed
+	 * @return the index file (which may not exist)
+	 */
+	public static File getIndexFile(File fastaFile) {
+		return new File(fastaFile.getPath() + INDEX_FILE_EXTENSION);
+	}
+	
+	
+	/**
+	 * Adds a new entry to the end of this index.
+	 * 
+	 * @param entry the entry to be added
+	 * @throws IllegalArgumentException if an entry with the same name is already contained in this index
+	 */
+	public void addEntry(FASTAIndexEntry entry) {
+		if (entriesByName.containsKey(entry.getName())) {
+			throw new IllegalArgumentException("The sequence name \"" + entry.getName() + "\" is not unique.");
+		}
+		else {
+			entries.add(entry);
+			entriesByName.put(entry.getName(), entry);
+		}
+	}
+	
+	
+	/**
+	 * Returns an unmodifiable list of all entries in the order the sequences occur in the indexed file.
+	 * 
+	 * @return the list of entries
+	 */
+	public List<FASTAIndexEntry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+	
+	
+	/**
+	 * Returns the entry of the sequence with the specified name.
+	 * 
+	 * @param name the name of the sequence
+	 * @return the entry or {@code null} if no sequence with the specified name is contained in this index
+	 */
+	public FASTAIndexEntry getEntry(String name) {
+		return entriesByName.get(name);
+	}
+	
+	
+	/**
+	 * Writes this index in the {@code .fai} format to the specified writer. The writer is not closed by this method.
+	 * 
+	 * @param writer the writer to write the index to
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public void write(Writer writer) throws IOException {
+		for (FASTAIndexEntry entry : entries) {
+			writer.write(entry.getName());
+			writer.write(FIELD_SEPARATOR);
+			writer.write(Long.toString(entry.getLength()));
+			writer.write(FIELD_SEPARATOR);
+			writer.write(Long.toString(entry.getOffset()));
+			writer.write(FIELD_SEPARATOR);
+			writer.write(Integer.toString(entry.getLineBases()));
+			writer.write(FIELD_SEPARATOR);
+			writer.write(Integer.toString(entry.getLineBytes()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+	
+	
+	/**
+	 * Writes this index in the {@code .fai} format to the specified file.
+	 * 
+	 * @param file the file to write the index to (usually the file returned by {@link #getIndexFile(File)})
+	 * @throws IOException if an I/O error occurs while writing
+	 */
+	public void write(File file) throws IOException {
+		Writer writer = new BufferedWriter(new FileWriter(file));
+		try {
+			write(writer);
+		}
+		finally {
+			writer.close();
+		}
+	}
+	
+	
+	/**
+	 * Reads an index in the {@code .fai} format from the specified reader. The reader is not closed by this method.
+	 * 
+	 * @param reader the reader to read the index from
+	 * @return the read index
+	 * @throws IOException if an I/O error occurs while reading or the read data is not a valid {@code .fai} index
+	 */
+	public static FASTAIndex read(Reader reader) throws IOException {
+		BufferedReader bufferedReader;
+		if (reader instanceof BufferedReader) {
+			bufferedReader = (BufferedReader)reader;
+		}
+		else {
+			bufferedReader = new BufferedReader(reader);
+		}
+		
+		FASTAIndex result = new FASTAIndex();
+		String line = bufferedReader.readLine();
+		int lineNumber = 1;
+		while (line != null) {
+			if (line.length() > 0) {
+				String[] fields = line.split(Character.toString(FIELD_SEPARATOR));
+				if (fields.length < 5) {  // samtools may add a sixth column for FASTQ files.
+					throw new IOException("Line " + lineNumber + " of the FASTA index contains less than 5 fields.");
+				}
+				try {
+					result.addEntry(new FASTAIndexEntry(fields[0], Long.parseLong(fields[1]), Long.parseLong(fields[2]), 
+							Integer.parseInt(fields[3]), Integer.parseInt(fields[4])));
+				}
+				catch (NumberFormatException e) {
+					throw new IOException("Line " + lineNumber + " of the FASTA index contains an invalid number.", e);
+				}
+				catch (IllegalArgumentException e) {
+					throw new IOException(e.getMessage(), e);
+				}
+			}
+			line = bufferedReader.readLine();
+			lineNumber++;
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Reads an index in the {@code .fai} format from the specified file.
+	 * 
+	 * @param file the file to read the index from
+	 * @return the read index
+	 * @throws IOException if an I/O error occurs while reading or the file is not a valid {@code .fai} index
+	 */
+	public static FASTAIndex read(File file) throws IOException {
+		Reader reader = new FileReader(file);
+		try {
+			return read(reader);
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,234 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+
+/**
+ * Creates instances of {@link FASTAIndex} by scanning <i>FASTA</i> files on byte level.
+ * <p>
+ * Only files that can be described by a {@code .fai} index can be indexed. All lines of a sequence except the last one
+ * must contain the same number of tokens and line breaks must be consistent within a sequence. Comments and token 
+ * indices, which are supported by {@link FASTAEventReader}, are not allowed. Names of the sequences are determined
+ * as the first word of the name definition line, as it is done by <i>samtools</i>.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class FASTAIndexBuilder implements FASTAConstants {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	
+	private InputStream stream;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int bufferPos = 0;
+	private int bufferEnd = 0;
+	private long offset = 0;
+	private long line = 0;
+	private FASTAIndex index = new FASTAIndex();
+	
+	private String currentName = null;
+	private long currentLength;
+	private long currentOffset;
+	private int currentLineBases;
+	private int currentLineBytes;
+	private boolean shortLineFound;
+	
+	
+	private FASTAIndexBuilder(InputStream stream) {
+		super();
+		this.stream = stream;
+	}
+	
+	
+	private int read() throws IOException {
+		if (bufferPos == bufferEnd) {
+			int count = stream.read(buffer);
+			if (count <= 0) {
+				return -1;
+			}
+			bufferPos = 0;
+			bufferEnd = count;
+		}
+		offset++;
+		return buffer[bufferPos++] & 0xFF;
+	}
+	
+	
+	private JPhyloIOReaderException createException(String message, long lineStart) {
+		return new JPhyloIOReaderException(message, lineStart, line, 0);
+	}
+	
+	
+	private void finishSequence() {
+		if (currentName != null) {
+			index.addEntry(new FASTAIndexEntry(currentName, currentLength, currentOffset, currentLineBases, currentLineBytes));
+		}
+	}
+	
+	
+	private void startSequence(String name) {
+		finishSequence();
+		currentName = name;
+		currentLength = 0;
+		currentOffset = offset;
+		currentLineBases = 0;
+		currentLineBytes = 0;
+		shortLineFound = false;
+	}
+	
+	
+	private void addSequenceLine(long lineStart, int lineBases, int lineBytes, boolean lastLine) throws IOException {
+		if (shortLineFound || ((currentLineBytes > 0) && ((lineBases > currentLineBases) || 
+				((lineBases == currentLineBases) && (lineBytes != currentLineBytes) && !lastLine)))) {
+			
+			throw createException("The sequence \"" + currentName + "\" contains lines of different lengths and can therefore "
+					+ "not be indexed.", lineStart);
+		}
+		else if (currentLineBytes == 0) {  // First line of the sequence
+			currentLineBases = lineBases;
+			currentLineBytes = lineBytes;
+		}
+		
+		if (lineBases < currentLineBases) {
+			shortLineFound = true;
+		}
+		currentLength += lineBases;
+	}
+	
+	
+	private void buildIndex() throws IOException {
+		ByteArrayOutputStream nameBuffer = new ByteArrayOutputStream();
+		int c = read();
+		while (c != -1) {
+			long lineStart = offset - 1;
+			if (c == NAME_START_CHAR) {
+				nameBuffer.reset();
+				c = read();
+				while ((c != -1) && (c != '\n') && (c != '\r') && (c != ' ') && (c != '\t')) {
+					nameBuffer.write(c);
+					c = read();
+				}
+				while ((c != -1) && (c != '\n')) {  // Skip rest of the line.
+					c = read();
+				}
+				line++;
+				startSequence(nameBuffer.toString());  // Decoded using the platform default encoding like in FASTAEventReader.
+			}
+			else if (c == COMMENT_START_CHAR) {
+				throw createException("FASTA files containing comments cannot be indexed.", lineStart);
+			}
+			else {
+				int lineBases = 0;
+				int lineBytes = 0;
+				while ((c != -1) && (c != '\n') && (c != '\r')) {
+					lineBases++;
+					lineBytes++;
+					c = read();
+				}
+				if (c == '\r') {
+					lineBytes++;
+					c = read();
+					if ((c != '\n') && (c != -1)) {
+						throw createException("Line breaks only consisting of '\\r' are not supported in indexed FASTA files.", lineStart);
+					}
+				}
+				if (c == '\n') {
+					lineBytes++;
+				}
+				line++;
+				
+				if (currentName == null) {
+					if (lineBases > 0) {
+						throw createException("FASTA file does not start with a \"" + NAME_START_CHAR + "\".", lineStart);
+					}
+				}
+				else if (lineBases == 0) {  // Empty lines are only allowed at the end of a sequence.
+					shortLineFound = true;
+				}
+				else {
+					addSequenceLine(lineStart, lineBases, lineBytes, c == -1);
+				}
+			}
+			c = read();
+		}
+		finishSequence();
+	}
+	
+	
+	/**
+	 * Creates a new index of all sequences contained in the specified file.
+	 * 
+	 * @param file the <i>FASTA</i> file to be indexed
+	 * @return the new index
+	 * @throws IOException if an I/O error occurs while reading the file or the file cannot be indexed (see above)
+	 */
+	public static FASTAIndex buildIndex(File file) throws IOException {
+		InputStream stream = new FileInputStream(file);
+		try {
+			FASTAIndexBuilder builder = new FASTAIndexBuilder(stream);
+			builder.buildIndex();
+			return builder.index;
+		}
+		catch (IllegalArgumentException e) {  // Thrown by FASTAIndex.addEntry().
+			throw new JPhyloIOReaderException(e.getMessage(), e);
+		}
+		finally {
+			stream.close();
+		}
+	}
+	
+	
+	/**
+	 * Returns the index of the specified file. If an index file (see {@link FASTAIndex#getIndexFile(File)}) exists that
+	 * is not older than the specified file, the index is loaded from there. Otherwise a new index is created and stored in
+	 * the index file.
+	 * <p>
+	 * If the index file cannot be written (e.g. because the directory is write protected), the new index is still 
+	 * returned.
+	 * 
+	 * @param file the <i>FASTA</i> file to be indexed
+	 * @return the index
+	 * @throws IOException if an I/O error occurs while reading the file or the file cannot be indexed (see above)
+	 */
+	public static FASTAIndex loadOrBuildIndex(File file) throws IOException {
+		File indexFile = FASTAIndex.getIndexFile(file);
+		if (indexFile.isFile() && (indexFile.lastModified() >= file.lastModified())) {
+			try {
+				return FASTAIndex.read(indexFile);
+			}
+			catch (IOException e) {}  // Invalid index files are replaced below.
+		}
+		
+		FASTAIndex result = buildIndex(file);
+		try {
+			result.write(indexFile);
+		}
+		catch (IOException e) {}  // The index can still be used, although it could not be stored.
+		return result;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+
+/**
+ * Stores the position and line geometry of a single sequence in a <i>FASTA</i> file. The stored values correspond to 
+ * the columns of a line in a <i>samtools</i> {@code .fai} index file.
+ * 
+ * @author Ben St&ouml;ver
+ * @see FASTAIndex
+ */
+public class FASTAIndexEntry {
+	private String name;
+	private long length;
+	private long offset;
+	private int lineBases;
+	private int lineBytes;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param name the name of the sequence (the first word of the name definition line without the leading {@code '>'})
+	 * @param length the number of tokens in the sequence
+	 * @param offset the byte offset of the first token of the sequence in the indexed file
+	 * @param lineBases the number of tokens in each line of the sequence (except the last one)
+	 * @param lineBytes the number of bytes of each line of the sequence (except the last one) including the line break
+	 */
+	public FASTAIndexEntry(String name, long length, long offset, int lineBases, int lineBytes) {
+		super();
+		this.name = name;
+		this.length = length;
+		this.offset = offset;
+		this.lineBases = lineBases;
+		this.lineBytes = lineBytes;
+	}
+
+
+	public String getName() {
+		return name;
+	}
+
+
+	public long getLength() {
+		return length;
+	}
+
+
+	public long getOffset() {
+		return offset;
+	}
+
+
+	public int getLineBases() {
+		return lineBases;
+	}
+
+
+	public int getLineBytes() {
+		return lineBytes;
+	}
+	
+	
+	/**
+	 * Returns the byte offset of the token in the specified column of this sequence in the indexed file.
+	 * 
+	 * @param column the column of the token (The first column has the index 0.)
+	 * @return the offset in bytes
+	 */
+	public long getByteOffset(long column) {
+		if (lineBases == 0) {  // Empty sequence
+			return offset;
+		}
+		else {
+			return offset + (column / lineBases) * lineBytes + column % lineBases;
+		}
+	}
+}
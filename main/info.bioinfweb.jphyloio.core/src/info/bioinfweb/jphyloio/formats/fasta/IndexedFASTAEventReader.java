@@ -0,0 +1,228 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import info.bioinfweb.jphyloio.AbstractEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.PartEndEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+
+
+
+/**
+ * Event reader that reads selected sequences and columns from a <i>FASTA</i> file using a {@link FASTAIndex}. 
+ * <p>
+ * In contrast to {@link FASTAEventReader}, this reader does not parse the file from its start, but directly seeks to the 
+ * bytes of the requested columns of each requested sequence. This allows to efficiently extract e.g. a gene region from
+ * large alignments. The produced events have the same structure as the ones of {@link FASTAEventReader}. The sequences
+ * are read in the order they are specified and are labeled with the names stored in the index. Match tokens are not 
+ * replaced by this reader.
+ * <p>
+ * <b>Example:</b>
+ * <pre>
+ * FASTAIndex index = FASTAIndexBuilder.loadOrBuildIndex(file);
+ * IndexedFASTAEventReader reader = new IndexedFASTAEventReader(file, index, Arrays.asList("seq1", "seq2"), 
+ *     1000, 3000, new ReadWriteParameterMap());  // Reads the columns 1000 to 2999 of both sequences.
+ * </pre>
+ * 
+ * <h3><a id="parameters"></a>Recognized parameters</h3> 
+ * <ul>
+ *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_TOKENS_TO_READ}</li>
+ * </ul>
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class IndexedFASTAEventReader extends AbstractEventReader<ReaderStreamDataProvider<IndexedFASTAEventReader>> 
+		implements FASTAConstants {
+	
+	private static enum State {
+		START,
+		SEQUENCE_START,
+		SEQUENCE_TOKENS,
+		END;
+	}
+	
+	
+	private RandomAccessFile file;
+	private Iterator<FASTAIndexEntry> entryIterator;
+	private long startColumn;
+	private long endColumn;
+	private State state = State.START;
+	private FASTAIndexEntry currentEntry;
+	private long currentColumn;
+	private long currentEndColumn;
+	private byte[] buffer = new byte[0];
+	private StringBuilder tokens = new StringBuilder();
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param file the indexed <i>FASTA</i> file
+	 * @param index the index of the specified file
+	 * @param sequenceNames the names of the sequences to be read in the order they shall be read (If {@code null} is specified,
+	 *        all sequences are read in the order they appear in the index.)
+	 * @param startColumn the first column to be read (The first column of a sequence has the index 0.)
+	 * @param endColumn the first column after the last column to be read (Sequences that are shorter than this value
+	 *        are read until their end. {@link Long#MAX_VALUE} can be specified to always read until the end of each sequence.)
+	 * @param parameters the parameter map for this reader instance
+	 * @throws IllegalArgumentException if one of the specified sequence names is not contained in the index or the column 
+	 *         range is invalid
+	 * @throws IOException if an I/O error occurs while opening the file
+	 */
+	public IndexedFASTAEventReader(File file, FASTAIndex index, Collection<String> sequenceNames, long startColumn, long endColumn,
+			ReadWriteParameterMap parameters) throws IOException {
+		
+		super(parameters, parameters.getMatchToken());
+		
+		if ((startColumn < 0) || (endColumn < startColumn)) {
+			throw new IllegalArgumentException("The column range from " + startColumn + " to " + endColumn + " is invalid.");
+		}
+		
+		List<FASTAIndexEntry> entries;
+		if (sequenceNames == null) {
+			entries = index.getEntries();
+		}
+		else {
+			entries = new ArrayList<FASTAIndexEntry>(sequenceNames.size());
+			for (String name : sequenceNames) {
+				FASTAIndexEntry entry = index.getEntry(name);
+				if (entry == null) {
+					throw new IllegalArgumentException("The sequence \"" + name + "\" is not contained in the specified index.");
+				}
+				entries.add(entry);
+			}
+		}
+		
+		this.file = new RandomAccessFile(file, "r");
+		entryIterator = entries.iterator();
+		this.startColumn = startColumn;
+		this.endColumn = endColumn;
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class that reads all columns of the specified sequences.
+	 * 
+	 * @param file the indexed <i>FASTA</i> file
+	 * @param index the index of the specified file
+	 * @param sequenceNames the names of the sequences to be read in the order they shall be read (If {@code null} is specified,
+	 *        all sequences are read in the order they appear in the index.)
+	 * @param parameters the parameter map for this reader instance
+	 * @throws IllegalArgumentException if one of the specified sequence names is not contained in the index
+	 * @throws IOException if an I/O error occurs while opening the file
+	 */
+	public IndexedFASTAEventReader(File file, FASTAIndex index, Collection<String> sequenceNames, ReadWriteParameterMap parameters) 
+			throws IOException {
+		
+		this(file, index, sequenceNames, 0, Long.MAX_VALUE, parameters);
+	}
+
+
+	@Override
+	public String getFormatID() {
+		return JPhyloIOFormatIDs.FASTA_FORMAT_ID;
+	}
+	
+	
+	private SequenceTokensEvent readTokens() throws IOException {
+		int tokenCount = (int)Math.min(currentEndColumn - currentColumn, getParameters().getMaxTokensToRead());
+		long byteOffset = currentEntry.getByteOffset(currentColumn);
+		int byteCount = (int)(currentEntry.getByteOffset(currentColumn + tokenCount - 1) - byteOffset + 1);  // Includes line breaks between the tokens.
+		if (buffer.length < byteCount) {
+			buffer = new byte[byteCount];
+		}
+		file.seek(byteOffset);
+		file.readFully(buffer, 0, byteCount);
+		
+		tokens.setLength(0);
+		for (int i = 0; i < byteCount; i++) {
+			char c = (char)(buffer[i] & 0xFF);
+			if ((c != '\n') && (c != '\r')) {
+				tokens.append(c);
+			}
+		}
+		currentColumn += tokenCount;
+		return new SequenceTokensEvent(tokens);
+	}
+	
+	
+	@Override
+	protected void readNextEvent() throws IOException {
+		switch (state) {
+			case START:
+				getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.START));
+				getCurrentEventCollection().add(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, 
+						DEFAULT_MATRIX_ID_PREFIX + getIDManager().createNewID(), null, null));
+				state = State.SEQUENCE_START;
+				break;
+			case SEQUENCE_START:
+				if (entryIterator.hasNext()) {
+					currentEntry = entryIterator.next();
+					currentColumn = Math.min(startColumn, currentEntry.getLength());
+					currentEndColumn = Math.min(endColumn, currentEntry.getLength());
+					getCurrentEventCollection().add(new LinkedLabeledIDEvent(EventContentType.SEQUENCE, 
+							DEFAULT_SEQUENCE_ID_PREFIX + getIDManager().createNewID(), currentEntry.getName(), null));
+					state = State.SEQUENCE_TOKENS;
+				}
+				else {
+					getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.ALIGNMENT, EventTopologyType.END));
+					getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.END));
+					state = State.END;
+				}
+				break;
+			case SEQUENCE_TOKENS:
+				if (currentColumn < currentEndColumn) {
+					getCurrentEventCollection().add(readTokens());
+				}
+				else {
+					getCurrentEventCollection().add(new PartEndEvent(EventContentType.SEQUENCE, true));
+					state = State.SEQUENCE_START;
+				}
+				break;
+			case END:
+				break;
+			default:
+				throw new InternalError("Unsupported state " + state + ".");
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		super.close();
+		file.close();
+	}
+}
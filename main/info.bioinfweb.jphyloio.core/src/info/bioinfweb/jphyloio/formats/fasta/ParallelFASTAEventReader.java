@@ -0,0 +1,223 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.events.CommentEvent;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.formats.text.AbstractParallelTextEventReader;
+import info.bioinfweb.jphyloio.formats.text.MappedFileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+
+
+/**
+ * Event based reader for <i>FASTA</i> alignment files that parses the sequences of a file in parallel.
+ * <p>
+ * The input is split at the starts of name definition lines (and at line breaks inside sequences that are longer than
+ * {@link #CHUNK_SIZE}) and the parts are parsed by multiple threads. The events are fired in the order of the input 
+ * and have the same structure as the events of {@link FASTAEventReader}. This reader is therefore a replacement
+ * for {@link FASTAEventReader} for large files, if multiple processors are available.
+ * <p>
+ * Note that lines starting with {@code '>'} are always considered as the start of a new sequence, even if they are 
+ * preceded by lines only containing white spaces or indices.
+ * 
+ * <h3><a id="parameters"></a>Recognized parameters</h3> 
+ * <ul>
+ *   <li>{@link ReadWriteParameterNames#KEY_MATCH_TOKEN}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_REPLACE_MATCH_TOKENS}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_TOKENS_TO_READ}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_COMMENT_LENGTH}</li>
+ * </ul>
+ * 
+ * @author Ben St&ouml;ver
+ * @see FASTAEventReader
+ */
+public class ParallelFASTAEventReader extends AbstractParallelTextEventReader<ReaderStreamDataProvider<ParallelFASTAEventReader>> 
+		implements FASTAConstants {
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param reader the reader providing the <i>FASTA</i> data to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @param executor the executor to parse the chunks of the input (If {@code null} is specified, a new thread pool 
+	 *        with one thread per available processor is created and shut down when this reader is closed.)
+	 */
+	public ParallelFASTAEventReader(Reader reader, ReadWriteParameterMap parameters, ExecutorService executor) {
+		super(reader, parameters, parameters.getMatchToken(), executor);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class using a new thread pool.
+	 * 
+	 * @param reader the reader providing the <i>FASTA</i> data to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 */
+	public ParallelFASTAEventReader(Reader reader, ReadWriteParameterMap parameters) {
+		this(reader, parameters, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class. The file is read using a {@link MappedFileReader}.
+	 * 
+	 * @param file the <i>FASTA</i> file to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @param executor the executor to parse the chunks of the input (If {@code null} is specified, a new thread pool 
+	 *        with one thread per available processor is created and shut down when this reader is closed.)
+	 * @throws IOException if the file cannot be opened
+	 */
+	public ParallelFASTAEventReader(File file, ReadWriteParameterMap parameters, ExecutorService executor) throws IOException {
+		this(new MappedFileReader(file), parameters, executor);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class using a new thread pool. The file is read using a {@link MappedFileReader}.
+	 * 
+	 * @param file the <i>FASTA</i> file to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @throws IOException if the file cannot be opened
+	 */
+	public ParallelFASTAEventReader(File file, ReadWriteParameterMap parameters) throws IOException {
+		this(file, parameters, null);
+	}
+	
+	
+	@Override
+	public String getFormatID() {
+		return JPhyloIOFormatIDs.FASTA_FORMAT_ID;
+	}
+	
+	
+	private static boolean isLineBreak(char c) {
+		return (c == '\n') || (c == '\r');
+	}
+	
+	
+	@Override
+	protected int findChunkEnd(char[] chunk, int length) {
+		int lastLineStart = 0;
+		for (int i = length - 1; i > 0; i--) {
+			if (isLineBreak(chunk[i - 1])) {
+				if (chunk[i] == NAME_START_CHAR) {
+					return i;
+				}
+				else if (lastLineStart == 0) {
+					lastLineStart = i;
+				}
+			}
+		}
+		return lastLineStart;  // Split inside a long sequence.
+	}
+	
+	
+	private static int findLineEnd(char[] chunk, int start, int end) {
+		while ((start < end) && !isLineBreak(chunk[start])) {
+			start++;
+		}
+		return start;
+	}
+	
+	
+	private static int skipLineBreak(char[] chunk, int pos, int end) {
+		if (pos < end) {
+			if ((chunk[pos] == '\r') && (pos + 1 < end) && (chunk[pos + 1] == '\n')) {
+				pos += 2;
+			}
+			else {
+				pos++;
+			}
+		}
+		return pos;
+	}
+	
+	
+	@Override
+	protected List<SequenceRecord> parseChunk(char[] chunk, int length, long offset) throws IOException {
+		int maxTokensToRead = getParameters().getMaxTokensToRead();
+		int maxCommentLength = getParameters().getMaxCommentLength();
+		List<SequenceRecord> result = new ArrayList<SequenceRecord>();
+		
+		int pos = 0;
+		while (pos < length) {
+			SequenceRecord record;
+			if (chunk[pos] == NAME_START_CHAR) {
+				// Read name:
+				int lineEnd = findLineEnd(chunk, pos + 1, length);
+				record = new SequenceRecord(new String(chunk, pos + 1, lineEnd - pos - 1));
+				pos = skipLineBreak(chunk, lineEnd, length);
+				
+				// Read comments:
+				while ((pos < length) && (chunk[pos] == COMMENT_START_CHAR)) {
+					pos++;
+					lineEnd = findLineEnd(chunk, pos, length);
+					do {
+						int partLength = Math.min(maxCommentLength, lineEnd - pos);
+						record.addComment(new CommentEvent(new String(chunk, pos, partLength), pos + partLength < lineEnd));
+						pos += partLength;
+					} while (pos < lineEnd);
+					pos = skipLineBreak(chunk, lineEnd, length);
+				}
+			}
+			else if (offset == 0) {
+				throw new JPhyloIOReaderException("FASTA file does not start with a \"" + NAME_START_CHAR + "\".", offset + pos, -1, -1);
+			}
+			else {  // The chunk starts inside a sequence.
+				record = new SequenceRecord(null);
+			}
+			
+			// Read tokens:
+			boolean lineStart = true;
+			while (pos < length) {
+				if (lineStart) {  // Skip white spaces and token indices.
+					while ((pos < length) && (Character.isWhitespace(chunk[pos]) || Character.isDigit(chunk[pos]))) {
+						pos++;
+					}
+					if ((pos == length) || ((chunk[pos] == NAME_START_CHAR) && (pos > 0) && isLineBreak(chunk[pos - 1]))) {
+						break;
+					}
+				}
+				
+				int lineEnd = findLineEnd(chunk, pos, length);
+				int partLength = Math.min(maxTokensToRead, lineEnd - pos);
+				record.getTokens().add(new String(chunk, pos, partLength));
+				pos += partLength;
+				lineStart = (pos == lineEnd);
+				if (lineStart) {
+					pos = skipLineBreak(chunk, pos, length);
+				}
+			}
+			result.add(record);
+		}
+		return result;
+	}
+}
@@ -56,6 +56,7 @@ import info.bioinfweb.jphyloio.events.type.EventTopologyType;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
 import info.bioinfweb.jphyloio.formats.text.AbstractTextEventReader;
+import info.bioinfweb.jphyloio.formats.text.CharacterClass;
 import info.bioinfweb.jphyloio.formats.text.KeyValueInformation;
 import info.bioinfweb.jphyloio.formats.text.TextReaderStreamDataProvider;
 import info.bioinfweb.jphyloio.utils.IDToNameManager;
@@ -81,9 +82,7 @@ import info.bioinfweb.jphyloio.utils.IDToNameManager;
 public class MEGAEventReader extends AbstractTextEventReader<TextReaderStreamDataProvider<MEGAEventReader>> 
 		implements MEGAConstants, ReadWriteConstants {
 	
-	private static final Pattern READ_COMMAND_PATTERN = 
-			Pattern.compile(".+(\\" + COMMENT_START + "|\\" + COMMAND_END + ")", Pattern.DOTALL);
-	private static final Pattern SEQUENCE_NAME_PATTERN = Pattern.compile(".+\\s+");
+	private static final CharacterClass COMMENT_START_COMMAND_END = new CharacterClass(COMMENT_START, COMMAND_END);
 	
 	private static final String GENE_DONAIN_COMMAND_PATTERN_SUFFIX = "\\s*\\=\\s*(\\w+).*";
 	private static final Pattern GENE_COMMAND_PATTERN = 
@@ -393,7 +392,7 @@ public class MEGAEventReader extends AbstractTextEventReader<TextReaderStreamDat
 				StringBuilder contentBuffer = new StringBuilder();
 				CharSequence currentPart;
 				do {
-					currentPart = getReader().readRegExp(READ_COMMAND_PATTERN, false).getSequence();
+					currentPart = getScanner().readUntil(COMMENT_START_COMMAND_END, 1, Integer.MAX_VALUE).getSequence();
 					if (currentPart.charAt(currentPart.length() - 1) == COMMENT_START) {
 						readComment(COMMENT_START, COMMENT_END);
 					}
@@ -423,7 +422,7 @@ public class MEGAEventReader extends AbstractTextEventReader<TextReaderStreamDat
 	
 	private void readSequenceName() throws IOException {
 		getReader().read();  // Consume "#"
-		currentSequenceName = getReader().readRegExp(SEQUENCE_NAME_PATTERN, false).getSequence().toString().trim();
+		currentSequenceName = getScanner().readUntil(CharacterClass.WHITESPACE, 1, Integer.MAX_VALUE).getSequence().toString().trim();
 		if (firstSequenceName == null) {
 			firstSequenceName = currentSequenceName;
 		}
@@ -97,8 +97,13 @@ public class NewickNodeEdgeEventReceiver<E extends JPhyloIOEvent> extends BasicE
 	}
 	
 	
+	/**
+	 * Removes all metadata and comments collected by this receiver, so that it can be reused for another node or edge.
+	 */
 	public void clear() {
+		metadataList.clear();
 		commentEvents.clear();
+		getParentEvents().clear();
 		ignoredXMLMetadata = false;
 		clearCurrentLiteralValue();
 	}
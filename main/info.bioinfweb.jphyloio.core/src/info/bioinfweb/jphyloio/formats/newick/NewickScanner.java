@@ -23,7 +23,6 @@ import java.io.IOException;
 import java.util.NoSuchElementException;
 
 import info.bioinfweb.commons.io.PeekReader;
-import info.bioinfweb.commons.io.StreamLocation;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TreeReader;
 
@@ -31,6 +30,10 @@ import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TreeReader;
 
 /**
  * Reads Newick tokens from a stream. (This class is used internally by JPhyloIO reader reading Newick tree definitions.)
+ * <p>
+ * The characters of names, comments and branch lengths are collected in a buffer that is reused for all tokens. The 
+ * stream location of a token is only stored as primitive values and an according location object is only created if
+ * {@link NewickToken#getLocation()} is called (e.g. when an exception is thrown).
  * 
  * @author Ben St&ouml;ver
  * @see NewickStringReader
@@ -38,12 +41,21 @@ import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TreeReader;
  * @see TreeReader
  */
 public class NewickScanner implements NewickConstants {
+	/** The maximal value of a decimal mantissa that can still be represented exactly by a {@code double}. */
+	private static final long MAX_EXACT_MANTISSA = (1L << 53) - 1;
+	
+	/** Powers of ten that can be represented exactly by a {@code double}. */
+	private static final double[] EXACT_POWERS_OF_TEN = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 
+			1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+	
+	
 	private PeekReader reader; 
 	private boolean readSequence;
 	private NewickToken next = null;
 	private NewickToken previous = null;
 	private boolean beforeFirstAccess = true;
 	private boolean branchLengthExpected = false;
+	private StringBuilder buffer = new StringBuilder();
 	
 	
 	/**
@@ -72,15 +84,123 @@ public class NewickScanner implements NewickConstants {
 	}
 	
 	
+	/**
+	 * Determines whether the specified character is whitespace according to the regular expression class {@code \s}.
+	 * 
+	 * @param c the character code to be tested (Maybe -1 if the end of the stream was reached.)
+	 * @return {@code true} if the character is whitespace, {@code false} otherwise
+	 */
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\t') || (c == '\n') || (c == 0x0B) || (c == '\f') || (c == '\r');
+	}
+	
+	
+	private void skipWhitespace() throws IOException {
+		while (isWhitespace(reader.peek())) {
+			reader.read();
+		}
+	}
+	
+	
+	private void clearBuffer() {
+		buffer.setLength(0);
+	}
+	
+	
+	/**
+	 * Parses a decimal number as {@link Double#parseDouble(String)} would do. Simple decimal representations with up to 15
+	 * significant digits and a small exponent are converted directly without creating any objects. The result is 
+	 * identical to {@link Double#parseDouble(String)}, since both the mantissa and the power of ten can be represented 
+	 * exactly in these cases and only one rounding operation is performed. All other representations are passed to
+	 * {@link Double#parseDouble(String)}.
+	 * 
+	 * @param text the text to be parsed
+	 * @return the parsed value
+	 * @throws NumberFormatException if {@code text} does not represent a valid number
+	 */
+	static double parseDouble(CharSequence text) throws NumberFormatException {
+		int length = text.length();
+		int pos = 0;
+		boolean negative = false;
+		if ((pos < length) && ((text.charAt(pos) == '-') || (text.charAt(pos) == '+'))) {
+			negative = text.charAt(pos) == '-';
+			pos++;
+		}
+		
+		long mantissa = 0;
+		int exponent = 0;
+		int digitCount = 0;
+		boolean exact = true;
+		boolean decimalPointFound = false;
+		while (pos < length) {
+			char c = text.charAt(pos);
+			if ((c >= '0') && (c <= '9')) {
+				if (mantissa <= (MAX_EXACT_MANTISSA - 9) / 10) {
+					mantissa = mantissa * 10 + (c - '0');
+				}
+				else {
+					exact = false;
+				}
+				if (decimalPointFound) {
+					exponent--;
+				}
+				digitCount++;
+			}
+			else if ((c == '.') && !decimalPointFound) {
+				decimalPointFound = true;
+			}
+			else {
+				break;
+			}
+			pos++;
+		}
+		
+		if ((pos < length) && (digitCount > 0) && ((text.charAt(pos) == 'e') || (text.charAt(pos) == 'E'))) {
+			pos++;
+			boolean negativeExponent = false;
+			if ((pos < length) && ((text.charAt(pos) == '-') || (text.charAt(pos) == '+'))) {
+				negativeExponent = text.charAt(pos) == '-';
+				pos++;
+			}
+			int exponentStart = pos;
+			int explicitExponent = 0;
+			while ((pos < length) && (text.charAt(pos) >= '0') && (text.charAt(pos) <= '9')) {
+				if (explicitExponent < 1000) {
+					explicitExponent = explicitExponent * 10 + (text.charAt(pos) - '0');
+				}
+				pos++;
+			}
+			if (pos == exponentStart) {
+				exact = false;  // Let Double.parseDouble() throw the exception.
+			}
+			exponent += negativeExponent ? -explicitExponent : explicitExponent;
+		}
+		
+		if (exact && (digitCount > 0) && (pos == length) && (Math.abs(exponent) < EXACT_POWERS_OF_TEN.length)) {
+			double result = mantissa;
+			if (exponent < 0) {
+				result /= EXACT_POWERS_OF_TEN[-exponent];
+			}
+			else {
+				result *= EXACT_POWERS_OF_TEN[exponent];
+			}
+			return negative ? -result : result;
+		}
+		else {
+			return Double.parseDouble(text.toString());
+		}
+	}
+	
+	
 	private NewickToken readDelimitedName(char delimiter) throws IOException {
 		reader.read();  // Skip initial delimiter.
-		StringBuilder result = new StringBuilder();
+		clearBuffer();
 		do {
 			while ((reader.peek() != -1) && (reader.peekChar() != delimiter)) {
-				result.append(reader.readChar());
+				buffer.append(reader.readChar());
 			}
 			if ((reader.peek(1) != -1) && (reader.peekChar(1) == delimiter)) {
-				result.append(delimiter);  // Allow 'abc'''
+				buffer.append(delimiter);  // Allow 'abc'''
 				reader.read();
 				reader.read();
 			}
@@ -92,7 +212,7 @@ public class NewickScanner implements NewickConstants {
 		else {
 			reader.read();  // Skip terminal delimiter.
 			NewickToken token = new NewickToken(NewickTokenType.NAME, reader);
-			token.setText(result.toString());
+			token.setText(buffer.toString());
 			token.setDelimited(true);
 			return token;
 		}
@@ -100,23 +220,25 @@ public class NewickScanner implements NewickConstants {
 	
 	
 	private NewickToken readFreeName() throws IOException {
-		StringBuilder result = new StringBuilder();
-		result.append(reader.readChar());
-		while ((reader.peek() != -1) && isFreeNameChar(reader.peekChar())) {
-			char c = reader.readChar();
+		clearBuffer();
+		buffer.append(reader.readChar());
+		int c = reader.peek();
+		while ((c != -1) && isFreeNameChar((char)c)) {
+			reader.read();
 			if (c == FREE_NAME_BLANK) {
-				result.append(' ');
+				buffer.append(' ');
 			}
 			else {
-				result.append(c);
+				buffer.append((char)c);
 			}
+			c = reader.peek();
 		}
 		
-		if (reader.peek() == -1) {
+		if (c == -1) {
 			throw new JPhyloIOReaderException("Unterminated Newick name.", reader);
 		}
 		else {
-			return new NewickToken(reader, result.toString(), false);
+			return new NewickToken(reader, buffer.toString(), false);
 		}
 	}
 	
@@ -125,62 +247,88 @@ public class NewickScanner implements NewickConstants {
 	 * Reads a length statement in an Newick string or a comment before a branch length definition.
 	 */
 	private NewickToken readBranchLength() throws IOException {
-		reader.readRegExp("\\s*", true);  // Skip whitespace.
+		skipWhitespace();
 		if (reader.peek() == -1) {
 			throw new JPhyloIOReaderException("Unexpected end of file in a Newick branch length definition.", reader);
 		}
+		else if (reader.peekChar() == COMMENT_START) {
+			return readComment();
+		}
 		else {
-			StreamLocation location = new StreamLocation(reader);
-			if (reader.peekChar() == COMMENT_START) {
-				return readComment();
+			NewickToken token = new NewickToken(NewickTokenType.LENGTH, reader);
+			clearBuffer();
+			int c = reader.peek();
+			while ((c != -1) && !isCharAfterLength((char)c)) {
+				buffer.append(reader.readChar());
+				c = reader.peek();
 			}
-			else {
-				StringBuilder text = new StringBuilder();
-				while ((reader.peek() != -1) && !isCharAfterLength(reader.peekChar())) {
-					text.append(reader.readChar());
-				}
+
+			try {
+				token.setLength(parseDouble(buffer));
+			}
+			catch (NumberFormatException e) {
+				throw new JPhyloIOReaderException("\"" + buffer + "\" is not a valid Newick branch length.", token.getLocation(), e);
+			}
+			branchLengthExpected = false;
+			return token;
+		}
+	}
 	
-				double value; 
-				try {
-					value = Double.parseDouble(text.toString());
-				}
-				catch (NumberFormatException e) {
-					throw new JPhyloIOReaderException("\"" + text + "\" is not a valid Newick branch length.", location, e);
+	
+	/**
+	 * Determines whether the buffer contains the specified hot comment, ignoring case and leading and trailing whitespace 
+	 * as defined by {@link String#trim()}.
+	 */
+	private boolean bufferContainsCommand(String command) {
+		int start = 0;
+		int end = buffer.length();
+		while ((start < end) && (buffer.charAt(start) <= ' ')) {
+			start++;
+		}
+		while ((end > start) && (buffer.charAt(end - 1) <= ' ')) {
+			end--;
+		}
+		
+		if (end - start != command.length()) {
+			return false;
+		}
+		else {
+			for (int i = 0; i < command.length(); i++) {
+				if (Character.toLowerCase(buffer.charAt(start + i)) != command.charAt(i)) {
+					return false;
 				}
-				
-				NewickToken token = new NewickToken(NewickTokenType.LENGTH, location);
-				token.setLength(value);
-				branchLengthExpected = false;
-				return token;
 			}
+			return true;
 		}
 	}
 
 	
 	private NewickToken readComment() throws IOException {
-		StreamLocation location = new StreamLocation(reader);
+		long characterOffset = reader.getCharacterOffset();
+		long lineNumber = reader.getLineNumber();
+		long columnNumber = reader.getColumnNumber();
 		reader.read();  // Skip COMMENT_START.
-		StringBuilder buffer = new StringBuilder();
-		while ((reader.peek() != -1) && (reader.peekChar() != COMMENT_END)) {
+		clearBuffer();
+		int c = reader.peek();
+		while ((c != -1) && (c != COMMENT_END)) {
 			buffer.append(reader.readChar());
+			c = reader.peek();
 		}
 		
-		if (reader.peek() == -1) {
+		if (c == -1) {
 			throw new JPhyloIOReaderException("Unexpected end of file inside a Newick comment.", reader);
 		}
 		else {
 			reader.read();  // Skip COMMENT_END.
-			String text = buffer.toString();
-			String lowerCase = text.trim().toLowerCase();
-			if (lowerCase.equals(UNROOTED_HOT_COMMENT)) {
-				return new NewickToken(NewickTokenType.UNROOTED_COMMAND, location);
+			if (bufferContainsCommand(UNROOTED_HOT_COMMENT)) {
+				return new NewickToken(NewickTokenType.UNROOTED_COMMAND, characterOffset, lineNumber, columnNumber);
 			}
-			else if (lowerCase.equals(ROOTED_HOT_COMMENT)) {
-				return new NewickToken(NewickTokenType.ROOTED_COMMAND, location);
+			else if (bufferContainsCommand(ROOTED_HOT_COMMENT)) {
+				return new NewickToken(NewickTokenType.ROOTED_COMMAND, characterOffset, lineNumber, columnNumber);
 			}
 			else {
-				NewickToken result = new NewickToken(NewickTokenType.COMMENT, location);
-				result.setText(text);
+				NewickToken result = new NewickToken(NewickTokenType.COMMENT, characterOffset, lineNumber, columnNumber);
+				result.setText(buffer.toString());
 				return result;
 			}
 		}
@@ -188,7 +336,7 @@ public class NewickScanner implements NewickConstants {
 	
 	
 	private NewickToken readNextToken() throws IOException {
-		reader.readRegExp("\\s*", true);  // Skip whitespace. Can be removed, when ConsumeWhiteSpaceAndComments is called above.
+		skipWhitespace();
 		
 		if (reader.peek() == -1) {
 			return null; 
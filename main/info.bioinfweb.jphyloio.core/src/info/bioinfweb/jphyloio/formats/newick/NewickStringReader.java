@@ -43,11 +43,11 @@ import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
-import java.util.Stack;
 import java.util.regex.Pattern;
 
 
@@ -124,7 +124,8 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 	private boolean expectENewick;
 	private NewickReaderNodeLabelProcessor nodeLabelProcessor;
 	private NewickScanner scanner;
-	private Stack<Queue<NodeEdgeInfo>> passedSubnodes;
+	private Deque<Queue<NodeEdgeInfo>> passedSubnodes;
+	private Deque<Queue<NodeEdgeInfo>> unusedSubnodeQueues = new ArrayDeque<Queue<NodeEdgeInfo>>();
 	private Map<Long, String> networkNodeLabelToIDMap = new HashMap<Long, String>();
 	private HotCommentDataReader hotCommentDataReader = new HotCommentDataReader();
 	private boolean isInTree = false;
@@ -162,7 +163,7 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 		this.expectENewick = expectENewick;
 		
 		scanner = new NewickScanner(streamDataProvider.getDataReader(), treeLabel == null);
-		passedSubnodes = new Stack<Queue<NodeEdgeInfo>>();
+		passedSubnodes = new ArrayDeque<Queue<NodeEdgeInfo>>();
 	}
 	
 	
@@ -176,6 +177,29 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 	}
 	
 	
+	/**
+	 * Returns an empty queue to store subnodes of a new subtree level. Queues that were released before using 
+	 * {@link #addEdgeEvents(String, Queue)} are reused.
+	 */
+	private Queue<NodeEdgeInfo> createSubnodeQueue() {
+		if (unusedSubnodeQueues.isEmpty()) {
+			return new ArrayDeque<NodeEdgeInfo>();
+		}
+		else {
+			return unusedSubnodeQueues.pop();
+		}
+	}
+	
+	
+	private static boolean startsWithAfterTrim(String text, char c) {
+		int start = 0;
+		while ((start < text.length()) && (text.charAt(start) <= ' ')) {
+			start++;
+		}
+		return (start < text.length()) && (text.charAt(start) == c);
+	}
+	
+	
 	private boolean isHotComment(String text) {
 		return HOT_COMMENT_PATTERN.matcher(text).matches();  // text.trim().startsWith("" + HotCommentDataReader.START_SYMBOL);
 	}
@@ -183,8 +207,13 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 	
 	private Collection<JPhyloIOEvent> createMetaAndCommentEvents(List<NewickToken> tokens, boolean isOnNode) throws IOException {
 		Collection<JPhyloIOEvent> result = new ArrayList<JPhyloIOEvent>();
+		boolean metadataIncluded = streamDataProvider.isContentTypeIncluded(EventContentType.LITERAL_META);
+		boolean commentsIncluded = streamDataProvider.isContentTypeIncluded(EventContentType.COMMENT);
 		for (NewickToken token : tokens) {
-			if (token.getText().trim().startsWith("" + HotCommentDataReader.HOT_COMMENT_START_SYMBOL)) {  // Condition works for both the TreeAnnotator and the NHX format.
+			if (startsWithAfterTrim(token.getText(), HotCommentDataReader.HOT_COMMENT_START_SYMBOL)) {  // Condition works for both the TreeAnnotator and the NHX format.
+				if (!metadataIncluded && !commentsIncluded) {
+					continue;  // Parsing can be skipped, since neither the resulting events nor a comment for an invalid hot comment would be returned.
+				}
 				try {
 					hotCommentDataReader.read(token.getText(), streamDataProvider, result, isOnNode);
 				}
@@ -192,7 +221,7 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 					result.add(new CommentEvent(token.getText(), false));  //TODO Log warning, when logger is available.
 				}
 			}
-			else {
+			else if (commentsIncluded) {
 				result.add(new CommentEvent(token.getText(), false));
 			}
 		}
@@ -398,6 +427,7 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 			streamDataProvider.getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(
 					sourceID == null ? EventContentType.ROOT_EDGE : EventContentType.EDGE, EventTopologyType.END));
 		}		
+		unusedSubnodeQueues.push(nodeInfos);  // The empty queue can be reused for another subtree.
 	}
 	
 	
@@ -434,7 +464,7 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 				NewickToken token = scanner.nextToken();
 				switch (token.getType()) {
 					case SUBTREE_START:
-						passedSubnodes.add(new ArrayDeque<NodeEdgeInfo>());
+						passedSubnodes.push(createSubnodeQueue());
 					case ELEMENT_SEPARATOR:  // fall through
 						readNode(false);  // Will not add an element, if another SUBTREE_START follows.
 						break;
@@ -516,7 +546,7 @@ public class NewickStringReader implements ReadWriteConstants, NewickConstants {
 						currentTreeRooted = NewickTokenType.ROOTED_COMMAND.equals(type);
 						scanner.nextToken();  // Skip rooted token.
 					}
-					passedSubnodes.add(new ArrayDeque<NodeEdgeInfo>());  // Add queue for top level.
+					passedSubnodes.push(createSubnodeQueue());  // Add queue for top level.
 					
 					if (scanner.hasMoreTokens()) {
 						type = scanner.peek().getType();
@@ -34,12 +34,18 @@ import info.bioinfweb.jphyloio.utils.TopoplogicalNodeInfo;
 import info.bioinfweb.jphyloio.utils.TreeTopologyExtractor;
 
 import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Iterator;
 
 
 
 /**
  * Implementation to write Newick tree definitions to be used by {@link NewickEventWriter} and {@link NexusEventWriter}.
+ * <p>
+ * Trees are traversed using an explicit stack instead of recursion, so that the depth of the written trees is not limited
+ * by the stack size of the current thread. 
  * 
  * @author Ben St&ouml;ver
  * @see NewickEventWriter
@@ -47,6 +53,23 @@ import java.util.Iterator;
  * @see <a href="http://r.bioinfweb.info/JPhyloIODemoMetadata">Metadata demo application</a>
  */
 public class NewickStringWriter implements NewickConstants {
+	private static class SubtreeInfo {
+		public String nodeID;
+		public TopoplogicalNodeInfo nodeInfo;
+		public Iterator<String> childNodeIDIterator;
+		public boolean hasChildren;
+		public boolean childWritten = false;
+		
+		public SubtreeInfo(String nodeID, TopoplogicalNodeInfo nodeInfo) {
+			super();
+			this.nodeID = nodeID;
+			this.nodeInfo = nodeInfo;
+			childNodeIDIterator = nodeInfo.getChildNodeIDs().iterator();
+			hasChildren = childNodeIDIterator.hasNext();
+		}
+	}
+	
+	
 	private TextWriterStreamDataProvider<?> streamDataProvider;
 	private TreeNetworkDataAdapter tree;
 	private ObjectListDataAdapter<EdgeEvent> edges;
@@ -54,6 +77,10 @@ public class NewickStringWriter implements NewickConstants {
 	private TreeTopologyExtractor topologyExtractor;
 	private NewickWriterNodeLabelProcessor nodeLabelProcessor;
 	private ReadWriteParameterMap parameters;
+	private NewickNodeEdgeEventReceiver<EdgeEvent> edgeReceiver;
+	private NewickNodeEdgeEventReceiver<LinkedLabeledIDEvent> nodeReceiver;
+	private StringBuilder numberBuffer = new StringBuilder(32);
+	private char[] numberChars = new char[32];
 	
 	
 	/**
@@ -77,6 +104,8 @@ public class NewickStringWriter implements NewickConstants {
 		this.tree = tree;
 		this.nodeLabelProcessor = nodeLabelProcessor;
 		this.parameters = parameters;
+		edgeReceiver = new NewickNodeEdgeEventReceiver<EdgeEvent>(streamDataProvider, parameters);
+		nodeReceiver = new NewickNodeEdgeEventReceiver<LinkedLabeledIDEvent>(streamDataProvider, parameters);
 	}
 	
 	
@@ -127,45 +156,83 @@ public class NewickStringWriter implements NewickConstants {
 	}
 	
 	
-	private void writeSubtree(String nodeID) throws IOException {
-		TopoplogicalNodeInfo nodeInfo = topologyExtractor.getIDToNodeInfoMap().get(nodeID);
-		NewickNodeEdgeEventReceiver<EdgeEvent> edgeReceiver = new NewickNodeEdgeEventReceiver<EdgeEvent>(streamDataProvider, parameters);
-		edges.writeContentData(parameters, edgeReceiver, nodeInfo.getAfferentBranchID());  //TODO It would theoretically possible to save memory, if only the node ID would be processed here and the associated metadata and comments would be processed after the recursion.
-		Iterator<String> childNodeIDIterator = nodeInfo.getChildNodeIDs().iterator();
-		if (childNodeIDIterator.hasNext()) {
-			streamDataProvider.getWriter().write(SUBTREE_START);
-			writeSubtree(childNodeIDIterator.next());
-			while (childNodeIDIterator.hasNext()) {
-				streamDataProvider.getWriter().write(ELEMENT_SEPERATOR + " ");
-				writeSubtree(childNodeIDIterator.next());
-			}
-			streamDataProvider.getWriter().write(SUBTREE_END);
+	/**
+	 * Writes the specified branch length in the same representation as {@link Double#toString(double)} without creating 
+	 * a new string object.
+	 */
+	private void writeBranchLength(Writer writer, double length) throws IOException {
+		numberBuffer.setLength(0);
+		numberBuffer.append(length);
+		int count = numberBuffer.length();
+		if (count > numberChars.length) {
+			numberChars = new char[count];
+		}
+		numberBuffer.getChars(0, count, numberChars, 0);
+		writer.write(numberChars, 0, count);
+	}
+	
+	
+	private SubtreeInfo startSubtree(Writer writer, String nodeID) throws IOException {
+		SubtreeInfo result = new SubtreeInfo(nodeID, topologyExtractor.getIDToNodeInfoMap().get(nodeID));
+		if (result.hasChildren) {
+			writer.write(SUBTREE_START);
+		}
+		return result;
+	}
+	
+	
+	private void endSubtree(Writer writer, SubtreeInfo subtree) throws IOException {
+		if (subtree.hasChildren) {
+			writer.write(SUBTREE_END);
 		}
 		
-		NewickNodeEdgeEventReceiver<LinkedLabeledIDEvent> nodeReceiver = 
-				new NewickNodeEdgeEventReceiver<LinkedLabeledIDEvent>(streamDataProvider, parameters);
-		nodes.writeContentData(parameters, nodeReceiver, nodeID);
+		String edgeID = subtree.nodeInfo.getAfferentBranchID();
+		EdgeEvent edgeEvent = edges.getObjectStartEvent(parameters, edgeID);
+		edgeReceiver.clear();
+		edges.writeContentData(parameters, edgeReceiver, edgeID);
+		nodeReceiver.clear();
+		nodes.writeContentData(parameters, nodeReceiver, subtree.nodeID);
 		
 		// Write node data:
-		streamDataProvider.getWriter().write(formatToken(nodeLabelProcessor.createNodeName(tree.getNodes(parameters).getObjectStartEvent(parameters, nodeID)), NAME_DELIMITER));
+		writer.write(formatToken(nodeLabelProcessor.createNodeName(nodes.getObjectStartEvent(parameters, subtree.nodeID)), NAME_DELIMITER));
 		nodeReceiver.writeMetadata();
 		nodeReceiver.writeComments();
 		
 		// Write edge data:
-		if (edges.getObjectStartEvent(parameters, nodeInfo.getAfferentBranchID()).hasLength()) {
-			streamDataProvider.getWriter().write(LENGTH_SEPERATOR);
-			streamDataProvider.getWriter().write(Double.toString(edges.getObjectStartEvent(parameters, nodeInfo.getAfferentBranchID()).getLength()));
+		if (edgeEvent.hasLength()) {
+			writer.write(LENGTH_SEPERATOR);
+			writeBranchLength(writer, edgeEvent.getLength());
 		}
 		else if (!nodeReceiver.hasMetadataToWrite() && edgeReceiver.hasMetadataToWrite()) {  // If no node annotations and not branch length were written, an empty hot comment needs to be placed before the edge metadata. Otherwise it would become node metadata, when the output is read again.
-			streamDataProvider.getWriter().write(COMMENT_START);
-			streamDataProvider.getWriter().write(HOT_COMMENT_START_SYMBOL);
-			streamDataProvider.getWriter().write(COMMENT_END);
+			writer.write(COMMENT_START);
+			writer.write(HOT_COMMENT_START_SYMBOL);
+			writer.write(COMMENT_END);
 		}
 		edgeReceiver.writeMetadata();
 		edgeReceiver.writeComments();
 	}
 	
 	
+	private void writeTree(String rootNodeID) throws IOException {
+		Writer writer = streamDataProvider.getWriter();
+		Deque<SubtreeInfo> stack = new ArrayDeque<SubtreeInfo>();
+		stack.push(startSubtree(writer, rootNodeID));
+		while (!stack.isEmpty()) {
+			SubtreeInfo subtree = stack.peek();
+			if (subtree.childNodeIDIterator.hasNext()) {
+				if (subtree.childWritten) {
+					writer.write(ELEMENT_SEPERATOR + " ");
+				}
+				subtree.childWritten = true;
+				stack.push(startSubtree(writer, subtree.childNodeIDIterator.next()));
+			}
+			else {
+				endSubtree(writer, stack.pop());
+			}
+		}
+	}
+	
+	
 	private void writeRootedInformation() throws IOException {
 		streamDataProvider.getWriter().write(COMMENT_START);
 		if (nodes.getObjectStartEvent(parameters, topologyExtractor.getPaintStartID()).isRootNode()) {
@@ -204,7 +271,7 @@ public class NewickStringWriter implements NewickConstants {
 			topologyExtractor = new TreeTopologyExtractor(tree, parameters);
 			
 			writeRootedInformation();
-			writeSubtree(topologyExtractor.getPaintStartID());
+			writeTree(topologyExtractor.getPaintStartID());
 			streamDataProvider.getWriter().write(TERMINAL_SYMBOL);
 			AbstractEventWriter.writeLineBreak(streamDataProvider.getWriter(), parameters);
 		}
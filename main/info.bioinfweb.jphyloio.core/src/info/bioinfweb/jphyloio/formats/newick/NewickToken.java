@@ -29,26 +29,42 @@ public class NewickToken {
 	private String text = "";
 	private double length = 0;
 	private boolean delimited = false;
-	private StreamLocation location;
+	private long characterOffset;
+	private long lineNumber;
+	private long columnNumber;
+	private StreamLocation location = null;
 	
 	
-	public NewickToken(NewickTokenType type, StreamLocationProvider location) {
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param type the type of the new token
+	 * @param characterOffset the character offset of the token in the underlying stream
+	 * @param lineNumber the line number of the token in the underlying stream
+	 * @param columnNumber the column number of the token in the underlying stream
+	 */
+	public NewickToken(NewickTokenType type, long characterOffset, long lineNumber, long columnNumber) {
 		this.type = type;
-		this.location = new StreamLocation(location);
+		this.characterOffset = characterOffset;
+		this.lineNumber = lineNumber;
+		this.columnNumber = columnNumber;
+	}
+	
+	
+	public NewickToken(NewickTokenType type, StreamLocationProvider location) {
+		this(type, location.getCharacterOffset(), location.getLineNumber(), location.getColumnNumber());
 	}
 
 	
 	public NewickToken(StreamLocationProvider location, String text, boolean delimited) {
-		this.type = NewickTokenType.NAME;
-		this.location = new StreamLocation(location);;
+		this(NewickTokenType.NAME, location);
 		this.text = text;
 		this.delimited = delimited;
 	}
 	
 	
 	public NewickToken(StreamLocationProvider location, double length) {
-		this.type = NewickTokenType.LENGTH;
-		this.location = new StreamLocation(location);;
+		this(NewickTokenType.LENGTH, location);
 		this.length = length;
 	}
 	
@@ -78,7 +94,16 @@ public class NewickToken {
 	}
 
 
+	/**
+	 * Returns the location of this token in the underlying stream. The returned object is created on the first call of 
+	 * this method.
+	 * 
+	 * @return the location of this token
+	 */
 	public StreamLocation getLocation() {
+		if (location == null) {
+			location = new StreamLocation(characterOffset, lineNumber, columnNumber);
+		}
 		return location;
 	}
 
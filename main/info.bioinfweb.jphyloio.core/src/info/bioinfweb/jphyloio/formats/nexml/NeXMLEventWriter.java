@@ -63,6 +63,8 @@ import info.bioinfweb.jphyloio.formats.nexml.receivers.NeXMLSequenceTokensReceiv
 import info.bioinfweb.jphyloio.formats.nexml.receivers.NeXMLTokenSetEventReceiver;
 import info.bioinfweb.jphyloio.formats.xml.AbstractXMLEventWriter;
 import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
+import info.bioinfweb.jphyloio.utils.LongIntervalMap;
+import info.bioinfweb.jphyloio.utils.LongIntervalSet;
 
 import java.io.IOException;
 import java.util.EnumMap;
@@ -103,6 +105,12 @@ import javax.xml.stream.XMLStreamException;
  * they are add. Token definitions of standard tokens found in the sequence data but not defined previously are also add
  * in case of standard data.
  * <p>
+ * The contents of each sequence are requested once from the matrix data adapter for this check and once to write 
+ * the tokens. They are only requested a third time for sequences that contain metadata or comments, which need to be
+ * written in front of the tokens. If the token sets provided by the adapter completely describe the sequences, the check
+ * can be omitted using {@link ReadWriteParameterNames#KEY_NEXML_DECLARED_TOKEN_SETS}, so that the contents of each 
+ * sequence are only requested once. In this case sequences must not contain metadata, comments or token labels.
+ * <p>
  * Restriction data can not be written, since it is not modeled by <i>JPhyloIO</i>. If the {@link CharacterStateSetType} of the 
  * sequence data is {@code DSICRETE} tokens are translated to integers as required by <i>NeXML</i>.
  * 
@@ -116,6 +124,7 @@ import javax.xml.stream.XMLStreamException;
  *   <li>{@link ReadWriteParameterNames#KEY_APPLICATION_URL}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_NEXML_TOKEN_DEFINITION_LABEL}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_NEXML_TOKEN_DEFINITION_LABEL_METADATA}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_NEXML_DECLARED_TOKEN_SETS}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_CUSTOM_XML_NAMESPACE_HANDLING}</li>
  * </ul>
  * 
@@ -596,7 +605,7 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 				String charID = charDefinitionIDIterator.next();
 				CharacterDefinitionEvent charDefEvent = alignment.getCharacterDefinitions(getParameters()).getObjectStartEvent(getParameters(), charID);
 				
-				alignmentInfo.getColumnIndexToIDMap().put(charDefEvent.getIndex(), charID);
+				alignmentInfo.setColumnID(charDefEvent.getIndex(), charID);
 				getStreamDataProvider().addToDocumentIDs(charID);
 
 				getXMLWriter().writeStartElement(TAG_CHAR.getLocalPart());
@@ -631,9 +640,9 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 		// Write definitions for remaining characters
 		getStreamDataProvider().setIDIndex(0);
 		for (long i = 0; i < alignmentInfo.getAlignmentLength(); i++) {
-			if (!alignmentInfo.getColumnIndexToIDMap().containsKey(i)) {
+			if (!alignmentInfo.hasColumnID(i)) {
 				String charID = getStreamDataProvider().createNewID(ReadWriteConstants.DEFAULT_CHARACTER_DEFINITION_ID_PREFIX);
-				alignmentInfo.getColumnIndexToIDMap().put(i, charID);
+				alignmentInfo.setGeneratedColumnID(i, getStreamDataProvider().getIDIndex() - 1);
 				getStreamDataProvider().addToDocumentIDs(charID);
 
 				getXMLWriter().writeEmptyElement(TAG_CHAR.getLocalPart());
@@ -664,9 +673,11 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 			}
 
 			StringBuffer value = new StringBuffer();
-			for (long columnIndex : alignmentInfo.getCharSets().get(charSetID)) {
-				value.append(alignmentInfo.getColumnIndexToIDMap().get(columnIndex));
-				value.append(" ");
+			for (LongIntervalMap.Interval<Boolean> interval : alignmentInfo.getCharSets().get(charSetID).getIntervals()) {
+				for (long columnIndex = interval.getStart(); columnIndex < interval.getEnd(); columnIndex++) {
+					value.append(alignmentInfo.getColumnID(columnIndex));
+					value.append(" ");
+				}
 			}
 			
 			getXMLWriter().writeStartElement(TAG_SET.getLocalPart());
@@ -695,14 +706,17 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 		getXMLWriter().writeStartElement(TAG_ROW.getLocalPart());
 		getStreamDataProvider().writeLinkedLabeledIDAttributes(sequenceEvent, TAG_OTU, true);
 
-		alignment.writeSequencePartContentData(getParameters(), metaDataReceiver, sequenceEvent.getID(), 0, alignment.getSequenceLength(getParameters(), sequenceEvent.getID()));
+		long sequenceLength = alignment.getSequenceLength(getParameters(), sequenceEvent.getID());
+		if (alignmentInfo.getSequencesWithMetadata().contains(sequenceEvent.getID())) {  // Avoid requesting the sequence contents twice, if no metadata needs to be written.
+			alignment.writeSequencePartContentData(getParameters(), metaDataReceiver, sequenceEvent.getID(), 0, sequenceLength);
+		}
 
 		if (alignmentInfo.isWriteCellsTags()) {
-			alignment.writeSequencePartContentData(getParameters(), tokenReceiver, sequenceEvent.getID(), 0, alignment.getSequenceLength(getParameters(), sequenceEvent.getID()));
+			alignment.writeSequencePartContentData(getParameters(), tokenReceiver, sequenceEvent.getID(), 0, sequenceLength);
 		}
 		else {
 			getXMLWriter().writeStartElement(TAG_SEQ.getLocalPart());
-			alignment.writeSequencePartContentData(getParameters(), tokenReceiver, sequenceEvent.getID(), 0, alignment.getSequenceLength(getParameters(), sequenceEvent.getID()));
+			alignment.writeSequencePartContentData(getParameters(), tokenReceiver, sequenceEvent.getID(), 0, sequenceLength);
 			getXMLWriter().writeEndElement();
 		}
 
@@ -752,11 +766,8 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 		alignmentInfo.setDefaultTokenSetID(defaultTokenSetID);
 		
 		// Determine which token set is valid in which alignment column
-		for (long i = 0; i < alignmentLength; i++) {
-			if (alignmentInfo.getColumnIndexToStatesMap().get(i) == null) {				
-				alignmentInfo.getColumnIndexToStatesMap().put(i, defaultTokenSetID);
-				alignmentInfo.setWriteDefaultTokenSet(true);
-			}
+		if (alignmentInfo.getColumnIndexToStatesMap().fill(0, alignmentLength, defaultTokenSetID)) {
+			alignmentInfo.setWriteDefaultTokenSet(true);
 		}
 		
 		// Add default token set to map if necessary
@@ -777,6 +788,9 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 		setTokenList(alignmentInfo);
 		
 		// Check sequences
+		boolean checkSequenceContents = !(getParameters().getBoolean(ReadWriteParameterNames.KEY_NEXML_DECLARED_TOKEN_SETS, false) 
+				&& alignmentInfo.hasTokenDefinitionSet() && !alignmentInfo.isWriteDefaultTokenSet());  // Token sets must be declared for all columns.
+		alignmentInfo.setSequenceContentsChecked(checkSequenceContents);
 		Iterator<String> sequenceIDs = alignment.getSequenceIDIterator(getParameters());
 		while (sequenceIDs.hasNext()) {
 			String sequenceID = sequenceIDs.next();
@@ -788,8 +802,14 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 				getStreamDataProvider().setWriteUndefinedOTU(true);
 			}
 			
-			alignment.writeSequencePartContentData(getParameters(), receiver, sequenceID, 0, alignment.getSequenceLength(getParameters(), sequenceStartEvent.getID()));
-			receiver.setTokenIndex(0);
+			if (checkSequenceContents) {
+				receiver.setMetadataFound(false);
+				alignment.writeSequencePartContentData(getParameters(), receiver, sequenceID, 0, alignment.getSequenceLength(getParameters(), sequenceStartEvent.getID()));
+				receiver.setTokenIndex(0);
+				if (receiver.isMetadataFound()) {
+					alignmentInfo.getSequencesWithMetadata().add(sequenceID);
+				}
+			}
 		}		
 		
 		if (alignmentInfo.getTokenSetType().equals(alignmentInfo.getTokenType())) {
@@ -897,7 +917,7 @@ public class NeXMLEventWriter extends AbstractXMLEventWriter<NeXMLWriterStreamDa
 			NeXMLCollectCharSetDataReceiver receiver = new NeXMLCollectCharSetDataReceiver(getStreamDataProvider(), getParameters(), charSetID);
 			getStreamDataProvider().addToDocumentIDs(charSetID);
 			
-			alignmentInfo.getCharSets().put(charSetID, new TreeSet<Long>());
+			alignmentInfo.getCharSets().put(charSetID, new LongIntervalSet());
 			charSets.writeContentData(getParameters(), receiver, charSetID);
 		}
 	}
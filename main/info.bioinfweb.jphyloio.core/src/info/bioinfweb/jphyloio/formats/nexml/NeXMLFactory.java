@@ -146,8 +146,10 @@ public class NeXMLFactory extends AbstractXMLFactory implements NeXMLConstants,
 		
 		Set<String> supportedReaderParameters = new HashSet<String>();
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_LOGGER);
+		supportedReaderParameters.add(ReadWriteParameterNames.KEY_MAXIMUM_TOKENS_TO_READ);
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_OBJECT_TRANSLATOR_FACTORY);
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_ALLOW_DEFAULT_NAMESPACE);
+		supportedReaderParameters.add(ReadWriteParameterNames.KEY_XML_INPUT_FACTORY);
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_NEXML_TOKEN_TRANSLATION_STRATEGY);
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_USE_OTU_LABEL);
 		
@@ -160,6 +162,7 @@ public class NeXMLFactory extends AbstractXMLFactory implements NeXMLConstants,
 		supportedWriterParameters.add(ReadWriteParameterNames.KEY_APPLICATION_URL);
 		supportedWriterParameters.add(ReadWriteParameterNames.KEY_NEXML_TOKEN_DEFINITION_LABEL);
 		supportedWriterParameters.add(ReadWriteParameterNames.KEY_NEXML_TOKEN_DEFINITION_LABEL_METADATA);
+		supportedWriterParameters.add(ReadWriteParameterNames.KEY_NEXML_DECLARED_TOKEN_SETS);
 		supportedWriterParameters.add(ReadWriteParameterNames.KEY_CUSTOM_XML_NAMESPACE_HANDLING);
 		
 		return new DefaultFormatInfo(this, NEXML_FORMAT_ID, NEXML_FORMAT_NAME, 
@@ -74,6 +74,7 @@ public class NeXMLReaderStreamDataProvider extends XMLReaderStreamDataProvider<N
 	private Iterator<String> currentCharIDIterator = null;
 	private String currentExpectedCharID = null;
 	private boolean currentCellBuffered = false;
+	private int currentSequencePosition = 0;
 	
 	
 	public NeXMLReaderStreamDataProvider(NeXMLEventReader nexmlEventReader) {
@@ -283,12 +284,13 @@ public class NeXMLReaderStreamDataProvider extends XMLReaderStreamDataProvider<N
 	
 	/**
 	 * Method used for reading cell tags that clears the map of buffered cell informations ({@link #getCurrentCellsBuffer()}) and resets
-	 * the columns ID iterator used by {@link #nextCharID()}.
+	 * the columns ID iterator used by {@link #nextCharID()} and the current position in the sequence.
 	 */
 	public void clearCurrentRowInformation() {
 		currentCharIDIterator = null;
 		currentExpectedCharID = null;
 		currentCellsBuffer.clear();
+		currentSequencePosition = 0;
 	}
 	
 	
@@ -347,4 +349,20 @@ public class NeXMLReaderStreamDataProvider extends XMLReaderStreamDataProvider<N
 	public void setCurrentCellBuffered(boolean currentCellBuffered) {
 		this.currentCellBuffered = currentCellBuffered;
 	}
+
+
+	/**
+	 * Returns the number of tokens that have already been read from the {@code seq} tag of the current row. This 
+	 * position is only tracked for tokens that may be longer than one character.
+	 * 
+	 * @return the index of the column the next token belongs to
+	 */
+	public int getCurrentSequencePosition() {
+		return currentSequencePosition;
+	}
+
+
+	public void setCurrentSequencePosition(int currentSequencePosition) {
+		this.currentSequencePosition = currentSequencePosition;
+	}
 }
@@ -20,18 +20,23 @@ package info.bioinfweb.jphyloio.formats.nexml;
 
 
 import info.bioinfweb.commons.bio.CharacterStateSetType;
+import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.exception.JPhyloIOWriterException;
+import info.bioinfweb.jphyloio.utils.LongIntervalMap;
+import info.bioinfweb.jphyloio.utils.LongIntervalSet;
 
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
-import java.util.SortedSet;
 
 
 
 /**
  * Class that is used by {@link NeXMLEventWriter} to store information about an alignment.
+ * <p>
+ * Information about alignment columns is stored as intervals, so that the memory consumption does not depend on the 
+ * number of columns.
  * 
  * @author Sarah Wiechers
  *
@@ -49,11 +54,14 @@ public class NeXMLWriterAlignmentInformation implements NeXMLConstants {
 	private Map<String, NeXMLWriterTokenSetInformation> idToTokenSetInfoMap = new HashMap<String, NeXMLWriterTokenSetInformation>();
 	private String defaultTokenSetID;
 	
-	private Map<String, SortedSet<Long>> charSets = new HashMap<String, SortedSet<Long>>();
-	private Map<Long, String> columnIndexToIDMap = new HashMap<Long, String>();
-	private Map<Long, String> columnIndexToStatesMap = new HashMap<Long, String>();
+	private Map<String, LongIntervalSet> charSets = new HashMap<String, LongIntervalSet>();
+	private LongIntervalMap<String> columnIndexToIDMap = new LongIntervalMap<String>();
+	private LongIntervalMap<Long> columnIndexToGeneratedIDMap = new LongIntervalMap<Long>();  // Stores the difference between the number of the generated ID and the column index, which is equal for subsequent columns. 
+	private LongIntervalMap<String> columnIndexToStatesMap = new LongIntervalMap<String>();
 	
 	private Set<String> definedTokens = new HashSet<String>();
+	private boolean sequenceContentsChecked = true;
+	private Set<String> sequencesWithMetadata = new HashSet<String>();
 	
 	
 	public boolean isWriteAlignment() {
@@ -146,17 +154,71 @@ public class NeXMLWriterAlignmentInformation implements NeXMLConstants {
 	}
 
 
-	public Map<String, SortedSet<Long>> getCharSets() {
+	public Map<String, LongIntervalSet> getCharSets() {
 		return charSets;
 	}
 
 
-	public Map<Long, String> getColumnIndexToIDMap() {
-		return columnIndexToIDMap;
+	/**
+	 * Determines whether an ID has been assigned to the character definition of the specified column using 
+	 * {@link #setColumnID(long, String)} or {@link #setGeneratedColumnID(long, long)}.
+	 * 
+	 * @param columnIndex the index of the alignment column
+	 * @return {@code true} if an ID was assigned or {@code false} otherwise
+	 */
+	public boolean hasColumnID(long columnIndex) {
+		return columnIndexToIDMap.containsKey(columnIndex) || columnIndexToGeneratedIDMap.containsKey(columnIndex);
+	}
+	
+	
+	/**
+	 * Returns the ID of the character definition of the specified column.
+	 * 
+	 * @param columnIndex the index of the alignment column
+	 * @return the ID or {@code null} if no ID was assigned to this column
+	 */
+	public String getColumnID(long columnIndex) {
+		String result = columnIndexToIDMap.get(columnIndex);
+		if (result == null) {
+			Long difference = columnIndexToGeneratedIDMap.get(columnIndex);
+			if (difference != null) {
+				result = ReadWriteConstants.DEFAULT_CHARACTER_DEFINITION_ID_PREFIX + (columnIndex + difference);
+			}
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Assigns the ID of a character definition provided by the data adapter to a column.
+	 * 
+	 * @param columnIndex the index of the alignment column
+	 * @param id the ID of the character definition
+	 */
+	public void setColumnID(long columnIndex, String id) {
+		columnIndexToIDMap.put(columnIndex, id);
+	}
+	
+	
+	/**
+	 * Assigns an ID generated by the writer to a column. The ID consists of 
+	 * {@link ReadWriteConstants#DEFAULT_CHARACTER_DEFINITION_ID_PREFIX} and the specified number. IDs of subsequent
+	 * columns with subsequent numbers are stored as a single interval.
+	 * 
+	 * @param columnIndex the index of the alignment column
+	 * @param idNumber the number of the generated ID
+	 */
+	public void setGeneratedColumnID(long columnIndex, long idNumber) {
+		columnIndexToGeneratedIDMap.put(columnIndex, idNumber - columnIndex);
 	}
 
 
-	public Map<Long, String> getColumnIndexToStatesMap() {
+	/**
+	 * Returns a map containing the ID of the token set that is valid for each alignment column.
+	 * 
+	 * @return the map from column indices to token set IDs
+	 */
+	public LongIntervalMap<String> getColumnIndexToStatesMap() {
 		return columnIndexToStatesMap;
 	}
 	
@@ -164,4 +226,32 @@ public class NeXMLWriterAlignmentInformation implements NeXMLConstants {
 	public Set<String> getDefinedTokens() {
 		return definedTokens;
 	}
+	
+	
+	/**
+	 * Determines whether the contents of all sequences of the alignment were checked before writing. If not, the token 
+	 * sets were declared to completely describe the sequences using 
+	 * {@link info.bioinfweb.jphyloio.ReadWriteParameterNames#KEY_NEXML_DECLARED_TOKEN_SETS}.
+	 * 
+	 * @return {@code true} if the sequence contents were checked or {@code false} otherwise
+	 */
+	public boolean isSequenceContentsChecked() {
+		return sequenceContentsChecked;
+	}
+
+
+	public void setSequenceContentsChecked(boolean sequenceContentsChecked) {
+		this.sequenceContentsChecked = sequenceContentsChecked;
+	}
+
+
+	/**
+	 * Returns the IDs of all sequences of the alignment that contain metadata or comments. Only the contents of these 
+	 * sequences need to be requested a second time from the data adapter, to write their metadata in front of the tokens.
+	 * 
+	 * @return the set of sequence IDs
+	 */
+	public Set<String> getSequencesWithMetadata() {
+		return sequencesWithMetadata;
+	}
 }
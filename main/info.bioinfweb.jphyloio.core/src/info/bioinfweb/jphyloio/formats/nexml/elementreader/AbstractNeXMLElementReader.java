@@ -30,6 +30,7 @@ import info.bioinfweb.jphyloio.events.CharacterDefinitionEvent;
 import info.bioinfweb.jphyloio.events.CharacterSetIntervalEvent;
 import info.bioinfweb.jphyloio.events.LabeledIDEvent;
 import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.nexml.NeXMLConstants;
 import info.bioinfweb.jphyloio.formats.nexml.NeXMLEventReader;
@@ -77,83 +78,106 @@ public abstract class AbstractNeXMLElementReader extends AbstractXMLElementReade
 	
 	
 	/**
-	 * Parses a sequence string to a list of single tokens by using the provided {@link TokenTranslationStrategy}.
+	 * Parses a sequence string to single tokens by using the provided {@link TokenTranslationStrategy} and adds
+	 * according {@link SequenceTokensEvent}s to the current event collection.
 	 * <p>
-	 * The sequence may contain tokens longer than one character in case of continuous or standard data.
+	 * The sequence may contain tokens longer than one character in case of continuous or standard data. Such tokens
+	 * may be split between this and the next {@code CHARACTERS} event of the underlying XML reader. In this case the 
+	 * beginning of the token is stored using {@link NeXMLReaderStreamDataProvider#setIncompleteToken(String)} and 
+	 * completed in the next call of this method.
+	 * <p>
+	 * No event contains more tokens than specified by {@link ReadWriteParameterMap#getMaxTokensToRead()}, so that large
+	 * sequences delivered in one string are split into several events.
 	 *
 	 * @param streamDataProvider the stream data provider of the calling {@link NeXMLEventReader}
 	 * @param sequence the sequence as a string of tokens
 	 * @param translateTokens the {@link TokenTranslationStrategy} to be applied 
-	 * @return the list of tokens obtained from the sequence
-	 * @throws JPhyloIOReaderException
-	 * @throws XMLStreamException
+	 * @throws JPhyloIOReaderException if an invalid standard data token was found
+	 * @throws XMLStreamException if the underlying XML reader throws an exception
 	 */
-	protected List<String> readSequence(NeXMLReaderStreamDataProvider streamDataProvider, String sequence, TokenTranslationStrategy translateTokens) throws JPhyloIOReaderException, XMLStreamException {		
-		List<String> tokenList = new ArrayList<String>();
-		String lastToken = "";
-   	String currentToken = "";
-		Character currentChar;
+	protected void readSequence(NeXMLReaderStreamDataProvider streamDataProvider, String sequence, TokenTranslationStrategy translateTokens) throws JPhyloIOReaderException, XMLStreamException {
+		int maxTokens = streamDataProvider.getParameters().getMaxTokensToRead();
 		
 		if (streamDataProvider.isAllowLongTokens()) {  // Continuous and standard data
-			if (streamDataProvider.getIncompleteToken() != null) {
-				currentToken = streamDataProvider.getIncompleteToken();
+			boolean translateStandardTokens = streamDataProvider.getCharacterSetType().equals(CharacterStateSetType.DISCRETE) && 
+					!translateTokens.equals(TokenTranslationStrategy.NEVER);
+			List<String> tokenList = new ArrayList<String>();
+			StringBuilder currentToken = new StringBuilder();
+			if (streamDataProvider.hasIncompleteToken()) {
+				currentToken.append(streamDataProvider.getIncompleteToken());
 				streamDataProvider.setIncompleteToken(null);
 			}
 			
 			for (int i = 0; i < sequence.length(); i++) {
-	 			currentChar = sequence.charAt(i);	 			
-	 			if (!Character.isWhitespace(currentChar)) {
-	 				currentToken += currentChar;
-	 			}
-	 			else {
-	 				if (!currentToken.isEmpty()) {
-	 					tokenList.add(currentToken);
-					}		 				
-	 				currentToken = "";
-	 			}	   		
-	 		}
-			lastToken = currentToken;
+				char currentChar = sequence.charAt(i);
+				if (!Character.isWhitespace(currentChar)) {
+					currentToken.append(currentChar);
+				}
+				else if (currentToken.length() > 0) {
+					addLongToken(streamDataProvider, tokenList, currentToken.toString(), translateStandardTokens, maxTokens);
+					currentToken.setLength(0);
+				}
+			}
 			
-			if (!Character.isWhitespace(sequence.charAt(sequence.length() - 1))) {
-				//TODO Had the catch block here (deleted in r1600) another function? 
+			if (currentToken.length() > 0) {
 				XMLEvent nextEvent = streamDataProvider.getXMLReader().peek();
 				if ((nextEvent != null) && (nextEvent.getEventType() == XMLStreamConstants.CHARACTERS) && 
 						!Character.isWhitespace(nextEvent.asCharacters().getData().charAt(0))) {
 					
-					streamDataProvider.setIncompleteToken(lastToken);
+					streamDataProvider.setIncompleteToken(currentToken.toString());  // Token is continued in the next event.
 				}
-				else if (!currentToken.isEmpty()) {
-					tokenList.add(currentToken);
+				else {
+					addLongToken(streamDataProvider, tokenList, currentToken.toString(), translateStandardTokens, maxTokens);
 				}
 			}			
 
-			if (streamDataProvider.getCharacterSetType().equals(CharacterStateSetType.DISCRETE) && !translateTokens.equals(TokenTranslationStrategy.NEVER)) {  // Standard data
-				for (int i = 0; i < tokenList.size(); i++) {
-					if (!tokenList.get(i).equals("" + SequenceUtils.GAP_CHAR) && !tokenList.get(i).equals("" + SequenceUtils.MISSING_DATA_CHAR)) {
-			 			try {
-			 				int standardToken = Integer.parseInt(tokenList.get(i));
-			 				tokenList.set(i, streamDataProvider.getTokenSets().get(streamDataProvider.getCharIDToStatesMap().get(
-			 						streamDataProvider.getCharIDs().get(i))).getSymbolTranslationMap().get(standardToken));
-			 			}
-			 			catch (NumberFormatException e) {
-			 				throw new JPhyloIOReaderException("The symbol \"" + tokenList.get(i) + 
-			 						"\" of a standard data token definition must be of type Integer.", streamDataProvider.getXMLReader().peek().getLocation());
-			 			}
+			if (!tokenList.isEmpty()) {
+				streamDataProvider.getCurrentEventCollection().add(new SequenceTokensEvent(tokenList));
+			}			
+		}
+		else {  // DNA, RNA, AA & restriction data
+			StringBuilder tokens = new StringBuilder(Math.min(sequence.length(), maxTokens));
+			for (int i = 0; i < sequence.length(); i++) {
+				char currentChar = sequence.charAt(i);
+				if (!Character.isWhitespace(currentChar)) {
+					tokens.append(currentChar);
+					if (tokens.length() >= maxTokens) {
+						streamDataProvider.getCurrentEventCollection().add(new SequenceTokensEvent(tokens));
+						tokens.setLength(0);
 					}
 				}		 		
 			}
+			
+			if (tokens.length() > 0) {
+				streamDataProvider.getCurrentEventCollection().add(new SequenceTokensEvent(tokens));
+			}
 		}
+	}
+	
+	
+	private void addLongToken(NeXMLReaderStreamDataProvider streamDataProvider, List<String> tokenList, String token, 
+			boolean translateStandardTokens, int maxTokens) throws JPhyloIOReaderException, XMLStreamException {
 		
-		else {  // DNA, RNA, AA & restriction data
-			for (int i = 0; i < sequence.length(); i++) {
-				currentChar = sequence.charAt(i);
-				if (!Character.isWhitespace(currentChar)) {
-					tokenList.add(currentChar.toString());
-				}
-	 		}
+		if (translateStandardTokens && !token.equals(Character.toString(SequenceUtils.GAP_CHAR)) && 
+				!token.equals(Character.toString(SequenceUtils.MISSING_DATA_CHAR))) {
+			
+			try {
+				int standardToken = Integer.parseInt(token);
+				token = streamDataProvider.getTokenSets().get(streamDataProvider.getCharIDToStatesMap().get(
+						streamDataProvider.getCharIDs().get(streamDataProvider.getCurrentSequencePosition()))).getSymbolTranslationMap().get(standardToken);
+			}
+			catch (NumberFormatException e) {
+				throw new JPhyloIOReaderException("The symbol \"" + token + 
+						"\" of a standard data token definition must be of type Integer.", streamDataProvider.getXMLReader().peek().getLocation());
+			}
+		}
+		
+		tokenList.add(token);
+		streamDataProvider.setCurrentSequencePosition(streamDataProvider.getCurrentSequencePosition() + 1);
+		if (tokenList.size() >= maxTokens) {
+			streamDataProvider.getCurrentEventCollection().add(new SequenceTokensEvent(new ArrayList<String>(tokenList)));
+			tokenList.clear();
 		}
-
-   	return tokenList;
 	}
 	
 	
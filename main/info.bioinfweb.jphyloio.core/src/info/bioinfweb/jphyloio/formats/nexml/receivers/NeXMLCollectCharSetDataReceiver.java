@@ -51,9 +51,8 @@ public class NeXMLCollectCharSetDataReceiver extends NeXMLCollectNamespaceReceiv
 		switch (event.getType().getContentType()) {
 			case CHARACTER_SET_INTERVAL:
 				CharacterSetIntervalEvent intervalEvent = event.asCharacterSetIntervalEvent();
-				for (long i = intervalEvent.getStart(); i < intervalEvent.getEnd(); i++) {
-					getStreamDataProvider().getCurrentAlignmentInfo().getCharSets().get(charSetID).add(i);
-				}
+				getStreamDataProvider().getCurrentAlignmentInfo().getCharSets().get(charSetID).add(intervalEvent.getStart(), intervalEvent.getEnd(), 
+						intervalEvent.getStride());
 				break;
 			default:
 				break;
@@ -22,6 +22,7 @@ package info.bioinfweb.jphyloio.formats.nexml.receivers;
 import info.bioinfweb.commons.bio.CharacterStateSetType;
 import info.bioinfweb.commons.bio.SequenceUtils;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.events.CommentEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
 import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
@@ -39,21 +40,40 @@ import javax.xml.stream.XMLStreamException;
  * <p>
  * It is checked if the document contains tokens with additional information attached (labels or metadata) 
  * (and therefore cells tags will have to be written to the document later on)
- * and which {@link CharacterStateSetType} these tokens indicate.
+ * and which {@link CharacterStateSetType} these tokens indicate. Additionally it is recorded whether the current sequence
+ * contains any metadata or comments. No events are stored, so that the memory consumption does not depend on the size 
+ * of the matrix.
  * 
  * @author Sarah Wiechers
  */
 public class NeXMLCollectSequenceDataReceiver extends NeXMLHandleSequenceDataReceiver {
+	private boolean metadataFound = false;
 
 
 	public NeXMLCollectSequenceDataReceiver(NeXMLWriterStreamDataProvider streamDataProvider, ReadWriteParameterMap parameterMap, boolean longTokens) {
 		super(streamDataProvider, parameterMap, longTokens);
 	}
+	
+	
+	/**
+	 * Determines whether metadata or comments were found since this property was last set to {@code false}.
+	 * 
+	 * @return {@code true} if metadata or comments were found or {@code false} otherwise
+	 */
+	public boolean isMetadataFound() {
+		return metadataFound;
+	}
+
+
+	public void setMetadataFound(boolean metadataFound) {
+		this.metadataFound = metadataFound;
+	}
 
 
 	@Override
 	protected void handleResourceMetaStart(ResourceMetadataEvent event) throws IOException, XMLStreamException {
 		AbstractNeXMLDataReceiverMixin.checkResourceMeta(getStreamDataProvider(), event);
+		metadataFound = true;
 		if (isNestedUnderSingleToken()) {
 			getStreamDataProvider().getCurrentAlignmentInfo().setWriteCellsTags(true);
 		}
@@ -63,6 +83,7 @@ public class NeXMLCollectSequenceDataReceiver extends NeXMLHandleSequenceDataRec
 	@Override
 	protected void handleLiteralMetaStart(LiteralMetadataEvent event) throws IOException, XMLStreamException {
 		AbstractNeXMLDataReceiverMixin.checkLiteralMeta(getStreamDataProvider(), event);
+		metadataFound = true;
 		if (isNestedUnderSingleToken()) {
 			getStreamDataProvider().getCurrentAlignmentInfo().setWriteCellsTags(true);
 		}
@@ -78,6 +99,12 @@ public class NeXMLCollectSequenceDataReceiver extends NeXMLHandleSequenceDataRec
 	}
 
 
+	@Override
+	protected void handleComment(CommentEvent event) throws IOException, XMLStreamException {
+		metadataFound = true;
+	}
+
+
 	@Override
 	protected void handleToken(String token, String label) throws JPhyloIOWriterException {
 		//TODO Why is the label parameter never used?
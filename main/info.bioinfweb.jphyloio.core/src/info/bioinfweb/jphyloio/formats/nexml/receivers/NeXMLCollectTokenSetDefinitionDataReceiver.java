@@ -273,18 +273,29 @@ public class NeXMLCollectTokenSetDefinitionDataReceiver extends NeXMLCollectName
 				break;
 			case CHARACTER_SET_INTERVAL:
 				CharacterSetIntervalEvent intervalEvent = event.asCharacterSetIntervalEvent();
-				for (long i = intervalEvent.getStart(); i < intervalEvent.getEnd(); i++) {
-					if (!alignmentInfo.getColumnIndexToStatesMap().containsKey(i)) {
-						alignmentInfo.getColumnIndexToStatesMap().put(i, tokenSetDefinitionID);  // Token sets are not allowed to overlap
-					}
-					else {
-						throw new InconsistentAdapterDataException("More than one token set was assigned to the alignment column " + i + ".");
+				if (intervalEvent.isStrided()) {
+					for (long column = intervalEvent.getStart(); column < intervalEvent.getEnd(); column += intervalEvent.getStride()) {
+						assignTokenSet(alignmentInfo, column, column + 1);
 					}
 				}
+				else {
+					assignTokenSet(alignmentInfo, intervalEvent.getStart(), intervalEvent.getEnd());
+				}
 				break;
 			default:
 				break;
 		}
 		return true;
 	}
+	
+	
+	private void assignTokenSet(NeXMLWriterAlignmentInformation alignmentInfo, long start, long end) {
+		long assignedColumn = alignmentInfo.getColumnIndexToStatesMap().findFirstContainedIndex(start, end);
+		if (assignedColumn == -1) {
+			alignmentInfo.getColumnIndexToStatesMap().put(start, end, tokenSetDefinitionID);
+		}
+		else {  // Token sets are not allowed to overlap
+			throw new InconsistentAdapterDataException("More than one token set was assigned to the alignment column " + assignedColumn + ".");
+		}
+	}
 }
\ No newline at end of file
@@ -27,6 +27,7 @@ import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
 import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
+import info.bioinfweb.jphyloio.exception.JPhyloIOWriterException;
 import info.bioinfweb.jphyloio.formats.nexml.NeXMLWriterAlignmentInformation;
 import info.bioinfweb.jphyloio.formats.nexml.NeXMLWriterStreamDataProvider;
 
@@ -38,6 +39,9 @@ import javax.xml.stream.XMLStreamException;
 
 /**
  * Receiver that is used to write sequence tokens.
+ * <p>
+ * If the sequence contents were not checked before (see {@link NeXMLWriterAlignmentInformation#isSequenceContentsChecked()}),
+ * metadata, comments and token labels cannot be written and a {@link JPhyloIOWriterException} is thrown if they occur.
  * 
  * @author Sarah Wiechers
  */
@@ -47,10 +51,19 @@ public class NeXMLSequenceTokensReceiver extends NeXMLHandleSequenceDataReceiver
 	public NeXMLSequenceTokensReceiver(NeXMLWriterStreamDataProvider streamDataProvider, ReadWriteParameterMap parameterMap, boolean longTokens) {
 		super(streamDataProvider, parameterMap, longTokens);
 	}
+	
+	
+	private void checkContentChecked(String contentName) throws JPhyloIOWriterException {
+		if (!getStreamDataProvider().getCurrentAlignmentInfo().isSequenceContentsChecked()) {
+			throw new JPhyloIOWriterException("The sequence contains " + contentName + ", which cannot be written if the token "
+					+ "sets were declared to completely describe the sequences.");
+		}
+	}
 
 
 	@Override
 	protected void handleLiteralMetaStart(LiteralMetadataEvent event) throws IOException, XMLStreamException {
+		checkContentChecked("metadata");
 		if (isNestedUnderSingleToken()) {
 			AbstractNeXMLDataReceiverMixin.handleLiteralMeta(getStreamDataProvider(), event);
 		}
@@ -67,6 +80,7 @@ public class NeXMLSequenceTokensReceiver extends NeXMLHandleSequenceDataReceiver
 
 	@Override
 	protected void handleResourceMetaStart(ResourceMetadataEvent event) throws IOException, XMLStreamException {
+		checkContentChecked("metadata");
 		if (isNestedUnderSingleToken()) {
 			AbstractNeXMLDataReceiverMixin.handleResourceMeta(getStreamDataProvider(), event);
 		}
@@ -83,6 +97,7 @@ public class NeXMLSequenceTokensReceiver extends NeXMLHandleSequenceDataReceiver
 
 	@Override
 	protected void handleComment(CommentEvent event) throws IOException, XMLStreamException {
+		checkContentChecked("comments");
 		if (!isNestedUnderSingleToken()) {
 			AbstractNeXMLDataReceiverMixin.handleComment(getStreamDataProvider(), event);
 		}
@@ -90,7 +105,10 @@ public class NeXMLSequenceTokensReceiver extends NeXMLHandleSequenceDataReceiver
 
 
 	@Override
-	protected void handleToken(String token, String label) throws XMLStreamException {
+	protected void handleToken(String token, String label) throws IOException, XMLStreamException {
+		if (label != null) {
+			checkContentChecked("token labels");
+		}
 		NeXMLWriterAlignmentInformation alignmentInfo = getStreamDataProvider().getCurrentAlignmentInfo();
 		String translatedToken;
 		
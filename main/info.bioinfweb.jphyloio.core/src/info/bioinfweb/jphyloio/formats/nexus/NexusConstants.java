@@ -22,6 +22,7 @@ package info.bioinfweb.jphyloio.formats.nexus;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.ENewickNetworksBlockHandler;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.ENewickNetworkReader;
+import info.bioinfweb.jphyloio.formats.text.CharacterClass;
 
 import java.util.regex.Pattern;
 
@@ -117,6 +118,8 @@ public interface NexusConstants {
 	public static final String NEXUS_NAMESPACE_PREFIX = ReadWriteConstants.JPHYLOIO_NAMESPACE_PREFIX + "Formats/Nexus/";
 	public static final String NEXUS_PREDICATE_NAMESPACE = NEXUS_NAMESPACE_PREFIX + ReadWriteConstants.PREDICATE_NAMESPACE_FOLDER + "/";
 	
+	public static final CharacterClass WHITESPACE_COMMENT_COMMAND_END = CharacterClass.WHITESPACE.union(COMMENT_START, COMMAND_END);
+	
 	public static final Pattern UNTIL_WHITESPACE_COMMENT_COMMAND_PATTERN = Pattern.compile(
 			".*(\\s|\\" + COMMENT_START + "|\\" + COMMAND_END + ")");
 	public static final Pattern UNTIL_WHITESPACE_COMMENT_COMMAND_EQUAL_PATTERN = Pattern.compile(
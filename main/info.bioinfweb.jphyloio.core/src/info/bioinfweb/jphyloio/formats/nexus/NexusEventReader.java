@@ -39,7 +39,9 @@ import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandler;
 import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandlerMap;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.DefaultCommandReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.NexusCommandEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.NexusCommandReaderCreator;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.NexusCommandReaderFactory;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.ReusableNexusCommandEventReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.characters.FormatReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.characters.MatrixReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.sets.AbstractNexusSetReader;
@@ -53,6 +55,8 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.Reader;
+import java.util.HashMap;
+import java.util.Map;
 
 
 
@@ -86,6 +90,8 @@ import java.io.Reader;
  * Note that this reader requires referenced blocks to occur before the block that contains the reference. Linking blocks that occur 
  * later in the file is not supported, since it would not allow direct event based parsing. If a {@code LINK} command is encountered 
  * that links a block that was not declared before (or not anywhere in the file), a {@link JPhyloIOReaderException} is be thrown.
+ * Links to blocks that were skipped, because none of their contents is included according to 
+ * {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}, are ignored.
  * <p>
  * If a block without a {@code LINK} command, that would usually link another block is encountered, the first block of the according 
  * type found in the file will be assumed as linked. If no according block was encountered before the {@code LINK}, nothing will be linked
@@ -118,6 +124,9 @@ import java.io.Reader;
  *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_TOKENS_TO_READ}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_COMMENT_LENGTH}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_REPLACE_MATCH_TOKENS}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES} (Whole blocks that cannot produce any included events 
+ *       are skipped without being parsed. See {@link #isBlockIncluded(String)} for details. Set definitions of excluded
+ *       types in the {@code SETS} block are not parsed as well.)</li>
  * </ul>
  * If custom or third parts block handlers are used together with an instance of this reader, these may support additional 
  * custom parameters.
@@ -131,7 +140,10 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 	private boolean createUnknownCommandEvents = false;
 	private String currentBlockName;
 	private NexusCommandEventReader currentCommandReader = null;
+	private Map<NexusCommandReaderCreator, ReusableNexusCommandEventReader> reusableCommandReaders = 
+			new HashMap<NexusCommandReaderCreator, ReusableNexusCommandEventReader>();  // Instances are created per reader, since factories may be shared.
 	private boolean documentEndReached = false;
+	private char[] skipBuffer = null;
 	
 	
 	/**
@@ -222,7 +234,12 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 	 */
 	public void addENewickNetworksBlockSupport() {
 		blockHandlerMap.addHandler(new ENewickNetworksBlockHandler());
-		factory.addReaderClass(ENewickNetworkReader.class);
+		factory.addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new ENewickNetworkReader(streamDataProvider);
+			}
+		});
 	}
 	
 
@@ -389,10 +406,158 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 	}
 	
 	
+	/**
+	 * Returns a reader for the specified command in the current block. Readers implementing 
+	 * {@link ReusableNexusCommandEventReader} are reused for all commands of the same type within one block.
+	 * 
+	 * @param commandName the name of the command to be parsed
+	 * @return the reader or {@code null} if the factory of this instance provides no according reader
+	 */
+	private NexusCommandEventReader getCommandReader(String commandName) {
+		NexusCommandReaderCreator creator = factory.getReaderCreator(currentBlockName, commandName);
+		if (creator == null) {
+			return null;
+		}
+		else {
+			ReusableNexusCommandEventReader result = reusableCommandReaders.get(creator);
+			if (result != null) {
+				result.reset();
+				return result;
+			}
+			else {
+				NexusCommandEventReader reader = creator.createReader(getStreamDataProvider());
+				if (reader instanceof ReusableNexusCommandEventReader) {
+					reusableCommandReaders.put(creator, (ReusableNexusCommandEventReader)reader);
+				}
+				return reader;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Tests whether an {@code END} or {@code ENDBLOCK} command starts at the specified position of the buffer.
+	 * 
+	 * @return the length of the command name or 0 if no such command starts at {@code start} 
+	 */
+	private static int endCommandLength(char[] buffer, int start, int end) {
+		for (String command : new String[]{ALTERNATIVE_END_COMMAND, END_COMMAND}) {
+			int terminal = start + command.length();
+			if ((terminal <= end) && new String(buffer, start, command.length()).equalsIgnoreCase(command) && 
+					((terminal == end) || Character.isWhitespace(buffer[terminal]) || (buffer[terminal] == COMMAND_END) || 
+					(buffer[terminal] == COMMENT_START))) {
+				
+				return command.length();
+			}
+		}
+		return 0;
+	}
+	
+	
+	/**
+	 * Determines whether a block with the specified name may produce any events of the content types included according to
+	 * {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}. Blocks for which this method returns {@code false} are 
+	 * skipped without being parsed.
+	 * <p>
+	 * {@code CHARACTERS}, {@code DATA} and {@code UNALIGNED} blocks are also read, if only character sets are included, and
+	 * {@code TREES} and {@code NETWORKS} blocks are also read, if only tree sets are included, since the {@code SETS} block 
+	 * refers to their contents. {@code TAXA} blocks are always read, since other blocks refer to the taxon names they define.
+	 * 
+	 * @param blockName the upper case name of the block
+	 * @return {@code true} if the block needs to be read, {@code false} if it can be skipped
+	 */
+	protected boolean isBlockIncluded(String blockName) {
+		if (BLOCK_NAME_CHARACTERS.equals(blockName) || BLOCK_NAME_DATA.equals(blockName) || BLOCK_NAME_UNALIGNED.equals(blockName)) {
+			return isContentTypeIncluded(EventContentType.ALIGNMENT) || isContentTypeIncluded(EventContentType.CHARACTER_SET);
+		}
+		else if (BLOCK_NAME_TREES.equals(blockName) || BLOCK_NAME_NETWORKS.equals(blockName)) {
+			return (isContentTypeIncluded(EventContentType.TREE_NETWORK_GROUP) && 
+					(isContentTypeIncluded(EventContentType.TREE) || isContentTypeIncluded(EventContentType.NETWORK))) ||
+					isContentTypeIncluded(EventContentType.TREE_NETWORK_SET);
+		}
+		else if (BLOCK_NAME_SETS.equals(blockName)) {
+			return isContentTypeIncluded(EventContentType.OTU_SET) || isContentTypeIncluded(EventContentType.CHARACTER_SET) ||
+					isContentTypeIncluded(EventContentType.SEQUENCE_SET) || isContentTypeIncluded(EventContentType.TREE_NETWORK_SET) ||
+					isContentTypeIncluded(EventContentType.NODE_EDGE_SET);
+		}
+		else {
+			return true;
+		}
+	}
+	
+	
+	/**
+	 * Consumes the contents of the current block (that shall not be processed) including its {@code END} command. 
+	 * Only quoted words and (possibly nested) comments are considered while scanning, so that no tokens are 
+	 * created. The characters are processed in the chunks that are available in the peek buffer of the underlying
+	 * reader. 
+	 * 
+	 * @throws IOException if an I/O error occurs during the read operation
+	 */
+	private void skipBlock() throws IOException {
+		if (skipBuffer == null) {
+			skipBuffer = new char[PeekReader.DEFAULT_PEEK_BUFFER_SIZE];
+		}
+		int lookAhead = ALTERNATIVE_END_COMMAND.length() + 1;
+		boolean commandStart = true;
+		boolean inWord = false;
+		int commentLevel = 0;
+		
+		int length = getReader().peek(skipBuffer);
+		while (length > 0) {
+			int pos = 0;
+			while (pos < length) {
+				char c = skipBuffer[pos];
+				if (commentLevel > 0) {
+					if (c == COMMENT_START) {
+						commentLevel++;
+					}
+					else if (c == COMMENT_END) {
+						commentLevel--;
+					}
+				}
+				else if (inWord) {
+					inWord = (c != WORD_DELIMITER);  // Escaped delimiters ('') are handled as the end of one and the start of another word.
+				}
+				else {
+					if (commandStart && !Character.isWhitespace(c) && (c != COMMENT_START)) {
+						if ((pos > 0) && (length - pos < lookAhead)) {
+							break;  // Peek the next chunk first to make sure the whole command name is available. (If pos is 0, the end of the stream is reached.)
+						}
+						int commandLength = endCommandLength(skipBuffer, pos, length);
+						if (commandLength > 0) {
+							getReader().skip(pos + commandLength);
+							consumeWhiteSpaceAndComments();
+							if ((getReader().peek() != -1) && (getReader().peekChar() == COMMAND_END)) {
+								getReader().read();  // Skip COMMAND_END.
+							}
+							return;
+						}
+						commandStart = false;
+					}
+					
+					if (c == COMMENT_START) {
+						commentLevel = 1;
+					}
+					else if (c == WORD_DELIMITER) {
+						inWord = true;
+					}
+					else if (c == COMMAND_END) {
+						commandStart = true;
+					}
+				}
+				pos++;
+			}
+			getReader().skip(pos);
+			length = getReader().peek(skipBuffer);
+		}
+	}
+	
+	
 	private boolean readNextCommand() throws IOException {
 		consumeWhiteSpaceAndComments();  // Needs to be done before the loop once, if the rest of the file only consists of whitespace and comments.
 		while (getUpcomingEvents().isEmpty() && (getReader().peek() != -1)) {  // Read commands until an event is produced.  
-			String commandName = getReader().readRegExp(UNTIL_WHITESPACE_COMMENT_COMMAND_PATTERN, false).getSequence().toString();
+			String commandName = getScanner().readUntil(WHITESPACE_COMMENT_COMMAND_END).getSequence().toString();
 			char lastChar = StringUtils.lastChar(commandName);
 			commandName = StringUtils.cutEnd(commandName, 1).toUpperCase();
 			
@@ -403,11 +568,13 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 			if (BEGIN_COMMAND.equals(commandName)) {
 				if (currentBlockName == null) {
 					consumeWhiteSpaceAndComments();
-					currentBlockName = getReader().readRegExp(
-							UNTIL_WHITESPACE_COMMENT_COMMAND_PATTERN, false).getSequence().toString().toUpperCase();
+					currentBlockName = getScanner().readUntil(WHITESPACE_COMMENT_COMMAND_END).getSequence().toString().toUpperCase();
 					lastChar = StringUtils.lastChar(currentBlockName);
 					currentBlockName = StringUtils.cutEnd(currentBlockName, 1);
-					processBlockStartEnd(EventTopologyType.START);
+					boolean processBlock = blockHandlerMap.isBlockProcessed(currentBlockName) && isBlockIncluded(currentBlockName);
+					if (processBlock) {
+						processBlockStartEnd(EventTopologyType.START);
+					}
 					if (lastChar != COMMAND_END) {
 						consumeWhiteSpaceAndComments();
 						if (getReader().peekChar() == COMMAND_END) {
@@ -418,6 +585,10 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 									" command.", getReader());
 						}
 					}
+					if (!processBlock) {
+						skipBlock();
+						currentBlockName = null;
+					}
 				}
 				else {
 					throw new JPhyloIOReaderException("Nested blocks are not allowed in Nexus.", getReader());
@@ -426,6 +597,7 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 			else if (END_COMMAND.equals(commandName) || ALTERNATIVE_END_COMMAND.equals(commandName)) {
 				processBlockStartEnd(EventTopologyType.END);  // Must be called before currentBlockName is set to null.
 				currentBlockName = null;
+				reusableCommandReaders.clear();
 				
 				consumeWhiteSpaceAndComments();
 				if ((getReader().peek() != -1) && (getReader().peekChar() == COMMAND_END)) {
@@ -438,7 +610,7 @@ public class NexusEventReader extends AbstractTextEventReader<NexusReaderStreamD
 //				getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.META_INFORMATION, EventTopologyType.END));
 			}
 			else {
-				currentCommandReader = factory.createReader(currentBlockName, commandName, getStreamDataProvider());
+				currentCommandReader = getCommandReader(commandName);
 				NexusBlockHandler handler = blockHandlerMap.getHandler(currentBlockName);
 				if (handler != null) {
 					handler.beforeCommand(getStreamDataProvider(), commandName, currentCommandReader);
@@ -20,6 +20,7 @@ package info.bioinfweb.jphyloio.formats.nexus;
 
 
 import info.bioinfweb.commons.collections.ParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.NexusCommandEventReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.all.BlockTitleToIDMap;
@@ -218,6 +219,19 @@ public class NexusReaderStreamDataProvider extends TextReaderStreamDataProvider<
 	}
 	
 	
+	/**
+	 * Determines whether blocks with the specified name are read by the associated reader or skipped, because none of their
+	 * contents is included according to {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}.
+	 * 
+	 * @param blockName the upper case name of the block type
+	 * @return {@code true} if blocks of the specified type are read, {@code false} if they are skipped
+	 * @see NexusEventReader#isBlockIncluded(String)
+	 */
+	public boolean isBlockIncluded(String blockName) {
+		return getEventReader().isBlockIncluded(blockName);
+	}
+	
+	
 	/**
 	 * Returns the <i>JPhyloIO</i> ID of the start event describing the Nexus block of the specified type that is linked to the current 
 	 * block. It will first look for an explicitly linked block in {@link #getBlockLinks()}. If no link is found, the default link
@@ -21,18 +21,28 @@ package info.bioinfweb.jphyloio.formats.nexus.blockhandlers;
 
 import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
 
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 
 
 
 /**
  * Manages Nexus block handlers for an instance of {@link NexusEventReader}.
+ * <p>
+ * In addition, this map can define a set of blocks that shall be processed by a reader. All blocks not contained 
+ * in this set will be skipped without parsing their commands or creating any events. (See 
+ * {@link #setProcessedBlocks(Collection)} for details.)
  * 
  * @author Ben St&ouml;ver
  */
 public class NexusBlockHandlerMap {
 	private Map<String, NexusBlockHandler> handlers = new HashMap<String, NexusBlockHandler>();
+	private Set<String> processedBlocks = null;
 	
 	
 	/**
@@ -48,6 +58,22 @@ public class NexusBlockHandlerMap {
 	}
 	
 	
+	/**
+	 * Returns a new instance of this class, already containing all block handlers available in the core module of 
+	 * <i>JPhyloIO</i>, that is restricted to process only the specified blocks. All other blocks will be skipped by
+	 * readers using the returned instance.
+	 * 
+	 * @param processedBlocks the names of the blocks to be processed (e.g. {@code TAXA} and {@code TREES})
+	 * @return the new instance
+	 * @see #setProcessedBlocks(Collection)
+	 */
+	public static NexusBlockHandlerMap newFilteredJPhyloIOInstance(String... processedBlocks) {
+		NexusBlockHandlerMap result = newJPhyloIOInstance();
+		result.setProcessedBlocks(Arrays.asList(processedBlocks));
+		return result;
+	}
+	
+	
 	/**
 	 * Creates a new empty instance of this class.
 	 * 
@@ -105,4 +131,55 @@ public class NexusBlockHandlerMap {
 	public boolean hasHandler(String blockName) {
 		return handlers.containsKey(blockName.toUpperCase());
 	}
+	
+	
+	/**
+	 * Returns the names of the blocks that shall be processed by readers using this map.
+	 * 
+	 * @return an unmodifiable set containing the upper case block names or {@code null} if all blocks shall be processed
+	 */
+	public Set<String> getProcessedBlocks() {
+		return processedBlocks;
+	}
+
+
+	/**
+	 * Restricts the blocks that shall be processed by readers using this map. All blocks with other names will be 
+	 * skipped by reading only until their {@code END} or {@code ENDBLOCK} command, while only considering quoted
+	 * words and comments. No commands of skipped blocks are parsed and no events (not even comment events) are 
+	 * created for them. This can considerably speed up reading, if e.g. only trees shall be read from a file that
+	 * also contains large character matrices.
+	 * <p>
+	 * Note that block names are not only relevant for block handlers, but also for the command readers. Therefore
+	 * blocks without a block handler (e.g. {@code SETS}) must also be specified, if they shall be processed. Blocks 
+	 * that are linked by processed blocks (e.g. {@code TAXA} blocks) should be processed as well, since a reader will
+	 * otherwise throw an exception when encountering the {@code LINK} command.
+	 * 
+	 * @param blockNames the names of the blocks to be processed (not case sensitive) or {@code null} if all blocks 
+	 *        shall be processed (which is the default)
+	 */
+	public void setProcessedBlocks(Collection<String> blockNames) {
+		if (blockNames == null) {
+			processedBlocks = null;
+		}
+		else {
+			Set<String> names = new HashSet<String>();
+			for (String blockName : blockNames) {
+				names.add(blockName.toUpperCase());
+			}
+			processedBlocks = Collections.unmodifiableSet(names);
+		}
+	}
+	
+	
+	/**
+	 * Determines whether a block with the specified name shall be processed by readers using this map.
+	 * 
+	 * @param blockName the name of the Nexus block (this method is not case sensitive)
+	 * @return {@code true} if the block shall be processed or {@code false} if it shall be skipped
+	 * @see #setProcessedBlocks(Collection)
+	 */
+	public boolean isBlockProcessed(String blockName) {
+		return (processedBlocks == null) || processedBlocks.contains(blockName.toUpperCase());
+	}
 }
@@ -91,6 +91,16 @@ public abstract class AbstractNexusCommandEventReader implements NexusCommandEve
 	}
 
 
+	/**
+	 * Resets the state of this instance, so that another command can be parsed with it. This implementation is used by
+	 * inherited classes that implement {@link ReusableNexusCommandEventReader}, which need to overwrite it, if they store
+	 * additional information about the current command.
+	 */
+	public void reset() {
+		allDataProcessed = false;
+	}
+
+
 	protected NexusReaderStreamDataProvider getStreamDataProvider() {
 		return streamDataProvider;
 	}
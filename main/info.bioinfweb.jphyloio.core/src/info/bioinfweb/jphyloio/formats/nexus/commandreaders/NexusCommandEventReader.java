@@ -33,9 +33,10 @@ import java.util.Collection;
  * Implementing classes must offer a constructor with a single argument of the type {@link NexusReaderStreamDataProvider}
  * to take information about the reader and the Nexus document.
  * <p>
- * A new instance should be created for parsing each command. The reader should be positioned at the first character 
- * behind the terminal semicolon after the implementing instance parsed all data and {@link #isAllDataProcessed()} 
- * should return {@code true} then.
+ * A new instance should be created for parsing each command, unless the implementing class also implements 
+ * {@link ReusableNexusCommandEventReader}. The reader should be positioned at the first character behind the terminal 
+ * semicolon after the implementing instance parsed all data and {@link #isAllDataProcessed()} should return {@code true} 
+ * then.
  * 
  * @author Ben St&ouml;ver
  */
@@ -0,0 +1,45 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.nexus.commandreaders;
+
+
+import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
+
+
+
+/**
+ * Interface to be implemented by all classes that create instances of a certain type of {@link NexusCommandEventReader}. 
+ * Instances are registered in {@link NexusCommandReaderFactory} and allow to create readers without using reflection 
+ * for each parsed command.
+ * 
+ * @author Ben St&ouml;ver
+ * @see NexusCommandReaderFactory#addReaderCreator(NexusCommandReaderCreator)
+ */
+public interface NexusCommandReaderCreator {
+	/**
+	 * Creates a new command reader instance.
+	 * <p>
+	 * Note that this method is also called with {@code null} as the stream data provider by 
+	 * {@link NexusCommandReaderFactory} to determine the command and block names supported by the returned reader. 
+	 * 
+	 * @param streamDataProvider the stream and data provider to be used by the returned reader
+	 * @return the new reader instance (never {@code null})
+	 */
+	public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider);
+}
@@ -35,6 +35,7 @@ import info.bioinfweb.jphyloio.formats.nexus.commandreaders.taxa.TaxLabelsReader
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TranslateReader;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TreeReader;
 
+import java.lang.reflect.Constructor;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -51,7 +52,11 @@ import java.util.TreeMap;
  * Any class of command reader can be added to this factory to be associated with a certain <i>Nexus</i> command in a 
  * certain <i>Nexus</i> block. The method {@link #addJPhyloIOReaders()} can be used to add all command readers that 
  * are defined in <i>JPhyloIO</i> to an instance. If additional custom readers are defined on application level, 
- * these can be added using {@link #addReaderClass(Class)}.
+ * these can be added using {@link #addReaderCreator(NexusCommandReaderCreator)} or {@link #addReaderClass(Class)}.
+ * <p>
+ * Readers are created by {@link NexusCommandReaderCreator}s that are bound when a reader type is added. Reflection is 
+ * only used once in {@link #addReaderClass(Class)} to determine the constructor of the specified class and not for each
+ * command that is parsed.
  * 
  * @author Ben St&ouml;ver
  */
@@ -60,8 +65,35 @@ public class NexusCommandReaderFactory {
 	public static final char BLOCK_COMMAND_CONNECTOR = '.';
 
 	
-	private Map<String, Class<? extends NexusCommandEventReader>> readers = 
-			new TreeMap<String, Class<? extends NexusCommandEventReader>>();
+	private static class ReflectionReaderCreator implements NexusCommandReaderCreator {
+		private Constructor<? extends NexusCommandEventReader> constructor;
+		
+		public ReflectionReaderCreator(Class<? extends NexusCommandEventReader> readerClass) throws IllegalArgumentException {
+			super();
+			try {
+				constructor = readerClass.getConstructor(NexusReaderStreamDataProvider.class);
+			}
+			catch (NoSuchMethodException e) {
+				throw new IllegalArgumentException("The specified reader class does not offer a constructor with a single " + 
+						NexusReaderStreamDataProvider.class.getName() + " argument.", e);
+			}
+		}
+
+		@Override
+		public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+			try {
+				return constructor.newInstance(streamDataProvider);
+			}
+			catch (Exception e) {
+				throw new IllegalArgumentException("Unable to create instance with single " + NexusReaderStreamDataProvider.class.getName() + 
+						" argument.", e);
+			}
+		}
+	}
+	
+	
+	private Map<String, Map<String, NexusCommandReaderCreator>> creators = 
+			new TreeMap<String, Map<String, NexusCommandReaderCreator>>(String.CASE_INSENSITIVE_ORDER);  // Block names are mapped to command names, so that no key strings need to be created for each lookup.
 
 	
 	/**
@@ -92,53 +124,156 @@ public class NexusCommandReaderFactory {
 	 * Adds all <i>Nexus</i> command readers available in <i>JPhyloIO</i> to this instance.
 	 */
 	public void addJPhyloIOReaders() {
-		addReaderClass(TitleReader.class);
-		addReaderClass(LinkReader.class);
-		addReaderClass(TaxLabelsReader.class);
-		addReaderClass(DimensionsReader.class);
-		addReaderClass(CharLabelsReader.class);
-		addReaderClass(CharStateLabelsReader.class);
-		addReaderClass(FormatReader.class);
-		addReaderClass(MatrixReader.class);
-		addReaderClass(TranslateReader.class);
-		addReaderClass(TreeReader.class);
-		addReaderClass(TaxSetReader.class);
-		addReaderClass(CharSetReader.class);
-		addReaderClass(TreeSetReader.class);
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TitleReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new LinkReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TaxLabelsReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new DimensionsReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new CharLabelsReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new CharStateLabelsReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new FormatReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new MatrixReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TranslateReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TreeReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TaxSetReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new CharSetReader(streamDataProvider);
+			}
+		});
+		addReaderCreator(new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TreeSetReader(streamDataProvider);
+			}
+		});
 		// add new classes here
 	}
 	
 	
-	private NexusCommandEventReader createReaderInstance(Class<? extends NexusCommandEventReader> readerClass, 
-			NexusReaderStreamDataProvider streamDataProvider) throws IllegalArgumentException {
-		
-		try {
-			return readerClass.getConstructor(NexusReaderStreamDataProvider.class).newInstance(streamDataProvider);
+	private void putCreator(String blockName, String commandName, NexusCommandReaderCreator creator) {
+		Map<String, NexusCommandReaderCreator> blockMap = creators.get(blockName);
+		if (blockMap == null) {
+			blockMap = new TreeMap<String, NexusCommandReaderCreator>(String.CASE_INSENSITIVE_ORDER);
+			creators.put(blockName, blockMap);
 		}
-		catch (Exception e) {
-			throw new IllegalArgumentException("Unable to create instance with single " + NexusReaderStreamDataProvider.class.getName() + 
-					" argument. The specified reader class does not seem to offer the appropriate constructor.", e);
+		blockMap.put(commandName, creator);
+	}
+	
+	
+	/**
+	 * Adds a new type of reader to this factory instance.
+	 * <p>
+	 * The specified creator is called once with {@code null} as the stream data provider to determine the command name
+	 * and the valid blocks of the readers it creates.
+	 * 
+	 * @param creator the object creating instances of the Nexus command reader type to be added
+	 */
+	public void addReaderCreator(NexusCommandReaderCreator creator) {
+		NexusCommandEventReader reader = creator.createReader(null);
+		if (reader.getValidBlocks().isEmpty()) {  // Valid in all blocks.
+			putCreator(ALL_BLOCKS_IDENTIFIER, reader.getCommandName(), creator);
+		}
+		else {
+			for (String blockName : reader.getValidBlocks()) {
+				putCreator(blockName, reader.getCommandName(), creator);
+			}
 		}
 	}
 	
 	
 	/**
 	 * Adds a new type of reader to this factory instance.
+	 * <p>
+	 * The constructor of the specified class is determined only once by this method. Readers that are defined on 
+	 * application level can alternatively be added using {@link #addReaderCreator(NexusCommandReaderCreator)}.
 	 * 
 	 * @param readerClass the class of the Nexus command reader type to be added
 	 * @throws IllegalArgumentException if the specified class does not offer an constructor as described in 
 	 *         {@link NexusCommandEventReader}
 	 */
 	public void addReaderClass(Class<? extends NexusCommandEventReader> readerClass) throws IllegalArgumentException {
-		NexusCommandEventReader reader = createReaderInstance(readerClass, null);
-		if (reader.getValidBlocks().isEmpty()) {  // Valid in all blocks.
-			readers.put(ALL_BLOCKS_IDENTIFIER + BLOCK_COMMAND_CONNECTOR + reader.getCommandName().toUpperCase(), readerClass);
+		addReaderCreator(new ReflectionReaderCreator(readerClass));
+	}
+	
+	
+	/**
+	 * Returns the creator of readers that are able to parse the specified command in the specified block, if
+	 * an according reader type was registered in this factory instance.
+	 * 
+	 * @param blockName the name of the block the command to parse is contained in
+	 * @param commandName the name of the command to be parsed
+	 * @return the creator or {@code null} if no according reader was found in this factory
+	 */
+	public NexusCommandReaderCreator getReaderCreator(String blockName, String commandName) {
+		NexusCommandReaderCreator result = null;
+		Map<String, NexusCommandReaderCreator> blockMap = creators.get(blockName);
+		if (blockMap != null) {
+			result = blockMap.get(commandName);
 		}
-		else {
-			for (String blockName : reader.getValidBlocks()) {
-				readers.put(blockName.toUpperCase() + BLOCK_COMMAND_CONNECTOR + reader.getCommandName().toUpperCase(), readerClass);
+		
+		if (result == null) {  // Try to get a reader valid in all blocks.
+			blockMap = creators.get(ALL_BLOCKS_IDENTIFIER);
+			if (blockMap != null) {
+				result = blockMap.get(commandName);
 			}
 		}
+		return result;
 	}
 	
 	
@@ -152,23 +287,12 @@ public class NexusCommandReaderFactory {
 	 * @return the reader or {@code null} if no according reader was found in this factory
 	 */
 	public NexusCommandEventReader createReader(String blockName, String commandName, NexusReaderStreamDataProvider streamDataProvider) {
-		Class<? extends NexusCommandEventReader> readerClass = readers.get(blockName.toUpperCase() + BLOCK_COMMAND_CONNECTOR + 
-				commandName.toUpperCase());
-		
-		if (readerClass == null) {  // Try to get a reader valid in all blocks.
-			readerClass = readers.get(ALL_BLOCKS_IDENTIFIER + BLOCK_COMMAND_CONNECTOR +	commandName.toUpperCase());
-		}
-		
-		if (readerClass == null) {
+		NexusCommandReaderCreator creator = getReaderCreator(blockName, commandName);
+		if (creator == null) {
 			return null;
 		}
 		else {
-			try {
-				return createReaderInstance(readerClass, streamDataProvider);
-			}
-			catch (IllegalArgumentException e) {
-				throw new InternalError("The according reader class does not offer an contructor appropriate contructor.");
-			}
+			return creator.createReader(streamDataProvider);
 		}
 	}
 }
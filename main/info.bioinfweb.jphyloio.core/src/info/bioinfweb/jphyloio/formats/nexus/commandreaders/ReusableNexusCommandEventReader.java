@@ -0,0 +1,39 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.nexus.commandreaders;
+
+
+
+/**
+ * Interface to be implemented by {@link NexusCommandEventReader}s that can be used to parse more than one command.
+ * <p>
+ * {@link info.bioinfweb.jphyloio.formats.nexus.NexusEventReader} keeps instances of implementing classes 
+ * during a block and calls {@link #reset()} before an instance is used to parse the next command of the same type,
+ * instead of creating a new reader for each command. This is especially useful for commands that are usually repeated 
+ * many times within a block (e.g. {@code TREE}).
+ * 
+ * @author Ben St&ouml;ver
+ */
+public interface ReusableNexusCommandEventReader extends NexusCommandEventReader {
+	/**
+	 * Resets the state of this instance, so that it can be used to parse another command. After calling this method, 
+	 * the reader must behave in the same way as a newly created instance.
+	 */
+	public void reset();
+}
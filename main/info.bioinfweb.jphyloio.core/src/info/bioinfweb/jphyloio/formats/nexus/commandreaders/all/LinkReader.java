@@ -23,6 +23,7 @@ import java.io.IOException;
 import java.util.Set;
 import java.util.TreeSet;
 
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.newick.NewickConstants;
 import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
@@ -67,6 +68,9 @@ import info.bioinfweb.jphyloio.formats.text.KeyValueInformation;
  * </pre>
  * The {@code LINK} command may also be used to link other blocks than the {@code TAXA} block, but <i>JPhyloIO</i> will
  * not use this information.
+ * <p>
+ * Links to blocks that were skipped by the reader due to {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES} are 
+ * ignored.
  * 
  * @author Ben St&ouml;ver
  * @see TitleReader
@@ -102,7 +106,10 @@ public class LinkReader extends AbstractKeyValueCommandReader implements NexusCo
 		if (BLOCK_NAMES_WITH_EVENTS.contains(key)) {
 			String nexusBlockLabel = value;  // Save undelimited value for possible error message.
 			value = getStreamDataProvider().getBlockTitleToIDMap().getID(key, value);
-			if (value == null) {
+			if ((value == null) && !getStreamDataProvider().isBlockIncluded(key)) {
+				return false;  // Blocks of this type were skipped and therefore cannot be linked.
+			}
+			else if (value == null) {
 				throw new JPhyloIOReaderException("The linked Nexus " + key + " block with the label \"" + 
 						nexusBlockLabel +	"\" was not previously declared unsing a TITLE command.", getStreamDataProvider().getDataReader());
 			}
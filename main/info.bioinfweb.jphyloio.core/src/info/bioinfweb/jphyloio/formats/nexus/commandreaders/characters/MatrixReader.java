@@ -21,8 +21,6 @@ package info.bioinfweb.jphyloio.formats.nexus.commandreaders.characters;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
 
 import info.bioinfweb.commons.collections.ParameterMap;
 import info.bioinfweb.commons.io.PeekReader;
@@ -37,6 +35,7 @@ import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
 import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.AbstractNexusCommandEventReader;
 import info.bioinfweb.jphyloio.utils.IDToNameManager;
+import info.bioinfweb.jphyloio.utils.SequenceTokenBuffer;
 
 
 
@@ -159,7 +158,7 @@ public class MatrixReader extends AbstractNexusCommandEventReader implements Nex
 					}
 					
 					// Read tokens:
-					List<String> tokens = new ArrayList<String>();
+					SequenceTokenBuffer tokens = new SequenceTokenBuffer();
 					c = reader.peekChar();
 					boolean result = false;
 					boolean tokenListComplete = false;
@@ -175,7 +174,7 @@ public class MatrixReader extends AbstractNexusCommandEventReader implements Nex
 							reader.consumeNewLine();
 							if (!tokens.isEmpty()) {  //TODO What about events for empty sequences?
 								getStreamDataProvider().getCurrentEventCollection().add(
-										getStreamDataProvider().getSequenceTokensEventManager().createEvent(currentSequenceLabel, tokens));
+										tokens.createEvent(getStreamDataProvider().getSequenceTokensEventManager(), currentSequenceLabel));
 								result = true;
 							}
 							currentSequenceLabel = null;  // Read new label next time.
@@ -186,7 +185,7 @@ public class MatrixReader extends AbstractNexusCommandEventReader implements Nex
 						else if (c == COMMENT_START) {
 							if (!tokens.isEmpty()) {
 								getStreamDataProvider().getCurrentEventCollection().add(  // Make sure to add token event before comment event.
-										getStreamDataProvider().getSequenceTokensEventManager().createEvent(currentSequenceLabel, tokens));
+										tokens.createEvent(getStreamDataProvider().getSequenceTokensEventManager(), currentSequenceLabel));
 							}
 							
 							reader.skip(1);  // Consume '['.
@@ -209,7 +208,7 @@ public class MatrixReader extends AbstractNexusCommandEventReader implements Nex
 					// Return event:
 					if (!tokens.isEmpty() && (currentSequenceLabel != null)) {  // Max number of tokens was reached.
 						getStreamDataProvider().getCurrentEventCollection().add(
-								getStreamDataProvider().getSequenceTokensEventManager().createEvent(currentSequenceLabel, tokens));
+								tokens.createEvent(getStreamDataProvider().getSequenceTokensEventManager(), currentSequenceLabel));
 						result = true;
 					}
 					if (c == COMMAND_END) {
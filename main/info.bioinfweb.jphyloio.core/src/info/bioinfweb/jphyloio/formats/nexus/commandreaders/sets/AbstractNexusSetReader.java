@@ -27,6 +27,7 @@ import java.util.Collection;
 import info.bioinfweb.commons.io.PeekReader;
 import info.bioinfweb.commons.text.StringUtils;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
 import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
 import info.bioinfweb.jphyloio.events.PartEndEvent;
@@ -37,6 +38,7 @@ import info.bioinfweb.jphyloio.exception.UnsupportedFormatFeatureException;
 import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
 import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.AbstractNexusCommandEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.ReusableNexusCommandEventReader;
 
 
 
@@ -48,7 +50,9 @@ import info.bioinfweb.jphyloio.formats.nexus.commandreaders.AbstractNexusCommand
  * @author Ben St&ouml;ver
  * @since 0.0.0
  */
-public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventReader implements NexusConstants, ReadWriteConstants {
+public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventReader implements ReusableNexusCommandEventReader, 
+		NexusConstants, ReadWriteConstants {
+	
 	//TODO Implement support for Nexus name references (to both objects and other sets). Calling the createEventsForName() method will be necessary.
 	//TODO Document in JavaDoc if any feature of the standard formats is not supported, when version 1.0 is released (e.g. "REMINDER").
 	
@@ -67,6 +71,15 @@ public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventRe
 	}
 	
 	
+	@Override
+	public void reset() {
+		super.reset();
+		name = null;
+		isVectorFormat = false;
+		currentColumn = 0;
+	}
+	
+	
 	/**
 	 * Returns the ID if the object that is linked to this set (e.g. an alignment start event related to a character set
 	 * or an OTU list related to an OTU set)
@@ -94,6 +107,25 @@ public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventRe
 	 */
 	protected abstract void createEventsForInterval(long start, long end) throws IOException;
 	
+	/**
+	 * Creates the event(s) representing every {@code stride}-th element of the specified interval in the current set 
+	 * type.
+	 * <p>
+	 * This default implementation calls {@link #createEventsForInterval(long, long)} once for each contained element.
+	 * Inherited classes whose set type has an event representation for strided intervals (like character sets) should
+	 * overwrite this method, so that large regular definitions do not need to be enumerated.
+	 * 
+	 * @param start the fist index of the interval
+	 * @param end the first index after the end of the interval
+	 * @param stride the distance between two elements contained in the set (always greater than 1)
+	 * @throws IOException if an I/O error occurs while writing the event(s)
+	 */
+	protected void createEventsForStridedInterval(long start, long end, long stride) throws IOException {
+		for (long i = start; i < end; i += stride) {
+			createEventsForInterval(i, i + 1);
+		}
+	}
+	
 	/**
 	 * Converts the Nexus name of a set element to its index.
 	 * 
@@ -126,6 +158,35 @@ public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventRe
 	}
 	
 	
+	/**
+	 * Consumes the remaining contents of the current command including the terminal {@code ';'} without parsing the set 
+	 * definition. This is used for set types that are excluded according to 
+	 * {@link ReadWriteParameterNames#KEY_INCLUDED_CONTENT_TYPES}, since the elements they reference may not have been read.
+	 * 
+	 * @throws IOException if an I/O error occurs or the end of the file is reached before the end of the command
+	 */
+	private void skipCommand() throws IOException {
+		PeekReader reader = getStreamDataProvider().getDataReader();
+		int c = reader.peek();
+		while ((c != -1) && ((char)c != COMMAND_END)) {
+			if ((char)c == WORD_DELIMITER) {
+				getStreamDataProvider().readNexusWord();  // Delimited words may contain ';'.
+			}
+			else if ((char)c == COMMENT_START) {
+				getStreamDataProvider().consumeWhiteSpaceAndComments();
+			}
+			else {
+				reader.skip(1);
+			}
+			c = reader.peek();
+		}
+		if (c == -1) {
+			throw new JPhyloIOReaderException("Unexpected end of file in Nexus " + getCommandName() + " command.", reader);
+		}
+		reader.skip(1);  // Consume ';'.
+	}
+	
+	
 	private boolean readNameAndFormat() throws IOException {
 		PeekReader reader = getStreamDataProvider().getDataReader();
 		
@@ -280,8 +341,14 @@ public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventRe
 					else if (interval < 0) {
 						throw new JPhyloIOReaderException("Unexpected token found in Nexus set definition.", reader);  //TODO More concrete message?
 					}
-					for (long i = start; i <= end; i += interval) {
-						createEventsForInterval(i, i + 1);
+					else if (interval == 0) {
+						throw new JPhyloIOReaderException("The regular interval of a Nexus set definition must be greater than 0.", reader);
+					}
+					else if ((interval == 1) || (start == end)) {
+						createEventsForInterval(start, end + 1);
+					}
+					else {
+						createEventsForStridedInterval(start, start + ((end - start) / interval) * interval + 1, interval);  // Only the last contained element is used as the end.
 					}
 				}
 				else {
@@ -346,7 +413,12 @@ public abstract class AbstractNexusSetReader extends AbstractNexusCommandEventRe
 		
 		// Read set name:
 		boolean isFirstCall = (name == null);  // Save for later use
-		if (isFirstCall) {
+		if (isFirstCall && !getStreamDataProvider().isContentTypeIncluded(setType)) {
+			skipCommand();
+			setAllDataProcessed(true);
+			return false;
+		}
+		else if (isFirstCall) {
 			if (readNameAndFormat()) {
 				return true;
 			}
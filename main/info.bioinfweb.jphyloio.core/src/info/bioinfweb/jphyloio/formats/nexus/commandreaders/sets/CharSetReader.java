@@ -67,6 +67,12 @@ public class CharSetReader extends AbstractNexusSetReader implements NexusConsta
 		getStreamDataProvider().getCurrentEventCollection().add(new CharacterSetIntervalEvent(start, end));
 	}
 
+
+	@Override
+	protected void createEventsForStridedInterval(long start, long end, long stride) {
+		getStreamDataProvider().getCurrentEventCollection().add(new CharacterSetIntervalEvent(start, end, stride));
+	}
+
 	
 	@Override
 	protected long elementIndexByName(String id) {
@@ -35,11 +35,25 @@ import java.util.TreeMap;
 public class NexusTranslationTable {
   private Map<String, Integer> keyMap = new TreeMap<String, Integer>();
   private List<String> nameList = new ArrayList<String>();
+  private List<String> keyList = new ArrayList<String>();
   
   
   public void add(String key, String value) {
   	keyMap.put(key, new Integer(size()));
   	nameList.add(value);
+  	keyList.add(key);
+  }
+  
+  
+  /**
+   * Adds all entries of the specified table to this table in the order they were added to the specified table.
+   * 
+   * @param table the table containing the entries to be added
+   */
+  public void addAll(NexusTranslationTable table) {
+  	for (int i = 0; i < table.size(); i++) {
+  		add(table.getKey(i), table.get(i));
+  	}
   }
   
   
@@ -53,6 +67,17 @@ public class NexusTranslationTable {
   }
   
   
+  /**
+   * Returns the key that was specified together with the name at the specified position.
+   * 
+   * @param pos the position of the entry
+   * @return the key of the entry
+   */
+  public String getKey(int pos) {
+  	return keyList.get(pos);
+  }
+  
+  
   public String get(String key) {
   	Integer index = keyMap.get(key);
   	if (index != null) {
@@ -67,5 +92,6 @@ public class NexusTranslationTable {
   public void clear() {
   	keyMap.clear();
   	nameList.clear();
+  	keyList.clear();
   }
 }
\ No newline at end of file
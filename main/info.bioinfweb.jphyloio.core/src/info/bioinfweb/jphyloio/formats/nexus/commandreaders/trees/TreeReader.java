@@ -31,11 +31,15 @@ import info.bioinfweb.jphyloio.formats.newick.NewickStringReader;
 import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
 import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.AbstractNexusCommandEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.ReusableNexusCommandEventReader;
 
 
 
-public class TreeReader extends AbstractNexusCommandEventReader implements NexusConstants, ReadWriteConstants {
+public class TreeReader extends AbstractNexusCommandEventReader implements ReusableNexusCommandEventReader, NexusConstants, 
+		ReadWriteConstants {
+	
 	private NewickStringReader newickStringReader = null;
+	private NexusNewickReaderNodeLabelProcessor nodeLabelProcessor = null;
 	
 	
 	public TreeReader(NexusReaderStreamDataProvider nexusDocument) {
@@ -58,6 +62,13 @@ public class TreeReader extends AbstractNexusCommandEventReader implements Nexus
 	}
 	
 	
+	@Override
+	public void reset() {
+		super.reset();
+		newickStringReader = null;
+	}
+	
+	
 	@Override
 	protected boolean doReadNextEvent() throws IOException {
 		PeekReader reader = getStreamDataProvider().getDataReader();
@@ -76,8 +87,11 @@ public class TreeReader extends AbstractNexusCommandEventReader implements Nexus
 				
 				if (reader.peekChar() == KEY_VALUE_SEPARATOR) {
 					reader.read();  // Skip KEY_VALUE_SEPARATOR.
-					newickStringReader = new NewickStringReader(getStreamDataProvider(), treeID, treeLabel, 
-							new NexusNewickReaderNodeLabelProcessor(getStreamDataProvider()), getExpectENewick());
+					if (nodeLabelProcessor == null) {
+						nodeLabelProcessor = new NexusNewickReaderNodeLabelProcessor(getStreamDataProvider());
+					}
+					newickStringReader = new NewickStringReader(getStreamDataProvider(), treeID, treeLabel, nodeLabelProcessor, 
+							getExpectENewick());
 				}
 				else {
 					throw new JPhyloIOReaderException("Expected \"" + KEY_VALUE_SEPARATOR + 
@@ -38,9 +38,14 @@ public class CharacterSetEventReceiver extends AbstractNexusSetsEventReceiver {
 	protected boolean handleCharacterSetInterval(CharacterSetIntervalEvent event) throws IOException {
 		getStreamDataProvider().getWriter().write(' ');
 		getStreamDataProvider().getWriter().write(Long.toString(event.getStart() + 1));
-		if (event.getEnd() - event.getStart() > 1) {
+		long lastIndex = event.getLastIndex();
+		if (lastIndex > event.getStart()) {
 			getStreamDataProvider().getWriter().write(SET_TO_SYMBOL);
-			getStreamDataProvider().getWriter().write(Long.toString(event.getEnd()));
+			getStreamDataProvider().getWriter().write(Long.toString(lastIndex + 1));
+			if (event.isStrided()) {
+				getStreamDataProvider().getWriter().write(SET_REGULAR_INTERVAL_SYMBOL);
+				getStreamDataProvider().getWriter().write(Long.toString(event.getStride()));
+			}
 		}
 		return true;
 	}
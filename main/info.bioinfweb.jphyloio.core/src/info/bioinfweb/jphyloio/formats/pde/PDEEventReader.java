@@ -43,6 +43,7 @@ import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
 import info.bioinfweb.jphyloio.formats.xml.AbstractXMLEventReader;
 import info.bioinfweb.jphyloio.formats.xml.AttributeInfo;
+import info.bioinfweb.jphyloio.formats.xml.CursorXMLEventReader;
 import info.bioinfweb.jphyloio.formats.xml.elementreaders.AbstractXMLElementReader;
 import info.bioinfweb.jphyloio.formats.xml.elementreaders.CommentElementReader;
 import info.bioinfweb.jphyloio.formats.xml.elementreaders.StartDocumentElementReader;
@@ -57,8 +58,6 @@ import java.io.InputStream;
 import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -66,7 +65,6 @@ import java.util.zip.GZIPInputStream;
 import java.util.zip.ZipException;
 
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
@@ -93,6 +91,7 @@ import org.apache.commons.collections4.map.ListOrderedMap;
  * <h3><a id="parameters"></a>Recognized parameters</h3> 
  * <ul>
  *   <li>{@link ReadWriteParameterNames#KEY_ALLOW_DEFAULT_NAMESPACE}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_XML_INPUT_FACTORY}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_LOGGER}</li>
  * </ul>
  * 
@@ -104,7 +103,7 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 	private static final Pattern META_DEFINITION_PATTERN = Pattern.compile("(\\d+)\\s+\\\"([^\\\"]*)\\\"\\s+(\\w+)\\s*");
 	
 
-	private static XMLEventReader createXMLEventReader(InputStream stream) throws XMLStreamException, IOException {
+	private static XMLEventReader createXMLEventReader(InputStream stream, ReadWriteParameterMap parameters) throws XMLStreamException, IOException {
 		try {  // Since PDE is usually compressed, unzipping is implemented in here in addition to according factory methods.
 			stream = new BufferedInputStream(stream);
 			stream.mark(1024);
@@ -114,7 +113,7 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 			stream.reset();
 		}
 		
-		return XMLInputFactory.newInstance().createXMLEventReader(stream);
+		return new CursorXMLEventReader(parameters.getXMLInputFactory().createXMLStreamReader(stream));
 	}
 
 	
@@ -124,7 +123,7 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 
 	
 	public PDEEventReader(InputStream stream, ReadWriteParameterMap parameters)	throws IOException, XMLStreamException {
-		super(createXMLEventReader(stream), parameters);
+		super(createXMLEventReader(stream, parameters), parameters);
 	}
 
 
@@ -485,14 +484,14 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 						String specialToken = streamDataProvider.getIncompleteToken();
 						String label = null;
 						
-						List<String> sequence = new ArrayList<String>();
+						StringBuilder sequence = new StringBuilder();
 						Character previousChar = ' ';
 						
 						for (int i = 0; i < sequenceData.length(); i++) {
 							Character nextChar = sequenceData.charAt(i);
 							if (!nextChar.equals('\\') && specialToken.isEmpty()) {
-								if (sequence.size() < streamDataProvider.getAlignmentLength()) {
-									sequence.add(Character.toString(nextChar));
+								if (sequence.length() < streamDataProvider.getAlignmentLength()) {
+									sequence.append(nextChar);
 								}
 								else {
 									throw new JPhyloIOReaderException("The sequence with the index \"" + streamDataProvider.getCurrentSequenceIndex() + "\" was found to be longer"
@@ -513,10 +512,10 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 								}
 								else {
 									if (specialToken.equals("\\F")) {
-										if (sequence.size() != 0) {
+										if (sequence.length() != 0) {
 											streamDataProvider.getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(streamDataProvider.getCurrentSequenceID(), sequence));
-											streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.size());
-											sequence = new ArrayList<String>();
+											streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.length());
+											sequence.setLength(0);
 										}
 										
 										if (streamDataProvider.getCurrentSequenceLength() == streamDataProvider.getAlignmentLength()) {
@@ -553,11 +552,11 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 										specialToken = specialToken.replaceAll("\\\\FE", "");
 										
 										for (int j = 0; j < Integer.parseInt(StringUtils.invert(specialToken)); j++) {
-											sequence.add("?");
+											sequence.append('?');
 										}
 										streamDataProvider.getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(streamDataProvider.getCurrentSequenceID(), sequence));
-										streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.size());
-										sequence = new ArrayList<String>();
+										streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.length());
+										sequence.setLength(0);
 									}
 									
 									specialToken = "";
@@ -566,9 +565,9 @@ public class PDEEventReader extends AbstractXMLEventReader<PDEReaderStreamDataPr
 							}
 						}
 							
-						if (sequence.size() != 0) {
+						if (sequence.length() != 0) {
 							streamDataProvider.getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(streamDataProvider.getCurrentSequenceID(), sequence));
-							streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.size());
+							streamDataProvider.setCurrentSequenceLength(streamDataProvider.getCurrentSequenceLength() + sequence.length());
 							
 							if (streamDataProvider.getXMLReader().peek().getEventType() != XMLStreamConstants.CHARACTERS ) {
 								if (streamDataProvider.getCurrentSequenceLength() == streamDataProvider.getAlignmentLength()) {
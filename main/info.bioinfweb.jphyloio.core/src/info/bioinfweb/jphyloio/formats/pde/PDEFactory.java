@@ -100,6 +100,7 @@ public class PDEFactory extends AbstractXMLFactory implements PDEConstants, JPhy
 		
 		Set<String> supportedParameters = new HashSet<String>();
 		supportedParameters.add(ReadWriteParameterNames.KEY_ALLOW_DEFAULT_NAMESPACE);
+		supportedParameters.add(ReadWriteParameterNames.KEY_XML_INPUT_FACTORY);
 		supportedParameters.add(ReadWriteParameterNames.KEY_LOGGER);
 		
 		return new DefaultFormatInfo(this, PDE_FORMAT_ID, PDE_FORMAT_NAME, 
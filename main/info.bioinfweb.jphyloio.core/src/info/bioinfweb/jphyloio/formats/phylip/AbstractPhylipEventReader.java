@@ -29,6 +29,7 @@ import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.text.AbstractTextEventReader;
+import info.bioinfweb.jphyloio.formats.text.CharacterClass;
 import info.bioinfweb.jphyloio.formats.text.TextReaderStreamDataProvider;
 
 import java.io.File;
@@ -132,7 +133,8 @@ public abstract class AbstractPhylipEventReader<P extends TextReaderStreamDataPr
 	protected String readSequenceName() throws IOException {
 		String result;
 		if (isRelaxedPhylip()) {  // Allow longer names terminated by one or more white spaces
-			result = getReader().readRegExp(RELAXED_PHYLIP_NAME_PATTERN, true).getSequence().toString().trim();
+			result = getScanner().readUntil(CharacterClass.WHITESPACE, 1, Integer.MAX_VALUE).getSequence().toString().trim();
+			getScanner().skip(CharacterClass.WHITESPACE);
 		}
 		else {  // Allow names with exactly 10 characters or shorter and terminated with a tab
 			result = getReader().readUntil(DEFAULT_NAME_LENGTH, PREMATURE_NAME_END_CHARACTER).getSequence().toString().trim();
@@ -0,0 +1,316 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.phylip;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.formats.text.AbstractParallelTextEventReader;
+import info.bioinfweb.jphyloio.formats.text.MappedFileReader;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+
+import javax.xml.namespace.QName;
+
+
+
+/**
+ * Event based reader for sequential <i>Phylip</i> alignment files that parses the sequences of a file in parallel.
+ * <p>
+ * The events are fired in the order of the input and have the same structure as the events of 
+ * {@link SequentialPhylipEventReader}. Since the end of a sequence can only be determined by counting its tokens, the
+ * input is split into chunks of complete sequences in the thread using this reader, while creating names and tokens 
+ * is done by multiple threads. Each sequence needs to fit into a single character array.
+ * 
+ * <h3><a id="parameters"></a>Recognized parameters</h3> 
+ * <ul>
+ *   <li>{@link ReadWriteParameterNames#KEY_MATCH_TOKEN}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_REPLACE_MATCH_TOKENS}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_RELAXED_PHYLIP}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_MAXIMUM_TOKENS_TO_READ}</li>
+ * </ul>
+ * 
+ * @author Ben St&ouml;ver
+ * @see SequentialPhylipEventReader
+ */
+public class ParallelSequentialPhylipEventReader 
+		extends AbstractParallelTextEventReader<ReaderStreamDataProvider<ParallelSequentialPhylipEventReader>> implements PhylipConstants {
+	
+	private long characterCount = -1;
+	private boolean relaxedPhylip;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param reader the reader providing the Phylip data to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @param executor the executor to parse the chunks of the input (If {@code null} is specified, a new thread pool 
+	 *        with one thread per available processor is created and shut down when this reader is closed.)
+	 */
+	public ParallelSequentialPhylipEventReader(Reader reader, ReadWriteParameterMap parameters, ExecutorService executor) {
+		super(reader, parameters, parameters.getMatchToken(), executor);
+		relaxedPhylip = parameters.getBoolean(ReadWriteParameterMap.KEY_RELAXED_PHYLIP, false);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class using a new thread pool.
+	 * 
+	 * @param reader the reader providing the Phylip data to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 */
+	public ParallelSequentialPhylipEventReader(Reader reader, ReadWriteParameterMap parameters) {
+		this(reader, parameters, null);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class. The file is read using a {@link MappedFileReader}.
+	 * 
+	 * @param file the Phylip file to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @param executor the executor to parse the chunks of the input (If {@code null} is specified, a new thread pool 
+	 *        with one thread per available processor is created and shut down when this reader is closed.)
+	 * @throws IOException if the file cannot be opened
+	 */
+	public ParallelSequentialPhylipEventReader(File file, ReadWriteParameterMap parameters, ExecutorService executor) throws IOException {
+		this(new MappedFileReader(file), parameters, executor);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class using a new thread pool. The file is read using a {@link MappedFileReader}.
+	 * 
+	 * @param file the Phylip file to be read 
+	 * @param parameters the parameter map for this reader instance 
+	 * @throws IOException if the file cannot be opened
+	 */
+	public ParallelSequentialPhylipEventReader(File file, ReadWriteParameterMap parameters) throws IOException {
+		this(file, parameters, null);
+	}
+	
+	
+	@Override
+	public String getFormatID() {
+		return JPhyloIOFormatIDs.SEQUENTIAL_PHYLIP_FORMAT_ID;
+	}
+	
+	
+	public boolean isRelaxedPhylip() {
+		return relaxedPhylip;
+	}
+	
+	
+	private long parseDimension(String value, String description, QName predicate) throws IOException {
+		long result;
+		try {
+			result = Long.parseLong(value);
+		}
+		catch (NumberFormatException e) {
+			throw new JPhyloIOReaderException("Invalid integer value \"" + value + "\" found for the Phylip " + description + ".", 
+					0, -1, -1, e);
+		}
+		getCurrentEventCollection().add(new LiteralMetadataEvent(DEFAULT_META_ID_PREFIX + getIDManager().createNewID(), null, 
+				new URIOrStringIdentifier(null, predicate), LiteralContentSequenceType.SIMPLE));
+		getCurrentEventCollection().add(new LiteralMetadataContentEvent(result, value));
+		getCurrentEventCollection().add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.LITERAL_META));
+		return result;
+	}
+	
+	
+	@Override
+	protected boolean readHeader() throws IOException {
+		String firstLine = readHeaderLine();
+		String[] parts;
+		if (firstLine == null) {
+			parts = new String[0];
+		}
+		else {
+			parts = firstLine.trim().split("\\s+");
+		}
+		
+		if (parts.length == 2) {
+			long sequenceCount = parseDimension(parts[0], "sequence count", PREDICATE_SEQUENCE_COUNT);
+			characterCount = parseDimension(parts[1], "character count", PREDICATE_CHARACTER_COUNT);
+			return sequenceCount != 0;
+		}
+		else {
+			throw new JPhyloIOReaderException("The first line of a Phylip file needs to contain exactly two integer values "
+					+ "spcifying the sequence and character count. " + parts.length + " value(s) was/were found instead.", 0, -1, -1);
+		}
+	}
+	
+	
+	@Override
+	protected boolean isSequenceComplete() {
+		return getSequenceTokensEventManager().getCurrentPosition() >= characterCount;
+	}
+	
+	
+	private static boolean isLineBreak(char c) {
+		return (c == '\n') || (c == '\r');
+	}
+	
+	
+	private static int skipEmptyLines(char[] chunk, int pos, int end) {
+		while ((pos < end) && isLineBreak(chunk[pos])) {
+			pos++;
+		}
+		return pos;
+	}
+	
+	
+	/**
+	 * Parses a single sequence starting at the specified position.
+	 * 
+	 * @param chunk the characters to be parsed
+	 * @param pos the start position of the sequence name
+	 * @param end the end of the valid characters in {@code chunk}
+	 * @param records the list to add the parsed record to or {@code null} if the sequence shall only be skipped
+	 * @return the position after the line break following the last token of the sequence or -1 if the end of 
+	 *         {@code chunk} was reached before the sequence was complete
+	 */
+	private int parseSequence(char[] chunk, int pos, int end, List<SequenceRecord> records) {
+		// Read name:
+		int nameStart = pos;
+		int nameEnd;
+		if (relaxedPhylip) {  // Allow longer names terminated by one or more white spaces
+			while ((pos < end) && !Character.isWhitespace(chunk[pos])) {
+				pos++;
+			}
+			nameEnd = pos;
+			while ((pos < end) && Character.isWhitespace(chunk[pos])) {
+				pos++;
+			}
+		}
+		else {  // Allow names with exactly 10 characters or shorter and terminated with a tab
+			while ((pos < end) && (pos - nameStart < DEFAULT_NAME_LENGTH) && (chunk[pos] != PREMATURE_NAME_END_CHARACTER.charAt(0))) {
+				pos++;
+			}
+			nameEnd = pos;
+			if ((pos < end) && (chunk[pos] == PREMATURE_NAME_END_CHARACTER.charAt(0))) {
+				pos++;
+			}
+		}
+		if (pos >= end) {  // No sequence is started, if the end of the alignment was reached.
+			return -1;
+		}
+		
+		SequenceRecord record = null;
+		if (records != null) {
+			record = new SequenceRecord(new String(chunk, nameStart, nameEnd - nameStart).trim());
+			records.add(record);
+		}
+		
+		// Read tokens:
+		int maxTokensToRead = getParameters().getMaxTokensToRead();
+		long charactersRead = 0;
+		StringBuilder tokens = new StringBuilder();
+		while (pos < end) {
+			int lineEnd = pos;
+			while ((lineEnd < end) && !isLineBreak(chunk[lineEnd])) {
+				lineEnd++;
+			}
+			
+			while (pos < lineEnd) {
+				int partEnd = Math.min(pos + maxTokensToRead, lineEnd);
+				tokens.setLength(0);
+				for (; pos < partEnd; pos++) {
+					if (!Character.isWhitespace(chunk[pos])) {  // Phylip allows white spaces in between sequences
+						tokens.append(chunk[pos]);
+					}
+				}
+				if (tokens.length() > 0) {
+					charactersRead += tokens.length();
+					if (record != null) {
+						record.getTokens().add(tokens.toString());
+					}
+				}
+			}
+			
+			if (lineEnd == end) {
+				return -1;
+			}
+			else {
+				if ((chunk[pos] == '\r') && (pos + 1 < end) && (chunk[pos + 1] == '\n')) {
+					pos++;
+				}
+				pos++;
+				if (charactersRead >= characterCount) {
+					return pos;
+				}
+				pos = skipEmptyLines(chunk, pos, end);
+			}
+		}
+		return -1;
+	}
+	
+	
+	@Override
+	protected int findChunkEnd(char[] chunk, int length) {
+		int result = 0;
+		int pos = skipEmptyLines(chunk, 0, length);
+		while (pos < length) {
+			pos = parseSequence(chunk, pos, length, null);
+			if (pos == -1) {
+				break;
+			}
+			else {
+				result = pos;
+				if (result >= CHUNK_SIZE) {
+					break;
+				}
+				pos = skipEmptyLines(chunk, pos, length);
+			}
+		}
+		return result;
+	}
+	
+	
+	@Override
+	protected List<SequenceRecord> parseChunk(char[] chunk, int length, long offset) {
+		List<SequenceRecord> result = new ArrayList<SequenceRecord>();
+		int pos = skipEmptyLines(chunk, 0, length);
+		while (pos < length) {
+			pos = parseSequence(chunk, pos, length, result);
+			if (pos == -1) {
+				break;
+			}
+			else {
+				pos = skipEmptyLines(chunk, pos, length);
+			}
+		}
+		return result;
+	}
+}
@@ -124,6 +124,7 @@ import javax.xml.stream.events.XMLEvent;
  *   <li>{@link ReadWriteParameterNames#KEY_LOGGER}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_OBJECT_TRANSLATOR_FACTORY}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_ALLOW_DEFAULT_NAMESPACE}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_XML_INPUT_FACTORY}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_PHYLOXML_CONSIDER_PHYLOGENY_AS_TREE}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_PHYLOXML_EVENT_ID_TRANSLATION_MAP}</li>
  * </ul>
@@ -170,6 +171,13 @@ public class PhyloXMLEventReader extends AbstractXMLEventReader<PhyloXMLReaderSt
 
 	@SuppressWarnings("unchecked")
 	protected void fillMap() {
+		// Elements that only result in metadata events and can be skipped as a whole:
+		putSkippableElement(TAG_PROPERTY, EventContentType.LITERAL_META, EventContentType.RESOURCE_META);
+		putSkippableElement(TAG_DATE, EventContentType.LITERAL_META, EventContentType.RESOURCE_META);
+		putSkippableElement(TAG_EVENTS, EventContentType.LITERAL_META, EventContentType.RESOURCE_META);
+		putSkippableElement(TAG_DISTRIBUTION, EventContentType.LITERAL_META, EventContentType.RESOURCE_META);
+		putSkippableElement(TAG_REFERENCE, EventContentType.LITERAL_META, EventContentType.RESOURCE_META);
+		
 		XMLElementReader<PhyloXMLReaderStreamDataProvider> cladeEndReader = new AbstractXMLElementReader<PhyloXMLReaderStreamDataProvider>() {
 			@Override
 			public void readEvent(PhyloXMLReaderStreamDataProvider streamDataProvider, XMLEvent event) throws IOException, XMLStreamException {
@@ -23,6 +23,7 @@ import info.bioinfweb.commons.io.XMLUtils;
 import info.bioinfweb.jphyloio.ReadWriteParameterNames;
 import info.bioinfweb.jphyloio.dataadapters.TreeNetworkDataAdapter;
 import info.bioinfweb.jphyloio.dataadapters.TreeNetworkGroupDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.receivers.EventCollectionReceiver;
 import info.bioinfweb.jphyloio.events.EdgeEvent;
 import info.bioinfweb.jphyloio.events.LabeledIDEvent;
 import info.bioinfweb.jphyloio.events.NodeEvent;
@@ -38,10 +39,13 @@ import info.bioinfweb.jphyloio.formats.phyloxml.receivers.PhyloXMLPropertyMetada
 import info.bioinfweb.jphyloio.formats.phyloxml.receivers.PhyloXMLSpecificPredicatesDataReceiver;
 import info.bioinfweb.jphyloio.formats.xml.AbstractXMLEventWriter;
 import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
+import info.bioinfweb.jphyloio.utils.TopoplogicalNodeInfo;
 import info.bioinfweb.jphyloio.utils.TreeTopologyExtractor;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 
 import javax.xml.XMLConstants;
 import javax.xml.stream.XMLStreamException;
@@ -161,6 +165,26 @@ import javax.xml.stream.XMLStreamException;
  * @see <a href="http://r.bioinfweb.info/JPhyloIODemoMetadata">Metadata demo application</a>
  */
 public class PhyloXMLEventWriter extends AbstractXMLEventWriter<PhyloXMLWriterStreamDataProvider> implements PhyloXMLConstants, PhyloXMLPrivateConstants {
+	/**
+	 * Stores the information on a clade that is needed until its end tag is written.
+	 */
+	private static class CladeInfo {
+		public String nodeID;
+		public String edgeID;
+		public Iterator<String> childNodeIDIterator;
+		public EventCollectionReceiver nodeContent = new EventCollectionReceiver();
+		public EventCollectionReceiver edgeContent = new EventCollectionReceiver();
+	}
+	
+	
+	private List<CladeInfo> cladeInfos = new ArrayList<CladeInfo>();  // Instances are reused for all clades on the same level.
+	private PhyloXMLMetaDataReceiver nodeSpecificPredicatesReceiver;
+	private PhyloXMLMetaDataReceiver edgeSpecificPredicatesReceiver;
+	private PhyloXMLMetaDataReceiver nodeMetadataReceiver;
+	private PhyloXMLMetaDataReceiver edgeMetadataReceiver;
+	private PhyloXMLMetaDataReceiver nodeCustomXMLReceiver;
+	private PhyloXMLMetaDataReceiver edgeCustomXMLReceiver;
+	
 	
 	
 	public PhyloXMLEventWriter() {
@@ -282,6 +306,7 @@ public class PhyloXMLEventWriter extends AbstractXMLEventWriter<PhyloXMLWriterSt
 	private void writePhylogenyTag(TreeNetworkDataAdapter tree) throws XMLStreamException, IOException {
 		PhyloXMLMetaDataReceiver receiver = new PhyloXMLSpecificPredicatesDataReceiver(getStreamDataProvider(), getParameters(), 
 				PropertyOwner.PHYLOGENY, IDENTIFIER_PHYLOGENY);
+		EventCollectionReceiver metadata = new EventCollectionReceiver();
 		LabeledIDEvent startEvent = tree.getStartEvent(getParameters());
 		TreeTopologyExtractor topologyExtractor = new TreeTopologyExtractor(tree, getParameters());
 		
@@ -311,9 +336,10 @@ public class PhyloXMLEventWriter extends AbstractXMLEventWriter<PhyloXMLWriterSt
 		getXMLWriter().writeEndElement();
 		
 		// Write metadata with PhyloXML-specific predicates
-		tree.writeMetadata(getParameters(), receiver);
+		tree.writeMetadata(getParameters(), metadata);  // Metadata is only requested once from the adapter and then passed to all receivers.
+		metadata.writeEvents(receiver);
 		
-		writeCladeTag(tree, topologyExtractor, rootNodeID);  // It is ensured by the TreeTopologyExtractor that the root node ID is not null		
+		writeCladeTags(tree, topologyExtractor, rootNodeID);  // It is ensured by the TreeTopologyExtractor that the root node ID is not null		
 		
 		for (String networkEdgeID : topologyExtractor.getNetworkEdgeIDs()) {
 			EdgeEvent networkEdgeEvent = tree.getEdges(getParameters()).getObjectStartEvent(getParameters(), networkEdgeID);
@@ -326,77 +352,120 @@ public class PhyloXMLEventWriter extends AbstractXMLEventWriter<PhyloXMLWriterSt
 		
 		// Write property tags from PhyloXML-specific predicates
 		receiver = new PhyloXMLPropertyMetadataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PHYLOGENY);
-		tree.writeMetadata(getParameters(), receiver);
+		metadata.writeEvents(receiver);
 		
 		// Write general meta data
 		receiver = new PhyloXMLMetaDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PHYLOGENY);	
-		tree.writeMetadata(getParameters(), receiver);
+		metadata.writeEvents(receiver);
 		
 		// Write custom XML
 		receiver = new PhyloXMLOnlyCustomXMLDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PHYLOGENY);	
-		tree.writeMetadata(getParameters(), receiver);
+		metadata.writeEvents(receiver);
 		
 		getXMLWriter().writeEndElement();
 	}
 	
 	
-	private void writeCladeTag(TreeNetworkDataAdapter tree, TreeTopologyExtractor topologyExtractor, String rootNodeID) throws XMLStreamException, IOException {	
-		PhyloXMLMetaDataReceiver nodeReceiver = new PhyloXMLSpecificPredicatesDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE, IDENTIFIER_NODE);
-		PhyloXMLMetaDataReceiver edgeReceiver = new PhyloXMLSpecificPredicatesDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH, IDENTIFIER_EDGE);
-		
-		NodeEvent rootNode = tree.getNodes(getParameters()).getObjectStartEvent(getParameters(), rootNodeID);
-		EdgeEvent afferentEdge = tree.getEdges(getParameters()).getObjectStartEvent(getParameters(), 
-				topologyExtractor.getIDToNodeInfoMap().get(rootNodeID).getAfferentBranchID());
+	private static void writeContent(EventCollectionReceiver content, PhyloXMLMetaDataReceiver receiver) throws IOException {
+		receiver.reset();
+		content.writeEvents(receiver);
+	}
+	
+	
+	private void createCladeReceivers() {
+		nodeSpecificPredicatesReceiver = new PhyloXMLSpecificPredicatesDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE, IDENTIFIER_NODE);
+		edgeSpecificPredicatesReceiver = new PhyloXMLSpecificPredicatesDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH, IDENTIFIER_EDGE);
+		nodeMetadataReceiver = new PhyloXMLMetaDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE);
+		edgeMetadataReceiver = new PhyloXMLMetaDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH);
+		nodeCustomXMLReceiver = new PhyloXMLOnlyCustomXMLDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE);
+		edgeCustomXMLReceiver = new PhyloXMLOnlyCustomXMLDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH);
+	}
+	
+	
+	/**
+	 * Writes the start tag of a clade and all its contents that need to be written before its subclades.
+	 * <p>
+	 * The contents of the node and its afferent edge are requested only once from the data adapters and are stored in
+	 * the {@link CladeInfo} instance of the current depth, since they are needed again in {@link #writeCladeEnd(CladeInfo)}.
+	 */
+	private void writeCladeStart(TreeNetworkDataAdapter tree, TreeTopologyExtractor topologyExtractor, String nodeID, int depth) 
+			throws XMLStreamException, IOException {
+		
+		if (depth == cladeInfos.size()) {
+			cladeInfos.add(new CladeInfo());
+		}
+		CladeInfo clade = cladeInfos.get(depth);
+		TopoplogicalNodeInfo nodeInfo = topologyExtractor.getIDToNodeInfoMap().get(nodeID);
+		NodeEvent node = tree.getNodes(getParameters()).getObjectStartEvent(getParameters(), nodeID);
+		EdgeEvent afferentEdge = tree.getEdges(getParameters()).getObjectStartEvent(getParameters(), nodeInfo.getAfferentBranchID());
+		clade.nodeID = nodeID;
+		clade.edgeID = afferentEdge.getID();
+		clade.childNodeIDIterator = nodeInfo.getChildNodeIDs().iterator();
 		
 		getXMLWriter().writeStartElement(TAG_CLADE.getLocalPart());
 		
-		String idSource = getStreamDataProvider().getNodeEventIDToIDSourceMap().get(rootNodeID);
-		if (idSource != null) {
-			getXMLWriter().writeAttribute(ATTR_ID_SOURCE.getLocalPart(), idSource);
-		}
-		else {
-			int idSuffix = 1;
-			idSource = rootNodeID;
-			while (!getStreamDataProvider().getIdSources().add(idSource)) {
-				idSource = rootNodeID + idSuffix;
-				idSuffix++;
-			}
-			
-			getStreamDataProvider().getNodeEventIDToIDSourceMap().put(rootNodeID, idSource);
-			getXMLWriter().writeAttribute(ATTR_ID_SOURCE.getLocalPart(), idSource);
+		String idSource = getStreamDataProvider().getNodeEventIDToIDSourceMap().get(nodeID);
+		if (idSource == null) {
+			idSource = getStreamDataProvider().createIDSource(nodeID);
+			getStreamDataProvider().getNodeEventIDToIDSourceMap().put(nodeID, idSource);
 		}
+		getXMLWriter().writeAttribute(ATTR_ID_SOURCE.getLocalPart(), idSource);
 		
 		if (!Double.isNaN(afferentEdge.getLength())) {
 			getXMLWriter().writeAttribute(ATTR_BRANCH_LENGTH.getLocalPart(), Double.toString(afferentEdge.getLength()));
 		}
 		
-		writeSimpleTag(TAG_NAME.getLocalPart(), rootNode.getLabel());
+		writeSimpleTag(TAG_NAME.getLocalPart(), node.getLabel());
+		
+		clade.edgeContent.clear();
+		tree.getEdges(getParameters()).writeContentData(getParameters(), clade.edgeContent, clade.edgeID);
+		clade.nodeContent.clear();
+		tree.getNodes(getParameters()).writeContentData(getParameters(), clade.nodeContent, nodeID);
 		
 		// Write PhyloXML-specific metadata
-		tree.getEdges(getParameters()).writeContentData(getParameters(), edgeReceiver, afferentEdge.getID());
-		tree.getNodes(getParameters()).writeContentData(getParameters(), nodeReceiver, rootNodeID);
+		writeContent(clade.edgeContent, edgeSpecificPredicatesReceiver);
+		writeContent(clade.nodeContent, nodeSpecificPredicatesReceiver);
 		
 		// Write general metadata
-		nodeReceiver = new PhyloXMLMetaDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE);
-		edgeReceiver = new PhyloXMLMetaDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH);		
-		tree.getNodes(getParameters()).writeContentData(getParameters(), nodeReceiver, rootNodeID);
-		tree.getEdges(getParameters()).writeContentData(getParameters(), edgeReceiver, afferentEdge.getID());
-		
-		// Write subtree
-		for (String childID : topologyExtractor.getIDToNodeInfoMap().get(rootNodeID).getChildNodeIDs()) {		
-			writeCladeTag(tree, topologyExtractor, childID);
-		}
+		writeContent(clade.nodeContent, nodeMetadataReceiver);
+		writeContent(clade.edgeContent, edgeMetadataReceiver);
+	}
+	
 	
+	private void writeCladeEnd(CladeInfo clade) throws XMLStreamException, IOException {
 		// Write custom XML
-		nodeReceiver = new PhyloXMLOnlyCustomXMLDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.NODE);
-		edgeReceiver = new PhyloXMLOnlyCustomXMLDataReceiver(getStreamDataProvider(), getParameters(), PropertyOwner.PARENT_BRANCH);
-		tree.getNodes(getParameters()).writeContentData(getParameters(), nodeReceiver, rootNodeID);
-		tree.getEdges(getParameters()).writeContentData(getParameters(), edgeReceiver, afferentEdge.getID());
+		writeContent(clade.nodeContent, nodeCustomXMLReceiver);
+		writeContent(clade.edgeContent, edgeCustomXMLReceiver);
 		
 		getXMLWriter().writeEndElement();
 	}
 	
 	
+	/**
+	 * Writes the clade tags of the whole tree. An explicit stack is used instead of recursion, so that the depth of the 
+	 * tree is not limited by the stack size of the current thread. 
+	 */
+	private void writeCladeTags(TreeNetworkDataAdapter tree, TreeTopologyExtractor topologyExtractor, String rootNodeID) throws XMLStreamException, IOException {
+		createCladeReceivers();
+		
+		int depth = 0;
+		writeCladeStart(tree, topologyExtractor, rootNodeID, depth);
+		while (depth >= 0) {
+			CladeInfo clade = cladeInfos.get(depth);
+			if (clade.childNodeIDIterator.hasNext()) {
+				depth++;
+				writeCladeStart(tree, topologyExtractor, clade.childNodeIDIterator.next(), depth);
+			}
+			else {
+				writeCladeEnd(clade);
+				clade.nodeContent.clear();  // Allow garbage collection of the events.
+				clade.edgeContent.clear();
+				depth--;
+			}
+		}
+	}
+	
+	
 	private void writeSimpleTag(String tagName, String characters) throws XMLStreamException {
 		if ((characters != null) && !characters.isEmpty()) {
 			getXMLWriter().writeStartElement(tagName);
@@ -55,6 +55,7 @@ public class PhyloXMLWriterStreamDataProvider extends XMLWriterStreamDataProvide
 	
 	private Set<String> idSources = new HashSet<String>();
 	private Map<String, String> nodeEventIDToIDSourceMap = new HashMap<String, String>();
+	private Map<String, Integer> nextIDSourceSuffixMap = new HashMap<String, Integer>();
 	
 	
 	public PhyloXMLWriterStreamDataProvider(PhyloXMLEventWriter eventWriter) {
@@ -157,6 +158,35 @@ public class PhyloXMLWriterStreamDataProvider extends XMLWriterStreamDataProvide
 	public Map<String, String> getNodeEventIDToIDSourceMap() {
 		return nodeEventIDToIDSourceMap;
 	}
+	
+	
+	/**
+	 * Creates a new clade ID source that is based on the specified node ID and has not been used before in the current
+	 * document. If the node ID itself is already used, a numeric suffix is appended. The next suffix to be tried is 
+	 * stored for each node ID, so that previously used suffixes are not tested again.
+	 * 
+	 * @param nodeID the ID of the node to create the ID source for
+	 * @return the new ID source
+	 */
+	public String createIDSource(String nodeID) {
+		Integer suffix = nextIDSourceSuffixMap.get(nodeID);
+		String idSource;
+		if (suffix == null) {
+			idSource = nodeID;
+			suffix = 1;
+		}
+		else {
+			idSource = nodeID + suffix;
+			suffix++;
+		}
+		
+		while (!idSources.add(idSource)) {
+			idSource = nodeID + suffix;
+			suffix++;
+		}
+		nextIDSourceSuffixMap.put(nodeID, suffix);
+		return idSource;
+	}
 
 
 	private void fillMetaPredicateMap() {
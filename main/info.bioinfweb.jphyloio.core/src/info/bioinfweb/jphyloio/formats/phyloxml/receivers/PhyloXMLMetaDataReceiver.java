@@ -81,6 +81,20 @@ public class PhyloXMLMetaDataReceiver extends AbstractXMLDataReceiver<PhyloXMLWr
 	}
 
 
+	/**
+	 * Resets the internal state of this receiver, so that it can be reused to write the contents of another object.
+	 */
+	public void reset() {
+		getParentEvents().clear();
+		hasSimpleContent = false;
+		literalPredicate = null;
+		originalType = null;
+		writeContent = false;
+		writePropertyStart = false;
+		currentLiteralMetaID = null;
+	}
+	
+	
 	public PropertyOwner getPropertyOwner() {
 		return propertyOwner;
 	}
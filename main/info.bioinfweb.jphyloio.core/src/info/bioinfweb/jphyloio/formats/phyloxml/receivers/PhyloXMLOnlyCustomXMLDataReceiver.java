@@ -55,6 +55,13 @@ public class PhyloXMLOnlyCustomXMLDataReceiver extends PhyloXMLMetaDataReceiver
 	}
 	
 	
+	@Override
+	public void reset() {
+		super.reset();
+		writeCustomXML = false;
+	}
+	
+	
 	@Override
 	protected void handleLiteralContentMeta(LiteralMetadataContentEvent event) throws IOException, XMLStreamException {
 		if (writeCustomXML) {
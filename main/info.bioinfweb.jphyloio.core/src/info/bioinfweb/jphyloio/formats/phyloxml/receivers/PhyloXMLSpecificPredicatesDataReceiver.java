@@ -61,6 +61,7 @@ import javax.xml.stream.XMLStreamException;
  *
  */
 public class PhyloXMLSpecificPredicatesDataReceiver extends PhyloXMLMetaDataReceiver {
+	private QName parentPredicate;
 	private Stack<QName> predicates = new Stack<QName>();
 	private Stack<Integer> childIndices = new Stack<Integer>();	
 	private QName currentDatatype;
@@ -71,9 +72,23 @@ public class PhyloXMLSpecificPredicatesDataReceiver extends PhyloXMLMetaDataRece
 	public PhyloXMLSpecificPredicatesDataReceiver(PhyloXMLWriterStreamDataProvider streamDataProvider,
 			ReadWriteParameterMap parameterMap, PropertyOwner propertyOwner, QName parentPredicate) {
 		super(streamDataProvider, parameterMap, propertyOwner);
+		this.parentPredicate = parentPredicate;
 		predicates.push(parentPredicate);
 		childIndices.push(0);
 	}
+	
+	
+	@Override
+	public void reset() {
+		super.reset();
+		predicates.clear();
+		predicates.push(parentPredicate);
+		childIndices.clear();
+		childIndices.push(0);
+		currentDatatype = null;
+		writeAppliesTo = false;
+		writeElement = true;
+	}
 
 
 	/** 
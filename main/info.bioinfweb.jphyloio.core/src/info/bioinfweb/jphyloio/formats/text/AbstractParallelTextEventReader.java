@@ -0,0 +1,448 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+import info.bioinfweb.jphyloio.AbstractEventReader;
+import info.bioinfweb.jphyloio.ReadWriteConstants;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.PartEndEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.PushbackReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+
+
+/**
+ * Abstract base class for readers of sequential alignment formats that parse the sequences of a document in parallel.
+ * <p>
+ * The input is read in chunks of (at least) {@link #CHUNK_SIZE} characters, which are split at positions determined by
+ * {@link #findChunkEnd(char[], int)}. Each chunk is then parsed into a list of {@link SequenceRecord}s by 
+ * {@link #parseChunk(char[], int, long)} on a thread of an {@link ExecutorService}. The events are created from 
+ * these records in the order of the input in the thread using this reader, so that IDs are assigned sequentially 
+ * and match tokens are replaced in the same way as by sequential readers. The number of chunks that are read ahead 
+ * is limited to twice the number of available processors.
+ * <p>
+ * Each document contains a single alignment. The start events of the document and the alignment are created by
+ * this class, while inherited classes may add additional events in {@link #readHeader()}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public abstract class AbstractParallelTextEventReader<P extends ReaderStreamDataProvider<? extends AbstractParallelTextEventReader<P>>> 
+		extends AbstractEventReader<P> implements ReadWriteConstants {
+	
+	/** The minimal number of characters of the input that are parsed as one task. */
+	public static final int CHUNK_SIZE = 1024 * 1024;
+	
+	
+	/**
+	 * Stores the contents of a sequence (or of a part of a sequence) parsed in a worker thread.
+	 * 
+	 * @author Ben St&ouml;ver
+	 */
+	protected static class SequenceRecord {
+		private String name;
+		private List<JPhyloIOEvent> comments = null;
+		private List<CharSequence> tokens = new ArrayList<CharSequence>();
+		
+		
+		/**
+		 * Creates a new instance of this class.
+		 * 
+		 * @param name the name of the sequence or {@code null} if this record contains additional tokens of the
+		 *        sequence defined by the previous record
+		 */
+		public SequenceRecord(String name) {
+			super();
+			this.name = name;
+		}
+		
+		
+		public String getName() {
+			return name;
+		}
+		
+		
+		/**
+		 * Determines whether this record continues the sequence of the previous record.
+		 * 
+		 * @return {@code true} if this record does not start a new sequence, {@code false} otherwise
+		 */
+		public boolean isContinuation() {
+			return name == null;
+		}
+		
+		
+		/**
+		 * Returns the comment events that shall be fired directly after the start event of the sequence.
+		 * 
+		 * @return a list of comment events (Maybe empty but never {@code null}.)
+		 */
+		public List<JPhyloIOEvent> getComments() {
+			if (comments == null) {
+				return Collections.emptyList();
+			}
+			else {
+				return comments;
+			}
+		}
+		
+		
+		public void addComment(JPhyloIOEvent comment) {
+			if (comments == null) {
+				comments = new ArrayList<JPhyloIOEvent>();
+			}
+			comments.add(comment);
+		}
+		
+		
+		/**
+		 * Returns the tokens of this record. Each element will be used to create one sequence tokens event. Each character
+		 * of the elements is considered as one token.
+		 * 
+		 * @return the list of tokens
+		 */
+		public List<CharSequence> getTokens() {
+			return tokens;
+		}
+	}
+	
+	
+	private static enum State {
+		START,
+		SEQUENCES,
+		END;
+	}
+	
+	
+	private PushbackReader reader;
+	private ExecutorService executor;
+	private boolean ownExecutor;
+	private int maxPendingChunks;
+	private LinkedList<Future<List<SequenceRecord>>> pendingChunks = new LinkedList<Future<List<SequenceRecord>>>();
+	private char[] buffer = new char[CHUNK_SIZE];
+	private int bufferLength = 0;
+	private long bufferOffset = 0;
+	private boolean endOfInput = false;
+	private State state = State.START;
+	private Iterator<SequenceRecord> recordIterator = Collections.<SequenceRecord>emptyList().iterator();
+	private String currentSequenceName = null;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param reader the reader providing the document data to be read
+	 * @param parameters the parameter map for this reader instance 
+	 * @param matchToken the match token to be replaced in sequences or {@code null} if no replacement shall be performed
+	 * @param executor the executor to parse the chunks of the input (If {@code null} is specified, a new thread pool 
+	 *        with one thread per available processor is created and shut down when this reader is closed.)
+	 */
+	public AbstractParallelTextEventReader(Reader reader, ReadWriteParameterMap parameters, String matchToken, ExecutorService executor) {
+		super(parameters, matchToken);
+		this.reader = new PushbackReader(reader);
+		
+		int processorCount = Runtime.getRuntime().availableProcessors();
+		ownExecutor = (executor == null);
+		if (ownExecutor) {
+			executor = Executors.newFixedThreadPool(processorCount, new ThreadFactory() {
+						@Override
+						public Thread newThread(Runnable runnable) {
+							Thread result = new Thread(runnable, "JPhyloIO parallel reader");
+							result.setDaemon(true);
+							return result;
+						}
+					});
+		}
+		this.executor = executor;
+		maxPendingChunks = 2 * processorCount;
+	}
+	
+	
+	/**
+	 * Reads a single line from the start of the input. Inherited classes may use this method to read header information 
+	 * in {@link #readHeader()}.
+	 * 
+	 * @return the contents of the line without the terminating line break or {@code null} if the end of the input was
+	 *         already reached 
+	 * @throws IOException if an I/O error occurs while reading from the underlying reader
+	 */
+	protected String readHeaderLine() throws IOException {
+		int c = reader.read();
+		if (c == -1) {
+			return null;
+		}
+		else {
+			StringBuilder result = new StringBuilder();
+			while ((c != -1) && (c != '\n') && (c != '\r')) {
+				result.append((char)c);
+				c = reader.read();
+			}
+			bufferOffset += result.length();
+			if (c != -1) {
+				bufferOffset++;
+				if (c == '\r') {
+					c = reader.read();
+					if (c == '\n') {
+						bufferOffset++;
+					}
+					else if (c != -1) {
+						reader.unread(c);
+					}
+				}
+			}
+			return result.toString();
+		}
+	}
+	
+	
+	/**
+	 * Inherited classes may overwrite this method to add events following the alignment start event, that are created
+	 * from the start of the input. This default implementation is empty and always returns {@code true}.
+	 * 
+	 * @return {@code true} if sequences shall be read from the remaining input or {@code false} if the alignment shall 
+	 *         be ended directly
+	 * @throws IOException if an I/O error occurs or the header is invalid
+	 */
+	protected boolean readHeader() throws IOException {
+		return true;
+	}
+	
+	
+	/**
+	 * Determines the position where the specified chunk of the input shall be split. The first part will be parsed 
+	 * independently of the remaining characters.
+	 * <p>
+	 * This method is called from the thread using this reader and is not called for the last chunk of the input.
+	 * 
+	 * @param chunk the characters read from the input
+	 * @param length the number of valid characters in {@code chunk}
+	 * @return the length of the first part or 0 if no split position was found (In the latter case more characters 
+	 *         will be read and this method will be called again.)
+	 * @throws IOException if the input is invalid
+	 */
+	protected abstract int findChunkEnd(char[] chunk, int length) throws IOException;
+	
+	
+	/**
+	 * Parses the specified chunk of the input. The start of the chunk is either the start of the input remaining after
+	 * {@link #readHeader()} or a position returned by {@link #findChunkEnd(char[], int)}.
+	 * <p>
+	 * Note that this method is called from worker threads and must therefore not modify any state of this instance.
+	 * 
+	 * @param chunk the characters to be parsed
+	 * @param length the number of valid characters in {@code chunk}
+	 * @param offset the character offset of the first character of {@code chunk} in the input (Should be used for error
+	 *        messages.)
+	 * @return the list of parsed records
+	 * @throws IOException if the chunk contains invalid contents
+	 */
+	protected abstract List<SequenceRecord> parseChunk(char[] chunk, int length, long offset) throws IOException;
+	
+	
+	/**
+	 * Determines whether the sequence that is currently read from the input has its full length. The value is used for
+	 * the respective {@link PartEndEvent}. This default implementation always returns {@code true}.
+	 * 
+	 * @return {@code true} if the current sequence is complete, {@code false} otherwise
+	 */
+	protected boolean isSequenceComplete() {
+		return true;
+	}
+	
+	
+	private void fillBuffer() throws IOException {
+		while (!endOfInput && (bufferLength < buffer.length)) {
+			int count = reader.read(buffer, bufferLength, buffer.length - bufferLength);
+			if (count == -1) {
+				endOfInput = true;
+			}
+			else {
+				bufferLength += count;
+			}
+		}
+	}
+	
+	
+	private void submitNextChunk() throws IOException {
+		fillBuffer();
+		int chunkLength = bufferLength;
+		if (!endOfInput) {
+			chunkLength = findChunkEnd(buffer, bufferLength);
+			while ((chunkLength == 0) && !endOfInput) {  // Enlarge buffer until a split position can be found.
+				char[] newBuffer = new char[2 * buffer.length];
+				System.arraycopy(buffer, 0, newBuffer, 0, bufferLength);
+				buffer = newBuffer;
+				fillBuffer();
+				chunkLength = endOfInput ? bufferLength : findChunkEnd(buffer, bufferLength);
+			}
+		}
+		
+		if (chunkLength > 0) {
+			final char[] chunk = buffer;
+			final int length = chunkLength;
+			final long offset = bufferOffset;
+			pendingChunks.add(executor.submit(new Callable<List<SequenceRecord>>() {
+						@Override
+						public List<SequenceRecord> call() throws Exception {
+							return parseChunk(chunk, length, offset);
+						}
+					}));
+			
+			buffer = new char[Math.max(CHUNK_SIZE, bufferLength - chunkLength)];
+			System.arraycopy(chunk, chunkLength, buffer, 0, bufferLength - chunkLength);
+			bufferLength -= chunkLength;
+			bufferOffset += chunkLength;
+		}
+	}
+	
+	
+	private List<SequenceRecord> takeNextChunk() throws IOException {
+		try {
+			return pendingChunks.removeFirst().get();
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Waiting for the parsed contents of the input was interrupted.");
+		}
+		catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException)cause;
+			}
+			else if (cause instanceof RuntimeException) {
+				throw (RuntimeException)cause;
+			}
+			else if (cause instanceof Error) {
+				throw (Error)cause;
+			}
+			else {
+				throw new JPhyloIOReaderException("Parsing the input failed.", cause);
+			}
+		}
+	}
+	
+	
+	private void endSequence() {
+		if (currentSequenceName != null) {
+			getCurrentEventCollection().add(new PartEndEvent(EventContentType.SEQUENCE, isSequenceComplete()));
+			currentSequenceName = null;
+		}
+	}
+	
+	
+	private void addRecordEvents(SequenceRecord record) throws IOException {
+		if (!record.isContinuation()) {
+			endSequence();
+			currentSequenceName = record.getName();
+			getCurrentEventCollection().add(new LinkedLabeledIDEvent(EventContentType.SEQUENCE, 
+					DEFAULT_SEQUENCE_ID_PREFIX + getIDManager().createNewID(), currentSequenceName, null));
+			getCurrentEventCollection().addAll(record.getComments());
+		}
+		else if (currentSequenceName == null) {
+			throw new JPhyloIOReaderException("Inconsistent parsing result. A sequence was continued before it was started.", 
+					bufferOffset, -1, -1);
+		}
+		
+		for (CharSequence tokens : record.getTokens()) {
+			getCurrentEventCollection().add(getSequenceTokensEventManager().createEvent(currentSequenceName, tokens));
+		}
+	}
+	
+	
+	@Override
+	protected void readNextEvent() throws IOException {
+		switch (state) {
+			case START:
+				getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.START));
+				getCurrentEventCollection().add(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, 
+						DEFAULT_MATRIX_ID_PREFIX + getIDManager().createNewID(), null, null));
+				if (readHeader()) {
+					state = State.SEQUENCES;
+				}
+				else {
+					getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.ALIGNMENT, EventTopologyType.END));
+					getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.END));
+					state = State.END;
+				}
+				break;
+			case SEQUENCES:
+				while ((state == State.SEQUENCES) && getUpcomingEvents().isEmpty()) {
+					while (!endOfInput && (pendingChunks.size() < maxPendingChunks)) {
+						submitNextChunk();
+					}
+					if (endOfInput && (bufferLength > 0)) {  // Submit the last chunk.
+						submitNextChunk();
+					}
+					
+					if (recordIterator.hasNext()) {
+						addRecordEvents(recordIterator.next());
+					}
+					else if (!pendingChunks.isEmpty()) {
+						recordIterator = takeNextChunk().iterator();
+					}
+					else {
+						endSequence();
+						getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.ALIGNMENT, EventTopologyType.END));
+						getCurrentEventCollection().add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.END));
+						state = State.END;
+					}
+				}
+				break;
+			case END:
+				break;
+			default:
+				throw new InternalError("Unsupported state " + state + ".");
+		}
+	}
+
+
+	@Override
+	public void close() throws IOException {
+		super.close();
+		for (Future<List<SequenceRecord>> future : pendingChunks) {
+			future.cancel(true);
+		}
+		pendingChunks.clear();
+		if (ownExecutor) {
+			executor.shutdownNow();
+		}
+		reader.close();
+	}
+}
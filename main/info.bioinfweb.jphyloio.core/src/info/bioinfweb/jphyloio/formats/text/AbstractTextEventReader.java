@@ -32,14 +32,10 @@ import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import java.io.BufferedReader;
 import java.io.EOFException;
 import java.io.File;
-import java.io.FileReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.regex.Pattern;
 
 
 
@@ -54,6 +50,9 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 		extends AbstractEventReader<P> {
 	
 	private PeekReader reader;
+	private TextScanner scanner;
+	private CharacterClass lineEndOrCommentStart = null;  // Cached for the comment start symbol used in the last call of readCharacters().
+	private char lineEndOrCommentStartSymbol;
 	protected boolean lineConsumed = true;
 	
 	
@@ -67,6 +66,7 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	public AbstractTextEventReader(PeekReader reader, ReadWriteParameterMap parameters, String matchToken) {
 		super(parameters, matchToken);
 		this.reader = reader;
+		scanner = new TextScanner(reader);
 	}
 	
 	
@@ -83,6 +83,7 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 			reader = new BufferedReader(reader);
 		}
 		this.reader = new PeekReader(reader);
+		scanner = new TextScanner(this.reader);
 	}
 	
 	
@@ -100,13 +101,15 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	
 	/**
 	 * Creates a new instance of this class.
+	 * <p>
+	 * The file is read using a {@link MappedFileReader}.
 	 * 
 	 * @param file the document file to be read 
 	 * @param parameters the parameter map for this reader instance 
 	 * @param matchToken the match token to be replaced in sequences or {@code null} if no replacement shall be performed
 	 */
 	public AbstractTextEventReader(File file, ReadWriteParameterMap parameters, String matchToken) throws IOException{
-		this(new FileReader(file), parameters, matchToken);
+		this(new PeekReader(new MappedFileReader(file)), parameters, matchToken);
 	}
 
 
@@ -116,15 +119,32 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	}
 
 
-	protected List<String> createTokenList(CharSequence sequence) {
-		List<String> result = new ArrayList<String>(sequence.length());
-		for (int i = 0; i < sequence.length(); i++) {
-			char c = sequence.charAt(i);
-			if (!Character.isWhitespace(c)) {  // E.g. Phylip and MEGA allow white spaces in between sequences
-				result.add(Character.toString(c));
+	/**
+	 * Removes all white spaces from the specified sequence. Each character of the returned sequence represents one
+	 * token.
+	 * 
+	 * @param sequence the sequence read from the input
+	 * @return {@code sequence} itself, if it did not contain any white spaces, or a new sequence otherwise
+	 */
+	protected CharSequence createTokenSequence(CharSequence sequence) {
+		int i = 0;
+		while ((i < sequence.length()) && !Character.isWhitespace(sequence.charAt(i))) {
+			i++;
+		}
+		if (i == sequence.length()) {
+			return sequence;
+		}
+		else {
+			StringBuilder result = new StringBuilder(sequence.length());
+			result.append(sequence, 0, i);
+			for (; i < sequence.length(); i++) {
+				char c = sequence.charAt(i);
+				if (!Character.isWhitespace(c)) {  // E.g. Phylip and MEGA allow white spaces in between sequences
+					result.append(c);
+				}
 			}
+			return result;
 		}
-		return result;
 	}
 	
 	
@@ -187,8 +207,8 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	
 	
 	private JPhyloIOEvent eventFromCharacters(String currentSequenceName, CharSequence content) throws IOException {
-		List<String> characters = createTokenList(content);
-		if (characters.isEmpty()) {  // The rest of the line was consisting only of spaces
+		CharSequence characters = createTokenSequence(content);
+		if (characters.length() == 0) {  // The rest of the line was consisting only of spaces
 			return null;
 		}
 		else {
@@ -215,8 +235,11 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	 * @throws Exception
 	 */
 	protected JPhyloIOEvent readCharacters(String currentSequenceName, char commentStart, char commentEnd) throws IOException {
-		final Pattern pattern = Pattern.compile(".*(\\n|\\r|\\" + commentStart + ")");
-		PeekReader.ReadResult readResult = getReader().readRegExp(getParameters().getMaxTokensToRead(), pattern, false);  // In greedy mode the start of a nested comment could be consumed.
+		if ((lineEndOrCommentStart == null) || (lineEndOrCommentStartSymbol != commentStart)) {
+			lineEndOrCommentStart = CharacterClass.NEW_LINE.union(commentStart);
+			lineEndOrCommentStartSymbol = commentStart;
+		}
+		PeekReader.ReadResult readResult = getScanner().readUntil(lineEndOrCommentStart, 0, getParameters().getMaxTokensToRead());
 		char lastChar = StringUtils.lastChar(readResult.getSequence());
 		
 		JPhyloIOEvent result = eventFromCharacters(currentSequenceName, StringUtils.cutEnd(readResult.getSequence(), 1));
@@ -307,6 +330,17 @@ public abstract class AbstractTextEventReader<P extends TextReaderStreamDataProv
 	protected PeekReader getReader() {
 		return reader;
 	}
+	
+	
+	/**
+	 * Returns the scanner operating on the reader returned by {@link #getReader()}, which should be used to read tokens 
+	 * delimited by certain characters instead of using regular expressions.
+	 * 
+	 * @return the scanner for the document contents
+	 */
+	protected TextScanner getScanner() {
+		return scanner;
+	}
 
 
 	@Override
@@ -0,0 +1,99 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+
+/**
+ * Immutable set of characters backed by a lookup table. Instances are used by {@link TextScanner} to define delimiters
+ * or characters to be skipped, which allows scanning input without using regular expressions.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class CharacterClass {
+	/** Contains the same characters as the class {@code \s} in regular expressions. */
+	public static final CharacterClass WHITESPACE = new CharacterClass(' ', '\t', '\n', '\u000B', '\f', '\r');
+	
+	/** Contains the characters {@code '\n'} and {@code '\r'}. */
+	public static final CharacterClass NEW_LINE = new CharacterClass('\n', '\r');
+	
+	
+	private boolean[] table;
+	
+	
+	private CharacterClass(boolean[] table) {
+		super();
+		this.table = table;
+	}
+	
+	
+	/**
+	 * Creates a new instance containing the specified characters.
+	 * 
+	 * @param characters the characters to be contained in the new instance
+	 */
+	public CharacterClass(char... characters) {
+		super();
+		int maxChar = -1;
+		for (char c : characters) {
+			maxChar = Math.max(maxChar, c);
+		}
+		table = new boolean[maxChar + 1];
+		for (char c : characters) {
+			table[c] = true;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether the specified character is contained in this instance.
+	 * 
+	 * @param c the character to be tested
+	 * @return {@code true} if the character is contained, {@code false} otherwise
+	 */
+	public boolean contains(char c) {
+		return (c < table.length) && table[c];
+	}
+	
+	
+	/**
+	 * Returns a new instance containing all characters of this and the specified instance.
+	 * 
+	 * @param other the instance containing the characters to be added
+	 * @return the new instance
+	 */
+	public CharacterClass union(CharacterClass other) {
+		boolean[] result = new boolean[Math.max(table.length, other.table.length)];
+		for (int i = 0; i < result.length; i++) {
+			result[i] = ((i < table.length) && table[i]) || ((i < other.table.length) && other.table[i]);
+		}
+		return new CharacterClass(result);
+	}
+	
+	
+	/**
+	 * Returns a new instance containing all characters of this instance and the specified characters.
+	 * 
+	 * @param characters the characters to be added
+	 * @return the new instance
+	 */
+	public CharacterClass union(char... characters) {
+		return union(new CharacterClass(characters));
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.util.Arrays;
+
+
+
+/**
+ * Reader that reads characters from a memory mapped file.
+ * <p>
+ * As long as only bytes with a value below 128 are found, they are directly converted into characters, if the
+ * used charset is ASCII compatible. A {@link CharsetDecoder} is only used for sections of the file that contain 
+ * other bytes. Files larger than {@link Integer#MAX_VALUE} bytes are mapped in consecutive windows.
+ * <p>
+ * In contrast to a {@link java.io.FileReader} calls of {@link #read(char[], int, int)} always fill the whole 
+ * specified area of the buffer, unless the end of the file is reached. Therefore no additional buffering is 
+ * necessary, if instances are wrapped into a {@link info.bioinfweb.commons.io.PeekReader}.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class MappedFileReader extends Reader {
+	/** The default number of bytes that are mapped at once. */
+	public static final int DEFAULT_WINDOW_SIZE = 64 * 1024 * 1024;
+	
+	private static final int MAX_BYTES_PER_CHARACTER = 16;
+	private static final int DECODE_BUFFER_SIZE = 8192;
+	
+	private FileChannel channel;
+	private long fileLength;
+	private int windowSize;
+	private long windowStart = 0;
+	private MappedByteBuffer window = null;
+	private boolean asciiCompatible;
+	private CharsetDecoder decoder;
+	private CharBuffer decodedCharacters;
+	
+	
+	/**
+	 * Creates a new instance of this class using the default charset of the platform.
+	 * 
+	 * @param file the file to be read
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedFileReader(File file) throws IOException {
+		this(file, Charset.defaultCharset());
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param file the file to be read
+	 * @param charset the charset used to decode the contents of the file
+	 * @throws IOException if the file cannot be opened
+	 */
+	public MappedFileReader(File file, Charset charset) throws IOException {
+		this(file, charset, DEFAULT_WINDOW_SIZE);
+	}
+	
+	
+	MappedFileReader(File file, Charset charset, int windowSize) throws IOException {
+		super();
+		if (windowSize <= MAX_BYTES_PER_CHARACTER) {
+			throw new IllegalArgumentException("The window size must be greater than " + MAX_BYTES_PER_CHARACTER + ".");
+		}
+		else {
+			channel = new FileInputStream(file).getChannel();
+			fileLength = channel.size();
+			this.windowSize = windowSize;
+			asciiCompatible = isASCIICompatible(charset);
+			decoder = charset.newDecoder().onMalformedInput(CodingErrorAction.REPLACE).onUnmappableCharacter(CodingErrorAction.REPLACE);
+			decodedCharacters = CharBuffer.allocate(DECODE_BUFFER_SIZE);
+			decodedCharacters.flip();
+		}
+	}
+	
+	
+	/**
+	 * Determines whether all characters with a code below 128 are encoded by a single byte with the same value in 
+	 * the specified charset and whether such bytes are always decoded to these characters.
+	 * 
+	 * @param charset the charset to be tested
+	 * @return {@code true} if the charset is ASCII compatible, {@code false} otherwise
+	 */
+	public static boolean isASCIICompatible(Charset charset) {
+		byte[] bytes = new byte[128];
+		char[] chars = new char[bytes.length];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte)i;
+			chars[i] = (char)i;
+		}
+		String asciiCharacters = new String(chars);
+		
+		return charset.canEncode() && asciiCharacters.equals(new String(bytes, charset)) && 
+				Arrays.equals(bytes, asciiCharacters.getBytes(charset));
+	}
+	
+	
+	private void ensureOpen() throws IOException {
+		if (channel == null) {
+			throw new IOException("The reader has already been closed.");
+		}
+	}
+	
+	
+	private long getWindowEnd() {
+		return windowStart + window.limit();
+	}
+	
+	
+	/**
+	 * Makes sure that the current window contains the next bytes to be read. (A new window is mapped if the current
+	 * window does not contain enough bytes to decode a complete character and the end of the file is not yet reached.)
+	 * 
+	 * @return {@code true} if there are bytes left to be read or {@code false} if the end of the file was reached
+	 * @throws IOException if mapping the next window fails
+	 */
+	private boolean ensureWindow() throws IOException {
+		if ((window == null) || ((window.remaining() < MAX_BYTES_PER_CHARACTER) && (getWindowEnd() < fileLength))) {
+			if (window != null) {
+				windowStart += window.position();
+			}
+			window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, Math.min(windowSize, fileLength - windowStart));
+		}
+		return window.hasRemaining();
+	}
+	
+	
+	private void decodeNext() {
+		boolean endOfInput = (getWindowEnd() == fileLength);
+		decodedCharacters.clear();
+		decoder.decode(window, decodedCharacters, endOfInput);
+		if (endOfInput && !window.hasRemaining()) {
+			decoder.flush(decodedCharacters);
+		}
+		decodedCharacters.flip();
+	}
+	
+	
+	@Override
+	public int read(char[] cbuf, int off, int len) throws IOException {
+		ensureOpen();
+		if ((off < 0) || (len < 0) || (off + len > cbuf.length)) {
+			throw new IndexOutOfBoundsException();
+		}
+		
+		int count = 0;
+		while (count < len) {
+			if (decodedCharacters.hasRemaining()) {
+				int length = Math.min(decodedCharacters.remaining(), len - count);
+				decodedCharacters.get(cbuf, off + count, length);
+				count += length;
+			}
+			else if (ensureWindow()) {
+				if (asciiCompatible) {
+					int position = window.position();
+					int limit = Math.min(window.remaining(), len - count);
+					int offset = off + count;
+					int i = 0;
+					byte b;
+					while ((i < limit) && ((b = window.get(position + i)) >= 0)) {
+						cbuf[offset + i] = (char)b;
+						i++;
+					}
+					window.position(position + i);
+					count += i;
+					if (i < limit) {  // Non-ASCII byte found.
+						decodeNext();
+					}
+				}
+				else {
+					decodeNext();
+				}
+			}
+			else {
+				break;
+			}
+		}
+		
+		if ((count == 0) && (len > 0)) {
+			return -1;
+		}
+		else {
+			return count;
+		}
+	}
+	
+	
+	@Override
+	public boolean ready() throws IOException {
+		ensureOpen();
+		return decodedCharacters.hasRemaining() || (window == null ? fileLength > 0 : window.hasRemaining() || (getWindowEnd() < fileLength));
+	}
+	
+	
+	@Override
+	public void close() throws IOException {
+		if (channel != null) {
+			channel.close();
+			channel = null;
+			window = null;
+		}
+	}
+}
@@ -0,0 +1,135 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+import info.bioinfweb.commons.io.PeekReader;
+import info.bioinfweb.commons.io.PeekReader.ReadResult;
+
+import java.io.IOException;
+
+
+
+/**
+ * Provides lexical scanning operations on a {@link PeekReader} that are defined by {@link CharacterClass}es instead of 
+ * regular expressions. All operations process the chunks of characters that are available in the peek buffer of the 
+ * underlying reader at once and do not need to test the whole sequence read so far after each character.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TextScanner {
+	private PeekReader reader;
+	private char[] buffer = new char[PeekReader.DEFAULT_PEEK_BUFFER_SIZE];
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param reader the reader to scan
+	 */
+	public TextScanner(PeekReader reader) {
+		super();
+		this.reader = reader;
+	}
+
+
+	/**
+	 * Returns the underlying reader.
+	 * 
+	 * @return the reader this instance operates on
+	 */
+	public PeekReader getReader() {
+		return reader;
+	}
+
+
+	/**
+	 * Reads characters until a delimiter is found. The delimiter is consumed and contained as the last character in the 
+	 * returned sequence. 
+	 * 
+	 * @param delimiters the characters that terminate the sequence to read
+	 * @param minLength the number of characters that are read before searching for delimiters (Delimiters among these 
+	 *        characters are considered as part of the sequence.)
+	 * @param maxLength the maximum number of characters to be read
+	 * @return the read sequence (which is considered as completely read, if a delimiter or the end of the stream was 
+	 *         reached, but not if {@code maxLength} was reached before)
+	 * @throws IOException if an I/O error occurs while reading from the underlying reader
+	 */
+	public ReadResult readUntil(CharacterClass delimiters, int minLength, int maxLength) throws IOException {
+		StringBuilder result = new StringBuilder();
+		boolean delimiterFound = false;
+		int length = reader.peek(buffer, 0, Math.min(buffer.length, maxLength));
+		while ((length > 0) && !delimiterFound) {
+			int pos = 0;
+			while (pos < length) {
+				char c = buffer[pos];
+				pos++;
+				if ((result.length() + pos > minLength) && delimiters.contains(c)) {
+					delimiterFound = true;
+					break;
+				}
+			}
+			result.append(buffer, 0, pos);
+			reader.skip(pos);
+			if (!delimiterFound) {
+				length = reader.peek(buffer, 0, Math.min(buffer.length, maxLength - result.length()));
+			}
+		}
+		return new ReadResult(result, delimiterFound || (reader.peek() == -1));
+	}
+	
+	
+	/**
+	 * Reads characters until a delimiter is found. The delimiter is consumed and contained as the last character in the 
+	 * returned sequence. 
+	 * 
+	 * @param delimiters the characters that terminate the sequence to read
+	 * @return the read sequence
+	 * @throws IOException if an I/O error occurs while reading from the underlying reader
+	 */
+	public ReadResult readUntil(CharacterClass delimiters) throws IOException {
+		return readUntil(delimiters, 0, Integer.MAX_VALUE);
+	}
+	
+	
+	/**
+	 * Consumes all characters contained in the specified class until another character or the end of the stream is found.
+	 * 
+	 * @param characters the characters to be skipped
+	 * @return the number of skipped characters
+	 * @throws IOException if an I/O error occurs while reading from the underlying reader
+	 */
+	public long skip(CharacterClass characters) throws IOException {
+		long result = 0;
+		int length = reader.peek(buffer);
+		while (length > 0) {
+			int pos = 0;
+			while ((pos < length) && characters.contains(buffer[pos])) {
+				pos++;
+			}
+			reader.skip(pos);
+			result += pos;
+			if (pos < length) {
+				break;
+			}
+			length = reader.peek(buffer);
+		}
+		return result;
+	}
+}
@@ -0,0 +1,193 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.formats.newick.NewickEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
+import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandlerMap;
+import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.TreesBlockHandler;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.NexusTranslationTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.RandomAccessFile;
+
+
+
+/**
+ * Allows to read single trees from a <i>Nexus</i> or <i>Newick</i> file using a {@link TreeIndex}. 
+ * <p>
+ * Each reader returned by {@link #createReader(int)} only reads the bytes of the requested tree definition from the file.
+ * These are loaded into memory as a whole, before the returned reader is created.
+ * The document, tree group and tree events produced by these readers are the same as a {@link NexusEventReader} or 
+ * {@link NewickEventReader} would produce for a document only containing that tree. For <i>Nexus</i> files, the 
+ * translation table that applies to the tree is taken from the index and not read from the file again. Other blocks
+ * (e.g. {@code TAXA}) are not read, therefore no links between nodes and OTUs are created.
+ * <p>
+ * Example:
+ * <pre>
+ * TreeIndex index = TreeIndexBuilder.loadOrBuildIndex(file, JPhyloIOFormatIDs.NEXUS_FORMAT_ID);
+ * IndexedTreeReader indexedReader = new IndexedTreeReader(file, index, new ReadWriteParameterMap());
+ * JPhyloIOEventReader reader = indexedReader.createReader(90000);
+ * try {
+ *   // Process events of the tree with the index 90000.
+ * }
+ * finally {
+ *   reader.close();
+ * }
+ * </pre>
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class IndexedTreeReader implements JPhyloIOFormatIDs, NexusConstants {
+	private static final String NEXUS_PREFIX = FIRST_LINE + "\n" + BEGIN_COMMAND + " " + BLOCK_NAME_TREES + COMMAND_END + "\n";
+	private static final String NEXUS_SUFFIX = "\n" + END_COMMAND + COMMAND_END + "\n";
+	
+	
+	/**
+	 * Block handler that fills the translation table with the contents stored in the index, instead of relying on 
+	 * a {@code TRANSLATE} command in the read document.
+	 */
+	private static class IndexedTreesBlockHandler extends TreesBlockHandler {
+		private NexusTranslationTable table;
+		
+		public IndexedTreesBlockHandler(NexusTranslationTable table) {
+			super();
+			this.table = table;
+		}
+
+		@Override
+		public void handleBegin(NexusReaderStreamDataProvider streamDataProvider) {
+			super.handleBegin(streamDataProvider);
+			if (table != null) {
+				streamDataProvider.getTreesTranslationTable().addAll(table);  // The table of the index is copied, since the table of the reader is cleared at the end of the block.
+			}
+		}
+	}
+	
+	
+	private File file;
+	private TreeIndex index;
+	private ReadWriteParameterMap parameters;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param file the indexed file
+	 * @param index the index of the specified file (e.g. obtained by {@link TreeIndexBuilder#loadOrBuildIndex(File, String)})
+	 * @param parameters the parameters to be passed to the readers created by this instance
+	 * @throws IllegalArgumentException if the specified index is not up to date with the specified file
+	 */
+	public IndexedTreeReader(File file, TreeIndex index, ReadWriteParameterMap parameters) {
+		super();
+		if (!index.isUpToDate(file)) {
+			throw new IllegalArgumentException("The specified index was not created from the current version of the file \"" + 
+					file.getAbsolutePath() + "\".");
+		}
+		else {
+			this.file = file;
+			this.index = index;
+			this.parameters = parameters;
+		}
+	}
+
+
+	/**
+	 * Returns the index used by this instance.
+	 * 
+	 * @return the tree index
+	 */
+	public TreeIndex getIndex() {
+		return index;
+	}
+
+
+	/**
+	 * Returns the number of trees that can be read from the underlying file.
+	 * 
+	 * @return the number of trees
+	 */
+	public int getTreeCount() {
+		return index.getTreeCount();
+	}
+	
+	
+	private byte[] readTreeDefinition(TreeIndexEntry entry, byte[] prefix, byte[] suffix) throws IOException {
+		if (prefix.length + entry.getLength() + suffix.length > Integer.MAX_VALUE) {
+			throw new IOException("The tree definition at the offset " + entry.getOffset() + " is too long to be loaded.");
+		}
+		else {
+			byte[] result = new byte[prefix.length + (int)entry.getLength() + suffix.length];
+			System.arraycopy(prefix, 0, result, 0, prefix.length);
+			RandomAccessFile randomAccessFile = new RandomAccessFile(file, "r");
+			try {
+				randomAccessFile.seek(entry.getOffset());
+				randomAccessFile.readFully(result, prefix.length, (int)entry.getLength());
+			}
+			finally {
+				randomAccessFile.close();
+			}
+			System.arraycopy(suffix, 0, result, prefix.length + (int)entry.getLength(), suffix.length);
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Creates a new event reader that produces the events of the tree with the specified index in the underlying file. 
+	 * The returned reader needs to be closed by the application.
+	 * 
+	 * @param treeIndex the index of the tree in the file (The first tree has the index 0.)
+	 * @return the new reader
+	 * @throws IndexOutOfBoundsException if {@code treeIndex} is below 0 or not below {@link #getTreeCount()}
+	 * @throws IOException if an I/O error occurs while reading from the file
+	 */
+	public JPhyloIOEventReader createReader(int treeIndex) throws IOException {
+		TreeIndexEntry entry = index.getEntries().get(treeIndex);
+		if (NEXUS_FORMAT_ID.equals(index.getFormatID())) {
+			byte[] content = readTreeDefinition(entry, NEXUS_PREFIX.getBytes(), NEXUS_SUFFIX.getBytes());  // Platform default encoding is used like for the file.
+			
+			NexusTranslationTable table = null;
+			if (entry.getTranslationTableIndex() != -1) {
+				table = index.getTranslationTable(entry.getTranslationTableIndex());
+			}
+			NexusBlockHandlerMap handlerMap = NexusBlockHandlerMap.newJPhyloIOInstance();
+			handlerMap.addHandler(new IndexedTreesBlockHandler(table));
+			
+			ReadWriteParameterMap readerParameters = new ReadWriteParameterMap();
+			readerParameters.putAll(parameters);
+			readerParameters.put(ReadWriteParameterNames.KEY_NEXUS_BLOCK_HANDLER_MAP, handlerMap);
+			return new NexusEventReader(new InputStreamReader(new ByteArrayInputStream(content)), readerParameters);
+		}
+		else {
+			byte[] content = readTreeDefinition(entry, new byte[0], new byte[0]);
+			return new NewickEventReader(new InputStreamReader(new ByteArrayInputStream(content)), parameters);
+		}
+	}
+}
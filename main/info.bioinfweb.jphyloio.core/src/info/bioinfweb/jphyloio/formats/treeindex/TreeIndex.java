@@ -0,0 +1,284 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
+
+
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.NexusTranslationTable;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+
+/**
+ * Stores the byte positions of all tree definitions contained in a <i>Nexus</i> or <i>Newick</i> file together with 
+ * the <i>Nexus</i> translation tables that apply to them. 
+ * <p>
+ * Instances are created by {@link TreeIndexBuilder} and can be used by {@link IndexedTreeReader} to read single trees
+ * without parsing the preceding contents of the file. An index can be stored in a sidecar file next to the indexed file
+ * (see {@link #getSidecarFile(File)}) to avoid rebuilding it each time a file is opened.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TreeIndex {
+	/** The extension that is appended to the name of an indexed file to obtain the name of its sidecar index file. */
+	public static final String SIDECAR_FILE_EXTENSION = ".jpitreeindex";
+	
+	private static final int MAGIC_NUMBER = 0x4A504954;  // "JPIT"
+	private static final int FILE_FORMAT_VERSION = 1;
+	
+	
+	private String formatID;
+	private long sourceLength;
+	private long sourceLastModified;
+	private List<NexusTranslationTable> translationTables = new ArrayList<NexusTranslationTable>();
+	private List<TreeIndexEntry> entries = new ArrayList<TreeIndexEntry>();
+	
+	
+	/**
+	 * Creates a new empty instance of this class.
+	 * 
+	 * @param formatID the ID of the format of the indexed file (Either 
+	 *        {@link info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs#NEXUS_FORMAT_ID} or 
+	 *        {@link info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs#NEWICK_FORMAT_ID}.)
+	 * @param sourceLength the length of the indexed file in bytes
+	 * @param sourceLastModified the time of the last modification of the indexed file as returned by 
+	 *        {@link File#lastModified()}
+	 */
+	public TreeIndex(String formatID, long sourceLength, long sourceLastModified) {
+		super();
+		this.formatID = formatID;
+		this.sourceLength = sourceLength;
+		this.sourceLastModified = sourceLastModified;
+	}
+	
+	
+	/**
+	 * Returns the sidecar file that is used to store the index of the specified file.
+	 * 
+	 * @param indexedFile the file to be indexed
+	 * @return the sidecar file (which may not exist)
+	 */
+	public static File getSidecarFile(File indexedFile) {
+		return new File(indexedFile.getPath() + SIDECAR_FILE_EXTENSION);
+	}
+
+
+	/**
+	 * Returns the ID of the format of the indexed file.
+	 * 
+	 * @return the format ID
+	 */
+	public String getFormatID() {
+		return formatID;
+	}
+	
+	
+	/**
+	 * Determines whether this index was created from the current version of the specified file, by comparing its length
+	 * and modification time with the values stored in this instance.
+	 * 
+	 * @param indexedFile the indexed file
+	 * @return {@code true} if this index can be used to read trees from the specified file or {@code false} otherwise
+	 */
+	public boolean isUpToDate(File indexedFile) {
+		return (indexedFile.length() == sourceLength) && (indexedFile.lastModified() == sourceLastModified);
+	}
+	
+	
+	/**
+	 * Adds a new translation table to this index. Entries that are added after this method was called should usually
+	 * reference the returned index.
+	 * 
+	 * @param table the table to be added
+	 * @return the index of the added table
+	 */
+	public int addTranslationTable(NexusTranslationTable table) {
+		translationTables.add(table);
+		return translationTables.size() - 1;
+	}
+	
+	
+	/**
+	 * Returns the translation table with the specified index.
+	 * 
+	 * @param index the index of the table (as returned by {@link TreeIndexEntry#getTranslationTableIndex()})
+	 * @return the translation table
+	 * @throws IndexOutOfBoundsException if no table with the specified index is present
+	 */
+	public NexusTranslationTable getTranslationTable(int index) {
+		return translationTables.get(index);
+	}
+	
+	
+	/**
+	 * Returns the number of translation tables contained in this index.
+	 * 
+	 * @return the number of tables
+	 */
+	public int getTranslationTableCount() {
+		return translationTables.size();
+	}
+	
+	
+	/**
+	 * Adds a new tree entry to the end of this index.
+	 * 
+	 * @param entry the entry to be added
+	 */
+	public void addEntry(TreeIndexEntry entry) {
+		entries.add(entry);
+	}
+	
+	
+	/**
+	 * Returns an unmodifiable list of all tree entries in the order the trees occur in the indexed file.
+	 * 
+	 * @return the list of entries
+	 */
+	public List<TreeIndexEntry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+	
+	
+	/**
+	 * Returns the number of trees contained in the indexed file.
+	 * 
+	 * @return the number of trees
+	 */
+	public int getTreeCount() {
+		return entries.size();
+	}
+	
+	
+	/**
+	 * Writes this index to the specified stream. The stream is not closed by this method.
+	 * 
+	 * @param stream the stream to write the index to
+	 * @throws IOException if an I/O error occurs while writing to the stream
+	 */
+	public void write(OutputStream stream) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(FILE_FORMAT_VERSION);
+		out.writeUTF(formatID);
+		out.writeLong(sourceLength);
+		out.writeLong(sourceLastModified);
+		
+		out.writeInt(translationTables.size());
+		for (NexusTranslationTable table : translationTables) {
+			out.writeInt(table.size());
+			for (int i = 0; i < table.size(); i++) {
+				out.writeUTF(table.getKey(i));
+				out.writeUTF(table.get(i));
+			}
+		}
+		
+		out.writeInt(entries.size());
+		for (TreeIndexEntry entry : entries) {
+			out.writeLong(entry.getOffset());
+			out.writeLong(entry.getLength());
+			out.writeInt(entry.getTranslationTableIndex());
+		}
+		out.flush();
+	}
+	
+	
+	/**
+	 * Writes this index to the specified file.
+	 * 
+	 * @param file the file to write the index to (usually the file returned by {@link #getSidecarFile(File)})
+	 * @throws IOException if an I/O error occurs while writing to the file
+	 */
+	public void write(File file) throws IOException {
+		OutputStream stream = new FileOutputStream(file);
+		try {
+			write(stream);
+		}
+		finally {
+			stream.close();
+		}
+	}
+	
+	
+	/**
+	 * Reads an index that was written by {@link #write(OutputStream)} from the specified stream. The stream is not closed
+	 * by this method.
+	 * 
+	 * @param stream the stream to read the index from
+	 * @return the read index
+	 * @throws IOException if an I/O error occurs while reading from the stream or the stream does not contain a valid index
+	 */
+	public static TreeIndex read(InputStream stream) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+		if (in.readInt() != MAGIC_NUMBER) {
+			throw new IOException("The specified stream does not contain a JPhyloIO tree index.");
+		}
+		int version = in.readInt();
+		if (version != FILE_FORMAT_VERSION) {
+			throw new IOException("The tree index file format version " + version + " is not supported.");
+		}
+		TreeIndex result = new TreeIndex(in.readUTF(), in.readLong(), in.readLong());
+		
+		int tableCount = in.readInt();
+		for (int i = 0; i < tableCount; i++) {
+			NexusTranslationTable table = new NexusTranslationTable();
+			int size = in.readInt();
+			for (int j = 0; j < size; j++) {
+				table.add(in.readUTF(), in.readUTF());
+			}
+			result.addTranslationTable(table);
+		}
+		
+		int entryCount = in.readInt();
+		for (int i = 0; i < entryCount; i++) {
+			result.addEntry(new TreeIndexEntry(in.readLong(), in.readLong(), in.readInt()));
+		}
+		return result;
+	}
+	
+	
+	/**
+	 * Reads an index that was written by {@link #write(File)} from the specified file.
+	 * 
+	 * @param file the file to read the index from
+	 * @return the read index
+	 * @throws IOException if an I/O error occurs while reading from the file or the file does not contain a valid index
+	 */
+	public static TreeIndex read(File file) throws IOException {
+		InputStream stream = new FileInputStream(file);
+		try {
+			return read(stream);
+		}
+		finally {
+			stream.close();
+		}
+	}
+}
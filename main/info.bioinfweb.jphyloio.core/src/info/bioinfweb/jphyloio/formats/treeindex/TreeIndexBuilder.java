@@ -0,0 +1,400 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
+
+
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.formats.newick.NewickConstants;
+import info.bioinfweb.jphyloio.formats.nexus.NexusConstants;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.NexusTranslationTable;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+
+
+/**
+ * Creates instances of {@link TreeIndex} by scanning <i>Nexus</i> or <i>Newick</i> files. 
+ * <p>
+ * Files are scanned on byte level and only the boundaries of commands, comments and quoted labels are determined. 
+ * Trees are not parsed, which makes building an index considerably faster than reading the file with 
+ * {@link info.bioinfweb.jphyloio.formats.nexus.NexusEventReader} or 
+ * {@link info.bioinfweb.jphyloio.formats.newick.NewickEventReader}. Only {@code TREE} commands in {@code TREES} blocks
+ * are indexed in <i>Nexus</i> files. The contents of {@code TRANSLATE} commands are stored in the index.
+ * <p>
+ * The characters relevant for determining the boundaries are all ASCII characters. Files are therefore expected to be
+ * encoded in an ASCII compatible encoding, which is also the case for the platform default encoding used by the 
+ * readers of <i>JPhyloIO</i>. 
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class TreeIndexBuilder implements JPhyloIOFormatIDs {
+	private static final int BUFFER_SIZE = 64 * 1024;
+	
+	
+	private InputStream stream;
+	private byte[] buffer = new byte[BUFFER_SIZE];
+	private int bufferPos = 0;
+	private int bufferEnd = 0;
+	private long offset = 0;
+	private long line = 0;
+	private long column = 0;
+	private ByteArrayOutputStream wordBuffer = new ByteArrayOutputStream();
+	
+	
+	private TreeIndexBuilder(InputStream stream) {
+		super();
+		this.stream = stream;
+	}
+	
+	
+	private int peek() throws IOException {
+		if (bufferPos == bufferEnd) {
+			int count = stream.read(buffer);
+			if (count <= 0) {
+				return -1;
+			}
+			bufferPos = 0;
+			bufferEnd = count;
+		}
+		return buffer[bufferPos] & 0xFF;
+	}
+	
+	
+	private int read() throws IOException {
+		int c = peek();
+		if (c != -1) {
+			bufferPos++;
+			offset++;
+			if (c == '\n') {
+				line++;
+				column = 0;
+			}
+			else {
+				column++;
+			}
+		}
+		return c;
+	}
+	
+	
+	private JPhyloIOReaderException createException(String message) {
+		return new JPhyloIOReaderException(message, offset, line, column);
+	}
+	
+	
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\t') || (c == '\n') || (c == '\r') || (c == '\f') || (c == 0x0B);
+	}
+	
+	
+	private void skipComment(boolean allowNested) throws IOException {
+		read();  // Skip COMMENT_START.
+		int depth = 1;
+		while (depth > 0) {
+			int c = read();
+			if (c == -1) {
+				throw createException("Unexpected end of file inside a comment.");
+			}
+			else if ((c == NexusConstants.COMMENT_START) && allowNested) {
+				depth++;
+			}
+			else if (c == NexusConstants.COMMENT_END) {
+				depth--;
+			}
+		}
+	}
+	
+	
+	private void skipWhiteSpaceAndComments() throws IOException {
+		int c = peek();
+		while ((c != -1) && (isWhitespace(c) || (c == NexusConstants.COMMENT_START))) {
+			if (c == NexusConstants.COMMENT_START) {
+				skipComment(true);
+			}
+			else {
+				read();
+			}
+			c = peek();
+		}
+	}
+	
+	
+	private void skipDelimitedWord(int delimiter) throws IOException {
+		read();  // Skip opening delimiter.
+		while (true) {
+			int c = read();
+			if (c == -1) {
+				throw createException("Unexpected end of file inside a delimited word.");
+			}
+			else if (c == delimiter) {
+				if (peek() == delimiter) {
+					read();  // Skip second delimiter that was used to represent a delimiter inside the word.
+				}
+				else {
+					break;
+				}
+			}
+		}
+	}
+	
+	
+	private String readNexusWord() throws IOException {
+		wordBuffer.reset();
+		int c = peek();
+		if (c == NexusConstants.WORD_DELIMITER) {
+			read();  // Skip opening delimiter.
+			while (true) {
+				c = read();
+				if (c == -1) {
+					throw createException("Unexpected end of file inside a Nexus word.");
+				}
+				else if (c == NexusConstants.WORD_DELIMITER) {
+					if (peek() == NexusConstants.WORD_DELIMITER) {
+						read();
+					}
+					else {
+						break;
+					}
+				}
+				wordBuffer.write(c);
+			}
+		}
+		else {
+			while ((c != -1) && !isWhitespace(c) && (c != NexusConstants.COMMENT_START) && (c != NexusConstants.COMMAND_END) 
+					&& (c != NexusConstants.ELEMENT_SEPARATOR)) {
+				
+				wordBuffer.write(read());
+				c = peek();
+			}
+		}
+		return wordBuffer.toString();  // Decoded using the platform default encoding like in the readers.
+	}
+	
+	
+	private void skipCommand(boolean isNewickContent) throws IOException {
+		while (true) {
+			int c = peek();
+			if (c == -1) {
+				throw createException("Unexpected end of file inside a Nexus command.");
+			}
+			else if (c == NexusConstants.COMMAND_END) {
+				read();
+				return;
+			}
+			else if (c == NexusConstants.COMMENT_START) {
+				skipComment(true);
+			}
+			else if ((c == NexusConstants.WORD_DELIMITER) || (isNewickContent && (c == NewickConstants.ALTERNATIVE_NAME_DELIMITER))) {
+				skipDelimitedWord(c);
+			}
+			else {
+				read();
+			}
+		}
+	}
+	
+	
+	private NexusTranslationTable readTranslationTable() throws IOException {
+		NexusTranslationTable result = new NexusTranslationTable();
+		while (true) {
+			skipWhiteSpaceAndComments();
+			int c = peek();
+			if (c == -1) {
+				throw createException("Unexpected end of file in a " + NexusConstants.COMMAND_NAME_TRANSLATE + " command.");
+			}
+			else if (c == NexusConstants.COMMAND_END) {
+				read();
+				return result;
+			}
+			else if (c == NexusConstants.ELEMENT_SEPARATOR) {
+				read();
+			}
+			else {
+				String key = readNexusWord();
+				skipWhiteSpaceAndComments();
+				result.add(key, readNexusWord());
+			}
+		}
+	}
+	
+	
+	private void buildNexusIndex(TreeIndex index) throws IOException {
+		skipWhiteSpaceAndComments();
+		if (!NexusConstants.FIRST_LINE.equalsIgnoreCase(readNexusWord())) {
+			throw createException("The file does not start with \"" + NexusConstants.FIRST_LINE + "\".");
+		}
+		
+		String currentBlockName = null;
+		int currentTableIndex = -1;
+		while (true) {
+			skipWhiteSpaceAndComments();
+			int c = peek();
+			if (c == -1) {
+				break;
+			}
+			else if (c == NexusConstants.COMMAND_END) {  // Empty command
+				read();
+			}
+			else {
+				long commandStart = offset;
+				String commandName = readNexusWord().toUpperCase();
+				if (NexusConstants.BEGIN_COMMAND.equals(commandName)) {
+					skipWhiteSpaceAndComments();
+					currentBlockName = readNexusWord().toUpperCase();
+					currentTableIndex = -1;
+					skipCommand(false);
+				}
+				else if (NexusConstants.END_COMMAND.equals(commandName) || NexusConstants.ALTERNATIVE_END_COMMAND.equals(commandName)) {
+					currentBlockName = null;
+					skipWhiteSpaceAndComments();
+					if (peek() == NexusConstants.COMMAND_END) {  // Nexus readers also accept a missing ';' at the end of the file.
+						read();
+					}
+				}
+				else if (NexusConstants.BLOCK_NAME_TREES.equals(currentBlockName) && NexusConstants.COMMAND_NAME_TRANSLATE.equals(commandName)) {
+					currentTableIndex = index.addTranslationTable(readTranslationTable());
+				}
+				else if (NexusConstants.BLOCK_NAME_TREES.equals(currentBlockName) && NexusConstants.COMMAND_NAME_TREE.equals(commandName)) {
+					skipCommand(true);
+					index.addEntry(new TreeIndexEntry(commandStart, offset - commandStart, currentTableIndex));
+				}
+				else {
+					skipCommand(false);
+				}
+			}
+		}
+	}
+	
+	
+	private void buildNewickIndex(TreeIndex index) throws IOException {
+		long treeStart = -1;
+		boolean treeContentFound = false;
+		int c = peek();
+		while (c != -1) {
+			if (isWhitespace(c)) {
+				read();
+			}
+			else {
+				if (treeStart == -1) {
+					treeStart = offset;
+				}
+				
+				if (c == NewickConstants.COMMENT_START) {
+					skipComment(false);
+				}
+				else if (c == NewickConstants.TERMINAL_SYMBOL) {
+					read();
+					if (treeContentFound) {
+						index.addEntry(new TreeIndexEntry(treeStart, offset - treeStart, -1));
+					}
+					treeStart = -1;
+					treeContentFound = false;
+				}
+				else {
+					if ((c == NewickConstants.NAME_DELIMITER) || (c == NewickConstants.ALTERNATIVE_NAME_DELIMITER)) {
+						skipDelimitedWord(c);
+					}
+					else {
+						read();
+					}
+					treeContentFound = true;
+				}
+			}
+			c = peek();
+		}
+		
+		if (treeContentFound) {  // Last tree without terminal symbol
+			index.addEntry(new TreeIndexEntry(treeStart, offset - treeStart, -1));
+		}
+	}
+	
+	
+	/**
+	 * Creates a new index of all trees contained in the specified file.
+	 * 
+	 * @param file the file to be indexed
+	 * @param formatID the format of the file (Either {@link JPhyloIOFormatIDs#NEXUS_FORMAT_ID} or 
+	 *        {@link JPhyloIOFormatIDs#NEWICK_FORMAT_ID}.) 
+	 * @return the new index
+	 * @throws IOException if an I/O error occurs while reading the file or the file contains invalid contents 
+	 * @throws IllegalArgumentException if an unsupported format ID is specified
+	 */
+	public static TreeIndex buildIndex(File file, String formatID) throws IOException {
+		if (!NEXUS_FORMAT_ID.equals(formatID) && !NEWICK_FORMAT_ID.equals(formatID)) {
+			throw new IllegalArgumentException("Tree indices cannot be created for the format " + formatID + ".");
+		}
+		else {
+			TreeIndex result = new TreeIndex(formatID, file.length(), file.lastModified());
+			InputStream stream = new FileInputStream(file);
+			try {
+				TreeIndexBuilder builder = new TreeIndexBuilder(stream);
+				if (NEXUS_FORMAT_ID.equals(formatID)) {
+					builder.buildNexusIndex(result);
+				}
+				else {
+					builder.buildNewickIndex(result);
+				}
+			}
+			finally {
+				stream.close();
+			}
+			return result;
+		}
+	}
+	
+	
+	/**
+	 * Returns the index of the specified file. If an up to date sidecar file (see {@link TreeIndex#getSidecarFile(File)})
+	 * exists, the index is loaded from there. Otherwise a new index is created and stored in the sidecar file.
+	 * <p>
+	 * If the sidecar file cannot be written (e.g. because the directory is write protected), the new index is still 
+	 * returned.
+	 * 
+	 * @param file the file to be indexed
+	 * @param formatID the format of the file (Either {@link JPhyloIOFormatIDs#NEXUS_FORMAT_ID} or 
+	 *        {@link JPhyloIOFormatIDs#NEWICK_FORMAT_ID}.) 
+	 * @return the index
+	 * @throws IOException if an I/O error occurs while reading the file or the file contains invalid contents 
+	 * @throws IllegalArgumentException if an unsupported format ID is specified
+	 */
+	public static TreeIndex loadOrBuildIndex(File file, String formatID) throws IOException {
+		File sidecarFile = TreeIndex.getSidecarFile(file);
+		if (sidecarFile.isFile()) {
+			try {
+				TreeIndex result = TreeIndex.read(sidecarFile);
+				if (result.isUpToDate(file) && result.getFormatID().equals(formatID)) {
+					return result;
+				}
+			}
+			catch (IOException e) {}  // Invalid sidecar files are replaced below.
+		}
+		
+		TreeIndex result = buildIndex(file, formatID);
+		try {
+			result.write(sidecarFile);
+		}
+		catch (IOException e) {}  // The index can still be used, although it could not be stored.
+		return result;
+	}
+}
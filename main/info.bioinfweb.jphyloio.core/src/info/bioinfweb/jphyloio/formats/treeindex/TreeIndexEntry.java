@@ -0,0 +1,81 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
+
+
+
+/**
+ * Stores the position of a single tree definition in a <i>Nexus</i> or <i>Newick</i> file.
+ * 
+ * @author Ben St&ouml;ver
+ * @see TreeIndex
+ */
+public class TreeIndexEntry {
+	private long offset;
+	private long length;
+	private int translationTableIndex;
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param offset the byte offset of the first character of the tree definition in the indexed file
+	 * @param length the number of bytes of the tree definition (including the terminal {@code ';'}, if present)
+	 * @param translationTableIndex the index of the <i>Nexus</i> translation table that applies to this tree or -1 
+	 *        if no translation table applies
+	 */
+	public TreeIndexEntry(long offset, long length, int translationTableIndex) {
+		super();
+		this.offset = offset;
+		this.length = length;
+		this.translationTableIndex = translationTableIndex;
+	}
+
+
+	/**
+	 * Returns the byte offset of the tree definition in the indexed file. For <i>Nexus</i> files this is the position
+	 * of the first character of the {@code TREE} command. 
+	 * 
+	 * @return the offset in bytes
+	 */
+	public long getOffset() {
+		return offset;
+	}
+
+
+	/**
+	 * Returns the length of the tree definition in bytes.
+	 * 
+	 * @return the number of bytes to be read starting at {@link #getOffset()}
+	 */
+	public long getLength() {
+		return length;
+	}
+
+
+	/**
+	 * Returns the index of the translation table that applies to this tree.
+	 * 
+	 * @return the index to be used with {@link TreeIndex#getTranslationTable(int)} or -1 if no translation table 
+	 *         applies to this tree
+	 */
+	public int getTranslationTableIndex() {
+		return translationTableIndex;
+	}
+}
@@ -0,0 +1,7 @@
+/**
+ * Contains classes to create indices of the tree definitions in <i>Nexus</i> and <i>Newick</i> files, which allow to 
+ * read single trees without parsing the preceding contents of a file.
+ * 
+ * @author Ben St&ouml;ver
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
\ No newline at end of file
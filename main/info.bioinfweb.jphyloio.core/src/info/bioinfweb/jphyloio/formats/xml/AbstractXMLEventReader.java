@@ -39,16 +39,18 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Map;
+import java.util.Set;
 import java.util.Stack;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.NamespaceContext;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 
@@ -56,6 +58,11 @@ import javax.xml.stream.events.XMLEvent;
 
 /**
  * Implements shared functionality for reading XML formats.
+ * <p>
+ * If the underlying XML reader is a {@link CursorXMLEventReader} (which is always the case, if an instance is created
+ * from a file, stream or reader), the XML events are processed using the cursor of the underlying stream reader and 
+ * event objects are only created for events that are passed to an element reader. Readers created with any other 
+ * {@link XMLEventReader} process all events using its event iterator API.
  * 
  * @author Ben St&ouml;ver
  * @author Sarah Wiechers
@@ -69,8 +76,12 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	
 	
 	private Map<XMLElementReaderKey, XMLElementReader<P>> elementReaderMap = new HashMap<XMLElementReaderKey, XMLElementReader<P>>();
+	private Map<Integer, Map<QName, Map<QName, XMLElementReader<P>>>> resolvedElementReaders = 
+			new HashMap<Integer, Map<QName, Map<QName, XMLElementReader<P>>>>();
 	private XMLEventReader xmlReader;
+	private CursorXMLEventReader cursorReader;  // Same instance as xmlReader, if the cursor based engine is used
 	private Stack<QName> encounteredTags = new Stack<QName>();
+	private Set<QName> skippedElements = new HashSet<QName>();
 	
 	private NamespaceContext namespaceContext = null;
 	
@@ -88,6 +99,9 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	public AbstractXMLEventReader(XMLEventReader xmlReader, ReadWriteParameterMap parameters) {
 		super(parameters, Character.toString(SequenceUtils.MATCH_CHAR));
 		this.xmlReader = xmlReader;
+		if (xmlReader instanceof CursorXMLEventReader) {
+			cursorReader = (CursorXMLEventReader)xmlReader;
+		}
 		fillMap();
 	}
 
@@ -97,7 +111,8 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 		if (!(reader instanceof BufferedReader)) {
 			reader = new BufferedReader(reader);
 		}
-		this.xmlReader = XMLInputFactory.newInstance().createXMLEventReader(reader);
+		cursorReader = new CursorXMLEventReader(parameters.getXMLInputFactory().createXMLStreamReader(reader));
+		this.xmlReader = cursorReader;
 		fillMap();
 	}
 	
@@ -108,6 +123,7 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	
 	
 	protected void putElementReader(XMLElementReaderKey key, XMLElementReader<P> reader) {
+		resolvedElementReaders.clear();
 		elementReaderMap.put(key, reader);
 		if (isAllowDefaultNamespace()) {
 			QName parentTag = null;
@@ -123,14 +139,120 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	}
 
 
+	/**
+	 * Registers an element that only results in events of the specified content types (including the events created 
+	 * for its nested elements). If none of these types is included according to 
+	 * {@link ReadWriteParameterMap#KEY_INCLUDED_CONTENT_TYPES}, all occurrences of this element (together with their
+	 * contents) will be skipped without calling any element reader.
+	 * <p>
+	 * Inherited classes should only register elements here whose element readers do not change any state of the 
+	 * stream data provider that is relevant after the end of the element. This method is meant to be called in
+	 * {@link #fillMap()}.
+	 * 
+	 * @param tag the name of the element
+	 * @param contentTypes the content types of all events that could result from the element 
+	 */
+	protected void putSkippableElement(QName tag, EventContentType... contentTypes) {
+		for (EventContentType contentType : contentTypes) {
+			if (isContentTypeIncluded(contentType)) {
+				return;
+			}
+		}
+		
+		skippedElements.add(tag);
+		if (isAllowDefaultNamespace()) {
+			skippedElements.add(new QName(tag.getLocalPart()));
+		}
+	}
+	
+	
+	private void skipElementContents() throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			XMLEvent xmlEvent = getXMLReader().nextEvent();  // Throws an exception, if the end of the document is reached before.
+			if (xmlEvent.isStartElement()) {
+				depth++;
+			}
+			else if (xmlEvent.isEndElement()) {
+				depth--;
+			}
+		}
+	}
+	
+	
 	protected abstract void fillMap();
 	
 	
+	/**
+	 * Processes the next XML event using the cursor of {@link CursorXMLEventReader}. The according event object is only created,
+	 * if an element reader is registered for the event.
+	 */
+	private void readNextCursorEvent() throws IOException, XMLStreamException {
+		XMLStreamReader streamReader = cursorReader.getStreamReader();
+		int eventType = cursorReader.moveCursor();
+		XMLEvent xmlEvent = null;
+		QName elementTag = null;
+		switch (eventType) {
+			case XMLStreamConstants.START_ELEMENT:
+				elementTag = streamReader.getName();
+				if (!skippedElements.isEmpty() && skippedElements.contains(elementTag)) {
+					cursorReader.skipElement();
+					return;  // The element is not pushed to the encountered tags, since its end element was also consumed.
+				}
+				namespaceContext = cursorReader.getNamespaceContext();
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				getEncounteredTags().pop();
+				elementTag = streamReader.getName();
+				break;
+			case XMLStreamConstants.CHARACTERS:
+				break;
+			default:  // Other events are rare. Their event objects are created to use the same event type as the event iterator API.
+				xmlEvent = cursorReader.getCurrentEvent();
+				eventType = xmlEvent.getEventType();
+				break;
+		}
+		
+		QName parentTag = getCurrentParentTag();
+		if (eventType == XMLStreamConstants.START_ELEMENT) {
+			getStreamDataProvider().setParentName(parentTag.getLocalPart());
+			getStreamDataProvider().setElementName(elementTag.getLocalPart());
+		}
+		
+		XMLElementReader<P> elementReader = getElementReader(parentTag, elementTag, eventType);
+		if (elementReader != null) {
+			if (xmlEvent == null) {
+				xmlEvent = cursorReader.getCurrentEvent();
+			}
+			elementReader.readEvent(getStreamDataProvider(), xmlEvent);
+		}
+
+		if (eventType == XMLStreamConstants.START_ELEMENT) {  // Should be done after elementReader.readEvent().
+			getEncounteredTags().push(elementTag);
+		}
+	}
+	
+	
+	private QName getCurrentParentTag() {
+		if (!getEncounteredTags().isEmpty()) {
+			return getEncounteredTags().peek();
+		}
+		else {
+			return TAG_PARENT_OF_ROOT;
+		}
+	}
+	
+	
 	@Override
 	protected void readNextEvent() throws IOException {
 		try {
 			while (getXMLReader().hasNext() && getUpcomingEvents().isEmpty()) {
-				XMLEvent xmlEvent = getXMLReader().nextEvent();
+				if ((cursorReader != null) && !cursorReader.isEventPeeked()) {
+					readNextCursorEvent();
+					continue;
+				}
+				
+				XMLEvent xmlEvent = getXMLReader().nextEvent();  // Used if an element reader peeked the next event or no cursor is available.
 				QName parentTag = null;
 				
 				QName elementTag = null;
@@ -144,6 +266,10 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 					case XMLStreamConstants.START_ELEMENT:						
 						StartElement element = xmlEvent.asStartElement();
 						elementTag = element.getName();						
+						if (!skippedElements.isEmpty() && skippedElements.contains(elementTag)) {
+							skipElementContents();
+							continue;  // The element is not pushed to the encountered tags, since its end element was also consumed.
+						}
 						namespaceContext = element.getNamespaceContext();
 						break;
 					case XMLStreamConstants.END_ELEMENT:
@@ -154,12 +280,7 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 						break;  // Nothing to do.
 				}
 	
-				if (!getEncounteredTags().isEmpty()) {
-					parentTag = getEncounteredTags().peek();
-				}
-				else {
-					parentTag = TAG_PARENT_OF_ROOT;
-				}		
+				parentTag = getCurrentParentTag();
 				
 				if (xmlEvent.isStartElement()) {
 					getStreamDataProvider().setParentName(parentTag.getLocalPart());
@@ -182,7 +303,42 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	}
 	
 	
+	/**
+	 * Returns the element reader responsible for the specified XML event. If no reader is registered for the exact 
+	 * combination of parent tag, element tag and event type, readers registered for any parent tag, any element tag or
+	 * both are considered in this order.
+	 * <p>
+	 * The result of this lookup is cached for each combination, so that the fallback chain is only evaluated once per 
+	 * combination and no key objects need to be created for subsequent events.
+	 * 
+	 * @param parentTag the name of the parent element
+	 * @param elementTag the name of the current element or {@code null} for events that are not associated with an element
+	 * @param eventType the type of the XML event as defined in {@link XMLStreamConstants}
+	 * @return the element reader or {@code null} if no according reader was registered
+	 */
 	protected XMLElementReader<P> getElementReader(QName parentTag, QName elementTag, int eventType) {		
+		Map<QName, Map<QName, XMLElementReader<P>>> readersByParent = resolvedElementReaders.get(eventType);
+		if (readersByParent == null) {
+			readersByParent = new HashMap<QName, Map<QName, XMLElementReader<P>>>();
+			resolvedElementReaders.put(eventType, readersByParent);
+		}
+		
+		Map<QName, XMLElementReader<P>> readersByTag = readersByParent.get(parentTag);
+		if (readersByTag == null) {
+			readersByTag = new HashMap<QName, XMLElementReader<P>>();
+			readersByParent.put(parentTag, readersByTag);
+		}
+		
+		XMLElementReader<P> result = readersByTag.get(elementTag);
+		if ((result == null) && !readersByTag.containsKey(elementTag)) {  // Also cache combinations without a reader.
+			result = resolveElementReader(parentTag, elementTag, eventType);
+			readersByTag.put(elementTag, result);
+		}
+		return result;
+	}
+	
+	
+	private XMLElementReader<P> resolveElementReader(QName parentTag, QName elementTag, int eventType) {
 		XMLElementReader<P> result = elementReaderMap.get(new XMLElementReaderKey(parentTag, elementTag, eventType));
 		if (result == null) {
 			result = elementReaderMap.get(new XMLElementReaderKey(null, elementTag, eventType));
@@ -252,6 +408,13 @@ public abstract class AbstractXMLEventReader<P extends XMLReaderStreamDataProvid
 	}
 	
 	
+	/**
+	 * Returns the map of registered element readers. Element readers should be added using 
+	 * {@link #putElementReader(XMLElementReaderKey, XMLElementReader)}, since lookups from this map are cached by 
+	 * {@link #getElementReader(QName, QName, int)}.
+	 * 
+	 * @return the map of registered element readers
+	 */
 	protected Map<XMLElementReaderKey, XMLElementReader<P>> getElementReaderMap() {
 		return elementReaderMap;
 	}
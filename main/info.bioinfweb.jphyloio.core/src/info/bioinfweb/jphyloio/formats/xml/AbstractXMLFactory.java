@@ -23,7 +23,6 @@ import java.io.Reader;
 
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLEventReader;
-import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
@@ -94,7 +93,7 @@ public abstract class AbstractXMLFactory extends AbstractSingleReaderWriterFacto
 	@Override
 	public boolean checkFormat(Reader reader, ReadWriteParameterMap parameters)	{
 		try {
-			XMLEventReader xmlReader = XMLInputFactory.newInstance().createXMLEventReader(reader);  //TODO Why is the underlying stream of the BufferedInputStream set to null here on some systems?
+			XMLEventReader xmlReader = parameters.getXMLInputFactory().createXMLEventReader(reader);  //TODO Why is the underlying stream of the BufferedInputStream set to null here on some systems?
 			
 			if (!(xmlReader.nextEvent().getEventType() == XMLStreamConstants.START_DOCUMENT)) {
 				return false;
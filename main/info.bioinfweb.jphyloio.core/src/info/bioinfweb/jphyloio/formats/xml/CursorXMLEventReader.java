@@ -0,0 +1,494 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.xml;
+
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Stack;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.EntityReference;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.XMLEvent;
+
+
+
+/**
+ * Implementation of {@link XMLEventReader} that is based on the cursor API of an underlying {@link XMLStreamReader}.
+ * <p>
+ * Different from the event reader implementations of <i>StAX</i>, event objects are only created if they are requested
+ * using {@link #nextEvent()}, {@link #peek()} or {@link #getCurrentEvent()}. {@link AbstractXMLEventReader} moves the
+ * cursor using {@link #moveCursor()} and determines the element reader responsible for an event directly from the
+ * underlying stream reader, so that no event objects need to be created for events that are not processed by any
+ * element reader (e.g. whitespace between elements or skipped elements). Element readers can still access all events
+ * of the document using the event iterator API of this instance.
+ * <p>
+ * The namespace contexts of the created start element events are immutable snapshots that remain valid after the cursor
+ * was moved.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class CursorXMLEventReader implements XMLEventReader {
+	private XMLStreamReader streamReader;
+	private XMLEventFactory eventFactory;
+	private boolean currentPending = true;  // The stream reader is initially located at the start document event, which was not yet returned.
+	private XMLEvent currentEvent = null;
+	private XMLEvent peekedEvent = null;
+	private ScopedNamespaceContext namespaceContext = new ScopedNamespaceContext();
+	private Stack<ScopedNamespaceContext> namespaceContextStack = new Stack<ScopedNamespaceContext>();
+
+
+	/**
+	 * Immutable namespace context that contains the namespace declarations of a single element and refers to the context
+	 * of its parent element.
+	 */
+	private static class ScopedNamespaceContext implements NamespaceContext {
+		private ScopedNamespaceContext parent;
+		private String[] prefixes;
+		private String[] namespaceURIs;
+
+
+		public ScopedNamespaceContext() {
+			super();
+			parent = null;
+			prefixes = new String[0];
+			namespaceURIs = new String[0];
+		}
+
+
+		public ScopedNamespaceContext(ScopedNamespaceContext parent, XMLStreamReader reader) {
+			super();
+			this.parent = parent;
+			int count = reader.getNamespaceCount();
+			prefixes = new String[count];
+			namespaceURIs = new String[count];
+			for (int i = 0; i < count; i++) {
+				prefixes[i] = normalize(reader.getNamespacePrefix(i));
+				namespaceURIs[i] = normalize(reader.getNamespaceURI(i));
+			}
+		}
+
+
+		@Override
+		public String getNamespaceURI(String prefix) {
+			if (prefix == null) {
+				throw new IllegalArgumentException("The prefix must not be null.");
+			}
+			else if (prefix.equals(XMLConstants.XML_NS_PREFIX)) {
+				return XMLConstants.XML_NS_URI;
+			}
+			else if (prefix.equals(XMLConstants.XMLNS_ATTRIBUTE)) {
+				return XMLConstants.XMLNS_ATTRIBUTE_NS_URI;
+			}
+			else {
+				ScopedNamespaceContext context = this;
+				while (context != null) {
+					for (int i = 0; i < context.prefixes.length; i++) {
+						if (prefix.equals(context.prefixes[i])) {
+							return context.namespaceURIs[i];
+						}
+					}
+					context = context.parent;
+				}
+				return null;  // Unbound prefixes are treated in the same way as by the StAX implementation of the JRE.
+			}
+		}
+
+
+		@Override
+		public String getPrefix(String namespaceURI) {
+			Iterator<String> iterator = getPrefixes(namespaceURI);
+			if (iterator.hasNext()) {
+				return iterator.next();
+			}
+			else {
+				return null;
+			}
+		}
+
+
+		@Override
+		public Iterator<String> getPrefixes(String namespaceURI) {
+			if (namespaceURI == null) {
+				throw new IllegalArgumentException("The namespace URI must not be null.");
+			}
+			else if (namespaceURI.equals(XMLConstants.XML_NS_URI)) {
+				return Collections.singleton(XMLConstants.XML_NS_PREFIX).iterator();
+			}
+			else if (namespaceURI.equals(XMLConstants.XMLNS_ATTRIBUTE_NS_URI)) {
+				return Collections.singleton(XMLConstants.XMLNS_ATTRIBUTE).iterator();
+			}
+			else {
+				Set<String> result = new LinkedHashSet<String>();
+				ScopedNamespaceContext context = this;
+				while (context != null) {
+					for (int i = 0; i < context.prefixes.length; i++) {
+						if (namespaceURI.equals(context.namespaceURIs[i]) && namespaceURI.equals(getNamespaceURI(context.prefixes[i]))) {  // Prefixes redeclared in nested elements are not valid anymore.
+							result.add(context.prefixes[i]);
+						}
+					}
+					context = context.parent;
+				}
+				return Collections.unmodifiableSet(result).iterator();
+			}
+		}
+	}
+
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param streamReader the underlying stream reader which must still be located at the start of the document
+	 * @throws IllegalArgumentException if the specified reader is not located at the start of the document
+	 */
+	public CursorXMLEventReader(XMLStreamReader streamReader) {
+		super();
+		if (streamReader.getEventType() != XMLStreamConstants.START_DOCUMENT) {
+			throw new IllegalArgumentException("The specified stream reader must be located at the start of the document.");
+		}
+		else {
+			this.streamReader = streamReader;
+			eventFactory = XMLEventFactory.newInstance();  // A separate instance is necessary, since the location of the created events is set in the factory.
+		}
+	}
+
+
+	private static String normalize(String value) {
+		if (value == null) {
+			return XMLConstants.DEFAULT_NS_PREFIX;
+		}
+		else {
+			return value;
+		}
+	}
+
+
+	/**
+	 * Returns the underlying stream reader. Applications should not move its cursor directly, since this would make the state
+	 * of this instance invalid.
+	 * 
+	 * @return the underlying stream reader
+	 */
+	public XMLStreamReader getStreamReader() {
+		return streamReader;
+	}
+
+
+	/**
+	 * Determines whether an event was peeked using {@link #peek()} that has not yet been returned by {@link #nextEvent()}.
+	 * The cursor of the underlying stream reader is already located at this event in such cases and {@link #moveCursor()}
+	 * must not be called.
+	 * 
+	 * @return {@code true} if an event was peeked or {@code false} otherwise
+	 */
+	public boolean isEventPeeked() {
+		return peekedEvent != null;
+	}
+
+
+	private int advance() throws XMLStreamException {
+		if (currentPending) {
+			currentPending = false;
+		}
+		else {
+			if (streamReader.getEventType() == XMLStreamConstants.END_ELEMENT) {
+				namespaceContext = namespaceContextStack.pop();
+			}
+			streamReader.next();
+			if (streamReader.getEventType() == XMLStreamConstants.START_ELEMENT) {
+				namespaceContextStack.push(namespaceContext);
+				if (streamReader.getNamespaceCount() > 0) {
+					namespaceContext = new ScopedNamespaceContext(namespaceContext, streamReader);
+				}
+			}
+		}
+		currentEvent = null;
+		return streamReader.getEventType();
+	}
+
+
+	/**
+	 * Moves the cursor to the next event without creating an event object. The properties of this event can be obtained from
+	 * {@link #getStreamReader()} afterwards and its event object can be created using {@link #getCurrentEvent()}, if
+	 * necessary.
+	 * 
+	 * @return the type of the event the cursor was moved to as defined in {@link XMLStreamConstants}
+	 * @throws IllegalStateException if an event was peeked before
+	 * @throws NoSuchElementException if the end of the document was already reached
+	 * @throws XMLStreamException if the underlying stream reader throws an exception
+	 */
+	public int moveCursor() throws XMLStreamException {
+		if (isEventPeeked()) {
+			throw new IllegalStateException("The cursor cannot be moved, since an event was peeked before.");
+		}
+		else if (!hasNext()) {
+			throw new NoSuchElementException("The end of the document was already reached.");
+		}
+		else {
+			return advance();
+		}
+	}
+
+
+	/**
+	 * Moves the cursor behind the end element that belongs to the current start element without creating any event
+	 * objects.
+	 * 
+	 * @throws IllegalStateException if the cursor is not located at a start element or an event was peeked before
+	 * @throws XMLStreamException if the underlying stream reader throws an exception (e.g. if the end of the document is
+	 *         reached before the end element)
+	 */
+	public void skipElement() throws XMLStreamException {
+		if (isEventPeeked() || currentPending || (streamReader.getEventType() != XMLStreamConstants.START_ELEMENT)) {
+			throw new IllegalStateException("Elements can only be skipped if the cursor is located at their start element.");
+		}
+		else {
+			int depth = 1;
+			while (depth > 0) {
+				if (!streamReader.hasNext()) {
+					throw new XMLStreamException("The end of the document was reached before the end of the skipped element.",
+							streamReader.getLocation());
+				}
+				int eventType = advance();
+				if (eventType == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+				}
+				else if (eventType == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the namespace context that is valid for the event the cursor is currently located at. The returned object is not
+	 * modified when the cursor is moved.
+	 * 
+	 * @return the current namespace context
+	 */
+	public NamespaceContext getNamespaceContext() {
+		return namespaceContext;
+	}
+
+
+	/**
+	 * Returns the event object for the event the cursor of the underlying stream reader is currently located at. The object
+	 * is created on the first call of this method for each event.
+	 * 
+	 * @return the event object
+	 * @throws XMLStreamException if the current event is of an unsupported type
+	 */
+	public XMLEvent getCurrentEvent() throws XMLStreamException {
+		if (currentEvent == null) {
+			currentEvent = createEvent();
+		}
+		return currentEvent;
+	}
+
+
+	private List<Namespace> createNamespaces() {
+		List<Namespace> result = new ArrayList<Namespace>(streamReader.getNamespaceCount());
+		for (int i = 0; i < streamReader.getNamespaceCount(); i++) {
+			String prefix = normalize(streamReader.getNamespacePrefix(i));
+			String namespaceURI = normalize(streamReader.getNamespaceURI(i));
+			if (prefix.equals(XMLConstants.DEFAULT_NS_PREFIX)) {
+				result.add(eventFactory.createNamespace(namespaceURI));
+			}
+			else {
+				result.add(eventFactory.createNamespace(prefix, namespaceURI));
+			}
+		}
+		return result;
+	}
+
+
+	private XMLEvent createEvent() throws XMLStreamException {
+		eventFactory.setLocation(streamReader.getLocation());
+		QName name;
+		switch (streamReader.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				name = streamReader.getName();
+				List<Attribute> attributes = new ArrayList<Attribute>(streamReader.getAttributeCount());
+				for (int i = 0; i < streamReader.getAttributeCount(); i++) {
+					attributes.add(eventFactory.createAttribute(streamReader.getAttributeName(i), streamReader.getAttributeValue(i)));
+				}
+				return eventFactory.createStartElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+						attributes.iterator(), createNamespaces().iterator(), namespaceContext);
+			case XMLStreamConstants.END_ELEMENT:
+				name = streamReader.getName();
+				return eventFactory.createEndElement(name.getPrefix(), name.getNamespaceURI(), name.getLocalPart(),
+						createNamespaces().iterator());
+			case XMLStreamConstants.CHARACTERS:
+				return eventFactory.createCharacters(streamReader.getText());
+			case XMLStreamConstants.CDATA:
+				return eventFactory.createCData(streamReader.getText());
+			case XMLStreamConstants.SPACE:
+				return eventFactory.createIgnorableSpace(streamReader.getText());
+			case XMLStreamConstants.COMMENT:
+				return eventFactory.createComment(streamReader.getText());
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				return eventFactory.createProcessingInstruction(streamReader.getPITarget(), streamReader.getPIData());
+			case XMLStreamConstants.START_DOCUMENT:
+				String version = streamReader.getVersion();
+				if (version == null) {
+					version = "1.0";
+				}
+				if (streamReader.standaloneSet()) {
+					return eventFactory.createStartDocument(streamReader.getCharacterEncodingScheme(), version, streamReader.isStandalone());
+				}
+				else {
+					return eventFactory.createStartDocument(streamReader.getCharacterEncodingScheme(), version);
+				}
+			case XMLStreamConstants.END_DOCUMENT:
+				return eventFactory.createEndDocument();
+			case XMLStreamConstants.DTD:
+				return eventFactory.createDTD(streamReader.getText());
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				return eventFactory.createEntityReference(streamReader.getLocalName(), null);
+			default:
+				throw new XMLStreamException("The XML event type " + streamReader.getEventType() + " is not supported.",
+						streamReader.getLocation());
+		}
+	}
+
+
+	@Override
+	public boolean hasNext() {
+		try {
+			return isEventPeeked() || currentPending || streamReader.hasNext();
+		}
+		catch (XMLStreamException e) {
+			return false;  // Consistent with the behavior of the event reader implementation of the JRE. The exception will be thrown again by the next call of nextEvent().
+		}
+	}
+
+
+	@Override
+	public XMLEvent nextEvent() throws XMLStreamException {
+		if (isEventPeeked()) {
+			XMLEvent result = peekedEvent;
+			peekedEvent = null;
+			return result;
+		}
+		else if (!hasNext()) {
+			throw new NoSuchElementException("The end of the document was already reached.");
+		}
+		else {
+			advance();
+			return getCurrentEvent();
+		}
+	}
+
+
+	@Override
+	public Object next() {
+		try {
+			return nextEvent();
+		}
+		catch (XMLStreamException e) {
+			NoSuchElementException exception = new NoSuchElementException(e.getMessage());
+			exception.initCause(e);
+			throw exception;
+		}
+	}
+
+
+	@Override
+	public XMLEvent peek() throws XMLStreamException {
+		if (!isEventPeeked() && (currentPending || streamReader.hasNext())) {
+			advance();
+			peekedEvent = getCurrentEvent();
+		}
+		return peekedEvent;
+	}
+
+
+	@Override
+	public String getElementText() throws XMLStreamException {
+		StringBuilder result = new StringBuilder();
+		XMLEvent event = nextEvent();
+		while (!event.isEndElement()) {
+			if (event.isCharacters()) {
+				result.append(event.asCharacters().getData());
+			}
+			else if (event.isEntityReference()) {
+				EntityReference reference = (EntityReference)event;
+				if ((reference.getDeclaration() != null) && (reference.getDeclaration().getReplacementText() != null)) {
+					result.append(reference.getDeclaration().getReplacementText());
+				}
+			}
+			else if (event.isStartElement() || event.isEndDocument()) {
+				throw new XMLStreamException("The element contains nested elements and therefore no text only content.",
+						event.getLocation());
+			}  // Comments and processing instructions are ignored.
+			event = nextEvent();
+		}
+		return result.toString();
+	}
+
+
+	@Override
+	public XMLEvent nextTag() throws XMLStreamException {
+		XMLEvent event = nextEvent();
+		while ((event.isCharacters() && event.asCharacters().isWhiteSpace()) ||
+				(event.getEventType() == XMLStreamConstants.COMMENT) || event.isProcessingInstruction()) {
+
+			event = nextEvent();
+		}
+
+		if (!event.isStartElement() && !event.isEndElement()) {
+			throw new XMLStreamException("A start or end element was expected, but an event of the type " + event.getEventType() +
+					" was found.", event.getLocation());
+		}
+		return event;
+	}
+
+
+	@Override
+	public Object getProperty(String name) throws IllegalArgumentException {
+		return streamReader.getProperty(name);
+	}
+
+
+	@Override
+	public void close() throws XMLStreamException {
+		streamReader.close();
+	}
+
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException("Removing events is not supported by this reader.");
+	}
+}
@@ -30,6 +30,7 @@ import java.util.Iterator;
 
 import javax.xml.XMLConstants;
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamConstants;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamWriter;
@@ -68,6 +69,27 @@ public class XMLReadWriteUtils {
   public static final String DEFAULT_NAMESPACE_PREFIX = "p";
 	
 	
+	private static XMLInputFactory defaultInputFactory = null;
+	
+	
+	/**
+	 * Returns the <i>StAX</i> input factory used by <i>JPhyloIO</i> readers, if no other factory is specified using
+	 * {@link ReadWriteParameterNames#KEY_XML_INPUT_FACTORY}.
+	 * <p>
+	 * The instance is created on the first call of this method and shared afterwards, since creating a new factory 
+	 * involves a service lookup that is expensive compared to reading small documents. The returned instance should
+	 * therefore not be reconfigured by applications.
+	 * 
+	 * @return the shared default factory
+	 */
+	public static synchronized XMLInputFactory getDefaultXMLInputFactory() {
+		if (defaultInputFactory == null) {
+			defaultInputFactory = XMLInputFactory.newInstance();
+		}
+		return defaultInputFactory;
+	}
+	
+	
 	public static String getXSIPrefix(XMLStreamWriter writer) throws XMLStreamException {
 		String prefix = writer.getPrefix(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI);
 		if (prefix == null || prefix.isEmpty()) {
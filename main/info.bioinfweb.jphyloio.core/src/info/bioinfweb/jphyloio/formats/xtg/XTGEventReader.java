@@ -78,6 +78,7 @@ import javax.xml.stream.events.XMLEvent;
  * <h3><a id="parameters"></a>Recognized parameters</h3> 
  * <ul>
  *   <li>{@link ReadWriteParameterNames#KEY_ALLOW_DEFAULT_NAMESPACE}</li>
+ *   <li>{@link ReadWriteParameterNames#KEY_XML_INPUT_FACTORY}</li>
  *   <li>{@link ReadWriteParameterNames#KEY_LOGGER}</li>
  * </ul>
  * 
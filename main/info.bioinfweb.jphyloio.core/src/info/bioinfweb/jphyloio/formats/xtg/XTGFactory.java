@@ -106,6 +106,7 @@ public class XTGFactory extends AbstractXMLFactory implements XTGConstants, JPhy
 		
 		Set<String> supportedReaderParameters = new HashSet<String>();
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_ALLOW_DEFAULT_NAMESPACE);
+		supportedReaderParameters.add(ReadWriteParameterNames.KEY_XML_INPUT_FACTORY);
 		supportedReaderParameters.add(ReadWriteParameterNames.KEY_LOGGER);
 		
 		return new DefaultFormatInfo(this, XTG_FORMAT_ID, XTG_FORMAT_NAME, 
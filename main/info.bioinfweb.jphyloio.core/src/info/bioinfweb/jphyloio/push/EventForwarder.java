@@ -59,7 +59,7 @@ public class EventForwarder {
 	 * @throws IOException if {@code reader} throws an I/O exception while parsing
 	 */
 	public void readAll(JPhyloIOEventReader reader) throws IOException {
-		doReadUntil(reader, null);
+		doReadUntil(reader, null);  // Events are read one by one, since listeners may access the state of the reader.
 	}
 	
 	
@@ -0,0 +1,1045 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import info.bioinfweb.commons.bio.CharacterStateSetType;
+import info.bioinfweb.commons.bio.CharacterSymbolMeaning;
+import info.bioinfweb.commons.bio.CharacterSymbolType;
+import info.bioinfweb.jphyloio.events.CharacterDefinitionEvent;
+import info.bioinfweb.jphyloio.events.CharacterSetIntervalEvent;
+import info.bioinfweb.jphyloio.events.CommentEvent;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.EdgeEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LabeledEvent;
+import info.bioinfweb.jphyloio.events.LabeledIDEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.NodeEvent;
+import info.bioinfweb.jphyloio.events.PartEndEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.SetElementEvent;
+import info.bioinfweb.jphyloio.events.SingleSequenceTokenEvent;
+import info.bioinfweb.jphyloio.events.SingleTokenDefinitionEvent;
+import info.bioinfweb.jphyloio.events.TokenSetDefinitionEvent;
+import info.bioinfweb.jphyloio.events.UnknownCommandEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.io.StreamCorruptedException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TimeZone;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.Comment;
+import javax.xml.stream.events.Namespace;
+import javax.xml.stream.events.ProcessingInstruction;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+
+
+/**
+ * Encodes <i>JPhyloIO</i> events in a compact binary representation and decodes them again.
+ * <p>
+ * All event classes of <i>JPhyloIO</i> are supported. Integers are written as variable length values, so that small
+ * values (like most indices and string lengths) only need a single byte. Object values of
+ * {@link LiteralMetadataContentEvent}s are supported if they are strings, wrapped primitives, {@link BigInteger}s,
+ * {@link BigDecimal}s, {@link URI}s, {@link QName}s, {@link GregorianCalendar}s, {@link Color}s, byte arrays, 
+ * {@link XMLEvent}s representing elements, characters, comments or processing instructions or lists of any of these 
+ * types (as they are created by the object translators of <i>JPhyloIO</i>). Other object values implementing {@link Serializable} are only supported, if this was 
+ * specified on construction. Since decoding such values uses Java serialization, which may execute code of arbitrary 
+ * classes, this must only be done for data written by the same application (e.g. temporary files), but never for 
+ * documents from external sources.
+ * <p>
+ * All decoded length values (e.g. of strings or lists) are checked against {@link #getRemainingBytes(DataInput)}, so that
+ * invalid data does not lead to the allocation of large arrays.
+ * <p>
+ * All strings are written and read using {@link #writeString(DataOutput, String)} and {@link #readString(DataInput)}.
+ * Inherited classes may overwrite these methods, e.g. to replace repeated strings by references into a dictionary.
+ * <p>
+ * Instances of this class are not thread safe. Each thread encoding or decoding events should use its own instance.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class BinaryEventCodec {
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final int EVENT_CONCRETE = 0;
+	private static final int EVENT_PART_END = 1;
+	private static final int EVENT_LABELED = 2;
+	private static final int EVENT_LABELED_ID = 3;
+	private static final int EVENT_LINKED_LABELED_ID = 4;
+	private static final int EVENT_NODE = 5;
+	private static final int EVENT_EDGE = 6;
+	private static final int EVENT_CHARACTER_DEFINITION = 7;
+	private static final int EVENT_TOKEN_SET_DEFINITION = 8;
+	private static final int EVENT_SINGLE_TOKEN_DEFINITION = 9;
+	private static final int EVENT_SEQUENCE_CHARACTER_TOKENS = 10;
+	private static final int EVENT_SEQUENCE_TOKENS = 11;
+	private static final int EVENT_SINGLE_SEQUENCE_TOKEN = 12;
+	private static final int EVENT_CHARACTER_SET_INTERVAL = 13;
+	private static final int EVENT_SET_ELEMENT = 14;
+	private static final int EVENT_COMMENT = 15;
+	private static final int EVENT_UNKNOWN_COMMAND = 16;
+	private static final int EVENT_LITERAL_META = 17;
+	private static final int EVENT_LITERAL_META_CONTENT = 18;
+	private static final int EVENT_RESOURCE_META = 19;
+
+	/** The lowest event type value that may be used by inherited classes for their own event representations. */
+	protected static final int FIRST_CUSTOM_EVENT_TYPE = 0x40;
+
+	private static final int VALUE_NULL = 0;
+	private static final int VALUE_STRING = 1;
+	private static final int VALUE_BOOLEAN = 2;
+	private static final int VALUE_BYTE = 3;
+	private static final int VALUE_SHORT = 4;
+	private static final int VALUE_INTEGER = 5;
+	private static final int VALUE_LONG = 6;
+	private static final int VALUE_FLOAT = 7;
+	private static final int VALUE_DOUBLE = 8;
+	private static final int VALUE_CHARACTER = 9;
+	private static final int VALUE_BIG_INTEGER = 10;
+	private static final int VALUE_BIG_DECIMAL = 11;
+	private static final int VALUE_URI = 12;
+	private static final int VALUE_QNAME = 13;
+	private static final int VALUE_XML_EVENT = 14;
+	private static final int VALUE_SERIALIZABLE = 15;
+	private static final int VALUE_CALENDAR = 16;
+	private static final int VALUE_COLOR = 17;
+	private static final int VALUE_BYTE_ARRAY = 18;
+	private static final int VALUE_LIST = 19;
+
+	private static final EventContentType[] CONTENT_TYPES = EventContentType.values();
+	private static final EventTopologyType[] TOPOLOGY_TYPES = EventTopologyType.values();
+	private static final LiteralContentSequenceType[] SEQUENCE_TYPES = LiteralContentSequenceType.values();
+
+	private boolean serializableValuesSupported;
+	private XMLEventFactory xmlEventFactory = null;
+	
+	
+	/**
+	 * Creates a new instance of this class that does not support {@link Serializable} object values that are not 
+	 * explicitly listed in the documentation of this class.
+	 */
+	public BinaryEventCodec() {
+		this(false);
+	}
+	
+	
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param serializableValuesSupported Specify {@code true} here, if arbitrary {@link Serializable} object values shall 
+	 *        be encoded and decoded using Java serialization or {@code false} if a {@link NotSerializableException} 
+	 *        shall be thrown when they are written and a {@link StreamCorruptedException} when they are read.
+	 *        ({@code true} must only be used if the data to be decoded was written by the same application.)
+	 */
+	public BinaryEventCodec(boolean serializableValuesSupported) {
+		super();
+		this.serializableValuesSupported = serializableValuesSupported;
+	}
+	
+	
+	/**
+	 * Determines whether arbitrary {@link Serializable} object values are supported by this instance.
+	 * 
+	 * @return {@code true} if such values are encoded and decoded using Java serialization, {@code false} otherwise
+	 */
+	public boolean isSerializableValuesSupported() {
+		return serializableValuesSupported;
+	}
+
+
+	/**
+	 * Writes a non-negative integer using 7 bits per byte. The highest bit of each byte indicates whether another byte
+	 * follows.
+	 * 
+	 * @param output the output to write to
+	 * @param value the value to be written
+	 * @throws IllegalArgumentException if {@code value} is negative
+	 * @throws IOException if an I/O error occurs while writing to {@code output}
+	 */
+	public static void writeVarLong(DataOutput output, long value) throws IOException {
+		if (value < 0) {
+			throw new IllegalArgumentException("Only non-negative values can be written. (" + value + ")");
+		}
+		else {
+			while (value > 0x7F) {
+				output.writeByte((int)((value & 0x7F) | 0x80));
+				value >>>= 7;
+			}
+			output.writeByte((int)value);
+		}
+	}
+
+
+	/**
+	 * Reads a non-negative integer that was written by {@link #writeVarLong(DataOutput, long)}.
+	 * 
+	 * @param input the input to read from
+	 * @return the value that was read
+	 * @throws IOException if an I/O error occurs while reading from {@code input} or the value is invalid
+	 */
+	public static long readVarLong(DataInput input) throws IOException {
+		long result = 0;
+		int shift = 0;
+		int b;
+		do {
+			if (shift > 63) {
+				throw new StreamCorruptedException("Invalid variable length integer found.");
+			}
+			b = input.readUnsignedByte();
+			if ((shift == 63) && ((b & 0x7F) > 0)) {
+				throw new StreamCorruptedException("Invalid variable length integer found.");  // Non-negative values never need more than 63 bits.
+			}
+			result |= (long)(b & 0x7F) << shift;
+			shift += 7;
+		}	while ((b & 0x80) != 0);
+		return result;
+	}
+
+
+	private static int readVarInt(DataInput input) throws IOException {
+		long result = readVarLong(input);
+		if (result > Integer.MAX_VALUE) {
+			throw new StreamCorruptedException("The value " + result + " is too large to be an integer.");
+		}
+		return (int)result;
+	}
+	
+	
+	/**
+	 * Returns the maximum number of bytes that can still be read from the specified input. Decoded lengths of strings 
+	 * and lists are checked against this value.
+	 * <p>
+	 * This default implementation returns {@link Integer#MAX_VALUE}. Inherited classes that know how much data is 
+	 * available (e.g. if they only decode data from memory) should overwrite this method.
+	 * 
+	 * @param input the input that is currently read from
+	 * @return the maximum number of bytes left in {@code input}
+	 * @throws IOException if an I/O error occurs while determining the number of bytes
+	 */
+	protected long getRemainingBytes(DataInput input) throws IOException {
+		return Integer.MAX_VALUE;
+	}
+	
+	
+	/**
+	 * Reads a variable length integer specifying the number of bytes or elements of a value that follows. Since each 
+	 * element is represented by at least one byte, a value is only valid, if it exceeds the remaining bytes of 
+	 * {@code input} at most by one. (Some lengths are written incremented by one to represent {@code null}.)
+	 * 
+	 * @param input the input to read from
+	 * @return the length value
+	 * @throws IOException if an I/O error occurs while reading from {@code input} or the value is invalid
+	 */
+	private int readLength(DataInput input) throws IOException {
+		int result = readVarInt(input);
+		if (result - 1 > getRemainingBytes(input)) {
+			throw new StreamCorruptedException("The length " + result + " exceeds the remaining data.");
+		}
+		return result;
+	}
+
+
+	/**
+	 * Writes a string that may be {@code null}. The string is written as its UTF-8 byte length plus one followed by
+	 * the bytes. {@code null} is represented by a length of 0.
+	 * <p>
+	 * Inherited classes may overwrite this method to provide different string representations. In such cases
+	 * {@link #readString(DataInput)} must be overwritten accordingly.
+	 * 
+	 * @param output the output to write to
+	 * @param value the string to be written (maybe {@code null})
+	 * @throws IOException if an I/O error occurs while writing to {@code output}
+	 */
+	protected void writeString(DataOutput output, String value) throws IOException {
+		if (value == null) {
+			writeVarLong(output, 0);
+		}
+		else {
+			byte[] bytes = value.getBytes(UTF_8);
+			writeVarLong(output, bytes.length + 1);
+			output.write(bytes);
+		}
+	}
+
+
+	/**
+	 * Reads a string that was written by {@link #writeString(DataOutput, String)}.
+	 * 
+	 * @param input the input to read from
+	 * @return the string or {@code null}
+	 * @throws IOException if an I/O error occurs while reading from {@code input}
+	 */
+	protected String readString(DataInput input) throws IOException {
+		int length = readLength(input);
+		if (length == 0) {
+			return null;
+		}
+		else {
+			byte[] bytes = new byte[length - 1];
+			input.readFully(bytes);
+			return new String(bytes, UTF_8);
+		}
+	}
+
+
+	private void writeNonNullString(DataOutput output, String value) throws IOException {
+		if (value == null) {
+			throw new NullPointerException("A required string property of an event was null.");
+		}
+		writeString(output, value);
+	}
+
+
+	private String readNonNullString(DataInput input) throws IOException {
+		String result = readString(input);
+		if (result == null) {
+			throw new StreamCorruptedException("A required string property was missing.");
+		}
+		return result;
+	}
+
+
+	private static <T extends Enum<T>> T readEnum(DataInput input, T[] values) throws IOException {
+		int ordinal = readVarInt(input);
+		if (ordinal >= values.length) {
+			throw new StreamCorruptedException("Invalid enum constant " + ordinal + " found.");
+		}
+		return values[ordinal];
+	}
+
+
+	private void writeEnumName(DataOutput output, Enum<?> value) throws IOException {
+		writeString(output, (value == null) ? null : value.name());
+	}
+
+
+	private <T extends Enum<T>> T readEnumName(DataInput input, Class<T> enumClass) throws IOException {
+		String name = readString(input);
+		if (name == null) {
+			return null;
+		}
+		else {
+			try {
+				return Enum.valueOf(enumClass, name);
+			}
+			catch (IllegalArgumentException e) {
+				throw new StreamCorruptedException("Invalid enum constant \"" + name + "\" found.");
+			}
+		}
+	}
+
+
+	private void writeQName(DataOutput output, QName name) throws IOException {
+		writeString(output, name.getNamespaceURI());
+		writeString(output, name.getLocalPart());
+		writeString(output, name.getPrefix());
+	}
+
+
+	private QName readQName(DataInput input) throws IOException {
+		String namespaceURI = readString(input);
+		String localPart = readNonNullString(input);
+		String prefix = readString(input);
+		return new QName(namespaceURI, localPart, prefix);
+	}
+
+
+	private void writeIdentifier(DataOutput output, URIOrStringIdentifier identifier) throws IOException {
+		if (identifier == null) {
+			output.writeByte(0);
+		}
+		else if (identifier.getURI() == null) {
+			output.writeByte(1);
+			writeString(output, identifier.getStringRepresentation());
+		}
+		else {
+			output.writeByte(2);
+			writeString(output, identifier.getStringRepresentation());
+			writeQName(output, identifier.getURI());
+		}
+	}
+
+
+	private URIOrStringIdentifier readIdentifier(DataInput input) throws IOException {
+		switch (input.readUnsignedByte()) {
+			case 0:
+				return null;
+			case 1:
+				return new URIOrStringIdentifier(readString(input), null);
+			case 2:
+				String stringRepresentation = readString(input);
+				return new URIOrStringIdentifier(stringRepresentation, readQName(input));
+			default:
+				throw new StreamCorruptedException("Invalid identifier type found.");
+		}
+	}
+
+
+	private XMLEventFactory getXMLEventFactory() {
+		if (xmlEventFactory == null) {
+			xmlEventFactory = XMLEventFactory.newInstance();
+		}
+		return xmlEventFactory;
+	}
+
+
+	private void writeXMLEvent(DataOutput output, XMLEvent event) throws IOException {
+		output.writeByte(event.getEventType());
+		switch (event.getEventType()) {
+			case XMLStreamConstants.START_ELEMENT:
+				StartElement element = event.asStartElement();
+				writeQName(output, element.getName());
+
+				List<Attribute> attributes = new ArrayList<Attribute>();
+				Iterator<?> attributeIterator = element.getAttributes();
+				while (attributeIterator.hasNext()) {
+					attributes.add((Attribute)attributeIterator.next());
+				}
+				writeVarLong(output, attributes.size());
+				for (Attribute attribute : attributes) {
+					writeQName(output, attribute.getName());
+					writeString(output, attribute.getValue());
+				}
+
+				List<Namespace> namespaces = new ArrayList<Namespace>();
+				Iterator<?> namespaceIterator = element.getNamespaces();
+				while (namespaceIterator.hasNext()) {
+					namespaces.add((Namespace)namespaceIterator.next());
+				}
+				writeVarLong(output, namespaces.size());
+				for (Namespace namespace : namespaces) {
+					writeString(output, namespace.getPrefix());
+					writeString(output, namespace.getNamespaceURI());
+				}
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				writeQName(output, event.asEndElement().getName());
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				writeString(output, event.asCharacters().getData());
+				break;
+			case XMLStreamConstants.COMMENT:
+				writeString(output, ((Comment)event).getText());
+				break;
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				writeString(output, ((ProcessingInstruction)event).getTarget());
+				writeString(output, ((ProcessingInstruction)event).getData());
+				break;
+			default:
+				throw new NotSerializableException("XML events of the type " + event.getEventType() + " are not supported.");
+		}
+	}
+
+
+	private XMLEvent readXMLEvent(DataInput input) throws IOException {
+		int eventType = input.readUnsignedByte();
+		switch (eventType) {
+			case XMLStreamConstants.START_ELEMENT:
+				QName name = readQName(input);
+
+				int count = readLength(input);
+				List<Attribute> attributes = new ArrayList<Attribute>(count);
+				for (int i = 0; i < count; i++) {
+					QName attributeName = readQName(input);
+					attributes.add(getXMLEventFactory().createAttribute(attributeName, readString(input)));
+				}
+
+				count = readLength(input);
+				List<Namespace> namespaces = new ArrayList<Namespace>(count);
+				for (int i = 0; i < count; i++) {
+					String prefix = readString(input);
+					String namespaceURI = readString(input);
+					if ((prefix == null) || prefix.isEmpty()) {
+						namespaces.add(getXMLEventFactory().createNamespace(namespaceURI));
+					}
+					else {
+						namespaces.add(getXMLEventFactory().createNamespace(prefix, namespaceURI));
+					}
+				}
+
+				return getXMLEventFactory().createStartElement(name, attributes.iterator(), namespaces.iterator());
+			case XMLStreamConstants.END_ELEMENT:
+				return getXMLEventFactory().createEndElement(readQName(input), null);
+			case XMLStreamConstants.CHARACTERS:
+				return getXMLEventFactory().createCharacters(readString(input));
+			case XMLStreamConstants.CDATA:
+				return getXMLEventFactory().createCData(readString(input));
+			case XMLStreamConstants.SPACE:
+				return getXMLEventFactory().createSpace(readString(input));
+			case XMLStreamConstants.COMMENT:
+				return getXMLEventFactory().createComment(readString(input));
+			case XMLStreamConstants.PROCESSING_INSTRUCTION:
+				String target = readString(input);
+				return getXMLEventFactory().createProcessingInstruction(target, readString(input));
+			default:
+				throw new StreamCorruptedException("Invalid XML event type " + eventType + " found.");
+		}
+	}
+
+
+	/**
+	 * Writes an object value as it would be written for a {@link LiteralMetadataContentEvent}. The supported types are
+	 * listed in the documentation of this class.
+	 * 
+	 * @param output the output to write to
+	 * @param value the value to be written (maybe {@code null})
+	 * @throws NotSerializableException if the type of {@code value} is not supported
+	 * @throws IOException if an I/O error occurs while writing to {@code output}
+	 */
+	public void writeObjectValue(DataOutput output, Object value) throws IOException {
+		writeObjectValue(output, value, true);
+	}
+	
+	
+	private void writeObjectValue(DataOutput output, Object value, boolean listsAllowed) throws IOException {
+		if (value == null) {
+			output.writeByte(VALUE_NULL);
+		}
+		else if (value instanceof String) {
+			output.writeByte(VALUE_STRING);
+			writeString(output, (String)value);
+		}
+		else if (value instanceof Boolean) {
+			output.writeByte(VALUE_BOOLEAN);
+			output.writeBoolean((Boolean)value);
+		}
+		else if (value instanceof Byte) {
+			output.writeByte(VALUE_BYTE);
+			output.writeByte((Byte)value);
+		}
+		else if (value instanceof Short) {
+			output.writeByte(VALUE_SHORT);
+			output.writeShort((Short)value);
+		}
+		else if (value instanceof Integer) {
+			output.writeByte(VALUE_INTEGER);
+			output.writeInt((Integer)value);
+		}
+		else if (value instanceof Long) {
+			output.writeByte(VALUE_LONG);
+			output.writeLong((Long)value);
+		}
+		else if (value instanceof Float) {
+			output.writeByte(VALUE_FLOAT);
+			output.writeFloat((Float)value);
+		}
+		else if (value instanceof Double) {
+			output.writeByte(VALUE_DOUBLE);
+			output.writeDouble((Double)value);
+		}
+		else if (value instanceof Character) {
+			output.writeByte(VALUE_CHARACTER);
+			output.writeChar((Character)value);
+		}
+		else if (value.getClass().equals(BigInteger.class)) {
+			output.writeByte(VALUE_BIG_INTEGER);
+			writeString(output, value.toString());
+		}
+		else if (value.getClass().equals(BigDecimal.class)) {
+			output.writeByte(VALUE_BIG_DECIMAL);
+			writeString(output, value.toString());
+		}
+		else if (value instanceof URI) {
+			output.writeByte(VALUE_URI);
+			writeString(output, value.toString());
+		}
+		else if (value instanceof QName) {
+			output.writeByte(VALUE_QNAME);
+			writeQName(output, (QName)value);
+		}
+		else if (value instanceof XMLEvent) {
+			output.writeByte(VALUE_XML_EVENT);
+			writeXMLEvent(output, (XMLEvent)value);
+		}
+		else if (value.getClass().equals(GregorianCalendar.class)) {
+			GregorianCalendar calendar = (GregorianCalendar)value;
+			output.writeByte(VALUE_CALENDAR);
+			output.writeLong(calendar.getTimeInMillis());
+			writeString(output, calendar.getTimeZone().getID());
+			output.writeBoolean(calendar.isLenient());
+			output.writeByte(calendar.getFirstDayOfWeek());
+			output.writeByte(calendar.getMinimalDaysInFirstWeek());
+			output.writeLong(calendar.getGregorianChange().getTime());
+		}
+		else if (value.getClass().equals(Color.class)) {
+			output.writeByte(VALUE_COLOR);
+			output.writeInt(((Color)value).getRGB());
+		}
+		else if (value instanceof byte[]) {
+			output.writeByte(VALUE_BYTE_ARRAY);
+			writeVarLong(output, ((byte[])value).length);
+			output.write((byte[])value);
+		}
+		else if (listsAllowed && (value instanceof List)) {
+			List<?> list = (List<?>)value;
+			output.writeByte(VALUE_LIST);
+			writeVarLong(output, list.size());
+			for (Object element : list) {
+				writeObjectValue(output, element, false);
+			}
+		}
+		else if (serializableValuesSupported && (value instanceof Serializable)) {
+			output.writeByte(VALUE_SERIALIZABLE);
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream objectStream = new ObjectOutputStream(bytes);
+			try {
+				objectStream.writeObject(value);
+			}
+			finally {
+				objectStream.close();
+			}
+			writeVarLong(output, bytes.size());
+			output.write(bytes.toByteArray());
+		}
+		else {
+			throw new NotSerializableException("Object values of the type " + value.getClass().getName() + " cannot be encoded.");
+		}
+	}
+
+
+	/**
+	 * Reads an object value that was written by {@link #writeObjectValue(DataOutput, Object)}.
+	 * 
+	 * @param input the input to read from
+	 * @return the value that was read (maybe {@code null})
+	 * @throws IOException if an I/O error occurs while reading from {@code input} or invalid data was found
+	 */
+	public Object readObjectValue(DataInput input) throws IOException {
+		return readObjectValue(input, true);
+	}
+	
+	
+	private Object readObjectValue(DataInput input, boolean listsAllowed) throws IOException {
+		int type = input.readUnsignedByte();
+		switch (type) {
+			case VALUE_NULL:
+				return null;
+			case VALUE_STRING:
+				return readString(input);
+			case VALUE_BOOLEAN:
+				return input.readBoolean();
+			case VALUE_BYTE:
+				return input.readByte();
+			case VALUE_SHORT:
+				return input.readShort();
+			case VALUE_INTEGER:
+				return input.readInt();
+			case VALUE_LONG:
+				return input.readLong();
+			case VALUE_FLOAT:
+				return input.readFloat();
+			case VALUE_DOUBLE:
+				return input.readDouble();
+			case VALUE_CHARACTER:
+				return input.readChar();
+			case VALUE_BIG_INTEGER:
+				return new BigInteger(readNonNullString(input));
+			case VALUE_BIG_DECIMAL:
+				return new BigDecimal(readNonNullString(input));
+			case VALUE_URI:
+				try {
+					return new URI(readNonNullString(input));
+				}
+				catch (URISyntaxException e) {
+					throw new StreamCorruptedException("Invalid URI found: " + e.getMessage());
+				}
+			case VALUE_QNAME:
+				return readQName(input);
+			case VALUE_XML_EVENT:
+				return readXMLEvent(input);
+			case VALUE_CALENDAR:
+				long time = input.readLong();
+				GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone(readNonNullString(input)));
+				calendar.setLenient(input.readBoolean());
+				calendar.setFirstDayOfWeek(input.readUnsignedByte());
+				calendar.setMinimalDaysInFirstWeek(input.readUnsignedByte());
+				calendar.setGregorianChange(new Date(input.readLong()));
+				calendar.setTimeInMillis(time);
+				return calendar;
+			case VALUE_COLOR:
+				return new Color(input.readInt(), true);
+			case VALUE_BYTE_ARRAY:
+				byte[] array = new byte[readLength(input)];
+				input.readFully(array);
+				return array;
+			case VALUE_LIST:
+				if (!listsAllowed) {
+					throw new StreamCorruptedException("Nested lists are not supported as object values.");
+				}
+				int size = readLength(input);
+				List<Object> list = new ArrayList<Object>(size);
+				for (int i = 0; i < size; i++) {
+					list.add(readObjectValue(input, false));
+				}
+				return list;
+			case VALUE_SERIALIZABLE:
+				if (!serializableValuesSupported) {
+					throw new StreamCorruptedException("Serialized object values are not supported.");
+				}
+				byte[] bytes = new byte[readLength(input)];
+				input.readFully(bytes);
+				ObjectInputStream objectStream = new ObjectInputStream(new ByteArrayInputStream(bytes));
+				try {
+					return objectStream.readObject();
+				}
+				catch (ClassNotFoundException e) {
+					throw new IOException("The class of a serialized object value could not be found.", e);
+				}
+				finally {
+					objectStream.close();
+				}
+			default:
+				throw new StreamCorruptedException("Invalid object value type " + type + " found.");
+		}
+	}
+
+
+	private void writeLabeledIDProperties(DataOutput output, LabeledIDEvent event) throws IOException {
+		writeNonNullString(output, event.getID());
+		writeString(output, event.getLabel());
+	}
+
+
+	/**
+	 * Writes the binary representation of the specified event.
+	 * 
+	 * @param output the output to write to
+	 * @param event the event to be written
+	 * @throws NotSerializableException if the event is an instance of a class not provided by <i>JPhyloIO</i> or if it
+	 *         carries an object value that cannot be encoded
+	 * @throws IOException if an I/O error occurs while writing to {@code output}
+	 */
+	public void writeEvent(DataOutput output, JPhyloIOEvent event) throws IOException {
+		Class<?> eventClass = event.getClass();
+		if (eventClass.equals(ConcreteJPhyloIOEvent.class)) {
+			output.writeByte(EVENT_CONCRETE);
+			writeVarLong(output, event.getType().getContentType().ordinal());
+			output.writeByte(event.getType().getTopologyType().ordinal());
+		}
+		else if (eventClass.equals(PartEndEvent.class)) {
+			output.writeByte(EVENT_PART_END);
+			writeVarLong(output, event.getType().getContentType().ordinal());
+			output.writeBoolean(event.asPartEndEvent().isTerminated());
+		}
+		else if (eventClass.equals(LabeledEvent.class)) {
+			output.writeByte(EVENT_LABELED);
+			writeVarLong(output, event.getType().getContentType().ordinal());
+			writeString(output, ((LabeledEvent)event).getLabel());
+		}
+		else if (eventClass.equals(LabeledIDEvent.class)) {
+			output.writeByte(EVENT_LABELED_ID);
+			writeVarLong(output, event.getType().getContentType().ordinal());
+			writeLabeledIDProperties(output, event.asLabeledIDEvent());
+		}
+		else if (eventClass.equals(LinkedLabeledIDEvent.class)) {
+			output.writeByte(EVENT_LINKED_LABELED_ID);
+			writeVarLong(output, event.getType().getContentType().ordinal());
+			writeLabeledIDProperties(output, event.asLabeledIDEvent());
+			writeString(output, event.asLinkedLabeledIDEvent().getLinkedID());
+		}
+		else if (eventClass.equals(NodeEvent.class)) {
+			NodeEvent nodeEvent = event.asNodeEvent();
+			output.writeByte(EVENT_NODE);
+			writeLabeledIDProperties(output, nodeEvent);
+			writeString(output, nodeEvent.getLinkedID());
+			output.writeBoolean(nodeEvent.isRootNode());
+		}
+		else if (eventClass.equals(EdgeEvent.class)) {
+			EdgeEvent edgeEvent = event.asEdgeEvent();
+			output.writeByte(EVENT_EDGE);
+			writeLabeledIDProperties(output, edgeEvent);
+			writeString(output, edgeEvent.getSourceID());
+			writeNonNullString(output, edgeEvent.getTargetID());
+			output.writeDouble(edgeEvent.getLength());
+		}
+		else if (eventClass.equals(CharacterDefinitionEvent.class)) {
+			output.writeByte(EVENT_CHARACTER_DEFINITION);
+			writeLabeledIDProperties(output, event.asLabeledIDEvent());
+			writeVarLong(output, event.asCharacterDefinitionEvent().getIndex());
+		}
+		else if (eventClass.equals(TokenSetDefinitionEvent.class)) {
+			output.writeByte(EVENT_TOKEN_SET_DEFINITION);
+			writeLabeledIDProperties(output, event.asLabeledIDEvent());
+			writeEnumName(output, event.asTokenSetDefinitionEvent().getSetType());
+		}
+		else if (eventClass.equals(SingleTokenDefinitionEvent.class)) {
+			SingleTokenDefinitionEvent definitionEvent = event.asSingleTokenDefinitionEvent();
+			output.writeByte(EVENT_SINGLE_TOKEN_DEFINITION);
+			writeLabeledIDProperties(output, definitionEvent);
+			writeNonNullString(output, definitionEvent.getTokenName());
+			writeEnumName(output, definitionEvent.getMeaning());
+			writeEnumName(output, definitionEvent.getTokenType());
+			if (definitionEvent.hasConstituents()) {
+				writeVarLong(output, definitionEvent.getConstituents().size() + 1);
+				for (String constituent : definitionEvent.getConstituents()) {
+					writeString(output, constituent);
+				}
+			}
+			else {
+				writeVarLong(output, 0);
+			}
+		}
+		else if (eventClass.equals(SequenceTokensEvent.class)) {
+			SequenceTokensEvent tokensEvent = event.asSequenceTokensEvent();
+			if (tokensEvent.hasSingleCharacterTokens()) {
+				output.writeByte(EVENT_SEQUENCE_CHARACTER_TOKENS);
+				writeString(output, tokensEvent.getCharacterTokens());
+			}
+			else {
+				output.writeByte(EVENT_SEQUENCE_TOKENS);
+				writeVarLong(output, tokensEvent.getTokenCount());
+				for (String token : tokensEvent.getTokens()) {
+					writeString(output, token);
+				}
+			}
+		}
+		else if (eventClass.equals(SingleSequenceTokenEvent.class)) {
+			output.writeByte(EVENT_SINGLE_SEQUENCE_TOKEN);
+			writeString(output, event.asSingleSequenceTokenEvent().getLabel());
+			writeNonNullString(output, event.asSingleSequenceTokenEvent().getToken());
+		}
+		else if (eventClass.equals(CharacterSetIntervalEvent.class)) {
+			CharacterSetIntervalEvent intervalEvent = event.asCharacterSetIntervalEvent();
+			output.writeByte(EVENT_CHARACTER_SET_INTERVAL);
+			writeVarLong(output, intervalEvent.getStart());
+			writeVarLong(output, intervalEvent.getEnd() - intervalEvent.getStart());
+			writeVarLong(output, intervalEvent.getStride());
+		}
+		else if (eventClass.equals(SetElementEvent.class)) {
+			output.writeByte(EVENT_SET_ELEMENT);
+			writeNonNullString(output, event.asSetElementEvent().getLinkedID());
+			writeVarLong(output, event.asSetElementEvent().getLinkedObjectType().ordinal());
+		}
+		else if (eventClass.equals(CommentEvent.class)) {
+			output.writeByte(EVENT_COMMENT);
+			writeString(output, event.asCommentEvent().getContent());
+			output.writeBoolean(event.asCommentEvent().isContinuedInNextEvent());
+		}
+		else if (eventClass.equals(UnknownCommandEvent.class)) {
+			output.writeByte(EVENT_UNKNOWN_COMMAND);
+			writeString(output, event.asUnknownCommandEvent().getKey());
+			writeString(output, event.asUnknownCommandEvent().getValue());
+		}
+		else if (eventClass.equals(LiteralMetadataEvent.class)) {
+			LiteralMetadataEvent literalEvent = event.asLiteralMetadataEvent();
+			output.writeByte(EVENT_LITERAL_META);
+			writeLabeledIDProperties(output, literalEvent);
+			writeIdentifier(output, literalEvent.getPredicate());
+			writeString(output, literalEvent.getAlternativeStringValue());
+			writeIdentifier(output, literalEvent.getOriginalType());
+			writeVarLong(output, literalEvent.getSequenceType().ordinal());
+		}
+		else if (eventClass.equals(LiteralMetadataContentEvent.class)) {
+			LiteralMetadataContentEvent contentEvent = event.asLiteralMetadataContentEvent();
+			output.writeByte(EVENT_LITERAL_META_CONTENT);
+			output.writeBoolean(contentEvent.isContinuedInNextEvent());
+			writeString(output, contentEvent.getStringValue());
+			writeObjectValue(output, contentEvent.getObjectValue(), true);
+		}
+		else if (eventClass.equals(ResourceMetadataEvent.class)) {
+			ResourceMetadataEvent resourceEvent = event.asResourceMetadataEvent();
+			output.writeByte(EVENT_RESOURCE_META);
+			writeLabeledIDProperties(output, resourceEvent);
+			writeIdentifier(output, resourceEvent.getRel());
+			writeString(output, (resourceEvent.getHRef() == null) ? null : resourceEvent.getHRef().toString());
+			writeString(output, resourceEvent.getAbout());
+		}
+		else {
+			throw new NotSerializableException("Events of the type " + eventClass.getName() + " cannot be encoded.");
+		}
+	}
+
+
+	/**
+	 * Reads an event that was written by {@link #writeEvent(DataOutput, JPhyloIOEvent)}.
+	 * 
+	 * @param input the input to read from
+	 * @return the event that was read
+	 * @throws IOException if an I/O error occurs while reading from {@code input} or invalid data was found
+	 */
+	public JPhyloIOEvent readEvent(DataInput input) throws IOException {
+		return readEvent(input, input.readUnsignedByte());
+	}
+
+
+	/**
+	 * Reads the properties of an event, after its type byte has already been read.
+	 * <p>
+	 * Inherited classes that overwrite {@link #writeEvent(DataOutput, JPhyloIOEvent)} to write additional representations
+	 * may overwrite this method to decode them. Type values starting from {@link #FIRST_CUSTOM_EVENT_TYPE} are never used
+	 * by this class and are available for such representations. All other types should be delegated to this implementation.
+	 * 
+	 * @param input the input to read from
+	 * @param eventType the type byte that was read in front of the event properties
+	 * @return the event that was read
+	 * @throws IOException if an I/O error occurs while reading from {@code input} or invalid data was found
+	 */
+	protected JPhyloIOEvent readEvent(DataInput input, int eventType) throws IOException {
+		try {
+			switch (eventType) {
+				case EVENT_CONCRETE:
+					EventContentType contentType = readEnum(input, CONTENT_TYPES);
+					return new ConcreteJPhyloIOEvent(contentType, readEnum(input, TOPOLOGY_TYPES));
+				case EVENT_PART_END:
+					contentType = readEnum(input, CONTENT_TYPES);
+					return new PartEndEvent(contentType, input.readBoolean());
+				case EVENT_LABELED:
+					contentType = readEnum(input, CONTENT_TYPES);
+					return new LabeledEvent(contentType, readString(input));
+				case EVENT_LABELED_ID:
+					contentType = readEnum(input, CONTENT_TYPES);
+					String id = readNonNullString(input);
+					return new LabeledIDEvent(contentType, id, readString(input));
+				case EVENT_LINKED_LABELED_ID:
+					contentType = readEnum(input, CONTENT_TYPES);
+					id = readNonNullString(input);
+					String label = readString(input);
+					return new LinkedLabeledIDEvent(contentType, id, label, readString(input));
+				case EVENT_NODE:
+					id = readNonNullString(input);
+					label = readString(input);
+					String linkedID = readString(input);
+					return new NodeEvent(id, label, linkedID, input.readBoolean());
+				case EVENT_EDGE:
+					id = readNonNullString(input);
+					label = readString(input);
+					String sourceID = readString(input);
+					String targetID = readNonNullString(input);
+					return new EdgeEvent(id, label, sourceID, targetID, input.readDouble());
+				case EVENT_CHARACTER_DEFINITION:
+					id = readNonNullString(input);
+					label = readString(input);
+					return new CharacterDefinitionEvent(id, label, readVarLong(input));
+				case EVENT_TOKEN_SET_DEFINITION:
+					id = readNonNullString(input);
+					label = readString(input);
+					return new TokenSetDefinitionEvent(readEnumName(input, CharacterStateSetType.class), id, label);
+				case EVENT_SINGLE_TOKEN_DEFINITION:
+					id = readNonNullString(input);
+					label = readString(input);
+					String tokenName = readNonNullString(input);
+					CharacterSymbolMeaning meaning = readEnumName(input, CharacterSymbolMeaning.class);
+					CharacterSymbolType tokenType = readEnumName(input, CharacterSymbolType.class);
+					int count = readLength(input);
+					Collection<String> constituents = null;
+					if (count > 0) {
+						constituents = new ArrayList<String>(count - 1);
+						for (int i = 0; i < count - 1; i++) {
+							constituents.add(readString(input));
+						}
+					}
+					return new SingleTokenDefinitionEvent(id, label, tokenName, meaning, tokenType, constituents);
+				case EVENT_SEQUENCE_CHARACTER_TOKENS:
+					return new SequenceTokensEvent(readNonNullString(input));
+				case EVENT_SEQUENCE_TOKENS:
+					count = readLength(input);
+					List<String> tokens = new ArrayList<String>(count);
+					for (int i = 0; i < count; i++) {
+						tokens.add(readString(input));
+					}
+					return new SequenceTokensEvent(tokens);
+				case EVENT_SINGLE_SEQUENCE_TOKEN:
+					label = readString(input);
+					return new SingleSequenceTokenEvent(label, readNonNullString(input));
+				case EVENT_CHARACTER_SET_INTERVAL:
+					long start = readVarLong(input);
+					long end = start + readVarLong(input);
+					return new CharacterSetIntervalEvent(start, end, readVarLong(input));
+				case EVENT_SET_ELEMENT:
+					linkedID = readNonNullString(input);
+					return new SetElementEvent(linkedID, readEnum(input, CONTENT_TYPES));
+				case EVENT_COMMENT:
+					String content = readString(input);
+					return new CommentEvent(content, input.readBoolean());
+				case EVENT_UNKNOWN_COMMAND:
+					String key = readString(input);
+					return new UnknownCommandEvent(key, readString(input));
+				case EVENT_LITERAL_META:
+					id = readNonNullString(input);
+					label = readString(input);
+					URIOrStringIdentifier predicate = readIdentifier(input);
+					String alternativeStringValue = readString(input);
+					URIOrStringIdentifier originalType = readIdentifier(input);
+					return new LiteralMetadataEvent(id, label, predicate, alternativeStringValue, originalType,
+							readEnum(input, SEQUENCE_TYPES));
+				case EVENT_LITERAL_META_CONTENT:
+					boolean continued = input.readBoolean();
+					String stringValue = readString(input);
+					Object objectValue = readObjectValue(input, true);
+					if (objectValue == null) {
+						return new LiteralMetadataContentEvent(stringValue, continued);
+					}
+					else if (objectValue instanceof XMLEvent) {
+						return new LiteralMetadataContentEvent((XMLEvent)objectValue, continued);
+					}
+					else {
+						return new LiteralMetadataContentEvent(objectValue, stringValue);
+					}
+				case EVENT_RESOURCE_META:
+					id = readNonNullString(input);
+					label = readString(input);
+					URIOrStringIdentifier rel = readIdentifier(input);
+					String hRef = readString(input);
+					return new ResourceMetadataEvent(id, label, rel, (hRef == null) ? null : new URI(hRef), readString(input));
+				default:
+					throw new StreamCorruptedException("Invalid event type " + eventType + " found.");
+			}
+		}
+		catch (URISyntaxException e) {
+			throw new StreamCorruptedException("Invalid URI found: " + e.getMessage());
+		}
+		catch (RuntimeException e) {  // Thrown by event constructors if invalid property values were read.
+			throw new IOException("The binary representation of an event with the type " + eventType + " was invalid.", e);
+		}
+	}
+}
@@ -0,0 +1,210 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+
+
+/**
+ * Stores a sequence of tokens using one byte per token, if the token consists of a single character with a code
+ * below 256. Other tokens are stored separately, which is efficient as long as they are rare.
+ * <p>
+ * In contrast to lists, instances of this class can contain more than {@link Integer#MAX_VALUE} tokens. The tokens
+ * are stored in pages of {@link #PAGE_SIZE} bytes, so that no large arrays need to be copied when the sequence grows.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class CompactTokenSequence {
+	/** The number of tokens stored in one page. */
+	public static final int PAGE_SIZE = 1 << 16;
+
+	private static final int PAGE_SHIFT = 16;
+	private static final int PAGE_MASK = PAGE_SIZE - 1;
+	private static final byte SPECIAL_TOKEN_MARKER = 0;
+
+	private List<byte[]> pages = new ArrayList<byte[]>();
+	private Map<Long, String> specialTokens = new HashMap<Long, String>();
+	private long size = 0;
+
+
+	private void appendByte(byte value) {
+		int offset = (int)(size & PAGE_MASK);
+		if (offset == 0) {
+			pages.add(new byte[PAGE_SIZE]);
+		}
+		pages.get(pages.size() - 1)[offset] = value;
+		size++;
+	}
+
+
+	private static boolean isCompact(char c) {
+		return (c != (char)SPECIAL_TOKEN_MARKER) && (c < 256);
+	}
+
+
+	/**
+	 * Adds a token to the end of this sequence.
+	 * 
+	 * @param token the token to be added
+	 */
+	public void add(String token) {
+		if ((token.length() == 1) && isCompact(token.charAt(0))) {
+			appendByte((byte)token.charAt(0));
+		}
+		else {
+			specialTokens.put(size, token);
+			appendByte(SPECIAL_TOKEN_MARKER);
+		}
+	}
+
+
+	/**
+	 * Adds all specified tokens to the end of this sequence.
+	 * 
+	 * @param tokens the tokens to be added
+	 */
+	public void addAll(List<String> tokens) {
+		for (int i = 0; i < tokens.size(); i++) {
+			add(tokens.get(i));
+		}
+	}
+
+
+	/**
+	 * Adds each character of the specified sequence as a separate token to the end of this sequence.
+	 * 
+	 * @param characterTokens the tokens to be added
+	 */
+	public void addCharacters(CharSequence characterTokens) {
+		for (int i = 0; i < characterTokens.length(); i++) {
+			char c = characterTokens.charAt(i);
+			if (isCompact(c)) {
+				appendByte((byte)c);
+			}
+			else {
+				specialTokens.put(size, Character.toString(c));
+				appendByte(SPECIAL_TOKEN_MARKER);
+			}
+		}
+	}
+
+
+	/**
+	 * Returns the token at the specified position.
+	 * 
+	 * @param index the index of the token
+	 * @return the token (Single character tokens are returned as shared instances.)
+	 * @throws IndexOutOfBoundsException if {@code index} is below 0 or not below {@link #size()}
+	 */
+	public String get(long index) {
+		byte value = getByte(index);
+		if (value == SPECIAL_TOKEN_MARKER) {
+			return specialTokens.get(index);
+		}
+		else {
+			return SingleCharacterTokenList.tokenString((char)(value & 0xFF));
+		}
+	}
+
+
+	/**
+	 * Returns the token at the specified position as a character.
+	 * 
+	 * @param index the index of the token
+	 * @return the character code of the token or -1 if the token at this position consists of more than one character
+	 * @throws IndexOutOfBoundsException if {@code index} is below 0 or not below {@link #size()}
+	 */
+	public int getCharacter(long index) {
+		byte value = getByte(index);
+		if (value == SPECIAL_TOKEN_MARKER) {
+			String token = specialTokens.get(index);
+			if (token.length() == 1) {
+				return token.charAt(0);
+			}
+			else {
+				return -1;
+			}
+		}
+		else {
+			return value & 0xFF;
+		}
+	}
+
+
+	private byte getByte(long index) {
+		if ((index < 0) || (index >= size)) {
+			throw new IndexOutOfBoundsException("The index " + index + " is outside the sequence with the length " + size + ".");
+		}
+		else {
+			return pages.get((int)(index >>> PAGE_SHIFT))[(int)(index & PAGE_MASK)];
+		}
+	}
+
+
+	/**
+	 * Returns the number of tokens in this sequence.
+	 * 
+	 * @return the number of tokens
+	 */
+	public long size() {
+		return size;
+	}
+
+
+	/**
+	 * Removes all tokens from this sequence.
+	 */
+	public void clear() {
+		pages.clear();
+		specialTokens.clear();
+		size = 0;
+	}
+
+
+	/**
+	 * Returns an unmodifiable list view of this sequence. The returned list will only provide access to the first
+	 * {@link Integer#MAX_VALUE} tokens.
+	 * 
+	 * @return the list view
+	 */
+	public List<String> asList() {
+		return new ListView();
+	}
+
+
+	private class ListView extends AbstractList<String> implements RandomAccess {
+		@Override
+		public String get(int index) {
+			return CompactTokenSequence.this.get(index);
+		}
+
+
+		@Override
+		public int size() {
+			return (int)Math.min(size, Integer.MAX_VALUE);
+		}
+	}
+}
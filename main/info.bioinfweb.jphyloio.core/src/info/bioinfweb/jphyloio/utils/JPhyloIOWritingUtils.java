@@ -19,7 +19,6 @@
 package info.bioinfweb.jphyloio.utils;
 
 
-import info.bioinfweb.commons.text.StringUtils;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
 import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
@@ -52,8 +51,7 @@ public class JPhyloIOWritingUtils {
 
 		startColumn = Math.max(0, startColumn);
 		endColumn = Math.min(source.length(), endColumn);
-		receiver.add(new SequenceTokensEvent(StringUtils.charSequenceToStringList(
-				source.subSequence((int)startColumn, (int)endColumn))));
+		receiver.add(new SequenceTokensEvent(source.subSequence((int)startColumn, (int)endColumn)));
 	}
 
 
@@ -0,0 +1,318 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+
+
+/**
+ * Maps non-overlapping intervals of {@code long} indices (e.g. alignment columns) to values.
+ * <p>
+ * In contrast to a map with one entry per index, the memory consumption of instances of this class only depends
+ * on the number of stored intervals. Adjacent intervals with equal values are merged automatically. Since indices are
+ * usually requested in ascending order (e.g. while writing the tokens of a sequence), the interval found by the last 
+ * lookup is cached.
+ * 
+ * @author Ben St&ouml;ver
+ * 
+ * @param <V> the type of the values
+ */
+public class LongIntervalMap<V> {
+	/**
+	 * An interval of indices associated with a value.
+	 * 
+	 * @param <V> the type of the value
+	 */
+	public static class Interval<V> {
+		private long start;
+		private long end;
+		private V value;
+		
+		
+		private Interval(long start, long end, V value) {
+			super();
+			this.start = start;
+			this.end = end;
+			this.value = value;
+		}
+
+
+		/**
+		 * Returns the first index contained in this interval.
+		 * 
+		 * @return the first index
+		 */
+		public long getStart() {
+			return start;
+		}
+
+
+		/**
+		 * Returns the index after the last index contained in this interval.
+		 * 
+		 * @return the exclusive end of this interval
+		 */
+		public long getEnd() {
+			return end;
+		}
+
+
+		public V getValue() {
+			return value;
+		}
+
+
+		@Override
+		public String toString() {
+			return "[" + start + ", " + end + ")=" + value;
+		}
+	}
+	
+	
+	private TreeMap<Long, Interval<V>> intervals = new TreeMap<Long, Interval<V>>();
+	private Interval<V> lastInterval = null;
+	
+	
+	private static boolean valuesEqual(Object value1, Object value2) {
+		if (value1 == null) {
+			return value2 == null;
+		}
+		else {
+			return value1.equals(value2);
+		}
+	}
+	
+	
+	private Interval<V> getInterval(long index) {
+		if ((lastInterval != null) && (lastInterval.start <= index) && (index < lastInterval.end)) {
+			return lastInterval;
+		}
+		else {
+			Map.Entry<Long, Interval<V>> entry = intervals.floorEntry(index);
+			if ((entry != null) && (index < entry.getValue().end)) {
+				lastInterval = entry.getValue();
+				return lastInterval;
+			}
+			else {
+				return null;
+			}
+		}
+	}
+	
+	
+	/**
+	 * Returns the value associated with the specified index.
+	 * 
+	 * @param index the index
+	 * @return the value or {@code null} if the index is not contained in any interval of this map
+	 */
+	public V get(long index) {
+		Interval<V> interval = getInterval(index);
+		if (interval == null) {
+			return null;
+		}
+		else {
+			return interval.value;
+		}
+	}
+	
+	
+	/**
+	 * Determines whether the specified index is contained in an interval of this map.
+	 * 
+	 * @param index the index
+	 * @return {@code true} if a value is associated with the index or {@code false} otherwise
+	 */
+	public boolean containsKey(long index) {
+		return getInterval(index) != null;
+	}
+	
+	
+	/**
+	 * Returns the first index between {@code start} and {@code end} that is contained in an interval of this map.
+	 * 
+	 * @param start the first index to be checked
+	 * @param end the index after the last index to be checked
+	 * @return the first contained index or -1 if no index of the specified range is contained in this map
+	 */
+	public long findFirstContainedIndex(long start, long end) {
+		if (start < end) {
+			Map.Entry<Long, Interval<V>> entry = intervals.floorEntry(start);
+			if ((entry != null) && (start < entry.getValue().end)) {
+				return start;
+			}
+			else {
+				entry = intervals.ceilingEntry(start);
+				if ((entry != null) && (entry.getKey() < end)) {
+					return entry.getKey();
+				}
+			}
+		}
+		return -1;
+	}
+	
+	
+	/**
+	 * Removes all associations of indices between {@code start} and {@code end}. Intervals partly overlapping the 
+	 * specified range are shortened accordingly.
+	 * 
+	 * @param start the first index to be removed
+	 * @param end the index after the last index to be removed
+	 */
+	public void remove(long start, long end) {
+		if (start < end) {
+			lastInterval = null;
+			Map.Entry<Long, Interval<V>> entry = intervals.lowerEntry(start);
+			if ((entry != null) && (start < entry.getValue().end)) {  // Interval starting left of the range
+				Interval<V> interval = entry.getValue();
+				if (end < interval.end) {
+					intervals.put(end, new Interval<V>(end, interval.end, interval.value));
+				}
+				interval.end = start;
+			}
+			
+			entry = intervals.ceilingEntry(start);
+			while ((entry != null) && (entry.getKey() < end)) {
+				Interval<V> interval = intervals.remove(entry.getKey());
+				if (end < interval.end) {
+					interval.start = end;
+					intervals.put(end, interval);
+				}
+				entry = intervals.ceilingEntry(start);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Associates all indices between {@code start} and {@code end} with the specified value. Previous associations of
+	 * these indices are replaced.
+	 * 
+	 * @param start the first index of the interval
+	 * @param end the index after the last index of the interval
+	 * @param value the value to be associated with the interval
+	 */
+	public void put(long start, long end, V value) {
+		if (start < end) {
+			remove(start, end);
+			
+			Map.Entry<Long, Interval<V>> left = intervals.lowerEntry(start);
+			if ((left != null) && (left.getValue().end == start) && valuesEqual(left.getValue().value, value)) {
+				start = left.getKey();
+				intervals.remove(start);
+			}
+			Interval<V> right = intervals.get(end);
+			if ((right != null) && valuesEqual(right.value, value)) {
+				intervals.remove(end);
+				end = right.end;
+			}
+			intervals.put(start, new Interval<V>(start, end, value));
+		}
+	}
+	
+	
+	/**
+	 * Associates the specified index with the specified value.
+	 * 
+	 * @param index the index
+	 * @param value the value to be associated with the index
+	 */
+	public void put(long index, V value) {
+		put(index, index + 1, value);
+	}
+	
+	
+	/**
+	 * Associates all indices between {@code start} and {@code end} that are not yet contained in this map with the
+	 * specified value. Previous associations are not changed.
+	 * 
+	 * @param start the first index of the range to be filled
+	 * @param end the index after the last index of the range to be filled
+	 * @param value the value to be associated with the free indices
+	 * @return {@code true} if at least one index was associated with {@code value} or {@code false} if all indices 
+	 *         of the specified range were already contained in this map
+	 */
+	public boolean fill(long start, long end, V value) {
+		List<Long> gaps = new ArrayList<Long>();
+		long position = start;
+		Map.Entry<Long, Interval<V>> entry = intervals.floorEntry(start);
+		if ((entry != null) && (position < entry.getValue().end)) {
+			position = entry.getValue().end;
+		}
+		if (position < end) {
+			for (Interval<V> interval : intervals.subMap(position, end).values()) {
+				if (position < interval.start) {
+					gaps.add(position);
+					gaps.add(interval.start);
+				}
+				position = interval.end;
+			}
+		}
+		if (position < end) {
+			gaps.add(position);
+			gaps.add(end);
+		}
+		
+		for (int i = 0; i < gaps.size(); i += 2) {
+			put(gaps.get(i), gaps.get(i + 1), value);
+		}
+		return !gaps.isEmpty();
+	}
+	
+	
+	/**
+	 * Returns the intervals stored in this map in ascending order.
+	 * 
+	 * @return an unmodifiable collection of intervals
+	 */
+	public Collection<Interval<V>> getIntervals() {
+		return Collections.unmodifiableCollection(intervals.values());
+	}
+	
+	
+	/**
+	 * Returns the number of intervals stored in this map.
+	 * 
+	 * @return the number of intervals
+	 */
+	public int getIntervalCount() {
+		return intervals.size();
+	}
+	
+	
+	public boolean isEmpty() {
+		return intervals.isEmpty();
+	}
+	
+	
+	/**
+	 * Removes all intervals from this map.
+	 */
+	public void clear() {
+		intervals.clear();
+		lastInterval = null;
+	}
+}
@@ -0,0 +1,97 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+
+/**
+ * A set of {@code long} indices (e.g. alignment columns) that is stored as a sorted list of non-overlapping intervals. 
+ * Its memory consumption therefore only depends on the number of distinct intervals and not on the number of indices.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class LongIntervalSet extends LongIntervalMap<Boolean> {
+	/**
+	 * Adds all indices between {@code start} and {@code end} to this set.
+	 * 
+	 * @param start the first index to be added
+	 * @param end the index after the last index to be added
+	 */
+	public void add(long start, long end) {
+		put(start, end, Boolean.TRUE);
+	}
+	
+	
+	/**
+	 * Adds every {@code stride}-th index between {@code start} and {@code end} to this set.
+	 * 
+	 * @param start the first index to be added
+	 * @param end the index after the last index that may be added
+	 * @param stride the distance between two added indices
+	 * @throws IllegalArgumentException if {@code stride} is below 1
+	 */
+	public void add(long start, long end, long stride) {
+		if (stride < 1) {
+			throw new IllegalArgumentException("The stride must be at least 1.");
+		}
+		else if (stride == 1) {
+			add(start, end);
+		}
+		else {
+			for (long index = start; index < end; index += stride) {
+				add(index);
+			}
+		}
+	}
+	
+	
+	/**
+	 * Adds a single index to this set.
+	 * 
+	 * @param index the index to be added
+	 */
+	public void add(long index) {
+		add(index, index + 1);
+	}
+	
+	
+	/**
+	 * Determines whether the specified index is contained in this set.
+	 * 
+	 * @param index the index
+	 * @return {@code true} if the index is contained or {@code false} otherwise
+	 */
+	public boolean contains(long index) {
+		return containsKey(index);
+	}
+	
+	
+	/**
+	 * Returns the number of indices contained in this set.
+	 * 
+	 * @return the number of indices
+	 */
+	public long size() {
+		long result = 0;
+		for (Interval<Boolean> interval : getIntervals()) {
+			result += interval.getEnd() - interval.getStart();
+		}
+		return result;
+	}
+}
@@ -0,0 +1,127 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+
+
+/**
+ * Collects sequence tokens read by a reader until a {@link SequenceTokensEvent} is created from them.
+ * <p>
+ * As long as only tokens consisting of a single character are added, they are stored in a single
+ * {@link StringBuilder}. A list of strings is only used, if a longer token is added.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SequenceTokenBuffer {
+	private StringBuilder characterTokens = new StringBuilder();
+	private List<String> tokens = null;
+
+
+	/**
+	 * Adds a token to the end of this buffer.
+	 * 
+	 * @param token the token to be added
+	 */
+	public void add(String token) {
+		if ((tokens == null) && (token.length() == 1)) {
+			characterTokens.append(token.charAt(0));
+		}
+		else {
+			if (tokens == null) {
+				tokens = new ArrayList<String>(Math.max(16, characterTokens.length() * 2));
+				tokens.addAll(new SingleCharacterTokenList(characterTokens));
+				characterTokens.setLength(0);
+			}
+			tokens.add(token);
+		}
+	}
+
+
+	/**
+	 * Adds a single character token to the end of this buffer.
+	 * 
+	 * @param token the token to be added
+	 */
+	public void add(char token) {
+		if (tokens == null) {
+			characterTokens.append(token);
+		}
+		else {
+			tokens.add(SingleCharacterTokenList.tokenString(token));
+		}
+	}
+
+
+	/**
+	 * Returns the number of tokens currently contained in this buffer.
+	 * 
+	 * @return the number of tokens
+	 */
+	public int size() {
+		if (tokens == null) {
+			return characterTokens.length();
+		}
+		else {
+			return tokens.size();
+		}
+	}
+
+
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+
+	/**
+	 * Removes all tokens from this buffer.
+	 */
+	public void clear() {
+		characterTokens.setLength(0);
+		tokens = null;
+	}
+
+
+	/**
+	 * Creates a new event containing all tokens of this buffer using the specified manager and clears this buffer
+	 * afterwards.
+	 * 
+	 * @param manager the manager to create the event (which performs match token replacement)
+	 * @param sequenceID the event ID or another unique name of the sequence to append the tokens to
+	 * @return the new event
+	 * @see SequenceTokensEventManager#createEvent(String, CharSequence)
+	 * @see SequenceTokensEventManager#createEvent(String, List)
+	 */
+	public SequenceTokensEvent createEvent(SequenceTokensEventManager manager, String sequenceID) {
+		SequenceTokensEvent result;
+		if (tokens == null) {
+			result = manager.createEvent(sequenceID, characterTokens);
+		}
+		else {
+			result = manager.createEvent(sequenceID, tokens);
+		}
+		clear();
+		return result;
+	}
+}
@@ -23,7 +23,6 @@ import info.bioinfweb.jphyloio.JPhyloIOEventReader;
 import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
 
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 
 
@@ -37,13 +36,13 @@ import java.util.List;
 public class SequenceTokensEventManager {
 	private JPhyloIOEventReader owner;
 	private String matchToken;
-	private List<String> firstSequence;
-	private List<String> unmodifiableFirstSequence;
+	private CompactTokenSequence firstSequence = new CompactTokenSequence();
 	private long currentPosition = 0;  //TODO Does -1 need to be specified here? If so, this would be inconsistent with the initial block start.
 	private long currentBlockStartPosition = 0;
 	private long currentBlockLength = 0;
 	private String firstSequenceName = null;
 	private String currentSequenceName = null;
+	private boolean sequenceNameChange = false;
 	
 	
 	/**
@@ -61,8 +60,6 @@ public class SequenceTokensEventManager {
 		else {
 			this.owner = owner;
 			this.matchToken = matchToken;
-			firstSequence = new ArrayList<String>();
-			unmodifiableFirstSequence = Collections.unmodifiableList(firstSequence);
 		}
 	}
 
@@ -77,11 +74,22 @@ public class SequenceTokensEventManager {
 	}
 	
 	
+	/**
+	 * Returns the match token that is currently replaced.
+	 * 
+	 * @return the match token or {@code null} if no replacement is performed
+	 */
 	public String getMatchToken() {
 		return matchToken;
 	}
 
 
+	/**
+	 * Sets the match token to be replaced. Readers must call this method before the tokens of the first sequence are 
+	 * passed to this instance, since these are only stored if a match token is set.
+	 * 
+	 * @param matchToken the new match token or {@code null} if no replacement shall be performed
+	 */
 	public void setMatchToken(String matchToken) {
 		this.matchToken = matchToken;
 	}
@@ -112,24 +120,43 @@ public class SequenceTokensEventManager {
 	}
 	
 	
+	/**
+	 * Returns the tokens of the first sequence that were passed to this instance. Note that these tokens are only
+	 * stored while a match token is set.
+	 * <p>
+	 * Since the returned list is a view of a compact internal representation, only the first 
+	 * {@link Integer#MAX_VALUE} tokens can be accessed. Use {@link #getFirstSequenceTokens()} to access longer sequences.
+	 * 
+	 * @return an unmodifiable list of tokens
+	 */
 	public List<String> getFirstSequence() {
-		return unmodifiableFirstSequence;
+		return firstSequence.asList();
+	}
+
+
+	/**
+	 * Returns the tokens of the first sequence that were passed to this instance. Note that these tokens are only
+	 * stored while a match token is set.
+	 * 
+	 * @return the sequence of tokens which supports {@code long} indices
+	 */
+	public CompactTokenSequence getFirstSequenceTokens() {
+		return firstSequence;
+	}
+	
+	
+	private void checkReplacementPosition() {
+		if (currentPosition >= firstSequence.size()) {
+			throw new IndexOutOfBoundsException("The match token in column " + currentPosition + 
+					" cannot be replaced because the first sequence only has " + firstSequence.size() + " characters."); 
+		}
 	}
 
 
 	private String replaceMatchToken(String token) {
 		if (token.equals(matchToken)) {
-			if (currentPosition > Integer.MAX_VALUE) {
-				throw new IndexOutOfBoundsException("Sequences with more than " + Integer.MAX_VALUE + 
-						" characters are not supported if replacing match tokens is switched on."); 
-			}
-			else if (currentPosition >= firstSequence.size()) {
-				throw new IndexOutOfBoundsException("The match token in column " + currentPosition + 
-						" cannot be replaced because the first sequence only has " + firstSequence.size() + " characters."); 
-			}
-			else {
-				return firstSequence.get((int)currentPosition);
-			}
+			checkReplacementPosition();
+			return firstSequence.get(currentPosition);
 		}
 		else {
 			return token;
@@ -158,37 +185,158 @@ public class SequenceTokensEventManager {
 			throw new NullPointerException("Sequence names must not be null.");
 		}
 		else {
-			boolean sequenceNameChange = !sequenceID.equals(currentSequenceName);
-			if (sequenceNameChange) {
-				currentSequenceName = sequenceID;
-				currentPosition = currentBlockStartPosition;  // Will be 0, until the second interleaved block is reached. (Therefore this implementation also works for non-interleaved data, where the sequences have an unequal length.) 
-			}
-			if (firstSequenceName == null) {
-				firstSequenceName = sequenceID;
+			if (updateCurrentSequence(sequenceID)) {
+				if (matchToken != null) {
+					firstSequence.addAll(tokens);
+				}
+				updateFirstSequencePosition(tokens.size());
 			}
-			
-			if (firstSequenceName.equals(sequenceID)) {
-				firstSequence.addAll(tokens);
-				if (sequenceNameChange) {
-					currentBlockStartPosition += currentBlockLength;  // Add length of previous block that is now finished.
-					currentBlockLength = tokens.size();  // Save length of current block to add it to the start after it was processed.
-					currentPosition = currentBlockStartPosition;
+			else if (matchToken != null) {
+				int start = tokens.indexOf(matchToken);
+				if (start == -1) {  // Skip the replacement loop, if no match token is present.
+					currentPosition += tokens.size();
 				}
 				else {
-					currentBlockLength += tokens.size();  // Add additional length, if one block is split into separate events.
+					currentPosition += start;
+					replaceMatchTokens(tokens, start);
 				}
+			}
+			else {
 				currentPosition += tokens.size();
 			}
-			else if (matchToken != null) {
-				for (int i = 0; i < tokens.size(); i++) {
-					tokens.set(i, replaceMatchToken(tokens.get(i)));
-					currentPosition++;
+			return new SequenceTokensEvent(tokens);
+		}
+	}
+	
+	
+	/**
+	 * Creates a sequence character event object from the provided data and manages the replacement of match tokens
+	 * by tokens of the first sequence. Each character of {@code characterTokens} is considered as one token.
+	 * <p>
+	 * Readers of formats that only allow single character tokens should prefer this method over 
+	 * {@link #createEvent(String, List)}, since the returned event will not contain a string object for each token.
+	 * See {@link #createEvent(String, List)} for further details.
+	 * 
+	 * @param sequenceID the event ID or another unique name of the sequence to append the tokens to
+	 * @param characterTokens the newly read tokens
+	 * @return the event object
+	 * @throws NullPointerException if either {@code sequenceID} or {@code characterTokens} is {@code null}
+	 */
+	public SequenceTokensEvent createEvent(String sequenceID, CharSequence characterTokens) {
+		if ((sequenceID == null) || (characterTokens == null)) {
+			throw new NullPointerException("Sequence names must not be null.");
+		}
+		else {
+			if (updateCurrentSequence(sequenceID)) {
+				if (matchToken != null) {
+					firstSequence.addCharacters(characterTokens);
+				}
+				updateFirstSequencePosition(characterTokens.length());
+			}
+			else if ((matchToken != null) && (matchToken.length() == 1)) {  // Longer match tokens can never be contained in characterTokens.
+				int start = indexOf(characterTokens, matchToken.charAt(0));
+				if (start == -1) {  // Skip the replacement, if no match token is present.
+					currentPosition += characterTokens.length();
+				}
+				else {
+					return replaceMatchCharacters(characterTokens, start);
 				}
 			}
 			else {
-				currentPosition += tokens.size();
+				currentPosition += characterTokens.length();
 			}
-			return new SequenceTokensEvent(tokens);
+			return new SequenceTokensEvent(characterTokens);
+		}
+	}
+	
+	
+	private static int indexOf(CharSequence sequence, char c) {
+		if (sequence instanceof String) {
+			return ((String)sequence).indexOf(c);
+		}
+		else {
+			for (int i = 0; i < sequence.length(); i++) {
+				if (sequence.charAt(i) == c) {
+					return i;
+				}
+			}
+			return -1;
+		}
+	}
+	
+	
+	/**
+	 * Replaces all match characters in the specified sequence, starting with the first match character at the position 
+	 * {@code start}.
+	 * 
+	 * @param characterTokens the tokens to be processed
+	 * @param start the index of the first match character in {@code characterTokens}
+	 * @return the event containing the new tokens
+	 */
+	private SequenceTokensEvent replaceMatchCharacters(CharSequence characterTokens, int start) {
+		char matchChar = matchToken.charAt(0);
+		StringBuilder result = new StringBuilder(characterTokens.length());
+		result.append(characterTokens, 0, start);
+		currentPosition += start;
+		for (int i = start; i < characterTokens.length(); i++) {
+			char c = characterTokens.charAt(i);
+			if (c == matchChar) {
+				checkReplacementPosition();
+				int replacement = firstSequence.getCharacter(currentPosition);
+				if (replacement == -1) {  // The first sequence contains a longer token at this position.
+					List<String> tokens = new ArrayList<String>(characterTokens.length());
+					tokens.addAll(new SingleCharacterTokenList(result));
+					tokens.addAll(new SingleCharacterTokenList(characterTokens.subSequence(i, characterTokens.length())));
+					replaceMatchTokens(tokens, i);
+					return new SequenceTokensEvent(tokens);
+				}
+				result.append((char)replacement);
+			}
+			else {
+				result.append(c);
+			}
+			currentPosition++;
+		}
+		return new SequenceTokensEvent(result);
+	}
+	
+	
+	/**
+	 * Updates the current sequence and position according to the sequence the next tokens belong to.
+	 * 
+	 * @param sequenceID the ID of the sequence the next tokens belong to
+	 * @return {@code true} if the tokens belong to the first sequence or {@code false} otherwise
+	 */
+	private boolean updateCurrentSequence(String sequenceID) {
+		sequenceNameChange = !sequenceID.equals(currentSequenceName);
+		if (sequenceNameChange) {
+			currentSequenceName = sequenceID;
+			currentPosition = currentBlockStartPosition;  // Will be 0, until the second interleaved block is reached. (Therefore this implementation also works for non-interleaved data, where the sequences have an unequal length.) 
+		}
+		if (firstSequenceName == null) {
+			firstSequenceName = sequenceID;
+		}
+		return firstSequenceName.equals(sequenceID);
+	}
+	
+	
+	private void updateFirstSequencePosition(int tokenCount) {
+		if (sequenceNameChange) {
+			currentBlockStartPosition += currentBlockLength;  // Add length of previous block that is now finished.
+			currentBlockLength = tokenCount;  // Save length of current block to add it to the start after it was processed.
+			currentPosition = currentBlockStartPosition;
+		}
+		else {
+			currentBlockLength += tokenCount;  // Add additional length, if one block is split into separate events.
+		}
+		currentPosition += tokenCount;
+	}
+	
+	
+	private void replaceMatchTokens(List<String> tokens, int start) {
+		for (int i = start; i < tokens.size(); i++) {
+			tokens.set(i, replaceMatchToken(tokens.get(i)));
+			currentPosition++;
 		}
 	}
 }
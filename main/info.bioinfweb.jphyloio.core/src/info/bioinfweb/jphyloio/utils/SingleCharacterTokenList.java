@@ -0,0 +1,103 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import java.util.AbstractList;
+import java.util.RandomAccess;
+
+
+
+/**
+ * Unmodifiable list view of a character sequence, where each character is considered as one token.
+ * <p>
+ * Instances of this class do not copy the underlying characters and do not create a string object per token.
+ * Tokens with a character code below {@link #CACHED_TOKEN_COUNT} are returned as shared string instances.
+ * 
+ * @author Ben St&ouml;ver
+ */
+public class SingleCharacterTokenList extends AbstractList<String> implements RandomAccess {
+	/** The number of character codes for which a shared token string instance is used. */
+	public static final int CACHED_TOKEN_COUNT = 256;
+
+	private static final String[] TOKEN_STRINGS = new String[CACHED_TOKEN_COUNT];
+	static {
+		for (int i = 0; i < TOKEN_STRINGS.length; i++) {
+			TOKEN_STRINGS[i] = Character.toString((char)i).intern();
+		}
+	}
+
+	private CharSequence characters;
+
+
+	/**
+	 * Creates a new instance of this class.
+	 * 
+	 * @param characters the character sequence to be viewed (Modifications of this sequence will be reflected by this list.)
+	 * @throws NullPointerException if {@code characters} is {@code null}
+	 */
+	public SingleCharacterTokenList(CharSequence characters) {
+		super();
+		if (characters == null) {
+			throw new NullPointerException("The character sequence must not be null.");
+		}
+		else {
+			this.characters = characters;
+		}
+	}
+
+
+	/**
+	 * Returns a string representation of the specified character. For characters with a code below
+	 * {@link #CACHED_TOKEN_COUNT} no new instance is created.
+	 * 
+	 * @param c the character to be converted
+	 * @return a string containing only {@code c}
+	 */
+	public static String tokenString(char c) {
+		if (c < CACHED_TOKEN_COUNT) {
+			return TOKEN_STRINGS[c];
+		}
+		else {
+			return Character.toString(c);
+		}
+	}
+
+
+	/**
+	 * Returns the character sequence viewed by this list.
+	 * 
+	 * @return the underlying character sequence
+	 */
+	public CharSequence getCharacters() {
+		return characters;
+	}
+
+
+	@Override
+	public String get(int index) {
+		return tokenString(characters.charAt(index));
+	}
+
+
+	@Override
+	public int size() {
+		return characters.length();
+	}
+}
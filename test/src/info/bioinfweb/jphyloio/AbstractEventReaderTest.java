@@ -0,0 +1,187 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.newick.NewickEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
+import info.bioinfweb.jphyloio.push.EventForwarder;
+import info.bioinfweb.jphyloio.push.JPhyloIOEventListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+
+
+
+public class AbstractEventReaderTest {
+	private static final File FILE = new File("data/Nexus/MultipleTreesBlocks.nex");
+	
+	
+	@Test
+	public void test_nextBatch() throws Exception {
+		NexusEventReader expectedReader = new NexusEventReader(FILE, new ReadWriteParameterMap());
+		NexusEventReader reader = new NexusEventReader(FILE, new ReadWriteParameterMap());
+		try {
+			final List<JPhyloIOEvent> firedEvents = new ArrayList<JPhyloIOEvent>();
+			reader.addEventListener(new JPhyloIOEventListener() {
+						@Override
+						public void processEvent(JPhyloIOEventReader source, JPhyloIOEvent event) throws IOException {
+							firedEvents.add(event);
+						}
+					});
+			
+			JPhyloIOEvent[] batch = new JPhyloIOEvent[10];
+			assertEquals(3, reader.nextBatch(batch, 2, 3));
+			assertNull(batch[0]);
+			assertEquals(EventContentType.DOCUMENT, batch[2].getType().getContentType());
+			assertEquals(2, reader.getParentInformation().size());
+			assertSame(batch[4], reader.getPreviousEvent());
+			
+			int count = 3;
+			int batchCount = reader.nextBatch(batch);
+			while (batchCount > 0) {
+				assertTrue(batchCount == batch.length || !reader.hasNextEvent());
+				count += batchCount;
+				batchCount = reader.nextBatch(batch);
+			}
+			assertFalse(reader.hasNextEvent());
+			assertEquals(count, firedEvents.size());
+			assertTrue(reader.getParentInformation().isEmpty());
+			
+			for (int i = 0; i < firedEvents.size(); i++) {
+				assertEquals(expectedReader.next().getType(), firedEvents.get(i).getType());
+			}
+			assertFalse(expectedReader.hasNextEvent());
+		}
+		finally {
+			reader.close();
+			expectedReader.close();
+		}
+	}
+	
+	
+	private static final String TRUNCATED_NEWICK = "(A,B);\n(C,(D,E));\n(F,(G";
+	
+	
+	private int countEventsBeforeException() throws Exception {
+		NewickEventReader reader = new NewickEventReader(new StringReader(TRUNCATED_NEWICK), new ReadWriteParameterMap());
+		int result = 0;
+		try {
+			while (reader.hasNextEvent()) {
+				reader.next();
+				result++;
+			}
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+		finally {
+			reader.close();
+		}
+		return result;
+	}
+	
+	
+	@Test
+	public void test_nextBatch_exception() throws Exception {
+		int expectedCount = countEventsBeforeException();
+		assertTrue(expectedCount > 0);
+		
+		NewickEventReader reader = new NewickEventReader(new StringReader(TRUNCATED_NEWICK), new ReadWriteParameterMap());
+		try {
+			JPhyloIOEvent[] batch = new JPhyloIOEvent[1024];
+			assertEquals(expectedCount, reader.nextBatch(batch));  // Events read before the exception are returned.
+			try {
+				reader.nextBatch(batch);
+				fail("Exception not thrown.");
+			}
+			catch (JPhyloIOReaderException e) {}
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_EventForwarder_readAll_exception() throws Exception {
+		int expectedCount = countEventsBeforeException();
+		
+		NewickEventReader reader = new NewickEventReader(new StringReader(TRUNCATED_NEWICK), new ReadWriteParameterMap());
+		final int[] count = new int[1];
+		EventForwarder forwarder = new EventForwarder();
+		forwarder.getListeners().add(new JPhyloIOEventListener() {
+					@Override
+					public void processEvent(JPhyloIOEventReader source, JPhyloIOEvent event) throws IOException {
+						assertSame(event, source.getPreviousEvent());  // The reader must not be ahead of the current event.
+						count[0]++;
+					}
+				});
+		try {
+			forwarder.readAll(reader);
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+		finally {
+			reader.close();
+		}
+		assertEquals(expectedCount, count[0]);
+	}
+	
+	
+	@Test
+	public void test_removeListenerWhileFiring() throws Exception {
+		NexusEventReader reader = new NexusEventReader(FILE, new ReadWriteParameterMap());
+		try {
+			final int[] counts = new int[2];
+			reader.addEventListener(new JPhyloIOEventListener() {
+						@Override
+						public void processEvent(JPhyloIOEventReader source, JPhyloIOEvent event) throws IOException {
+							counts[0]++;
+							source.removeEventListener(this);
+						}
+					});
+			reader.addEventListener(new JPhyloIOEventListener() {
+						@Override
+						public void processEvent(JPhyloIOEventReader source, JPhyloIOEvent event) throws IOException {
+							counts[1]++;
+						}
+					});
+			
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			reader.next();
+			assertEquals(1, counts[0]);
+			assertEquals(2, counts[1]);
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
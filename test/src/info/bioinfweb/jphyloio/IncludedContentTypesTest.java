@@ -0,0 +1,285 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LabeledIDEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.fasta.FASTAEventReader;
+import info.bioinfweb.jphyloio.formats.newick.NewickEventReader;
+import info.bioinfweb.jphyloio.formats.nexml.NeXMLEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
+import info.bioinfweb.jphyloio.formats.phylip.PhylipEventReader;
+import info.bioinfweb.jphyloio.formats.phylip.SequentialPhylipEventReader;
+import info.bioinfweb.jphyloio.formats.phyloxml.PhyloXMLEventReader;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class IncludedContentTypesTest {
+	private static final Set<EventContentType> SEQUENCE_TYPES = EnumSet.of(EventContentType.ALIGNMENT, 
+			EventContentType.SEQUENCE, EventContentType.SEQUENCE_TOKENS);
+	private static final Set<EventContentType> TOPOLOGY_TYPES = EnumSet.of(EventContentType.TREE_NETWORK_GROUP, 
+			EventContentType.TREE, EventContentType.NETWORK, EventContentType.NODE, EventContentType.EDGE, EventContentType.ROOT_EDGE);
+	
+	
+	private static interface ReaderCreator {
+		public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception;
+	}
+	
+	
+	private static List<JPhyloIOEvent> readEvents(JPhyloIOEventReader reader) throws Exception {
+		try {
+			List<JPhyloIOEvent> result = new ArrayList<JPhyloIOEvent>();
+			while (reader.hasNextEvent()) {
+				result.add(reader.next());
+			}
+			return result;
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	/**
+	 * Filters the events of an unprojected reader in the way the projection is specified, to obtain the expected events.
+	 */
+	private static List<JPhyloIOEvent> filterEvents(List<JPhyloIOEvent> events, Set<EventContentType> includedTypes) {
+		List<JPhyloIOEvent> result = new ArrayList<JPhyloIOEvent>();
+		int excludedDepth = 0;
+		for (JPhyloIOEvent event : events) {
+			EventTopologyType topologyType = event.getType().getTopologyType();
+			if (excludedDepth > 0) {
+				if (topologyType.equals(EventTopologyType.START)) {
+					excludedDepth++;
+				}
+				else if (topologyType.equals(EventTopologyType.END)) {
+					excludedDepth--;
+				}
+			}
+			else if (event.getType().getContentType().equals(EventContentType.DOCUMENT) || 
+					includedTypes.contains(event.getType().getContentType())) {
+				
+				result.add(event);
+			}
+			else if (topologyType.equals(EventTopologyType.START)) {
+				excludedDepth = 1;
+			}
+		}
+		return result;
+	}
+	
+	
+	private static void assertProjection(ReaderCreator creator, Set<EventContentType> includedTypes) throws Exception {
+		List<JPhyloIOEvent> expected = filterEvents(readEvents(creator.createReader(new ReadWriteParameterMap())), includedTypes);
+		
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_INCLUDED_CONTENT_TYPES, includedTypes);
+		List<JPhyloIOEvent> actual = readEvents(creator.createReader(parameters));
+		
+		assertEquals(expected.size(), actual.size());
+		int depth = 0;
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.get(i).getType(), actual.get(i).getType());
+			if (expected.get(i).getType().getTopologyType().equals(EventTopologyType.START)) {
+				if (expected.get(i) instanceof LabeledIDEvent) {
+					assertEquals(expected.get(i).asLabeledIDEvent().getLabel(), actual.get(i).asLabeledIDEvent().getLabel());
+				}
+				depth++;
+			}
+			else if (expected.get(i).getType().getTopologyType().equals(EventTopologyType.END)) {
+				depth--;
+			}
+			assertTrue(depth >= 0);
+		}
+		assertEquals(0, depth);
+	}
+	
+	
+	@Test
+	public void test_NeXML() throws Exception {
+		final File file = new File("data/NeXML/SimpleDocumentWithMetadata.xml");
+		ReaderCreator creator = new ReaderCreator() {
+			@Override
+			public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+				return new NeXMLEventReader(file, parameters);
+			}
+		};
+		assertProjection(creator, TOPOLOGY_TYPES);
+		assertProjection(creator, EnumSet.of(EventContentType.OTU_LIST, EventContentType.OTU));
+		assertProjection(creator, EnumSet.of(EventContentType.ALIGNMENT, EventContentType.SEQUENCE, EventContentType.SEQUENCE_TOKENS));
+	}
+	
+	
+	@Test
+	public void test_PhyloXML() throws Exception {
+		for (final String name : new String[]{"Property.xml", "VariousMetaEventsFromPhyloXMLTags.xml"}) {
+			ReaderCreator creator = new ReaderCreator() {
+				@Override
+				public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+					return new PhyloXMLEventReader(new File("data/PhyloXML/" + name), parameters);
+				}
+			};
+			assertProjection(creator, TOPOLOGY_TYPES);
+		}
+	}
+	
+	
+	@Test
+	public void test_Newick() throws Exception {
+		for (final String name : new String[]{"Metadata.nwk", "Comments.nwk"}) {
+			ReaderCreator creator = new ReaderCreator() {
+				@Override
+				public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+					return new NewickEventReader(new File("data/Newick/" + name), parameters);
+				}
+			};
+			assertProjection(creator, TOPOLOGY_TYPES);
+			
+			Set<EventContentType> types = EnumSet.copyOf(TOPOLOGY_TYPES);
+			types.add(EventContentType.COMMENT);
+			assertProjection(creator, types);
+		}
+	}
+	
+	
+	@Test
+	public void test_Nexus() throws Exception {
+		ReaderCreator creator = new ReaderCreator() {
+			@Override
+			public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+				return new NexusEventReader(new File("data/Nexus/MultipleTreesBlocks.nex"), parameters);
+			}
+		};
+		assertProjection(creator, TOPOLOGY_TYPES);
+	}
+	
+	
+	@Test
+	public void test_Nexus_links() throws Exception {
+		ReaderCreator creator = new ReaderCreator() {
+			@Override
+			public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+				return new NexusEventReader(new File("data/Nexus/TitleLink.nex"), parameters);
+			}
+		};
+		Set<EventContentType> types = EnumSet.copyOf(TOPOLOGY_TYPES);
+		types.add(EventContentType.OTU_LIST);
+		types.add(EventContentType.OTU);
+		assertProjection(creator, types);  // The skipped CHARACTERS block is linked by the TREES block.
+		assertProjection(creator, SEQUENCE_TYPES);
+		
+		creator = new ReaderCreator() {
+			@Override
+			public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+				return new NexusEventReader(new File("data/Nexus/TaxTreeSets.nex"), parameters);
+			}
+		};
+		assertProjection(creator, EnumSet.of(EventContentType.OTU_SET, EventContentType.SET_ELEMENT));  // The skipped TREES blocks are linked by a SETS block.
+		assertProjection(creator, EnumSet.of(EventContentType.TREE_NETWORK_SET, EventContentType.SET_ELEMENT));
+	}
+	
+	
+	private static void assertNexusBlockRead(Set<EventContentType> includedTypes) throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_INCLUDED_CONTENT_TYPES, includedTypes);
+		try {
+			readEvents(new NexusEventReader(new File("data/Nexus/ExcludedBlocks.nex"), parameters));
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+	}
+	
+	
+	@Test
+	public void test_Nexus_skippedBlocks() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_INCLUDED_CONTENT_TYPES, EnumSet.of(EventContentType.OTU_LIST, EventContentType.OTU));
+		List<JPhyloIOEvent> events = readEvents(new NexusEventReader(new File("data/Nexus/ExcludedBlocks.nex"), parameters));  // The invalid contents of all other blocks must not be parsed.
+		assertEquals(2 + 2 + 3 * 2, events.size());
+		assertEquals(EventContentType.OTU_LIST, events.get(1).getType().getContentType());
+		
+		// Make sure that each of the other blocks is invalid:
+		assertNexusBlockRead(EnumSet.of(EventContentType.ALIGNMENT));
+		assertNexusBlockRead(EnumSet.of(EventContentType.TREE_NETWORK_GROUP, EventContentType.TREE));
+		assertNexusBlockRead(EnumSet.of(EventContentType.OTU_SET, EventContentType.SET_ELEMENT));
+	}
+	
+	
+	@Test(timeout = 10000)
+	public void test_FASTA() throws Exception {
+		for (final String name : new String[]{"Test.fasta", "Comment.fasta"}) {
+			ReaderCreator creator = new ReaderCreator() {
+				@Override
+				public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+					return new FASTAEventReader(new File("data/Fasta/" + name), parameters);
+				}
+			};
+			assertProjection(creator, SEQUENCE_TYPES);
+			assertProjection(creator, EnumSet.of(EventContentType.SEQUENCE, EventContentType.COMMENT));  // Excludes the alignment.
+			assertProjection(creator, EnumSet.of(EventContentType.COMMENT));
+			assertProjection(creator, TOPOLOGY_TYPES);
+		}
+	}
+	
+	
+	@Test(timeout = 10000)
+	public void test_Phylip() throws Exception {
+		for (final String name : new String[]{"Interleaved.phy", "Interleaved3Blocks.phy"}) {
+			ReaderCreator creator = new ReaderCreator() {
+				@Override
+				public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+					return new PhylipEventReader(new File("data/Phylip/" + name), parameters);
+				}
+			};
+			assertProjection(creator, SEQUENCE_TYPES);
+			assertProjection(creator, EnumSet.of(EventContentType.SEQUENCE, EventContentType.SEQUENCE_TOKENS));
+			assertProjection(creator, EnumSet.of(EventContentType.TREE));
+		}
+	}
+	
+	
+	@Test(timeout = 10000)
+	public void test_SequentialPhylip() throws Exception {
+		for (final String name : new String[]{"Sequential.phy", "NonInterleaved.phy"}) {
+			ReaderCreator creator = new ReaderCreator() {
+				@Override
+				public JPhyloIOEventReader createReader(ReadWriteParameterMap parameters) throws Exception {
+					return new SequentialPhylipEventReader(new File("data/Phylip/" + name), parameters);
+				}
+			};
+			assertProjection(creator, SEQUENCE_TYPES);
+			assertProjection(creator, EnumSet.of(EventContentType.SEQUENCE, EventContentType.SEQUENCE_TOKENS));
+			assertProjection(creator, EnumSet.of(EventContentType.TREE));
+		}
+	}
+}
@@ -0,0 +1,113 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio;
+
+
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.fasta.FASTAEventReader;
+import info.bioinfweb.jphyloio.formats.nexml.NeXMLEventReader;
+import info.bioinfweb.jphyloio.formats.nexus.NexusEventReader;
+import info.bioinfweb.jphyloio.formats.phylip.PhylipEventReader;
+import info.bioinfweb.jphyloio.push.JPhyloIOEventListener;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.Executors;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+
+
+
+public class ReadAheadEventReaderTest {
+	@Test
+	public void test_read() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		File file = new File("data/Nexus/MultipleTreesBlocks.nex");
+		assertEventsEqual(new NexusEventReader(file, parameters), new ReadAheadEventReader(new NexusEventReader(file, parameters)));
+		
+		file = new File("data/NeXML/DNACells.xml");
+		assertEventsEqual(new NeXMLEventReader(file, parameters), new ReadAheadEventReader(new NeXMLEventReader(file, parameters)));
+		
+		file = new File("data/Fasta/Comment.fasta");
+		assertEventsEqual(new FASTAEventReader(file, parameters), 
+				new ReadAheadEventReader(new FASTAEventReader(file, parameters), 1, 1, Executors.defaultThreadFactory()));
+	}
+	
+	
+	@Test
+	public void test_peekAndParentInformation() throws Exception {
+		ReadAheadEventReader reader = new ReadAheadEventReader(new FASTAEventReader(new File("data/Fasta/Test.fasta"), 
+				new ReadWriteParameterMap()), 2, 2, Executors.defaultThreadFactory());
+		try {
+			final int[] eventCount = new int[1];
+			reader.addEventListener(new JPhyloIOEventListener() {
+						@Override
+						public void processEvent(JPhyloIOEventReader source, JPhyloIOEvent event) throws IOException {
+							eventCount[0]++;
+						}
+					});
+			
+			assertEquals(EventContentType.DOCUMENT, reader.peek().getType().getContentType());
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			assertEventType(EventContentType.ALIGNMENT, EventTopologyType.START, reader);
+			assertEquals(EventContentType.SEQUENCE, reader.peek().getType().getContentType());
+			assertLinkedLabeledIDEvent(EventContentType.SEQUENCE, null, "Seq 1", null, reader);
+			assertEquals(2, reader.getParentInformation().size());
+			assertEquals(EventContentType.ALIGNMENT, reader.getParentInformation().getDirectParentContentType());
+			assertEquals(3, eventCount[0]);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_exception() throws Exception {
+		ReadAheadEventReader reader = new ReadAheadEventReader(new PhylipEventReader(new File("data/Phylip/InvalidCharacterCount.phy"), 
+				new ReadWriteParameterMap()));
+		try {
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			while (reader.hasNextEvent()) {
+				reader.next();
+			}
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_closeBeforeEnd() throws Exception {
+		ReadAheadEventReader reader = new ReadAheadEventReader(new NexusEventReader(new File("data/Nexus/MultipleTreesBlocks.nex"), 
+				new ReadWriteParameterMap()), 1, 1, Executors.defaultThreadFactory());
+		assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+		reader.close();
+		assertFalse(reader.hasNextEvent());
+	}
+}
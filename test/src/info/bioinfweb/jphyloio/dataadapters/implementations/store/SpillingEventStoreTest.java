@@ -0,0 +1,135 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.store;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
+import info.bioinfweb.jphyloio.events.CommentEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class SpillingEventStoreTest {
+	private static void assertComment(String expectedContent, JPhyloIOEvent event) {
+		assertEquals(EventContentType.COMMENT, event.getType().getContentType());
+		assertEquals(expectedContent, event.asCommentEvent().getContent());
+	}
+	
+	
+	@Test
+	public void test_createEventList() throws IOException {
+		SpillingEventStore store = new SpillingEventStore(300);  // Budget for less than five events
+		try {
+			List<JPhyloIOEvent> list = store.createEventList();
+			List<JPhyloIOEvent> otherList = store.createEventList();
+			for (int i = 0; i < 20; i++) {
+				list.add(new CommentEvent("c" + i));
+				if (i % 5 == 0) {
+					otherList.add(new CommentEvent("o" + i));
+				}
+			}
+			assertTrue(store.getFileLength() > 0);
+			assertTrue(store.getBufferedSize() <= store.getHeapBudget());
+			assertEquals(20, list.size());
+			assertEquals(4, otherList.size());
+			
+			Iterator<JPhyloIOEvent> iterator = list.iterator();
+			for (int i = 0; i < 20; i++) {
+				assertTrue(iterator.hasNext());
+				assertComment("c" + i, iterator.next());
+			}
+			assertFalse(iterator.hasNext());
+			
+			for (int i = 19; i >= 0; i--) {  // Random access in reverse order
+				assertComment("c" + i, list.get(i));
+			}
+			
+			ListIterator<JPhyloIOEvent> listIterator = otherList.listIterator(2);
+			assertComment("o10", listIterator.next());
+			assertComment("o15", listIterator.next());
+			assertComment("o15", listIterator.previous());
+			assertEquals(3, listIterator.nextIndex());
+			
+			try {
+				list.set(0, new CommentEvent("x"));
+				fail("Exception not thrown.");
+			}
+			catch (UnsupportedOperationException e) {}
+			
+			list.clear();
+			assertTrue(list.isEmpty());
+			list.add(new CommentEvent("new"));
+			assertComment("new", list.get(0));
+		}
+		finally {
+			store.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_storeMatrixDataAdapter() throws IOException {
+		SpillingEventStore store = new SpillingEventStore(0);  // Write every event to the file
+		try {
+			StoreMatrixDataAdapter adapter = new StoreMatrixDataAdapter(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, "m", null, null), 
+					false, null, store);
+			adapter.getMatrix().setObjectStartEvent(new LinkedLabeledIDEvent(EventContentType.SEQUENCE, "s1", null, null));
+			List<JPhyloIOEvent> content = adapter.getMatrix().getObjectContent("s1");
+			content.add(new SequenceTokensEvent("ACGT"));
+			content.add(new CommentEvent("comment"));
+			content.add(new SequenceTokensEvent("TT"));
+			
+			ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+			assertEquals(6, adapter.getSequenceLength(parameters, "s1"));
+			content.add(new SequenceTokensEvent("A"));
+			assertEquals(7, adapter.getSequenceLength(parameters, "s1"));
+			
+			final List<JPhyloIOEvent> events = new ArrayList<JPhyloIOEvent>();
+			adapter.writeSequencePartContentData(parameters, new JPhyloIOEventReceiver() {
+				@Override
+				public boolean add(JPhyloIOEvent event) throws IOException {
+					events.add(event);
+					return true;
+				}
+			}, "s1", 2, 5);
+			
+			assertEquals(3, events.size());
+			assertEquals("GT", events.get(0).asSequenceTokensEvent().getCharacterTokens());
+			assertComment("comment", events.get(1));
+			assertEquals("T", events.get(2).asSequenceTokensEvent().getCharacterTokens());
+		}
+		finally {
+			store.close();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.dataadapters.implementations.store;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
+import info.bioinfweb.jphyloio.events.CommentEvent;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.SingleSequenceTokenEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class StoreMatrixDataAdapterTest {
+	private static StoreMatrixDataAdapter createAdapter() {
+		return new StoreMatrixDataAdapter(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, "m", null, null), false, 
+				Collections.<JPhyloIOEvent>emptyList());
+	}
+	
+	
+	private static List<JPhyloIOEvent> addSequence(StoreMatrixDataAdapter adapter, String id, JPhyloIOEvent... events) {
+		List<JPhyloIOEvent> content = new ArrayList<JPhyloIOEvent>(Arrays.asList(events));
+		adapter.getMatrix().getObjectMap().put(id, new StoreObjectData<LinkedLabeledIDEvent>(
+				new LinkedLabeledIDEvent(EventContentType.SEQUENCE, id, null, null), content));
+		return content;
+	}
+	
+	
+	private static List<JPhyloIOEvent> writePart(StoreMatrixDataAdapter adapter, String id, long start, long end) throws IOException {
+		final List<JPhyloIOEvent> result = new ArrayList<JPhyloIOEvent>();
+		adapter.writeSequencePartContentData(new ReadWriteParameterMap(), new JPhyloIOEventReceiver() {
+			@Override
+			public boolean add(JPhyloIOEvent event) throws IOException {
+				result.add(event);
+				return true;
+			}
+		}, id, start, end);
+		return result;
+	}
+	
+	
+	@Test
+	public void test_getSequenceLength() {
+		StoreMatrixDataAdapter adapter = createAdapter();
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		List<JPhyloIOEvent> content1 = addSequence(adapter, "s1", new SequenceTokensEvent("ACG"));
+		addSequence(adapter, "s2", new SequenceTokensEvent(Arrays.asList("A", "{CG}")), 
+				new SingleSequenceTokenEvent(null, "T"), ConcreteJPhyloIOEvent.createEndEvent(EventContentType.SINGLE_SEQUENCE_TOKEN));
+		
+		assertEquals(3, adapter.getSequenceLength(parameters, "s1"));
+		assertEquals(3, adapter.getSequenceLength(parameters, "s2"));
+		assertEquals(3, adapter.getColumnCount(parameters));
+		
+		content1.add(new SequenceTokensEvent("TT"));  // Appended events must be considered.
+		assertEquals(5, adapter.getSequenceLength(parameters, "s1"));
+		assertEquals(-1, adapter.getColumnCount(parameters));
+		
+		content1.remove(1);
+		assertEquals(3, adapter.getSequenceLength(parameters, "s1"));
+		assertEquals(3, adapter.getColumnCount(parameters));
+		
+		content1.set(0, new SequenceTokensEvent("A"));  // Replacing events requires clearing the cache.
+		adapter.clearSequenceLengthCache();
+		assertEquals(1, adapter.getSequenceLength(parameters, "s1"));
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_getSequenceLength_unknownID() {
+		createAdapter().getSequenceLength(new ReadWriteParameterMap(), "s1");
+	}
+	
+	
+	@Test
+	public void test_writeSequencePartContentData() throws IOException {
+		StoreMatrixDataAdapter adapter = createAdapter();
+		CommentEvent comment = new CommentEvent("comment");
+		SequenceTokensEvent tokens1 = new SequenceTokensEvent("ACGT");
+		SingleSequenceTokenEvent singleToken = new SingleSequenceTokenEvent(null, "-");
+		JPhyloIOEvent singleTokenEnd = ConcreteJPhyloIOEvent.createEndEvent(EventContentType.SINGLE_SEQUENCE_TOKEN);
+		SequenceTokensEvent tokens2 = new SequenceTokensEvent(Arrays.asList("A", "{CG}", "T"));
+		addSequence(adapter, "s1", comment, tokens1, singleToken, comment, singleTokenEnd, tokens2);
+		
+		assertEquals(Arrays.asList(comment, tokens1, singleToken, comment, singleTokenEnd, tokens2), writePart(adapter, "s1", 0, 8));
+		
+		List<JPhyloIOEvent> events = writePart(adapter, "s1", 0, 2);
+		assertEquals(2, events.size());
+		assertSame(comment, events.get(0));
+		assertEquals("AC", events.get(1).asSequenceTokensEvent().getCharacterTokens());
+		
+		events = writePart(adapter, "s1", 2, 6);
+		assertEquals(5, events.size());
+		assertEquals("GT", events.get(0).asSequenceTokensEvent().getCharacterTokens());
+		assertEquals(Arrays.asList(singleToken, comment, singleTokenEnd), events.subList(1, 4));
+		assertEquals(Arrays.asList("A"), events.get(4).asSequenceTokensEvent().getTokens());
+		
+		events = writePart(adapter, "s1", 6, 7);
+		assertEquals(1, events.size());
+		assertEquals(Arrays.asList("{CG}"), events.get(0).asSequenceTokensEvent().getTokens());
+		assertEquals(EventTopologyType.SOLE, events.get(0).getType().getTopologyType());
+	}
+}
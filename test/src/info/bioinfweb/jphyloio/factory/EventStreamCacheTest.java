@@ -0,0 +1,360 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.factory;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.Writer;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.* ;
+
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+import static org.junit.Assert.* ;
+
+
+
+public class EventStreamCacheTest implements JPhyloIOFormatIDs {
+	private File directory;
+	
+	
+	@Before
+	public void createDirectory() throws IOException {
+		directory = File.createTempFile("JPhyloIOCacheTest", "");
+		directory.delete();
+		directory.mkdir();
+	}
+	
+	
+	private static void delete(File file) {
+		if (file.isDirectory()) {
+			for (File child : file.listFiles()) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+	
+	
+	@After
+	public void deleteDirectory() {
+		delete(directory);
+		assertFalse(directory.exists());
+	}
+	
+	
+	private File copyFile(String source, String targetName) throws IOException {
+		File result = new File(directory, targetName);
+		InputStream input = new FileInputStream(source);
+		try {
+			OutputStream output = new FileOutputStream(result);
+			try {
+				byte[] buffer = new byte[8192];
+				int length = input.read(buffer);
+				while (length != -1) {
+					output.write(buffer, 0, length);
+					length = input.read(buffer);
+				}
+			}
+			finally {
+				output.close();
+			}
+		}
+		finally {
+			input.close();
+		}
+		return result;
+	}
+	
+	
+	private JPhyloIOReaderWriterFactory createFactory(EventStreamCache cache) {
+		JPhyloIOReaderWriterFactory result = new JPhyloIOReaderWriterFactory();
+		result.setEventStreamCache(cache);
+		return result;
+	}
+	
+	
+	private int readAll(JPhyloIOReaderWriterFactory factory, String formatID, File file, ReadWriteParameterMap parameters) 
+			throws Exception {
+		
+		int result = 0;
+		JPhyloIOEventReader reader = factory.getReader(formatID, file, parameters);
+		try {
+			while (reader.hasNextEvent()) {
+				reader.next();
+				result++;
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return result;
+	}
+	
+	
+	private void testReplay(String formatID, String fileName) throws Exception {
+		File file = new File(fileName);
+		EventStreamCache cache = new EventStreamCache(new File(directory, file.getName()));
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		
+		assertEventsEqual(new JPhyloIOReaderWriterFactory().getReader(formatID, file, new ReadWriteParameterMap()), 
+				factory.getReader(formatID, file, new ReadWriteParameterMap()));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEntryCount());
+		
+		JPhyloIOEventReader reader = factory.getReader(formatID, file, new ReadWriteParameterMap());
+		assertEquals(formatID, reader.getFormatID());
+		assertEventsEqual(new JPhyloIOReaderWriterFactory().getReader(formatID, file, new ReadWriteParameterMap()), reader);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+	}
+	
+	
+	@Test
+	public void test_replay() throws Exception {
+		testReplay(NEXUS_FORMAT_ID, "data/Nexus/Matrix.nex");
+		testReplay(NEXUS_FORMAT_ID, "data/Nexus/TreesTranslate.nex");
+		testReplay(NEXML_FORMAT_ID, "data/NeXML/MetaElements.xml");
+		testReplay(FASTA_FORMAT_ID, "data/Fasta/Comment.fasta");
+		testReplay(NEWICK_FORMAT_ID, "data/Newick/OneNodeLength.nwk");
+	}
+	
+	
+	@Test
+	public void test_replay_outputParameters() throws Exception {
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		File file = new File("data/PhyloXML/CladeRelation.xml");
+		
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		readAll(factory, PHYLOXML_FORMAT_ID, file, parameters);
+		Map<String, String> expected = parameters.getPhyloXMLEventIDTranslationMap();
+		assertNotNull(expected);
+		assertFalse(expected.isEmpty());
+		
+		parameters = new ReadWriteParameterMap();
+		readAll(factory, PHYLOXML_FORMAT_ID, file, parameters);
+		assertEquals(1, cache.getHitCount());
+		assertEquals(expected, parameters.getPhyloXMLEventIDTranslationMap());
+	}
+	
+	
+	@Test
+	public void test_parameters() throws Exception {
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		File file = new File("data/Nexus/Matrix.nex");
+		
+		readAll(factory, NEXUS_FORMAT_ID, file, new ReadWriteParameterMap());
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterNames.KEY_REPLACE_MATCH_TOKENS, false);
+		readAll(factory, NEXUS_FORMAT_ID, file, parameters);
+		assertEquals(0, cache.getHitCount());
+		assertEquals(2, cache.getEntryCount());
+		
+		parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterNames.KEY_LOGGER, null);  // Ignored parameter
+		readAll(factory, NEXUS_FORMAT_ID, file, parameters);
+		assertEquals(1, cache.getHitCount());
+		
+		parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterNames.KEY_NEXUS_BLOCK_HANDLER_MAP, new Object());  // Not comparable
+		readAll(factory, NEXUS_FORMAT_ID, file, parameters);
+		assertEquals(2, cache.getEntryCount());
+		assertEquals(1, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+	}
+	
+	
+	@Test
+	public void test_staleEntry() throws Exception {
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		File file = copyFile("data/Fasta/Comment.fasta", "Source.fasta");
+		
+		int eventCount = readAll(factory, FASTA_FORMAT_ID, file, new ReadWriteParameterMap());
+		file = copyFile("data/Fasta/Test.fasta", "Source.fasta");
+		file.setLastModified(file.lastModified() - 10000);
+		assertTrue(eventCount != readAll(factory, FASTA_FORMAT_ID, file, new ReadWriteParameterMap()));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getEntryCount());
+	}
+	
+	
+	@Test
+	public void test_contentHash() throws Exception {
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		cache.setUseContentHash(true);
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		File file = copyFile("data/Fasta/Comment.fasta", "Source.fasta");
+		
+		readAll(factory, FASTA_FORMAT_ID, file, new ReadWriteParameterMap());
+		readAll(factory, FASTA_FORMAT_ID, file, new ReadWriteParameterMap());
+		assertEquals(1, cache.getHitCount());
+		
+		cache.setUseContentHash(false);
+		readAll(factory, FASTA_FORMAT_ID, file, new ReadWriteParameterMap());
+		assertEquals(1, cache.getHitCount());
+	}
+	
+	
+	@Test
+	public void test_closedBeforeEnd() throws Exception {
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		
+		JPhyloIOEventReader reader = factory.getReader(NEXUS_FORMAT_ID, new File("data/Nexus/Matrix.nex"), new ReadWriteParameterMap());
+		reader.next();
+		reader.close();
+		assertEquals(0, cache.getEntryCount());
+		assertEquals(0, cache.getDirectory().listFiles().length);
+	}
+	
+	
+	private int countEventsBeforeException(JPhyloIOReaderWriterFactory factory, File file) throws Exception {
+		int result = 0;
+		JPhyloIOEventReader reader = factory.getReader(NEWICK_FORMAT_ID, file, new ReadWriteParameterMap());
+		try {
+			while (reader.hasNextEvent()) {
+				reader.next();
+				result++;
+			}
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+		finally {
+			reader.close();
+		}
+		return result;
+	}
+	
+	
+	@Test
+	public void test_invalidFile() throws Exception {
+		File file = new File(directory, "Truncated.nwk");
+		Writer writer = new OutputStreamWriter(new FileOutputStream(file), "UTF-8");
+		try {
+			for (int i = 0; i < 100; i++) {
+				writer.write("(A,(B,C));\n");
+			}
+			writer.write("(D,(E");
+		}
+		finally {
+			writer.close();
+		}
+		
+		EventStreamCache cache = new EventStreamCache(new File(directory, "cache"));
+		int expectedCount = countEventsBeforeException(new JPhyloIOReaderWriterFactory(), file);
+		assertEquals(expectedCount, countEventsBeforeException(createFactory(cache), file));  // All events before the exception are returned. 
+		assertEquals(0, cache.getEntryCount());
+	}
+	
+	
+	@Test
+	public void test_persistence() throws Exception {
+		File cacheDirectory = new File(directory, "cache");
+		File file = new File("data/Nexus/Matrix.nex");
+		readAll(createFactory(new EventStreamCache(cacheDirectory)), NEXUS_FORMAT_ID, file, new ReadWriteParameterMap());
+		
+		EventStreamCache cache = new EventStreamCache(cacheDirectory);
+		assertEquals(1, cache.getEntryCount());
+		readAll(createFactory(cache), NEXUS_FORMAT_ID, file, new ReadWriteParameterMap());
+		assertEquals(1, cache.getHitCount());
+	}
+	
+	
+	@Test
+	public void test_serializedTrailer() throws Exception {
+		File cacheDirectory = new File(directory, "cache");
+		File file = new File("data/PhyloXML/CladeRelation.xml");
+		readAll(createFactory(new EventStreamCache(cacheDirectory)), PHYLOXML_FORMAT_ID, file, new ReadWriteParameterMap());
+		File[] entryFiles = cacheDirectory.listFiles();
+		assertEquals(1, entryFiles.length);
+		
+		RandomAccessFile entryFile = new RandomAccessFile(entryFiles[0], "rw");  // Replace the trailer by a serialized map.
+		try {
+			entryFile.seek(entryFile.length() - 8);
+			long trailerStart = entryFile.readLong();
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			ObjectOutputStream objectStream = new ObjectOutputStream(bytes);
+			objectStream.writeObject(new HashMap<String, Object>());
+			objectStream.close();
+			entryFile.setLength(trailerStart);
+			entryFile.seek(trailerStart);
+			entryFile.write(bytes.toByteArray());
+			entryFile.writeLong(trailerStart);
+		}
+		finally {
+			entryFile.close();
+		}
+		
+		EventStreamCache cache = new EventStreamCache(cacheDirectory);
+		assertEventsEqual(new JPhyloIOReaderWriterFactory().getReader(PHYLOXML_FORMAT_ID, file, new ReadWriteParameterMap()), 
+				createFactory(cache).getReader(PHYLOXML_FORMAT_ID, file, new ReadWriteParameterMap()));
+		assertEquals(0, cache.getHitCount());
+		assertEquals(1, cache.getMissCount());
+		assertEquals(1, cache.getEntryCount());  // The invalid entry was replaced.
+	}
+	
+	
+	@Test
+	public void test_eviction() throws Exception {
+		File file1 = copyFile("data/Nexus/Matrix.nex", "1.nex");
+		File file2 = copyFile("data/Nexus/Matrix.nex", "2.nex");
+		File file3 = copyFile("data/Nexus/Matrix.nex", "3.nex");
+		
+		EventStreamCache cache = new EventStreamCache(new File(directory, "measure"));
+		readAll(createFactory(cache), NEXUS_FORMAT_ID, file1, new ReadWriteParameterMap());
+		long entrySize = cache.getSize();
+		
+		cache = new EventStreamCache(new File(directory, "cache"), 2 * entrySize + entrySize / 2);
+		JPhyloIOReaderWriterFactory factory = createFactory(cache);
+		readAll(factory, NEXUS_FORMAT_ID, file1, new ReadWriteParameterMap());
+		readAll(factory, NEXUS_FORMAT_ID, file2, new ReadWriteParameterMap());
+		readAll(factory, NEXUS_FORMAT_ID, file1, new ReadWriteParameterMap());  // Makes file2 the least recently used entry.
+		assertEquals(1, cache.getHitCount());
+		
+		readAll(factory, NEXUS_FORMAT_ID, file3, new ReadWriteParameterMap());
+		assertEquals(2, cache.getEntryCount());
+		assertTrue(cache.getSize() <= cache.getMaximumSize());
+		
+		readAll(factory, NEXUS_FORMAT_ID, file1, new ReadWriteParameterMap());
+		readAll(factory, NEXUS_FORMAT_ID, file3, new ReadWriteParameterMap());
+		assertEquals(3, cache.getHitCount());
+		readAll(factory, NEXUS_FORMAT_ID, file2, new ReadWriteParameterMap());
+		assertEquals(3, cache.getHitCount());
+	}
+}
@@ -21,9 +21,12 @@ package info.bioinfweb.jphyloio.factory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 import info.bioinfweb.jphyloio.JPhyloIOEventReader;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
 import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+import info.bioinfweb.jphyloio.formats.binary.BinaryEventWriter;
+import info.bioinfweb.jphyloio.test.JPhyloIOTestTools;
 
 import java.io.File;
 import java.io.FileReader;
@@ -126,4 +129,29 @@ public class JPhyloIOReaderWriterFactoryTest implements JPhyloIOFormatIDs {
 		testGuessReader(XTG_FORMAT_ID, factory, "data/XTG/ExampleXTGDocument.xml.gz");
 		testGuessReader(null, factory, "data/other/Text.txt.gz");
 	}
+	
+	
+	@Test
+	public void test_binaryFormat() throws Exception {
+		File file = File.createTempFile("JPhyloIOTest", ".jpb");
+		try {
+			new BinaryEventWriter().writeDocument(JPhyloIOTestTools.createTestDocument("ACGT", "AC-T"), file, new ReadWriteParameterMap());
+			
+			JPhyloIOReaderWriterFactory factory = new JPhyloIOReaderWriterFactory();
+			assertEquals(BINARY_FORMAT_ID, factory.guessFormat(file));
+			testGuessReader(BINARY_FORMAT_ID, factory, file.getAbsolutePath());
+			
+			JPhyloIOEventReader reader = factory.getReader(BINARY_FORMAT_ID, file, new ReadWriteParameterMap());
+			try {
+				assertEquals(BINARY_FORMAT_ID, reader.getFormatID());
+				assertTrue(reader.hasNextEvent());
+			}
+			finally {
+				reader.close();
+			}
+		}
+		finally {
+			file.delete();
+		}
+	}
 }
@@ -0,0 +1,302 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.PartEndEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+import info.bioinfweb.jphyloio.factory.JPhyloIOReaderWriterFactory;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.NotSerializableException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.* ;
+
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+import static org.junit.Assert.* ;
+
+
+
+public class BinaryEventWriterTest implements JPhyloIOFormatIDs {
+	private byte[] writeEvents(JPhyloIOEventReader reader) throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		try {
+			new BinaryEventWriter().writeEvents(reader, stream);
+		}
+		finally {
+			reader.close();
+		}
+		return stream.toByteArray();
+	}
+	
+	
+	private void testRoundTrip(String formatID, String fileName) throws Exception {
+		JPhyloIOReaderWriterFactory factory = new JPhyloIOReaderWriterFactory();
+		byte[] document = writeEvents(factory.getReader(formatID, new File(fileName), new ReadWriteParameterMap()));
+		
+		JPhyloIOEventReader expectedReader = factory.getReader(formatID, new File(fileName), new ReadWriteParameterMap());
+		JPhyloIOEventReader actualReader = new BinaryEventReader(new ByteArrayInputStream(document), new ReadWriteParameterMap());
+		try {
+			while (expectedReader.hasNextEvent()) {
+				assertTrue(actualReader.hasNextEvent());
+				JPhyloIOEvent expected = expectedReader.next();
+				JPhyloIOEvent actual = actualReader.next();
+				assertEquals(expected.getClass(), actual.getClass());
+				if ((expected instanceof LiteralMetadataContentEvent) && expected.asLiteralMetadataContentEvent().hasObjectValue() && 
+						!(expected.asLiteralMetadataContentEvent().getObjectValue() instanceof XMLEvent)) {
+					
+					assertEquals(expected.asLiteralMetadataContentEvent().getStringValue(), actual.asLiteralMetadataContentEvent().getStringValue());
+					assertEquals(expected.asLiteralMetadataContentEvent().getObjectValue(), actual.asLiteralMetadataContentEvent().getObjectValue());  // The string representation of some objects (e.g. calendars) depends on their internal state.
+				}
+				else {
+					assertEquals(describeEvent(expected), describeEvent(actual));
+				}
+			}
+			assertFalse(actualReader.hasNextEvent());
+		}
+		finally {
+			expectedReader.close();
+			actualReader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_writeEvents_roundTrip() throws Exception {
+		testRoundTrip(NEXML_FORMAT_ID, "data/NeXML/MetaElements.xml");
+		testRoundTrip(NEXML_FORMAT_ID, "data/NeXML/Sets.xml");
+		testRoundTrip(NEXML_FORMAT_ID, "data/NeXML/nexml_treebase_example.xml");
+		testRoundTrip(NEXUS_FORMAT_ID, "data/Nexus/CharSetsMultipleMatrices.nex");
+		testRoundTrip(NEXUS_FORMAT_ID, "data/Nexus/TreesTranslate.nex");
+		testRoundTrip(PHYLOXML_FORMAT_ID, "data/PhyloXML/VariousMetaEventsFromPhyloXMLTags.xml");
+		testRoundTrip(PHYLOXML_FORMAT_ID, "data/PhyloXML/CustomXML.xml");
+		testRoundTrip(FASTA_FORMAT_ID, "data/Fasta/Comment.fasta");
+		testRoundTrip(MEGA_FORMAT_ID, "data/MEGA/HLA-3Seq.meg");
+	}
+	
+	
+	private List<ConcreteJPhyloIOEvent> createTokenDocument(SequenceTokensEvent tokensEvent) {
+		List<ConcreteJPhyloIOEvent> result = new ArrayList<ConcreteJPhyloIOEvent>();
+		result.add(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.START));
+		result.add(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, "m1", null, null));
+		result.add(new LinkedLabeledIDEvent(EventContentType.SEQUENCE, "s1", "A", null));
+		result.add(tokensEvent);
+		result.add(new PartEndEvent(EventContentType.SEQUENCE, true));
+		result.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.ALIGNMENT));
+		result.add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.DOCUMENT));
+		return result;
+	}
+	
+	
+	private byte[] writeTokenDocument(SequenceTokensEvent tokensEvent) throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		BinaryEventReceiver receiver = new BinaryEventReceiver(stream, 16);  // Small blocks to test multiple blocks.
+		try {
+			for (ConcreteJPhyloIOEvent event : createTokenDocument(tokensEvent)) {
+				receiver.add(event);
+			}
+			receiver.finish();
+		}
+		finally {
+			receiver.close();
+		}
+		return stream.toByteArray();
+	}
+	
+	
+	private SequenceTokensEvent readTokens(byte[] document) throws Exception {
+		BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(document), new ReadWriteParameterMap());
+		try {
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			assertLinkedLabeledIDEvent(EventContentType.ALIGNMENT, "m1", null, null, reader);
+			assertLinkedLabeledIDEvent(EventContentType.SEQUENCE, "s1", "A", null, reader);
+			assertEventType(EventContentType.SEQUENCE_TOKENS, EventTopologyType.SOLE, reader.peek());
+			SequenceTokensEvent result = reader.next().asSequenceTokensEvent();
+			assertPartEndEvent(EventContentType.SEQUENCE, true, reader);
+			assertEndEvent(EventContentType.ALIGNMENT, reader);
+			assertEndEvent(EventContentType.DOCUMENT, reader);
+			assertFalse(reader.hasNextEvent());
+			return result;
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_tokenRuns_singleCharacter() throws Exception {
+		StringBuilder tokens = new StringBuilder();
+		for (int i = 0; i < 1000; i++) {
+			tokens.append('-');
+		}
+		tokens.append("ACGT");
+		for (int i = 0; i < 1000; i++) {
+			tokens.append('N');
+		}
+		byte[] document = writeTokenDocument(new SequenceTokensEvent(tokens));
+		assertTrue(document.length < 100);
+		
+		SequenceTokensEvent event = readTokens(document);
+		assertTrue(event.hasSingleCharacterTokens());
+		assertEquals(tokens.toString(), event.getCharacterTokens());
+	}
+	
+	
+	@Test
+	public void test_tokenRuns_longTokens() throws Exception {
+		List<String> tokens = new ArrayList<String>();
+		tokens.addAll(Collections.nCopies(500, "{AC}"));
+		tokens.addAll(Collections.nCopies(500, "gap"));
+		byte[] document = writeTokenDocument(new SequenceTokensEvent(tokens));
+		assertTrue(document.length < 100);
+		
+		SequenceTokensEvent event = readTokens(document);
+		assertFalse(event.hasSingleCharacterTokens());
+		assertEquals(tokens, event.getTokens());
+	}
+	
+	
+	@Test
+	public void test_noTokenRuns() throws Exception {
+		List<String> tokens = Arrays.asList("A", "CC", "A", "GG", "T", "T");
+		SequenceTokensEvent event = readTokens(writeTokenDocument(new SequenceTokensEvent(tokens)));
+		assertEquals(tokens, event.getTokens());
+		
+		event = readTokens(writeTokenDocument(new SequenceTokensEvent("ACGTTGCA")));
+		assertEquals("ACGTTGCA", event.getCharacterTokens());
+	}
+	
+	
+	@Test
+	public void test_writeDocument() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		new BinaryEventWriter().writeDocument(createTestDocument("ACTGC", "A-TCC"), stream, 
+				new ReadWriteParameterMap());
+		
+		BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(stream.toByteArray()), new ReadWriteParameterMap());
+		try {
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			
+			assertLinkedLabeledIDEvent(EventContentType.ALIGNMENT, null, "A matrix", null, reader);
+			assertLinkedLabeledIDEvent(EventContentType.SEQUENCE, null, "Sequence 0", "otu0", reader);
+			assertCharactersEvent("ACTGC", false, reader);
+			assertEndEvent(EventContentType.SEQUENCE, reader);
+			assertLinkedLabeledIDEvent(EventContentType.SEQUENCE, null, "Sequence 1", "otu1", reader);
+			assertCharactersEvent("A-TCC", false, reader);
+			assertEndEvent(EventContentType.SEQUENCE, reader);
+			assertEndEvent(EventContentType.ALIGNMENT, reader);
+			
+			assertEndEvent(EventContentType.DOCUMENT, reader);
+			assertFalse(reader.hasNextEvent());
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test(expected=JPhyloIOReaderException.class)
+	public void test_truncatedDocument() throws Exception {
+		byte[] document = writeEvents(new JPhyloIOReaderWriterFactory().getReader(NEXUS_FORMAT_ID, 
+				new File("data/Nexus/Matrix.nex"), new ReadWriteParameterMap()));
+		
+		BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(Arrays.copyOf(document, document.length - 1)), 
+				new ReadWriteParameterMap());
+		try {
+			while (reader.hasNextEvent()) {
+				reader.next();
+			}
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test(expected=JPhyloIOReaderException.class)
+	public void test_invalidHeader() throws Exception {
+		new BinaryEventReader(new ByteArrayInputStream("JPIOXYZ".getBytes()), new ReadWriteParameterMap());
+	}
+	
+	
+	private void readInvalidBlock(int... blockBytes) throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		stream.write(BinaryConstants.MAGIC_STRING.getBytes("US-ASCII"));
+		stream.write(BinaryConstants.FORMAT_VERSION);
+		for (int b : blockBytes) {
+			stream.write(b);
+		}
+		
+		BinaryEventReader reader = new BinaryEventReader(new ByteArrayInputStream(stream.toByteArray()), new ReadWriteParameterMap());
+		try {
+			reader.next();
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOReaderException e) {}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_invalidLengths() throws Exception {
+		readInvalidBlock(1, 0xFF, 0xFF, 0xFF, 0xFF, 0x07);  // Block length of Integer.MAX_VALUE
+		readInvalidBlock(0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0xFF, 0x7F);  // Event count not fitting into a long value
+		readInvalidBlock(2, 1, 0);  // More events than bytes
+		readInvalidBlock(1, 8, 2, 0, 1, 0xF0, 0xFF, 0xFF, 0xFF, 0x07);  // Labeled event with a string length exceeding the block
+	}
+	
+	
+	@Test
+	public void test_serializedObjectValue() throws Exception {
+		readInvalidBlock(1, 4, 18, 0, 0, 15);  // Literal metadata content event with a serialized object value
+		
+		BinaryEventReceiver receiver = new BinaryEventReceiver(new ByteArrayOutputStream());
+		try {
+			receiver.add(new LiteralMetadataContentEvent(new Date(1000), null));
+			receiver.finish();
+			fail("Exception not thrown.");
+		}
+		catch (NotSerializableException e) {}
+		finally {
+			receiver.close();
+		}
+	}
+}
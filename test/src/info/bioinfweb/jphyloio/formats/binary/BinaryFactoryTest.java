@@ -0,0 +1,93 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.binary;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.FileReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+
+import org.junit.* ;
+
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+import static org.junit.Assert.* ;
+
+
+
+public class BinaryFactoryTest {
+	private byte[] createDocument() throws Exception {
+		ByteArrayOutputStream stream = new ByteArrayOutputStream();
+		new BinaryEventWriter().writeDocument(createTestDocument("ACGT"), stream, new ReadWriteParameterMap());
+		return stream.toByteArray();
+	}
+	
+	
+	@Test
+	public void test_checkFormat_stream() throws Exception {
+		assertTrue(new BinaryFactory().checkFormat(new ByteArrayInputStream(createDocument()), new ReadWriteParameterMap()));
+	}
+	
+	
+	@Test
+	public void test_checkFormat_reader() throws Exception {
+		Reader reader = new InputStreamReader(new ByteArrayInputStream(createDocument()), "US-ASCII");
+		try {
+			assertTrue(new BinaryFactory().checkFormat(reader, new ReadWriteParameterMap()));
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_checkFormat_Nexus() throws Exception {
+		InputStream stream = new FileInputStream("data/Nexus/Matrix.nex");
+		try {
+			assertFalse(new BinaryFactory().checkFormat(stream, new ReadWriteParameterMap()));
+		}
+		finally {
+			stream.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_checkFormat_FASTA() throws Exception {
+		Reader reader = new FileReader("data/Fasta/Comment.fasta");
+		try {
+			assertFalse(new BinaryFactory().checkFormat(reader, new ReadWriteParameterMap()));
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void test_checkFormat_empty() throws Exception {
+		assertFalse(new BinaryFactory().checkFormat(new ByteArrayInputStream(new byte[0]), new ReadWriteParameterMap()));
+	}
+}
@@ -0,0 +1,196 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.Arrays;
+
+import org.junit.* ;
+
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+import static org.junit.Assert.* ;
+
+
+
+public class FASTAIndexTest {
+	private static final String SEQUENCE_1 = "ACGTACGTACGTACGTAC";
+	private static final String SEQUENCE_2 = "TTGGCCAATTGG";
+	private static final File FILE = new File("data/testOutput/Indexed.fasta");
+	
+	
+	private File createFile(String content) throws Exception {
+		File file = FILE;
+		file.getParentFile().mkdirs();
+		Writer writer = new FileWriter(file);
+		try {
+			writer.write(content);
+		}
+		finally {
+			writer.close();
+		}
+		return file;
+	}
+	
+	
+	private void deleteFiles() {
+		FILE.delete();
+		FASTAIndex.getIndexFile(FILE).delete();
+	}
+	
+	
+	private File createFileWithLineBreak(String lineBreak) throws Exception {
+		return createFile(">seq1 first sequence" + lineBreak + "ACGTACG" + lineBreak + "TACGTAC" + lineBreak + "GTAC" + lineBreak + 
+				">seq2" + lineBreak + "TTGGCC" + lineBreak + "AATTGG" + lineBreak + ">empty" + lineBreak);
+	}
+	
+	
+	private String readSequence(JPhyloIOEventReader reader, String expectedName) throws Exception {
+		assertLinkedLabeledIDEvent(EventContentType.SEQUENCE, null, expectedName, null, reader);
+		StringBuilder result = new StringBuilder();
+		JPhyloIOEvent event = reader.next();
+		while (event.getType().getContentType().equals(EventContentType.SEQUENCE_TOKENS)) {
+			result.append(event.asSequenceTokensEvent().getCharacterTokens());
+			event = reader.next();
+		}
+		assertEquals(EventContentType.SEQUENCE, event.getType().getContentType());
+		assertEquals(EventTopologyType.END, event.getType().getTopologyType());
+		return result.toString();
+	}
+	
+	
+	@Test
+	public void test_buildIndex() throws Exception {
+		try {
+			FASTAIndex index = FASTAIndexBuilder.buildIndex(createFileWithLineBreak("\n"));
+			StringWriter writer = new StringWriter();
+			index.write(writer);
+			assertEquals("seq1\t18\t21\t7\t8\nseq2\t12\t48\t6\t7\nempty\t0\t69\t0\t0\n", writer.toString());
+		
+			index = FASTAIndexBuilder.buildIndex(createFileWithLineBreak("\r\n"));
+			assertEquals(3, index.getEntries().size());
+			assertEquals(22, index.getEntry("seq1").getOffset());
+			assertEquals(9, index.getEntry("seq1").getLineBytes());
+			assertEquals(12, index.getEntry("seq2").getLength());
+		
+			index = FASTAIndex.read(new StringReader(writer.toString()));
+			assertEquals(48, index.getEntry("seq2").getOffset());
+			assertEquals(6, index.getEntry("seq2").getLineBases());
+		}
+		finally {
+			deleteFiles();
+		}
+	}
+	
+	
+	@Test(expected=JPhyloIOReaderException.class)
+	public void test_buildIndex_duplicateNames() throws Exception {
+		FASTAIndexBuilder.buildIndex(new File("data/Fasta/Test.fasta"));  // Only the first word of a name is considered.
+	}
+	
+	
+	@Test(expected=JPhyloIOReaderException.class)
+	public void test_buildIndex_comments() throws Exception {
+		FASTAIndexBuilder.buildIndex(new File("data/Fasta/Comment.fasta"));
+	}
+	
+	
+	@Test(expected=JPhyloIOReaderException.class)
+	public void test_buildIndex_differentLineLengths() throws Exception {
+		try {
+			FASTAIndexBuilder.buildIndex(createFile(">seq1\nACG\nACGT\n"));
+		}
+		finally {
+			deleteFiles();
+		}
+	}
+	
+	
+	@Test
+	public void test_reading() throws Exception {
+		try {
+			for (String lineBreak : new String[]{"\n", "\r\n"}) {
+				File file = createFileWithLineBreak(lineBreak);
+				FASTAIndex.getIndexFile(file).delete();  // Make sure that no index of the previous iteration with the same modification time is used.
+				FASTAIndex index = FASTAIndexBuilder.loadOrBuildIndex(file);
+				assertTrue(FASTAIndex.getIndexFile(file).isFile());
+			
+				ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+				parameters.put(ReadWriteParameterNames.KEY_MAXIMUM_TOKENS_TO_READ, 5);
+			
+				JPhyloIOEventReader reader = new IndexedFASTAEventReader(file, index, null, parameters);
+				try {
+					assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+					assertEventType(EventContentType.ALIGNMENT, EventTopologyType.START, reader);
+					assertEquals(SEQUENCE_1, readSequence(reader, "seq1"));
+					assertEquals(SEQUENCE_2, readSequence(reader, "seq2"));
+					assertEquals("", readSequence(reader, "empty"));
+					assertEventType(EventContentType.ALIGNMENT, EventTopologyType.END, reader);
+					assertEventType(EventContentType.DOCUMENT, EventTopologyType.END, reader);
+					assertFalse(reader.hasNextEvent());
+				}
+				finally {
+					reader.close();
+				}
+			
+				reader = new IndexedFASTAEventReader(file, index, Arrays.asList("seq2", "seq1"), 5, 15, parameters);
+				try {
+					assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+					assertEventType(EventContentType.ALIGNMENT, EventTopologyType.START, reader);
+					assertEquals(SEQUENCE_2.substring(5), readSequence(reader, "seq2"));
+					assertEquals(SEQUENCE_1.substring(5, 15), readSequence(reader, "seq1"));
+					assertEventType(EventContentType.ALIGNMENT, EventTopologyType.END, reader);
+					assertEventType(EventContentType.DOCUMENT, EventTopologyType.END, reader);
+					assertFalse(reader.hasNextEvent());
+				}
+				finally {
+					reader.close();
+				}
+			}
+			
+		}
+		finally {
+			deleteFiles();
+		}
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_reading_unknownSequence() throws Exception {
+		File file = createFileWithLineBreak("\n");
+		try {
+			new IndexedFASTAEventReader(file, FASTAIndexBuilder.buildIndex(file), Arrays.asList("seq3"), new ReadWriteParameterMap());
+		}
+		finally {
+			deleteFiles();
+		}
+	}
+}
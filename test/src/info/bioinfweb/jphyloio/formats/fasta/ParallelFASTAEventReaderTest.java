@@ -0,0 +1,115 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.fasta;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+
+
+
+public class ParallelFASTAEventReaderTest {
+	private void assertSameEvents(String fileName, ReadWriteParameterMap parameters) throws Exception {
+		File file = new File("data/Fasta/" + fileName);
+		assertEventsEqual(new FASTAEventReader(file, parameters), new ParallelFASTAEventReader(file, parameters));
+	}
+	
+	
+	@Test
+	public void test_read_testFiles() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		assertSameEvents("Test.fasta", parameters);
+		assertSameEvents("Comment.fasta", parameters);
+		assertSameEvents("Indices.fasta", parameters);
+		assertSameEvents("OutputTestLongTokens.fasta", parameters);
+		
+		parameters.put(ReadWriteParameterMap.KEY_MATCH_TOKEN, ".");
+		assertSameEvents("MatchToken.fasta", parameters);
+		
+		parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_MAXIMUM_TOKENS_TO_READ, 3);
+		parameters.put(ReadWriteParameterMap.KEY_MAXIMUM_COMMENT_LENGTH, 4);
+		assertSameEvents("Comment.fasta", parameters);
+		assertSameEvents("Indices.fasta", parameters);
+	}
+	
+	
+	private String createLargeDocument() {
+		Random random = new Random(42);
+		StringBuilder result = new StringBuilder();
+		for (int i = 0; i < 400; i++) {
+			result.append(">Sequence " + i + "\n");
+			if (i % 7 == 0) {
+				result.append(";Comment " + i + "\n");
+			}
+			int length = (i == 200) ? 2 * ParallelFASTAEventReader.CHUNK_SIZE : 10000;  // One sequence is longer than a chunk.
+			for (int j = 0; j < length; j++) {
+				result.append("ACGT-".charAt(random.nextInt(5)));
+				if (j % 70 == 69) {
+					result.append("\n");
+				}
+			}
+			result.append("\n");
+		}
+		return result.toString();
+	}
+	
+	
+	@Test
+	public void test_read_largeDocument() throws Exception {
+		String document = createLargeDocument();
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		ExecutorService executor = Executors.newFixedThreadPool(3);
+		try {
+			assertEventsEqual(new FASTAEventReader(new StringReader(document), parameters), 
+					new ParallelFASTAEventReader(new StringReader(document), parameters, executor));
+		}
+		finally {
+			executor.shutdown();
+		}
+	}
+	
+	
+	@Test
+	public void test_read_empty() throws Exception {
+		ParallelFASTAEventReader reader = new ParallelFASTAEventReader(new StringReader(""), new ReadWriteParameterMap());
+		try {
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			assertEventType(EventContentType.ALIGNMENT, EventTopologyType.START, reader);
+			assertEventType(EventContentType.ALIGNMENT, EventTopologyType.END, reader);
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.END, reader);
+			assertFalse(reader.hasNextEvent());
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
@@ -20,9 +20,18 @@ package info.bioinfweb.jphyloio.formats.newick;
 
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
 import info.bioinfweb.jphyloio.dataadapters.implementations.ListBasedDocumentDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreDocumentDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreObjectData;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkGroupDataAdapter;
+import info.bioinfweb.jphyloio.events.EdgeEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.LabeledIDEvent;
+import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.NodeEvent;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.test.dataadapters.TestOTUListDataAdapter;
 import info.bioinfweb.jphyloio.test.dataadapters.TestTreeNetworkGroupDataAdapter;
@@ -30,6 +39,8 @@ import info.bioinfweb.jphyloio.test.dataadapters.TestTreeNetworkGroupDataAdapter
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
+import java.io.StringWriter;
+import java.util.Collections;
 
 import org.junit.Test;
 
@@ -95,4 +106,46 @@ public class NewickEventWriterTest {
 			file.delete();
 		}
 	}
+	
+	
+	private static void addNode(StoreTreeNetworkDataAdapter tree, String id, String parentID, boolean isRoot) {
+		tree.getNodes(null).getObjectMap().put(id, new StoreObjectData<NodeEvent>(new NodeEvent(id, id, null, isRoot)));
+		tree.getEdges(null).getObjectMap().put("e" + id, new StoreObjectData<EdgeEvent>(
+				new EdgeEvent("e" + id, null, parentID, id, isRoot ? Double.NaN : 0.5)));
+	}
+	
+	
+	@Test
+	public void test_writeDocument_deepTree() throws Exception {
+		final int depth = 100000;
+		
+		StoreTreeNetworkDataAdapter tree = new StoreTreeNetworkDataAdapter(
+				new LabeledIDEvent(EventContentType.TREE, "tree", null), true);
+		addNode(tree, "n0", null, true);
+		for (int i = 1; i <= depth; i++) {
+			addNode(tree, "n" + i, "n" + (i - 1), false);
+			addNode(tree, "t" + i, "n" + (i - 1), false);
+		}
+		
+		StoreDocumentDataAdapter document = new StoreDocumentDataAdapter();
+		StoreTreeNetworkGroupDataAdapter treeGroup = new StoreTreeNetworkGroupDataAdapter(
+				new LinkedLabeledIDEvent(EventContentType.TREE_NETWORK_GROUP, "treeGroup", null, null), Collections.<JPhyloIOEvent>emptyList());
+		treeGroup.getTreesAndNetworks().add(tree);
+		document.getTreesNetworks().add(treeGroup);
+		
+		StringWriter writer = new StringWriter();
+		new NewickEventWriter().writeDocument(document, writer, new ReadWriteParameterMap());
+		String result = writer.toString().trim();
+		
+		assertTrue(result.startsWith("[&R] ((("));
+		assertTrue(result.contains("(n100000:0.5, t100000:0.5)n99999:0.5, t99999:0.5)"));
+		assertTrue(result.endsWith(", t1:0.5)n0;"));
+		int openCount = 0;
+		for (int i = 0; i < result.length(); i++) {
+			if (result.charAt(i) == '(') {
+				openCount++;
+			}
+		}
+		assertEquals(depth, openCount);
+	}
 }
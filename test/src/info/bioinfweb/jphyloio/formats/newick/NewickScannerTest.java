@@ -24,6 +24,7 @@ import info.bioinfweb.commons.io.PeekReader;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.util.Random;
 
 import org.junit.* ;
 
@@ -135,4 +136,35 @@ public class NewickScannerTest {
 			reader.close();
 		}
 	}
+	
+	
+	@Test
+	public void test_parseDouble() {
+		String[] values = {"0", "-0", "0.0", "-0.0", "1", "+1", "1.", ".5", "1.05", "0.1", "0.3682008685714568", "6.244293083853111e-001", 
+				"1.000000000000000e+000", "7.249475639180907E-4", "123456789012345", "1234567890123456789", "0.000000000000000000000000001", 
+				"1e22", "1e23", "1e-22", "1e-23", "4.9e-324", "1.7976931348623157e308", "NaN", "-Infinity", "1.5d", "0x1p3"};
+		for (String value : values) {
+			assertEquals(value, Double.doubleToRawLongBits(Double.parseDouble(value)), 
+					Double.doubleToRawLongBits(NewickScanner.parseDouble(value)));
+		}
+		
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			String value = Double.toString(random.nextDouble() * Math.pow(10, random.nextInt(20) - 10));
+			assertEquals(value, Double.parseDouble(value), NewickScanner.parseDouble(value), 0.0);
+		}
+	}
+	
+	
+	@Test
+	public void test_parseDouble_invalid() {
+		String[] values = {"", "-", ".", "e5", "1e", "1e+", "1.2.3", "1,5", "abc"};
+		for (String value : values) {
+			try {
+				NewickScanner.parseDouble(value);
+				fail("No exception for \"" + value + "\".");
+			}
+			catch (NumberFormatException e) {}
+		}
+	}
 }
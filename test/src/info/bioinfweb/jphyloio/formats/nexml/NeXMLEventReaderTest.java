@@ -1508,6 +1508,58 @@ public class NeXMLEventReaderTest implements NeXMLConstants, ReadWriteConstants
 	}
 	
 	
+	@Test
+	public void readSequencesWithMaximumTokens() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_MAXIMUM_TOKENS_TO_READ, 2);
+		NeXMLEventReader reader = new NeXMLEventReader(new File("data/NeXML/SimpleDocument.xml"), parameters);
+		try {
+			while (!reader.peek().getType().getContentType().equals(EventContentType.SEQUENCE)) {
+				reader.next();
+			}
+			
+			assertEventType(EventContentType.SEQUENCE, EventTopologyType.START, reader);
+			assertCharactersEvent("AA", false, reader);
+			assertCharactersEvent("CT", false, reader);
+			assertCharactersEvent("G", false, reader);
+			assertPartEndEvent(EventContentType.SEQUENCE, true, reader);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void readStandardDataWithMaximumTokens() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_NEXML_TOKEN_TRANSLATION_STRATEGY, TokenTranslationStrategy.SYMBOL_TO_LABEL);
+		parameters.put(ReadWriteParameterMap.KEY_MAXIMUM_TOKENS_TO_READ, 4);
+		NeXMLEventReader reader = new NeXMLEventReader(new File("data/NeXML/StandardData.xml"), parameters);
+		try {
+			int alignmentCount = 0;
+			while ((alignmentCount < 2) || !reader.peek().getType().getContentType().equals(EventContentType.SEQUENCE)) {  // Skip the first alignment containing cell tags.
+				if (reader.next().getType().equals(EventContentType.ALIGNMENT, EventTopologyType.START)) {
+					alignmentCount++;
+				}
+			}
+			
+			assertEventType(EventContentType.SEQUENCE, EventTopologyType.START, reader);
+			assertCharactersEvent("standardstates1 - standardstates3 -", true, reader);
+			assertCharactersEvent("standardstates5 ?", true, reader);
+			assertPartEndEvent(EventContentType.SEQUENCE, true, reader);
+			
+			assertEventType(EventContentType.SEQUENCE, EventTopologyType.START, reader);
+			assertCharactersEvent("blue blue - -", true, reader);
+			assertCharactersEvent("standardstates3 -", true, reader);
+			assertPartEndEvent(EventContentType.SEQUENCE, true, reader);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
 	@Test
 	public void readUnknownCharIDInCharSet() throws Exception {
 		NeXMLEventReader reader = new NeXMLEventReader(new File("data/NeXML/UnknownCharID_CharSet.xml"), new ReadWriteParameterMap());
@@ -43,6 +43,7 @@ import info.bioinfweb.commons.text.StringUtils;
 import info.bioinfweb.jphyloio.AbstractEventWriter;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.dataadapters.JPhyloIOEventReceiver;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreDocumentDataAdapter;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreMatrixDataAdapter;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreOTUListDataAdapter;
@@ -68,12 +69,14 @@ import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
 import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.exception.InconsistentAdapterDataException;
+import info.bioinfweb.jphyloio.exception.JPhyloIOWriterException;
 import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
 import info.bioinfweb.jphyloio.test.dataadapters.testtreenetworkdataadapters.EdgeAndNodeMetaDataTreeAdapter;
 import info.bioinfweb.jphyloio.test.dataadapters.testtreenetworkdataadapters.NetworkMetadataAdapter;
 import info.bioinfweb.jphyloio.test.dataadapters.testtreenetworkdataadapters.NoAnnotationsNetwork;
 import info.bioinfweb.jphyloio.test.dataadapters.testtreenetworkdataadapters.NoAnnotationsTree;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
@@ -1422,6 +1425,168 @@ public class NeXMLEventWriterTest implements ReadWriteConstants, NeXMLConstants
 	}
 	
 	
+	private StoreMatrixDataAdapter createRequestCountingMatrix(String otuListID, final int[] requestCount, boolean metadataInFirstSequence) {
+		String matrixID = DEFAULT_MATRIX_ID_PREFIX + obtainCurrentIDIndex();
+		StoreMatrixDataAdapter matrix = new StoreMatrixDataAdapter(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, matrixID, "alignment", otuListID), 
+				false, null) {
+			
+			@Override
+			public void writeSequencePartContentData(ReadWriteParameterMap parameters, JPhyloIOEventReceiver receiver, String sequenceID, 
+					long startColumn, long endColumn) throws IOException, IllegalArgumentException {
+				
+				requestCount[0]++;
+				super.writeSequencePartContentData(parameters, receiver, sequenceID, startColumn, endColumn);
+			}
+		};
+		
+		Iterator<String> iterator = document.getOTUList(parameters, otuListID).getIDIterator(parameters);
+		boolean writeMetadata = metadataInFirstSequence;
+		while (iterator.hasNext()) {
+			String sequenceID = DEFAULT_SEQUENCE_ID_PREFIX + obtainCurrentIDIndex();
+			matrix.getMatrix().getObjectMap().put(sequenceID, createSequence(sequenceID, null, 
+					StringUtils.charSequenceToStringList("ACGT-"), iterator.next(), writeMetadata));
+			writeMetadata = false;
+		}
+		
+		String tokenSetID = DEFAULT_TOKEN_SET_ID_PREFIX + obtainCurrentIDIndex();
+		matrix.getTokenSets(parameters).getObjectMap().put(tokenSetID, createTokenSet(tokenSetID, CharacterStateSetType.DNA, 5, false));
+		
+		return matrix;
+	}
+	
+	
+	@Test
+	public void testSequenceContentRequests() throws IOException, XMLStreamException, FactoryConfigurationError {
+		String otuListID = DEFAULT_OTU_LIST_ID_PREFIX + obtainCurrentIDIndex();
+		document.getOTUListsMap().put(otuListID, createOTUList(otuListID, false, false));  // Contains 5 OTUs.
+		int[] requestCount = new int[1];
+		document.getMatrices().add(createRequestCountingMatrix(otuListID, requestCount, true));
+		
+		new NeXMLEventWriter().writeDocument(document, new ByteArrayOutputStream(), parameters);
+		assertEquals(5 + 5 + 1, requestCount[0]);  // Check, tokens and metadata of the first sequence.
+	}
+	
+	
+	@Test
+	public void testWritingWithDeclaredTokenSetsAndMetadata() throws IOException, XMLStreamException, FactoryConfigurationError {
+		String otuListID = DEFAULT_OTU_LIST_ID_PREFIX + obtainCurrentIDIndex();
+		document.getOTUListsMap().put(otuListID, createOTUList(otuListID, false, false));  // Contains 5 OTUs.
+		document.getMatrices().add(createRequestCountingMatrix(otuListID, new int[1], true));
+		
+		parameters.put(ReadWriteParameterMap.KEY_NEXML_DECLARED_TOKEN_SETS, true);
+		try {
+			new NeXMLEventWriter().writeDocument(document, new ByteArrayOutputStream(), parameters);
+			fail("Exception not thrown.");
+		}
+		catch (JPhyloIOWriterException e) {
+			assertTrue(e.getMessage().startsWith("The sequence contains metadata,"));
+		}
+	}
+	
+	
+	@Test
+	public void testWritingWithDeclaredTokenSets() throws IOException, XMLStreamException, FactoryConfigurationError {
+		String otuListID = DEFAULT_OTU_LIST_ID_PREFIX + obtainCurrentIDIndex();
+		document.getOTUListsMap().put(otuListID, createOTUList(otuListID, false, false));  // Contains 5 OTUs.
+		int[] requestCount = new int[1];
+		document.getMatrices().add(createRequestCountingMatrix(otuListID, requestCount, false));
+		
+		ByteArrayOutputStream checkedOutput = new ByteArrayOutputStream();
+		new NeXMLEventWriter().writeDocument(document, checkedOutput, parameters);
+		assertEquals(5 + 5, requestCount[0]);
+		
+		requestCount[0] = 0;
+		ByteArrayOutputStream declaredOutput = new ByteArrayOutputStream();
+		parameters.put(ReadWriteParameterMap.KEY_NEXML_DECLARED_TOKEN_SETS, true);
+		new NeXMLEventWriter().writeDocument(document, declaredOutput, parameters);
+		assertEquals(5, requestCount[0]);
+		assertEquals(checkedOutput.toString("UTF-8"), declaredOutput.toString("UTF-8"));
+	}
+	
+	
+	@Test
+	public void testWritingStridedCharacterSetIntervals() throws IOException, XMLStreamException, FactoryConfigurationError {
+		File file = new File("data/testOutput/NeXMLTest_StridedIntervals.xml");
+		
+		String otuListID = DEFAULT_OTU_LIST_ID_PREFIX + obtainCurrentIDIndex();
+		document.getOTUListsMap().put(otuListID, createOTUList(otuListID, false, false));
+		
+		String matrixID = DEFAULT_MATRIX_ID_PREFIX + obtainCurrentIDIndex();
+		StoreMatrixDataAdapter matrix = new StoreMatrixDataAdapter(new LinkedLabeledIDEvent(EventContentType.ALIGNMENT, matrixID, "alignment", otuListID), 
+				false, null);
+		
+		// Add token sets valid for every third column:
+		String tokenSetID1 = DEFAULT_TOKEN_SET_ID_PREFIX + obtainCurrentIDIndex();
+		StoreObjectData<TokenSetDefinitionEvent> tokenSet1 = createTokenSet(tokenSetID1, CharacterStateSetType.DNA, 9, false);
+		tokenSet1.getObjectContent().set(tokenSet1.getObjectContent().size() - 1, new CharacterSetIntervalEvent(0, 9, 3));  // Replace the interval covering all columns.
+		matrix.getTokenSets(parameters).getObjectMap().put(tokenSetID1, tokenSet1);
+		
+		String tokenSetID2 = DEFAULT_TOKEN_SET_ID_PREFIX + obtainCurrentIDIndex();
+		StoreObjectData<TokenSetDefinitionEvent> tokenSet2 = createTokenSet(tokenSetID2, CharacterStateSetType.DNA, 9, false);
+		tokenSet2.getObjectContent().set(tokenSet2.getObjectContent().size() - 1, new CharacterSetIntervalEvent(1, 9, 3));
+		tokenSet2.getObjectContent().add(new CharacterSetIntervalEvent(2, 9, 3));
+		matrix.getTokenSets(parameters).getObjectMap().put(tokenSetID2, tokenSet2);
+		
+		// Add character set containing every third column:
+		String charSetID = DEFAULT_CHAR_SET_ID_PREFIX + obtainCurrentIDIndex();
+		StoreObjectData<LinkedLabeledIDEvent> charSet = new StoreObjectData<LinkedLabeledIDEvent>(
+				new LinkedLabeledIDEvent(EventContentType.CHARACTER_SET, charSetID, "character set", null), new ArrayList<JPhyloIOEvent>());
+		charSet.getObjectContent().add(new CharacterSetIntervalEvent(0, 9, 3));
+		matrix.getCharacterSets(parameters).getObjectMap().put(charSetID, charSet);
+		
+		// Add sequences:
+		Iterator<String> iterator = document.getOTUList(parameters, otuListID).getIDIterator(parameters);
+		while (iterator.hasNext()) {
+			String sequenceID = DEFAULT_SEQUENCE_ID_PREFIX + obtainCurrentIDIndex();
+			matrix.getMatrix().getObjectMap().put(sequenceID, createSequence(sequenceID, null, StringUtils.charSequenceToStringList("ACGTACGTA"), 
+					document.getOTUList(parameters, otuListID).getObjectStartEvent(parameters, iterator.next()).getID(), false));
+		}
+		document.getMatrices().add(matrix);
+		
+		try {
+			new NeXMLEventWriter().writeDocument(document, file, parameters);
+			
+			// Collect the relevant attributes:
+			List<String> charIDs = new ArrayList<String>();
+			List<String> charStates = new ArrayList<String>();
+			String charSetColumns = null;
+			FileReader fileReader = new FileReader(file);
+			XMLEventReader reader = XMLInputFactory.newInstance().createXMLEventReader(fileReader);
+			try {
+				while (reader.hasNext()) {
+					XMLEvent event = reader.nextEvent();
+					if (event.isStartElement()) {
+						StartElement element = event.asStartElement();
+						if (element.getName().equals(TAG_CHAR)) {
+							charIDs.add(element.getAttributeByName(ATTR_ID).getValue());
+							charStates.add(element.getAttributeByName(ATTR_STATES).getValue());
+						}
+						else if (element.getName().equals(TAG_SET) && (element.getAttributeByName(ATTR_CHAR_SET_LINKED_IDS) != null)) {
+							charSetColumns = element.getAttributeByName(ATTR_CHAR_SET_LINKED_IDS).getValue();
+						}
+					}
+				}
+			}
+			finally {
+				reader.close();
+				fileReader.close();
+			}
+			
+			// Validate attributes:
+			assertEquals(9, charIDs.size());
+			assertEquals(charIDs.get(0) + " " + charIDs.get(3) + " " + charIDs.get(6) + " ", charSetColumns);
+			for (int i = 0; i < charStates.size(); i++) {
+				assertEquals(charStates.get(i % 3), charStates.get(i));
+			}
+			assertTrue(!charStates.get(0).equals(charStates.get(1)));
+			assertEquals(charStates.get(1), charStates.get(2));
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	
 	@Test
 	public void testWritingStandardData() throws IOException, XMLStreamException, FactoryConfigurationError {
 		File file = new File("data/testOutput/NeXMLTest_StandardData.xml");
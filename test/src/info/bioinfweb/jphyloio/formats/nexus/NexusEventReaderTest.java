@@ -32,16 +32,20 @@ import info.bioinfweb.jphyloio.AbstractEventReader;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
 import info.bioinfweb.jphyloio.ReadWriteParameterNames;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
 import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
 import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.events.type.EventType;
 import info.bioinfweb.jphyloio.exception.JPhyloIOReaderException;
 import info.bioinfweb.jphyloio.formats.newick.NewickConstants;
+import info.bioinfweb.jphyloio.formats.nexus.blockhandlers.NexusBlockHandlerMap;
 import info.bioinfweb.jphyloio.formats.nexus.commandreaders.characters.FormatReader;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.StringReader;
 import java.util.Arrays;
 
 import javax.xml.namespace.QName;
@@ -180,6 +184,31 @@ public class NexusEventReaderTest implements NexusConstants, ReadWriteConstants,
 	}
 	
 	
+	@Test
+	public void testReadingCharSetsInvalidRegularInterval() {
+		try {
+			NexusEventReader reader = new NexusEventReader(new File("data/Nexus/CharSetInvalidRegularInterval.nex"), new ReadWriteParameterMap());
+			try {
+				assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+				reader.next();
+				reader.next();
+			}
+			finally {
+				reader.close();
+			}
+			fail("Expected exception not fired.");
+		}
+		catch (Exception e) {
+			if (e instanceof JPhyloIOReaderException) {
+				assertEquals("The regular interval of a Nexus set definition must be greater than 0.", e.getMessage());
+			}
+			else {
+				fail(e.getLocalizedMessage());
+			}
+		}
+	}
+	
+	
 	@Test
 	public void testReadingFormatCommand() throws Exception {
 		NexusEventReader reader = new NexusEventReader(new File("data/Nexus/Format.nex"), new ReadWriteParameterMap());
@@ -1789,14 +1818,10 @@ public class NexusEventReaderTest implements NexusConstants, ReadWriteConstants,
 			assertCharacterSetIntervalEvent(0, 7, reader);
 			assertEndEvent(EventContentType.CHARACTER_SET, reader);
 			assertLinkedLabeledIDEvent(EventContentType.CHARACTER_SET, null, "set04", matrixID2, reader);
-			assertCharacterSetIntervalEvent(0, 1, reader);
-			assertCharacterSetIntervalEvent(3, 4, reader);
-			assertCharacterSetIntervalEvent(6, 7, reader);
+			assertCharacterSetIntervalEvent(0, 7, 3, reader);
 			assertEndEvent(EventContentType.CHARACTER_SET, reader);
 			assertLinkedLabeledIDEvent(EventContentType.CHARACTER_SET, null, "set05", matrixID2, reader);
-			assertCharacterSetIntervalEvent(1, 2, reader);
-			assertCharacterSetIntervalEvent(3, 4, reader);
-			assertCharacterSetIntervalEvent(5, 6, reader);
+			assertCharacterSetIntervalEvent(1, 6, 2, reader);
 			assertEndEvent(EventContentType.CHARACTER_SET, reader);
 			assertLinkedLabeledIDEvent(EventContentType.CHARACTER_SET, null, "set06", matrixID2, reader);
 			assertSetElementEvent(referencedSetID, EventContentType.CHARACTER_SET, reader);
@@ -2159,4 +2184,83 @@ public class NexusEventReaderTest implements NexusConstants, ReadWriteConstants,
 			reader.close();
 		}
 	}
+	
+	
+	private void assertTreeOnlyEvents(NexusEventReader reader) throws Exception {
+		assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+		assertLinkedLabeledIDEvent(EventContentType.TREE_NETWORK_GROUP, null, null, null, reader);
+		assertLabeledIDEvent(EventContentType.TREE, null, "tree1", reader);
+		int nodeCount = 0;
+		while (!reader.peek().getType().getContentType().equals(EventContentType.TREE)) {
+			if (reader.next().getType().equals(new EventType(EventContentType.NODE, EventTopologyType.START))) {
+				nodeCount++;
+			}
+		}
+		assertEquals(5, nodeCount);
+		assertEventType(EventContentType.TREE, EventTopologyType.END, reader);
+		assertEventType(EventContentType.TREE_NETWORK_GROUP, EventTopologyType.END, reader);
+		assertEventType(EventContentType.DOCUMENT, EventTopologyType.END, reader);
+		assertFalse(reader.hasNextEvent());
+	}
+	
+	
+	@Test
+	public void testReadingSkippedBlocks() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_NEXUS_BLOCK_HANDLER_MAP, NexusBlockHandlerMap.newFilteredJPhyloIOInstance(BLOCK_NAME_TREES));
+		NexusEventReader reader = new NexusEventReader(new File("data/Nexus/SkippedBlocks.nex"), parameters);
+		try {
+			assertTreeOnlyEvents(reader);
+		}
+		finally {
+			reader.close();
+		}
+		
+		parameters.put(ReadWriteParameterMap.KEY_NEXUS_BLOCK_HANDLER_MAP, NexusBlockHandlerMap.newFilteredJPhyloIOInstance("characters"));
+		reader = new NexusEventReader(new File("data/Nexus/SkippedBlocks.nex"), parameters);
+		try {
+			assertEventType(EventContentType.DOCUMENT, EventTopologyType.START, reader);
+			assertLinkedLabeledIDEvent(EventContentType.ALIGNMENT, null, null, null, reader);
+			boolean[] sequencesFound = new boolean[2];
+			while (reader.hasNextEvent()) {
+				JPhyloIOEvent event = reader.next();
+				assertFalse(event.getType().getContentType().equals(EventContentType.TREE_NETWORK_GROUP));
+				if (event.getType().equals(new EventType(EventContentType.SEQUENCE, EventTopologyType.START))) {
+					if ("A;'end;".equals(event.asLabeledIDEvent().getLabel())) {
+						sequencesFound[0] = true;
+					}
+					else if ("B".equals(event.asLabeledIDEvent().getLabel())) {
+						sequencesFound[1] = true;
+					}
+				}
+			}
+			assertTrue(sequencesFound[0]);
+			assertTrue(sequencesFound[1]);
+		}
+		finally {
+			reader.close();
+		}
+	}
+	
+	
+	@Test
+	public void testReadingSkippedBlocksChunkBorders() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		parameters.put(ReadWriteParameterMap.KEY_NEXUS_BLOCK_HANDLER_MAP, NexusBlockHandlerMap.newFilteredJPhyloIOInstance(BLOCK_NAME_TREES));
+		for (int padding = 8160; padding < 8200; padding++) {  // Moves the END command of the skipped block over the border of the peek buffer.
+			StringBuilder nexus = new StringBuilder("#NEXUS\nBEGIN NOTES;\n\tTEXT '");
+			for (int i = 0; i < padding; i++) {
+				nexus.append(i % 10 == 0 ? ';' : 'x');
+			}
+			nexus.append("';\nEND;\nBEGIN TREES;\n\tTREE tree1 = ((A,B),C);\nEND;\n");
+			
+			NexusEventReader reader = new NexusEventReader(new StringReader(nexus.toString()), parameters);
+			try {
+				assertTreeOnlyEvents(reader);
+			}
+			finally {
+				reader.close();
+			}
+		}
+	}
 }
@@ -537,6 +537,7 @@ public class NexusEventWriterTest implements NexusConstants {
 		charSets = new StoreObjectListDataAdapter<>();
 		charSets.setObjectStartEvent(new LinkedLabeledIDEvent(EventContentType.CHARACTER_SET, "charSet4", "char set 4", "matrix1"));
 		charSets.getObjectMap().get("charSet4").getObjectContent().add(new CharacterSetIntervalEvent(0, 3));
+		charSets.getObjectMap().get("charSet4").getObjectContent().add(new CharacterSetIntervalEvent(3, 7, 2));
 		matrix.setCharacterSets(charSets);
 		
 		matrix.setLinkedOTUsID("otus0");
@@ -606,7 +607,7 @@ public class NexusEventWriterTest implements NexusConstants {
 			
 			assertEquals("BEGIN SETS;", reader.readLine());
 			assertEquals("\tLINK CHARACTERS=another_matrix;", reader.readLine());
-			assertEquals("\tCHARSET char_set_4 = 1-3;", reader.readLine());
+			assertEquals("\tCHARSET char_set_4 = 1-3 4-6\\2;", reader.readLine());
 			assertEquals("END;", reader.readLine());
 			
 			assertEquals(-1, reader.read());
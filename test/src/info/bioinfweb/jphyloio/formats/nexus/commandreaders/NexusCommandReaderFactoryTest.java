@@ -0,0 +1,92 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.nexus.commandreaders;
+
+
+import info.bioinfweb.jphyloio.formats.nexus.NexusReaderStreamDataProvider;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.all.TitleReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.characters.MatrixReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.ENewickNetworkReader;
+import info.bioinfweb.jphyloio.formats.nexus.commandreaders.trees.TreeReader;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class NexusCommandReaderFactoryTest {
+	@Test
+	public void test_createReader() {
+		NexusCommandReaderFactory factory = NexusCommandReaderFactory.newJPhyloIOInstance();
+		
+		assertTrue(factory.createReader("TREES", "TREE", null) instanceof TreeReader);
+		assertTrue(factory.createReader("trees", "Tree", null) instanceof TreeReader);
+		assertTrue(factory.createReader("CHARACTERS", "MATRIX", null) instanceof MatrixReader);
+		assertTrue(factory.createReader("TAXA", "TITLE", null) instanceof TitleReader);  // Valid in all blocks.
+		assertNull(factory.createReader("TAXA", "MATRIX", null));
+		assertNull(factory.createReader("NETWORKS", "NETWORK", null));
+		
+		assertNotSame(factory.createReader("TREES", "TREE", null), factory.createReader("TREES", "TREE", null));
+		assertSame(factory.getReaderCreator("TREES", "TREE"), factory.getReaderCreator("trees", "tree"));
+	}
+	
+	
+	@Test
+	public void test_addReaderClass() {
+		NexusCommandReaderFactory factory = new NexusCommandReaderFactory();
+		factory.addReaderClass(ENewickNetworkReader.class);
+		
+		assertTrue(factory.createReader("NETWORKS", "NETWORK", null) instanceof ENewickNetworkReader);
+		assertNull(factory.createReader("TREES", "TREE", null));
+	}
+	
+	
+	@Test(expected=IllegalArgumentException.class)
+	public void test_addReaderClass_invalidClass() {
+		new NexusCommandReaderFactory().addReaderClass(AbstractNexusCommandEventReader.class);
+	}
+	
+	
+	@Test
+	public void test_addReaderCreator() {
+		NexusCommandReaderFactory factory = new NexusCommandReaderFactory();
+		NexusCommandReaderCreator creator = new NexusCommandReaderCreator() {
+			@Override
+			public NexusCommandEventReader createReader(NexusReaderStreamDataProvider streamDataProvider) {
+				return new TreeReader(streamDataProvider);
+			}
+		};
+		factory.addReaderCreator(creator);
+		
+		assertSame(creator, factory.getReaderCreator("TREES", "TREE"));
+		assertNull(factory.getReaderCreator("CHARACTERS", "TREE"));
+	}
+	
+	
+	@Test
+	public void test_reset() throws Exception {
+		TreeReader reader = new TreeReader(null);
+		assertTrue(reader instanceof ReusableNexusCommandEventReader);
+		reader.setAllDataProcessed(true);
+		assertFalse(reader.readNextEvent());
+		reader.reset();
+		assertFalse(reader.isAllDataProcessed());
+	}
+}
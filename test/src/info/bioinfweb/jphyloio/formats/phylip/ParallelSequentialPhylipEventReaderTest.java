@@ -0,0 +1,81 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.phylip;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+
+import java.io.File;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.* ;
+
+import static info.bioinfweb.jphyloio.test.JPhyloIOTestTools.* ;
+
+
+
+public class ParallelSequentialPhylipEventReaderTest {
+	private void assertSameEvents(String fileName, ReadWriteParameterMap parameters) throws Exception {
+		File file = new File("data/Phylip/" + fileName);
+		assertEventsEqual(new SequentialPhylipEventReader(file, parameters), new ParallelSequentialPhylipEventReader(file, parameters));
+	}
+	
+	
+	@Test
+	public void test_read_testFiles() throws Exception {
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		assertSameEvents("Sequential.phy", parameters);
+		
+		parameters.put(ReadWriteParameterMap.KEY_MAXIMUM_TOKENS_TO_READ, 4);
+		assertSameEvents("Sequential.phy", parameters);
+		
+		parameters.put(ReadWriteParameterMap.KEY_RELAXED_PHYLIP, true);
+		assertSameEvents("RelaxedSequential.phy", parameters);
+	}
+	
+	
+	@Test
+	public void test_read_largeDocument() throws Exception {
+		final int sequenceCount = 300;
+		final int characterCount = 12000;
+		
+		Random random = new Random(42);
+		StringBuilder document = new StringBuilder();
+		document.append(sequenceCount + " " + characterCount + "\n");
+		for (int i = 0; i < sequenceCount; i++) {
+			String name = "Seq " + i;
+			document.append(name);
+			for (int j = name.length(); j < PhylipConstants.DEFAULT_NAME_LENGTH; j++) {
+				document.append(' ');
+			}
+			for (int j = 0; j < characterCount; j++) {
+				document.append("ACGT-".charAt(random.nextInt(5)));
+				if (j % 10 == 9) {
+					document.append((j % 50 == 49) ? "\n" : " ");
+				}
+			}
+			document.append("\n");
+		}
+		
+		ReadWriteParameterMap parameters = new ReadWriteParameterMap();
+		assertEventsEqual(new SequentialPhylipEventReader(new StringReader(document.toString()), parameters), 
+				new ParallelSequentialPhylipEventReader(new StringReader(document.toString()), parameters));
+	}
+}
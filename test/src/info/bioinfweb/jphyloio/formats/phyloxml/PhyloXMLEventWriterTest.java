@@ -40,17 +40,22 @@ import info.bioinfweb.commons.log.MessageListApplicationLogger;
 import info.bioinfweb.jphyloio.ReadWriteConstants;
 import info.bioinfweb.jphyloio.ReadWriteParameterMap;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreDocumentDataAdapter;
+import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreObjectData;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkDataAdapter;
 import info.bioinfweb.jphyloio.dataadapters.implementations.store.StoreTreeNetworkGroupDataAdapter;
 import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.EdgeEvent;
 import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.LabeledIDEvent;
 import info.bioinfweb.jphyloio.events.LinkedLabeledIDEvent;
+import info.bioinfweb.jphyloio.events.NodeEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
 import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
 import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
 import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
 import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
 import info.bioinfweb.jphyloio.exception.InconsistentAdapterDataException;
 import info.bioinfweb.jphyloio.formats.xml.XMLReadWriteUtils;
 import info.bioinfweb.jphyloio.test.dataadapters.testtreenetworkdataadapters.PhyloXMLNetworkDataAdapter;
@@ -63,7 +68,12 @@ import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import javax.xml.XMLConstants;
 import javax.xml.datatype.DatatypeConfigurationException;
@@ -2233,6 +2243,113 @@ public class PhyloXMLEventWriterTest implements PhyloXMLConstants {
 	}
 	
 	
+	private static StoreObjectData<NodeEvent> addNode(StoreTreeNetworkDataAdapter tree, String id, String parentID, boolean isRoot) {
+		StoreObjectData<NodeEvent> result = new StoreObjectData<NodeEvent>(new NodeEvent(id, id, null, isRoot));
+		tree.getNodes(null).getObjectMap().put(id, result);
+		tree.getEdges(null).getObjectMap().put("e" + id, new StoreObjectData<EdgeEvent>(
+				new EdgeEvent("e" + id, null, parentID, id, isRoot ? Double.NaN : 0.5)));
+		return result;
+	}
+	
+	
+	private static void addIDSource(StoreObjectData<NodeEvent> node, String idSource) {
+		node.getObjectContent().add(new LiteralMetadataEvent(node.getObjectStartEvent().getID() + "meta", null,
+				new URIOrStringIdentifier(null, PREDICATE_ATTR_ID_SOURCE), new URIOrStringIdentifier(null, W3CXSConstants.DATA_TYPE_TOKEN), 
+				LiteralContentSequenceType.SIMPLE));
+		node.getObjectContent().add(new LiteralMetadataContentEvent(idSource, idSource));
+		node.getObjectContent().add(ConcreteJPhyloIOEvent.createEndEvent(EventContentType.LITERAL_META));
+	}
+	
+	
+	@Test
+	public void assertDeepTreeDocument() throws IOException, XMLStreamException {
+		final int depth = 30000;  // The XMLStreamWriter of the JRE does not support more than 32767 nested elements.
+		File file = new File("data/testOutput/PhyloXMLDeepTree.xml");
+		
+		// Write file:
+		StoreTreeNetworkDataAdapter tree = new StoreTreeNetworkDataAdapter(new LabeledIDEvent(EventContentType.TREE, "tree", null), true);
+		addNode(tree, "n0", null, true);
+		for (int i = 1; i <= depth; i++) {
+			addNode(tree, "n" + i, "n" + (i - 1), false);
+			StoreObjectData<NodeEvent> leaf = addNode(tree, "t" + i, "n" + (i - 1), false);
+			if (i == 1) {
+				addIDSource(leaf, "n1");  // Causes ID source suffixes to be appended for n1, n11 and n111.
+			}
+		}
+		
+		StoreDocumentDataAdapter document = new StoreDocumentDataAdapter();
+		StoreTreeNetworkGroupDataAdapter treeGroup = new StoreTreeNetworkGroupDataAdapter(
+				new LinkedLabeledIDEvent(EventContentType.TREE_NETWORK_GROUP, "treeGroup", null, null), Collections.<JPhyloIOEvent>emptyList());
+		treeGroup.getTreesAndNetworks().add(tree);
+		document.getTreesNetworks().add(treeGroup);
+		
+		try {
+			writeDocument(document, null, file);
+			
+			// Validate ID sources:
+			Map<String, String> idSources = new HashMap<String, String>();
+			Set<String> usedIDSources = new HashSet<String>();
+			FileReader fileReader = new FileReader(file);
+			XMLEventReader xmlReader = XMLInputFactory.newInstance().createXMLEventReader(fileReader);
+			try {
+				String idSource = null;
+				while (xmlReader.hasNext()) {
+					XMLEvent event = xmlReader.nextEvent();
+					if (event.isStartElement() && event.asStartElement().getName().getLocalPart().equals(TAG_CLADE.getLocalPart())) {
+						idSource = event.asStartElement().getAttributeByName(ATTR_ID_SOURCE).getValue();
+						assertTrue(usedIDSources.add(idSource));
+					}
+					else if (event.isStartElement() && event.asStartElement().getName().getLocalPart().equals(TAG_NAME.getLocalPart())) {
+						idSources.put(xmlReader.getElementText(), idSource);
+					}
+				}
+			}
+			finally {
+				xmlReader.close();
+				fileReader.close();
+			}
+			assertEquals(2 * depth + 1, idSources.size());
+			assertEquals("n0", idSources.get("n0"));
+			assertEquals("n1", idSources.get("t1"));
+			assertEquals("n11", idSources.get("n1"));
+			assertEquals("n111", idSources.get("n11"));
+			assertEquals("n11111", idSources.get("n1111"));
+			assertEquals("n2", idSources.get("n2"));
+			assertEquals("t" + depth, idSources.get("t" + depth));
+			
+			// Read file:
+			Map<String, String> nodeLabels = new HashMap<String, String>();
+			int edgeCount = 0;
+			PhyloXMLEventReader reader = new PhyloXMLEventReader(file, new ReadWriteParameterMap());
+			try {
+				while (reader.hasNextEvent()) {
+					JPhyloIOEvent event = reader.next();
+					if (event.getType().getTopologyType().equals(EventTopologyType.START)) {
+						if (event.getType().getContentType().equals(EventContentType.NODE)) {
+							nodeLabels.put(event.asNodeEvent().getID(), event.asNodeEvent().getLabel());
+						}
+						else if (event.getType().getContentType().equals(EventContentType.EDGE)) {
+							EdgeEvent edge = event.asEdgeEvent();
+							int index = Integer.parseInt(nodeLabels.get(edge.getTargetID()).substring(1));
+							assertEquals("n" + (index - 1), nodeLabels.get(edge.getSourceID()));
+							assertEquals(0.5, edge.getLength(), 0.0);
+							edgeCount++;
+						}
+					}
+				}
+			}
+			finally {
+				reader.close();
+			}
+			assertEquals(2 * depth + 1, nodeLabels.size());
+			assertEquals(2 * depth, edgeCount);  // The root edge without a length is not written.
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	
 	private void validateSingleTree(XMLEventReader reader) throws IOException, XMLStreamException {
 		StartElement element = assertStartElement(TAG_PHYLOGENY, reader);
 		assertAttributeCount(2, element);
@@ -0,0 +1,141 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.Charset;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class MappedFileReaderTest {
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+	private static final File FILE = new File("data/testOutput/MappedFileReaderTest.txt");
+	
+	
+	private String readAll(Reader reader, int bufferSize) throws Exception {
+		StringBuilder result = new StringBuilder();
+		char[] buffer = new char[bufferSize];
+		int length = reader.read(buffer);
+		while (length != -1) {
+			result.append(buffer, 0, length);
+			length = reader.read(buffer);
+		}
+		reader.close();
+		return result.toString();
+	}
+	
+	
+	private File writeFile(String content, Charset charset) throws Exception {
+		File file = FILE;
+		file.getParentFile().mkdirs();
+		OutputStream stream = new FileOutputStream(file);
+		try {
+			stream.write(content.getBytes(charset));
+		}
+		finally {
+			stream.close();
+		}
+		return file;
+	}
+	
+	
+	@Test
+	public void test_read_ascii() throws Exception {
+		String content = ">Seq1\nACGT-ACGT\n>Seq2\nAC-TTACGT\n";
+		File file = writeFile(content, UTF_8);
+		try {
+			assertEquals(content, readAll(new MappedFileReader(file, UTF_8), 1024));
+			assertEquals(content, readAll(new MappedFileReader(file, UTF_8, 17), 5));
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	
+	@Test
+	public void test_read_nonASCII() throws Exception {
+		StringBuilder builder = new StringBuilder();
+		for (int i = 0; i < 200; i++) {
+			builder.append("ACä€G😀T\n");
+		}
+		String content = builder.toString();
+		File file = writeFile(content, UTF_8);
+		try {
+			assertEquals(content, readAll(new MappedFileReader(file, UTF_8), 1024));
+			for (int windowSize = 17; windowSize < 40; windowSize++) {
+				assertEquals(content, readAll(new MappedFileReader(file, UTF_8, windowSize), 7));
+			}
+		
+			Charset utf16 = Charset.forName("UTF-16BE");
+			file = writeFile(content, utf16);
+			assertEquals(content, readAll(new MappedFileReader(file, utf16, 21), 3));
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	
+	@Test
+	public void test_read_fullBuffer() throws Exception {
+		File file = writeFile("ABCDEFGHIJKLMNOPQRSTUVWXYZäBCDEFGHIJKLMNOPQRSTUVWXYZ", UTF_8);
+		Reader reader = new MappedFileReader(file, UTF_8, 17);
+		try {
+			char[] buffer = new char[50];
+			assertEquals(50, reader.read(buffer));
+			assertTrue(reader.ready());
+			assertEquals(2, reader.read(buffer));
+			assertFalse(reader.ready());
+			assertEquals(-1, reader.read(buffer));
+		}
+		finally {
+			reader.close();
+			file.delete();
+		}
+	}
+	
+	
+	@Test
+	public void test_read_emptyFile() throws Exception {
+		File file = writeFile("", UTF_8);
+		try {
+			assertEquals("", readAll(new MappedFileReader(file, UTF_8), 16));
+		}
+		finally {
+			file.delete();
+		}
+	}
+	
+	
+	@Test
+	public void test_isASCIICompatible() {
+		assertTrue(MappedFileReader.isASCIICompatible(UTF_8));
+		assertTrue(MappedFileReader.isASCIICompatible(Charset.forName("ISO-8859-1")));
+		assertFalse(MappedFileReader.isASCIICompatible(Charset.forName("UTF-16")));
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.text;
+
+
+import info.bioinfweb.commons.io.PeekReader;
+import info.bioinfweb.commons.io.PeekReader.ReadResult;
+
+import java.io.StringReader;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TextScannerTest {
+	private static final CharacterClass DELIMITERS = CharacterClass.WHITESPACE.union('[', ';');
+	
+	
+	private static TextScanner createScanner(String text) throws Exception {
+		return new TextScanner(new PeekReader(new StringReader(text)));
+	}
+	
+	
+	@Test
+	public void test_CharacterClass() {
+		assertTrue(DELIMITERS.contains(' '));
+		assertTrue(DELIMITERS.contains('\r'));
+		assertTrue(DELIMITERS.contains(';'));
+		assertTrue(DELIMITERS.contains('['));
+		assertFalse(DELIMITERS.contains(']'));
+		assertFalse(DELIMITERS.contains('A'));
+		assertFalse(DELIMITERS.contains('ä'));
+		assertTrue(new CharacterClass('ä').contains('ä'));
+	}
+	
+	
+	@Test
+	public void test_readUntil() throws Exception {
+		TextScanner scanner = createScanner("BEGIN TAXA;[comment]END");
+		
+		ReadResult result = scanner.readUntil(DELIMITERS);
+		assertEquals("BEGIN ", result.getSequence().toString());
+		assertTrue(result.isCompletelyRead());
+		assertEquals("TAXA;", scanner.readUntil(DELIMITERS).getSequence().toString());
+		assertEquals("[", scanner.readUntil(DELIMITERS).getSequence().toString());
+		assertEquals("c", scanner.readUntil(DELIMITERS, 0, 1).getSequence().toString());
+		
+		result = scanner.readUntil(DELIMITERS, 0, 3);
+		assertEquals("omm", result.getSequence().toString());
+		assertFalse(result.isCompletelyRead());
+		
+		result = scanner.readUntil(DELIMITERS);
+		assertEquals("ent]END", result.getSequence().toString());
+		assertTrue(result.isCompletelyRead());
+		assertEquals(-1, scanner.getReader().peek());
+	}
+	
+	
+	@Test
+	public void test_readUntil_minLength() throws Exception {
+		TextScanner scanner = createScanner(";;AB;C");
+		assertEquals(";;", scanner.readUntil(DELIMITERS, 1, Integer.MAX_VALUE).getSequence().toString());
+		assertEquals("AB;", scanner.readUntil(DELIMITERS, 1, Integer.MAX_VALUE).getSequence().toString());
+	}
+	
+	
+	@Test
+	public void test_readUntil_longSequence() throws Exception {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < 3 * PeekReader.DEFAULT_PEEK_BUFFER_SIZE + 17; i++) {
+			text.append((char)('A' + i % 26));
+		}
+		String expected = text.toString() + ";";
+		text.append(";rest");
+		
+		TextScanner scanner = createScanner(text.toString());
+		assertEquals(expected, scanner.readUntil(DELIMITERS).getSequence().toString());
+		assertEquals('r', scanner.getReader().peekChar());
+	}
+	
+	
+	@Test
+	public void test_skip() throws Exception {
+		StringBuilder text = new StringBuilder();
+		for (int i = 0; i < PeekReader.DEFAULT_PEEK_BUFFER_SIZE + 5; i++) {
+			text.append(i % 2 == 0 ? ' ' : '\n');
+		}
+		text.append("A \t");
+		
+		TextScanner scanner = createScanner(text.toString());
+		assertEquals(0, scanner.skip(CharacterClass.NEW_LINE));
+		assertEquals(PeekReader.DEFAULT_PEEK_BUFFER_SIZE + 5, scanner.skip(CharacterClass.WHITESPACE));
+		assertEquals('A', scanner.getReader().readChar());
+		assertEquals(2, scanner.skip(CharacterClass.WHITESPACE));
+		assertEquals(-1, scanner.getReader().peek());
+	}
+}
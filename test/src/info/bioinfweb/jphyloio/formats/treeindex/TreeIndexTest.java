@@ -0,0 +1,150 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.treeindex;
+
+
+import info.bioinfweb.jphyloio.JPhyloIOEventReader;
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+import info.bioinfweb.jphyloio.formats.JPhyloIOFormatIDs;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class TreeIndexTest implements JPhyloIOFormatIDs {
+	/**
+	 * Reads all events from the specified reader and returns the labels of the tree and all nodes. The reader is closed 
+	 * afterwards.
+	 */
+	private List<String> readLabels(JPhyloIOEventReader reader) throws Exception {
+		List<String> result = new ArrayList<String>();
+		try {
+			while (reader.hasNextEvent()) {
+				JPhyloIOEvent event = reader.next();
+				if (event.getType().getTopologyType().equals(EventTopologyType.START) && 
+						(event.getType().getContentType().equals(EventContentType.TREE) || 
+								event.getType().getContentType().equals(EventContentType.NODE))) {
+					
+					result.add(event.asLabeledIDEvent().getLabel());
+				}
+			}
+		}
+		finally {
+			reader.close();
+		}
+		return result;
+	}
+	
+	
+	@Test
+	public void test_nexus() throws Exception {
+		File file = new File("data/Nexus/MultipleTreesBlocks.nex");
+		TreeIndex index = TreeIndexBuilder.buildIndex(file, NEXUS_FORMAT_ID);
+		assertEquals(NEXUS_FORMAT_ID, index.getFormatID());
+		assertEquals(4, index.getTreeCount());
+		assertEquals(1, index.getTranslationTableCount());
+		assertEquals(3, index.getTranslationTable(0).size());
+		assertEquals("fly", index.getTranslationTable(0).getKey(1));
+		assertEquals("Drosophila", index.getTranslationTable(0).get(1));
+		assertEquals(0, index.getEntries().get(2).getTranslationTableIndex());
+		assertEquals(-1, index.getEntries().get(3).getTranslationTableIndex());
+		
+		IndexedTreeReader indexedReader = new IndexedTreeReader(file, index, new ReadWriteParameterMap());
+		assertEquals(Arrays.asList("otherTree", "beetle", "fly", null, "spider", null), readLabels(indexedReader.createReader(3)));
+		assertEquals(Arrays.asList("tree2", "Scarabaeus", "Drosophila", null, "Aranaeus", null), readLabels(indexedReader.createReader(1)));
+		assertEquals(Arrays.asList("tree1", "Scarabaeus", "Drosophila", null, "Aranaeus", null), readLabels(indexedReader.createReader(0)));
+	}
+	
+	
+	@Test
+	public void test_newick() throws Exception {
+		File file = new File("data/Newick/Comments.nwk");
+		TreeIndex index = TreeIndexBuilder.buildIndex(file, NEWICK_FORMAT_ID);
+		assertEquals(1, index.getTreeCount());
+		assertEquals(0, index.getEntries().get(0).getOffset());
+		
+		file = new File("data/Newick/MultipleTrees.nwk");
+		index = TreeIndexBuilder.buildIndex(file, NEWICK_FORMAT_ID);
+		assertEquals(3, index.getTreeCount());  // The last tree is not terminated by ';'.
+		
+		IndexedTreeReader indexedReader = new IndexedTreeReader(file, index, new ReadWriteParameterMap());
+		assertEquals(Arrays.asList(null, "A", "B", "C", null, null), readLabels(indexedReader.createReader(1)));
+	}
+	
+	
+	@Test
+	public void test_sidecarFile() throws Exception {
+		File file = new File("data/testOutput/IndexedTrees.nwk");
+		File sidecarFile = TreeIndex.getSidecarFile(file);
+		file.getParentFile().mkdirs();
+		try {
+			Writer writer = new FileWriter(file);
+			try {
+				writer.write("(A,'B;C')[;];\n\n(D,\"E;F\");\n(G,H)");
+			}
+			finally {
+				writer.close();
+			}
+			sidecarFile.delete();
+			
+			TreeIndex index = TreeIndexBuilder.loadOrBuildIndex(file, NEWICK_FORMAT_ID);
+			assertTrue(sidecarFile.isFile());
+			assertEquals(3, index.getTreeCount());
+			assertEquals(13, index.getEntries().get(0).getLength());
+			assertEquals(15, index.getEntries().get(1).getOffset());
+			assertEquals(5, index.getEntries().get(2).getLength());
+			
+			TreeIndex loadedIndex = TreeIndex.read(sidecarFile);
+			assertTrue(loadedIndex.isUpToDate(file));
+			assertEquals(index.getTreeCount(), loadedIndex.getTreeCount());
+			for (int i = 0; i < index.getTreeCount(); i++) {
+				assertEquals(index.getEntries().get(i).getOffset(), loadedIndex.getEntries().get(i).getOffset());
+				assertEquals(index.getEntries().get(i).getLength(), loadedIndex.getEntries().get(i).getLength());
+			}
+			
+			IndexedTreeReader indexedReader = new IndexedTreeReader(file, TreeIndexBuilder.loadOrBuildIndex(file, NEWICK_FORMAT_ID), 
+					new ReadWriteParameterMap());
+			assertEquals(Arrays.asList(null, "D", "E;F", null), readLabels(indexedReader.createReader(1)));
+			assertEquals(Arrays.asList(null, "G", "H", null), readLabels(indexedReader.createReader(2)));
+		}
+		finally {
+			file.delete();
+			sidecarFile.delete();
+		}
+	}
+	
+	
+	@Test(expected=IOException.class)
+	public void test_invalidNexus() throws Exception {
+		TreeIndexBuilder.buildIndex(new File("data/Newick/MultipleTrees.nwk"), NEXUS_FORMAT_ID);
+	}
+}
@@ -0,0 +1,170 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.formats.xml;
+
+
+import static org.junit.Assert.* ;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.StringReader;
+import java.util.Iterator;
+
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.events.Attribute;
+import javax.xml.stream.events.StartElement;
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.* ;
+
+
+
+public class CursorXMLEventReaderTest {
+	private static CursorXMLEventReader createReader(String xml) throws Exception {
+		return new CursorXMLEventReader(XMLReadWriteUtils.getDefaultXMLInputFactory().createXMLStreamReader(new StringReader(xml)));
+	}
+
+
+	private static void assertNamespaceContext(NamespaceContext expected, NamespaceContext actual, String prefix) {
+		assertEquals(expected.getNamespaceURI(prefix), actual.getNamespaceURI(prefix));
+	}
+
+
+	private static void assertSameEvents(File file) throws Exception {
+		XMLInputFactory factory = XMLReadWriteUtils.getDefaultXMLInputFactory();
+		XMLEventReader expectedReader = factory.createXMLEventReader(new FileReader(file));
+		XMLEventReader reader = new CursorXMLEventReader(factory.createXMLStreamReader(new FileReader(file)));
+		try {
+			while (expectedReader.hasNext()) {
+				assertTrue(reader.hasNext());
+				XMLEvent expected = expectedReader.nextEvent();
+				XMLEvent event = reader.nextEvent();
+				assertEquals(expected.getEventType(), event.getEventType());
+				if (!expected.isStartDocument()) {  // The event reader of the JRE does not provide the declared encoding.
+					assertEquals(expected.toString(), event.toString());
+				}
+				if (expected.getEventType() != XMLStreamConstants.END_DOCUMENT) {
+					assertEquals(expected.getLocation().getLineNumber(), event.getLocation().getLineNumber());
+					assertEquals(expected.getLocation().getColumnNumber(), event.getLocation().getColumnNumber());
+				}
+
+				if (expected.isStartElement()) {
+					StartElement expectedElement = expected.asStartElement();
+					StartElement element = event.asStartElement();
+					assertEquals(expectedElement.getName(), element.getName());
+					assertNamespaceContext(expectedElement.getNamespaceContext(), element.getNamespaceContext(),
+							expectedElement.getName().getPrefix());
+
+					@SuppressWarnings("unchecked")
+					Iterator<Attribute> iterator = expectedElement.getAttributes();
+					while (iterator.hasNext()) {
+						Attribute attribute = iterator.next();
+						assertEquals(attribute.getValue(), element.getAttributeByName(attribute.getName()).getValue());
+						assertNamespaceContext(expectedElement.getNamespaceContext(), element.getNamespaceContext(),
+								attribute.getName().getPrefix());
+					}
+				}
+			}
+			assertFalse(reader.hasNext());
+		}
+		finally {
+			expectedReader.close();
+			reader.close();
+		}
+	}
+
+
+	@Test
+	public void test_iteratorAPI() throws Exception {
+		assertSameEvents(new File("data/NeXML/SimpleDocumentWithMetadata.xml"));
+		assertSameEvents(new File("data/NeXML/CustomXMLNamespaceDeclarationWithin.xml"));
+		assertSameEvents(new File("data/XML/NeXMLCustomXMLReaderTest.xml"));
+		assertSameEvents(new File("data/XML/PhyloXMLCustomXMLReaderTest.xml"));
+	}
+
+
+	@Test
+	public void test_cursor() throws Exception {
+		CursorXMLEventReader reader = createReader("<a xmlns=\"http://example.org/a\"><b xmlns:p=\"http://example.org/p\"><p:c><d/></p:c>text</b><e/></a>");
+		try {
+			assertEquals(XMLStreamConstants.START_DOCUMENT, reader.moveCursor());
+			assertEquals(XMLStreamConstants.START_ELEMENT, reader.moveCursor());
+			assertEquals(new QName("http://example.org/a", "a"), reader.getStreamReader().getName());
+
+			assertEquals(XMLStreamConstants.START_ELEMENT, reader.moveCursor());
+			StartElement element = reader.getCurrentEvent().asStartElement();
+			assertSame(element, reader.getCurrentEvent());
+			NamespaceContext context = element.getNamespaceContext();
+			assertEquals("http://example.org/p", context.getNamespaceURI("p"));
+			assertEquals("p", context.getPrefix("http://example.org/p"));
+
+			assertEquals(XMLStreamConstants.START_ELEMENT, reader.moveCursor());
+			reader.skipElement();  // Skips <p:c> and <d/>.
+
+			assertEquals("text", reader.peek().asCharacters().getData());
+			assertTrue(reader.isEventPeeked());
+			try {
+				reader.moveCursor();
+				fail("Exception not thrown.");
+			}
+			catch (IllegalStateException e) {}
+			assertEquals("text", reader.nextEvent().asCharacters().getData());
+
+			assertEquals(XMLStreamConstants.END_ELEMENT, reader.moveCursor());
+			assertEquals("http://example.org/p", context.getNamespaceURI("p"));  // The context of a start element must not change.
+			assertEquals(XMLStreamConstants.START_ELEMENT, reader.moveCursor());
+			assertNull(reader.getNamespaceContext().getNamespaceURI("p"));
+			assertEquals("http://example.org/a", reader.getNamespaceContext().getNamespaceURI(""));
+
+			assertTrue(reader.nextTag().isEndElement());
+			assertTrue(reader.nextTag().isEndElement());
+			assertEquals(XMLStreamConstants.END_DOCUMENT, reader.moveCursor());
+			assertFalse(reader.hasNext());
+			assertNull(reader.peek());
+		}
+		finally {
+			reader.close();
+		}
+	}
+
+
+	@Test
+	public void test_getElementText() throws Exception {
+		CursorXMLEventReader reader = createReader("<a><b>some <!--comment-->text</b><c><d/></c></a>");
+		try {
+			assertTrue(reader.nextEvent().isStartDocument());
+			assertTrue(reader.nextTag().isStartElement());
+			assertTrue(reader.nextTag().isStartElement());
+			assertEquals("some text", reader.getElementText());
+			assertTrue(reader.nextTag().isStartElement());
+			try {
+				reader.getElementText();
+				fail("Exception not thrown.");
+			}
+			catch (javax.xml.stream.XMLStreamException e) {}
+		}
+		finally {
+			reader.close();
+		}
+	}
+}
@@ -21,6 +21,7 @@ package info.bioinfweb.jphyloio.test;
 
 import static info.bioinfweb.commons.testing.Assert2.assertCollectionElementTypes;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
@@ -452,6 +453,13 @@ public class JPhyloIOTestTools {
   public static void assertCharacterSetIntervalEvent(long expectedStart, long expectedEnd, 
   		JPhyloIOEventReader reader) throws Exception {
   	
+  	assertCharacterSetIntervalEvent(expectedStart, expectedEnd, 1, reader);
+  }
+  
+  
+  public static void assertCharacterSetIntervalEvent(long expectedStart, long expectedEnd, long expectedStride, 
+  		JPhyloIOEventReader reader) throws Exception {
+  	
 		assertTrue(reader.hasNextEvent());
 		JPhyloIOEvent event = reader.next();
 		assertEquals(EventContentType.CHARACTER_SET_INTERVAL, event.getType().getContentType());
@@ -459,6 +467,7 @@ public class JPhyloIOTestTools {
 		CharacterSetIntervalEvent charSetEvent = event.asCharacterSetIntervalEvent();
 		assertEquals(expectedStart, charSetEvent.getStart());
 		assertEquals(expectedEnd, charSetEvent.getEnd());
+		assertEquals(expectedStride, charSetEvent.getStride());
   }
   
   
@@ -535,4 +544,44 @@ public class JPhyloIOTestTools {
 			assertNull(reporter.getEditedLabel(contentType, id));
 		}
   }
+  
+  
+  public static String describeEvent(JPhyloIOEvent event) {
+  	StringBuilder result = new StringBuilder(event.getType().toString());
+  	if (event instanceof LabeledIDEvent) {
+  		result.append(" " + event.asLabeledIDEvent().getID() + " " + event.asLabeledIDEvent().getLabel());
+  	}
+  	else if (event instanceof SequenceTokensEvent) {
+  		result.append(" " + event.asSequenceTokensEvent().getTokens());
+  	}
+  	else if (event instanceof CommentEvent) {
+  		result.append(" " + event.asCommentEvent().getContent() + " " + event.asCommentEvent().isContinuedInNextEvent());
+  	}
+  	else if (event instanceof PartEndEvent) {
+  		result.append(" " + event.asPartEndEvent().isTerminated());
+  	}
+  	else if (event instanceof LiteralMetadataContentEvent) {
+  		result.append(" " + event.asLiteralMetadataContentEvent().getStringValue() + " " + 
+  				event.asLiteralMetadataContentEvent().getObjectValue());
+  	}
+  	return result.toString();
+  }
+  
+  
+  /**
+   * Tests whether both readers produce events with equal types and contents. Both readers are closed afterwards.
+   */
+  public static void assertEventsEqual(JPhyloIOEventReader expectedReader, JPhyloIOEventReader actualReader) throws Exception {
+  	try {
+  		while (expectedReader.hasNextEvent()) {
+  			assertTrue(actualReader.hasNextEvent());
+  			assertEquals(describeEvent(expectedReader.next()), describeEvent(actualReader.next()));
+  		}
+  		assertFalse(actualReader.hasNextEvent());
+  	}
+  	finally {
+  		expectedReader.close();
+  		actualReader.close();
+  	}
+  }
 }
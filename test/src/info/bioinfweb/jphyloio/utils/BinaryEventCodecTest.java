@@ -0,0 +1,252 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import info.bioinfweb.commons.bio.CharacterStateSetType;
+import info.bioinfweb.commons.bio.CharacterSymbolMeaning;
+import info.bioinfweb.commons.bio.CharacterSymbolType;
+import info.bioinfweb.jphyloio.events.CharacterSetIntervalEvent;
+import info.bioinfweb.jphyloio.events.CommentEvent;
+import info.bioinfweb.jphyloio.events.ConcreteJPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.EdgeEvent;
+import info.bioinfweb.jphyloio.events.JPhyloIOEvent;
+import info.bioinfweb.jphyloio.events.NodeEvent;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.events.SingleTokenDefinitionEvent;
+import info.bioinfweb.jphyloio.events.TokenSetDefinitionEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralContentSequenceType;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataContentEvent;
+import info.bioinfweb.jphyloio.events.meta.LiteralMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.ResourceMetadataEvent;
+import info.bioinfweb.jphyloio.events.meta.URIOrStringIdentifier;
+import info.bioinfweb.jphyloio.events.type.EventContentType;
+import info.bioinfweb.jphyloio.events.type.EventTopologyType;
+
+import java.awt.Color;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.NotSerializableException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLEventFactory;
+import javax.xml.stream.events.XMLEvent;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class BinaryEventCodecTest {
+	private static JPhyloIOEvent encodeAndDecode(JPhyloIOEvent event) throws IOException {
+		return encodeAndDecode(new BinaryEventCodec(), event);
+	}
+	
+	
+	private static JPhyloIOEvent encodeAndDecode(BinaryEventCodec codec, JPhyloIOEvent event) throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		codec.writeEvent(output, event);
+		output.flush();
+		
+		DataInputStream input = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+		JPhyloIOEvent result = codec.readEvent(input);
+		assertEquals(-1, input.read());
+		assertEquals(event.getClass(), result.getClass());
+		assertEquals(event.getType(), result.getType());
+		return result;
+	}
+	
+	
+	@Test
+	public void test_varLong() throws IOException {
+		for (long value : new long[]{0, 1, 127, 128, 300, Integer.MAX_VALUE, Long.MAX_VALUE}) {
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+			BinaryEventCodec.writeVarLong(new DataOutputStream(bytes), value);
+			if (value < 128) {
+				assertEquals(1, bytes.size());
+			}
+			assertEquals(value, BinaryEventCodec.readVarLong(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()))));
+		}
+	}
+	
+	
+	@Test
+	public void test_structureEvents() throws IOException {
+		encodeAndDecode(new ConcreteJPhyloIOEvent(EventContentType.DOCUMENT, EventTopologyType.START));
+		
+		NodeEvent node = (NodeEvent)encodeAndDecode(new NodeEvent("n1", "A", "otu1", true));
+		assertEquals("n1", node.getID());
+		assertEquals("A", node.getLabel());
+		assertEquals("otu1", node.getLinkedID());
+		assertTrue(node.isRootNode());
+		
+		EdgeEvent edge = (EdgeEvent)encodeAndDecode(new EdgeEvent("e1", null, "n1", "n2", 0.5));
+		assertEquals("n1", edge.getSourceID());
+		assertEquals("n2", edge.getTargetID());
+		assertNull(edge.getLabel());
+		assertEquals(0.5, edge.getLength(), 0.0);
+		
+		edge = (EdgeEvent)encodeAndDecode(new EdgeEvent("e2", null, "n1", Double.NaN));
+		assertNull(edge.getSourceID());
+		assertEquals(EventContentType.ROOT_EDGE, edge.getType().getContentType());
+		assertFalse(edge.hasLength());
+		
+		CharacterSetIntervalEvent interval = (CharacterSetIntervalEvent)encodeAndDecode(new CharacterSetIntervalEvent(2, 30, 3));
+		assertEquals(2, interval.getStart());
+		assertEquals(30, interval.getEnd());
+		assertEquals(3, interval.getStride());
+		
+		CommentEvent comment = (CommentEvent)encodeAndDecode(new CommentEvent("comment ä", true));
+		assertEquals("comment ä", comment.getContent());
+		assertTrue(comment.isContinuedInNextEvent());
+	}
+	
+	
+	@Test
+	public void test_sequenceEvents() throws IOException {
+		SequenceTokensEvent tokens = (SequenceTokensEvent)encodeAndDecode(new SequenceTokensEvent("ACGT-"));
+		assertTrue(tokens.hasSingleCharacterTokens());
+		assertEquals("ACGT-", tokens.getCharacterTokens());
+		
+		tokens = (SequenceTokensEvent)encodeAndDecode(new SequenceTokensEvent(Arrays.asList("A", "{CG}")));
+		assertEquals(Arrays.asList("A", "{CG}"), tokens.getTokens());
+		
+		TokenSetDefinitionEvent tokenSet = (TokenSetDefinitionEvent)encodeAndDecode(
+				new TokenSetDefinitionEvent(CharacterStateSetType.DNA, "ts1", null));
+		assertEquals(CharacterStateSetType.DNA, tokenSet.getSetType());
+		
+		SingleTokenDefinitionEvent token = (SingleTokenDefinitionEvent)encodeAndDecode(new SingleTokenDefinitionEvent("t1", "label", "R", 
+				CharacterSymbolMeaning.CHARACTER_STATE, CharacterSymbolType.UNCERTAIN, Arrays.asList("A", "G")));
+		assertEquals("R", token.getTokenName());
+		assertEquals(CharacterSymbolMeaning.CHARACTER_STATE, token.getMeaning());
+		assertEquals(CharacterSymbolType.UNCERTAIN, token.getTokenType());
+		assertEquals(Arrays.asList("A", "G"), new ArrayList<String>(token.getConstituents()));
+	}
+	
+	
+	@Test
+	public void test_metadataEvents() throws Exception {
+		QName predicate = new QName("http://example.org/", "predicate", "ex");
+		LiteralMetadataEvent literal = (LiteralMetadataEvent)encodeAndDecode(new LiteralMetadataEvent("m1", null, 
+				new URIOrStringIdentifier(null, predicate), "alt", new URIOrStringIdentifier("type", null), LiteralContentSequenceType.SIMPLE));
+		assertEquals(predicate, literal.getPredicate().getURI());
+		assertEquals("ex", literal.getPredicate().getURI().getPrefix());
+		assertNull(literal.getPredicate().getStringRepresentation());
+		assertEquals("alt", literal.getAlternativeStringValue());
+		assertEquals("type", literal.getOriginalType().getStringRepresentation());
+		assertEquals(LiteralContentSequenceType.SIMPLE, literal.getSequenceType());
+		
+		LiteralMetadataContentEvent content = (LiteralMetadataContentEvent)encodeAndDecode(new LiteralMetadataContentEvent(new BigInteger("12"), "12"));
+		assertEquals(new BigInteger("12"), content.getObjectValue());
+		assertEquals("12", content.getStringValue());
+		
+		content = (LiteralMetadataContentEvent)encodeAndDecode(new LiteralMetadataContentEvent("part", true));
+		assertNull(content.getObjectValue());
+		assertTrue(content.isContinuedInNextEvent());
+		
+		XMLEventFactory factory = XMLEventFactory.newInstance();
+		content = (LiteralMetadataContentEvent)encodeAndDecode(new LiteralMetadataContentEvent(
+				factory.createStartElement(new QName("http://example.org/", "element", "ex"), 
+						Arrays.asList(factory.createAttribute("a", "1")).iterator(), null), false));
+		XMLEvent xmlEvent = (XMLEvent)content.getObjectValue();
+		assertTrue(xmlEvent.isStartElement());
+		assertEquals(new QName("http://example.org/", "element"), xmlEvent.asStartElement().getName());
+		assertEquals("1", xmlEvent.asStartElement().getAttributeByName(new QName("a")).getValue());
+		
+		ResourceMetadataEvent resource = (ResourceMetadataEvent)encodeAndDecode(new ResourceMetadataEvent("m2", null, 
+				new URIOrStringIdentifier("rel", null), new URI("http://example.org/resource"), null));
+		assertEquals(new URI("http://example.org/resource"), resource.getHRef());
+		assertNull(resource.getAbout());
+	}
+	
+	
+	@Test(expected=NotSerializableException.class)
+	public void test_unsupportedObjectValue() throws IOException {
+		encodeAndDecode(new LiteralMetadataContentEvent(new Object(), null));
+	}
+	
+	
+	@Test
+	public void test_translatedObjectValues() throws IOException {
+		GregorianCalendar calendar = new GregorianCalendar(TimeZone.getTimeZone("GMT+02:00"));
+		calendar.setTimeInMillis(1000);
+		Object[] values = {calendar, new Color(10, 20, 30, 40), Arrays.<Object>asList("a", 2.5, new BigInteger("3"))};
+		for (Object value : values) {
+			assertEquals(value, ((LiteralMetadataContentEvent)encodeAndDecode(new LiteralMetadataContentEvent(value, null))).getObjectValue());
+		}
+		
+		byte[] bytes = {1, 2, -3};
+		assertArrayEquals(bytes, 
+				(byte[])((LiteralMetadataContentEvent)encodeAndDecode(new LiteralMetadataContentEvent(bytes, null))).getObjectValue());
+	}
+	
+	
+	@Test(expected=NotSerializableException.class)
+	public void test_nestedListValue() throws IOException {
+		encodeAndDecode(new LiteralMetadataContentEvent(Arrays.asList("a", Arrays.asList("b")), null));
+	}
+	
+	
+	@Test
+	public void test_serializableObjectValue() throws IOException {
+		Date date = new Date(1000);
+		LiteralMetadataContentEvent content = (LiteralMetadataContentEvent)encodeAndDecode(new BinaryEventCodec(true), 
+				new LiteralMetadataContentEvent(date, null));
+		assertEquals(date, content.getObjectValue());
+		
+		try {
+			encodeAndDecode(new LiteralMetadataContentEvent(date, null));
+			fail("Exception not thrown.");
+		}
+		catch (NotSerializableException e) {}
+	}
+	
+	
+	@Test(expected=StreamCorruptedException.class)
+	public void test_serializedObjectValueNotSupported() throws IOException {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		DataOutputStream output = new DataOutputStream(bytes);
+		new BinaryEventCodec(true).writeEvent(output, new LiteralMetadataContentEvent(new Date(1000), null));
+		output.flush();
+		
+		new BinaryEventCodec().readEvent(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+	}
+	
+	
+	@Test(expected=StreamCorruptedException.class)
+	public void test_invalidVarLong() throws IOException {
+		byte[] bytes = new byte[10];
+		Arrays.fill(bytes, (byte)0xFF);
+		bytes[9] = 0x7F;
+		BinaryEventCodec.readVarLong(new DataInputStream(new ByteArrayInputStream(bytes)));
+	}
+}
@@ -0,0 +1,71 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import java.util.Arrays;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class CompactTokenSequenceTest {
+	@Test
+	public void test_add() {
+		CompactTokenSequence sequence = new CompactTokenSequence();
+		sequence.addCharacters("AC");
+		sequence.add("{GT}");
+		sequence.addAll(Arrays.asList("T", "Ā", "\u0000"));
+		
+		assertEquals(6, sequence.size());
+		assertEquals("A", sequence.get(0));
+		assertEquals("C", sequence.get(1));
+		assertEquals("{GT}", sequence.get(2));
+		assertEquals(-1, sequence.getCharacter(2));
+		assertEquals('T', sequence.getCharacter(3));
+		assertEquals("Ā", sequence.get(4));
+		assertEquals(0, sequence.getCharacter(5));
+		assertEquals(Arrays.asList("A", "C", "{GT}", "T", "Ā", "\u0000"), sequence.asList());
+	}
+	
+	
+	@Test
+	public void test_pages() {
+		CompactTokenSequence sequence = new CompactTokenSequence();
+		StringBuilder characters = new StringBuilder();
+		for (int i = 0; i < CompactTokenSequence.PAGE_SIZE + 10; i++) {
+			characters.append("ACGT".charAt(i % 4));
+		}
+		sequence.addCharacters(characters);
+		
+		assertEquals(CompactTokenSequence.PAGE_SIZE + 10, sequence.size());
+		assertEquals("ACGT".charAt(CompactTokenSequence.PAGE_SIZE % 4), sequence.getCharacter(CompactTokenSequence.PAGE_SIZE));
+		assertEquals("ACGT".charAt((CompactTokenSequence.PAGE_SIZE + 9) % 4), sequence.getCharacter(CompactTokenSequence.PAGE_SIZE + 9));
+	}
+	
+	
+	@Test(expected=IndexOutOfBoundsException.class)
+	public void test_get_outOfBounds() {
+		CompactTokenSequence sequence = new CompactTokenSequence();
+		sequence.addCharacters("AC");
+		sequence.get(2);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import java.util.Iterator;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class LongIntervalMapTest {
+	private void assertInterval(long start, long end, String value, LongIntervalMap.Interval<String> interval) {
+		assertEquals(start, interval.getStart());
+		assertEquals(end, interval.getEnd());
+		assertEquals(value, interval.getValue());
+	}
+	
+	
+	@Test
+	public void test_put() {
+		LongIntervalMap<String> map = new LongIntervalMap<String>();
+		map.put(0, 10, "A");
+		map.put(10, 20, "A");  // Merged with the previous interval
+		map.put(5, 8, "B");
+		map.put(30, "C");
+		
+		assertEquals(4, map.getIntervalCount());
+		Iterator<LongIntervalMap.Interval<String>> iterator = map.getIntervals().iterator();
+		assertInterval(0, 5, "A", iterator.next());
+		assertInterval(5, 8, "B", iterator.next());
+		assertInterval(8, 20, "A", iterator.next());
+		assertInterval(30, 31, "C", iterator.next());
+		assertFalse(iterator.hasNext());
+		
+		assertEquals("A", map.get(4));
+		assertEquals("B", map.get(5));
+		assertEquals("A", map.get(19));
+		assertNull(map.get(20));
+		assertTrue(map.containsKey(30));
+		assertFalse(map.containsKey(31));
+		assertFalse(map.containsKey(-1));
+		
+		map.put(3, 25, "A");
+		assertEquals(2, map.getIntervalCount());
+		assertEquals("A", map.get(6));
+	}
+	
+	
+	@Test
+	public void test_remove() {
+		LongIntervalMap<String> map = new LongIntervalMap<String>();
+		map.put(0, 10, "A");
+		map.put(10, 20, "B");
+		map.put(20, 30, "C");
+		map.remove(5, 25);
+		
+		assertEquals(2, map.getIntervalCount());
+		Iterator<LongIntervalMap.Interval<String>> iterator = map.getIntervals().iterator();
+		assertInterval(0, 5, "A", iterator.next());
+		assertInterval(25, 30, "C", iterator.next());
+		
+		map.remove(1, 2);
+		assertEquals(3, map.getIntervalCount());
+		assertTrue(map.containsKey(0));
+		assertFalse(map.containsKey(1));
+		assertTrue(map.containsKey(2));
+	}
+	
+	
+	@Test
+	public void test_fill() {
+		LongIntervalMap<String> map = new LongIntervalMap<String>();
+		map.put(2, 4, "A");
+		map.put(6, 8, "B");
+		
+		assertTrue(map.fill(0, 10, "C"));
+		assertEquals(5, map.getIntervalCount());
+		assertEquals("C", map.get(0));
+		assertEquals("A", map.get(3));
+		assertEquals("C", map.get(5));
+		assertEquals("B", map.get(7));
+		assertEquals("C", map.get(9));
+		assertFalse(map.fill(1, 10, "D"));
+	}
+	
+	
+	@Test
+	public void test_findFirstContainedIndex() {
+		LongIntervalMap<String> map = new LongIntervalMap<String>();
+		map.put(5, 10, "A");
+		
+		assertEquals(-1, map.findFirstContainedIndex(0, 5));
+		assertEquals(5, map.findFirstContainedIndex(0, 6));
+		assertEquals(7, map.findFirstContainedIndex(7, 20));
+		assertEquals(-1, map.findFirstContainedIndex(10, 20));
+	}
+	
+	
+	@Test
+	public void test_largeIndices() {
+		LongIntervalSet set = new LongIntervalSet();
+		set.add(0, 10000000000L);
+		set.add(20000000000L);
+		
+		assertEquals(2, set.getIntervalCount());
+		assertEquals(10000000001L, set.size());
+		assertTrue(set.contains(9999999999L));
+		assertFalse(set.contains(10000000000L));
+		assertTrue(set.contains(20000000000L));
+	}
+}
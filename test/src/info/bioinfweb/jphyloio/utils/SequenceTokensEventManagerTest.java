@@ -0,0 +1,75 @@
+/*
+ * JPhyloIO - Event based parsing and stream writing of multiple sequence alignment and tree formats. 
+ * Copyright (C) 2015-2019  Ben Stöver, Sarah Wiechers
+ * <http://bioinfweb.info/JPhyloIO>
+ * 
+ * This file is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ * 
+ * This file is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the
+ * GNU Lesser General Public License for more details.
+ * 
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package info.bioinfweb.jphyloio.utils;
+
+
+import info.bioinfweb.jphyloio.ReadWriteParameterMap;
+import info.bioinfweb.jphyloio.events.SequenceTokensEvent;
+import info.bioinfweb.jphyloio.formats.fasta.FASTAEventReader;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.* ;
+
+import static org.junit.Assert.* ;
+
+
+
+public class SequenceTokensEventManagerTest {
+	private SequenceTokensEventManager createManager() throws Exception {
+		return new SequenceTokensEventManager(new FASTAEventReader(new StringReader(""), new ReadWriteParameterMap()), ".");
+	}
+
+
+	@Test
+	public void test_createEvent_characterTokens() throws Exception {
+		SequenceTokensEventManager manager = createManager();
+
+		SequenceTokensEvent event = manager.createEvent("seq1", "ACGT");
+		assertTrue(event.hasSingleCharacterTokens());
+		assertEquals("ACGT", event.getCharacterTokens());
+		assertEquals(Arrays.asList("A", "C", "G", "T"), event.getTokens());
+
+		event = manager.createEvent("seq2", "A.-.");
+		assertTrue(event.hasSingleCharacterTokens());
+		assertEquals("AC-T", event.getCharacterTokens());
+		assertEquals(4, event.getTokenCount());
+		assertEquals(4, manager.getCurrentPosition());
+
+		event = manager.createEvent("seq3", "TTGA");
+		assertEquals("TTGA", event.getCharacterTokens());
+	}
+
+
+	@Test
+	public void test_createEvent_mixedTokens() throws Exception {
+		SequenceTokensEventManager manager = createManager();
+
+		List<String> tokens = new ArrayList<String>(Arrays.asList("A", "{CG}", "T"));
+		manager.createEvent("seq1", tokens);
+
+		SequenceTokensEvent event = manager.createEvent("seq2", "..G");
+		assertFalse(event.hasSingleCharacterTokens());
+		assertEquals(Arrays.asList("A", "{CG}", "G"), event.getTokens());
+		assertEquals(3, manager.getCurrentPosition());
+	}
+}